@@ -0,0 +1,124 @@
+package com.example.donasimakanan;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.donasimakanan.manager.DonationManager;
+import com.example.donasimakanan.model.Donation;
+import com.example.donasimakanan.model.Food;
+import com.example.donasimakanan.model.Restaurant;
+import com.example.donasimakanan.model.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import io.realm.Realm;
+import io.realm.RealmConfiguration;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Membandingkan throughput commit keranjang donasi (satu transaksi) dengan addDonation berurutan.
+ * Hasil ditulis ke logcat dengan tag "DonationCartBenchmark".
+ */
+@RunWith(AndroidJUnit4.class)
+public class DonationCartBenchmark {
+
+    private static final String TAG = "DonationCartBenchmark";
+    private static final String USER_ID = "cart-user";
+    private static final String RESTAURANT_ID = "cart-resto";
+    private static final int FOODS = 100;
+    private static final int ROUNDS = 20;
+
+    private RealmConfiguration originalConfig;
+    private RealmConfiguration config;
+    private Realm realm;
+    private DonationManager donationManager;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        // Manager memakai konfigurasi default, jadi diarahkan sementara ke file benchmark
+        originalConfig = Realm.getDefaultConfiguration();
+        config = new RealmConfiguration.Builder()
+                .name("cart-benchmark.realm")
+                .schemaVersion(DatabaseMigration.SCHEMA_VERSION)
+                .build();
+        Realm.deleteRealm(config);
+        Realm.setDefaultConfiguration(config);
+
+        realm = DatabaseManager.getInstance().acquireRealm();
+        realm.executeTransaction(r -> {
+            Restaurant restaurant = r.createObject(Restaurant.class, RESTAURANT_ID);
+            restaurant.setName("Resto Benchmark");
+            restaurant.setAddress("-");
+
+            User user = r.createObject(User.class, USER_ID);
+            user.setEmail("cart@mail.com");
+            user.setPassword("password");
+            user.setFullName("Cart User");
+            user.setBalance(Integer.MAX_VALUE / 2);
+
+            for (int i = 0; i < FOODS; i++) {
+                Food food = r.createObject(Food.class, "cart-food-" + i);
+                food.setName("Makanan " + i);
+                food.setStock(1_000_000);
+                food.setPrice(1);
+                food.setPoint(1);
+                food.setRestaurant(RESTAURANT_ID);
+            }
+        });
+        donationManager = new DonationManager(context);
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseManager.getInstance().releaseRealm();
+        Realm.setDefaultConfiguration(originalConfig);
+        Realm.deleteRealm(config);
+    }
+
+    @Test
+    public void cartCommitThroughput() {
+        long expectedDonations = 0;
+        for (int size : new int[]{1, 10, 100}) {
+            List<DonationManager.CartItem> cart = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                cart.add(new DonationManager.CartItem("cart-food-" + (i % FOODS), 1, null));
+            }
+
+            long start = System.nanoTime();
+            for (int round = 0; round < ROUNDS; round++) {
+                donationManager.addDonations(USER_ID, RESTAURANT_ID, cart);
+            }
+            long cartNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int round = 0; round < ROUNDS; round++) {
+                for (DonationManager.CartItem item : cart) {
+                    donationManager.addDonation(USER_ID, item.getFoodId(), item.getQuantity(), RESTAURANT_ID, item.getDescription());
+                }
+            }
+            long sequentialNanos = System.nanoTime() - start;
+
+            double items = (double) size * ROUNDS;
+            double cartRate = items / (cartNanos / 1e9);
+            double sequentialRate = items / (sequentialNanos / 1e9);
+            Log.i(TAG, String.format(Locale.US,
+                    "keranjang %3d item: %.0f item/detik (1 transaksi) vs %.0f item/detik (berurutan), %.1fx",
+                    size, cartRate, sequentialRate, cartRate / sequentialRate));
+            expectedDonations += 2L * size * ROUNDS;
+        }
+
+        assertEquals(expectedDonations, realm.where(Donation.class).count());
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.donasimakanan;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.donasimakanan.manager.ExportManager;
+import com.example.donasimakanan.model.Donation;
+import com.example.donasimakanan.util.ExportWriter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import io.realm.Realm;
+import io.realm.RealmConfiguration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Mengekspor 1 juta baris Donation dari Realm ke CSV dan JSON lewat ExportManager.
+ * Throughput dan pertumbuhan heap ditulis ke logcat dengan tag "DonationExportBenchmark".
+ */
+@RunWith(AndroidJUnit4.class)
+public class DonationExportBenchmark {
+
+    private static final String TAG = "DonationExportBenchmark";
+    private static final int ROWS = 1_000_000;
+    private static final int INSERT_BATCH = 50_000;
+
+    private RealmConfiguration originalConfig;
+    private RealmConfiguration config;
+    private File directory;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        // Manager memakai konfigurasi default, jadi diarahkan sementara ke file benchmark
+        originalConfig = Realm.getDefaultConfiguration();
+        config = new RealmConfiguration.Builder()
+                .name("export-benchmark.realm")
+                .schemaVersion(DatabaseMigration.SCHEMA_VERSION)
+                .build();
+        Realm.deleteRealm(config);
+        Realm.setDefaultConfiguration(config);
+        directory = new File(context.getCacheDir(), "export-benchmark");
+        assertTrue(directory.isDirectory() || directory.mkdirs());
+
+        Realm realm = DatabaseManager.getInstance().acquireRealm();
+        try {
+            long baseTime = System.currentTimeMillis() - ROWS * 1000L;
+            for (int offset = 0; offset < ROWS; offset += INSERT_BATCH) {
+                int from = offset;
+                realm.executeTransaction(r -> {
+                    List<Donation> batch = new ArrayList<>(INSERT_BATCH);
+                    for (int i = from; i < from + INSERT_BATCH; i++) {
+                        Donation donation = new Donation("donation-" + i, "food-" + (i % 100), "user-" + (i % 1_000),
+                                "resto-" + (i % 20), "Paket Nasi " + (i % 100), i % 10 == 0 ? "catatan, dengan koma" : null,
+                                1 + i % 5, 10);
+                        donation.setDonationDate(new Date(baseTime + i * 1000L));
+                        batch.add(donation);
+                    }
+                    r.insert(batch);
+                });
+            }
+        } finally {
+            DatabaseManager.getInstance().releaseRealm();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        Realm.setDefaultConfiguration(originalConfig);
+        Realm.deleteRealm(config);
+    }
+
+    @Test
+    public void exportMillionDonations() throws IOException {
+        ExportManager exportManager = new ExportManager();
+        for (ExportWriter.Format format : ExportWriter.Format.values()) {
+            File file = new File(directory, "donations." + format.name().toLowerCase(Locale.ROOT));
+            Runtime runtime = Runtime.getRuntime();
+            long[] peakHeap = {runtime.totalMemory() - runtime.freeMemory()};
+            long heapBefore = peakHeap[0];
+
+            ExportManager.Report report = exportManager.exportDonations(null, file, format, (written, total) -> {
+                peakHeap[0] = Math.max(peakHeap[0], runtime.totalMemory() - runtime.freeMemory());
+                return true;
+            });
+
+            assertEquals(ROWS, report.getRows());
+            assertEquals(report.getBytes(), file.length());
+            Log.i(TAG, String.format(Locale.US, "%s: %d baris, %.1f MB, %.0f baris/detik, heap naik %.1f MB",
+                    format, report.getRows(), report.getBytes() / 1e6, report.getRowsPerSecond(),
+                    (peakHeap[0] - heapBefore) / 1e6));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.donasimakanan;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.donasimakanan.manager.DonationManager;
+import com.example.donasimakanan.manager.LedgerManager;
+import com.example.donasimakanan.manager.RewardManager;
+import com.example.donasimakanan.manager.UserManager;
+import com.example.donasimakanan.model.Food;
+import com.example.donasimakanan.model.LedgerAccount;
+import com.example.donasimakanan.model.LedgerEntry;
+import com.example.donasimakanan.model.Restaurant;
+import com.example.donasimakanan.model.Reward;
+import com.example.donasimakanan.model.User;
+import com.example.donasimakanan.util.SessionManager;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Locale;
+
+import io.realm.Realm;
+import io.realm.RealmConfiguration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Menjalankan top up, donasi dan penukaran hadiah lewat manager, lalu memastikan saldo dan poin
+ * hasil rekonstruksi ledger sama dengan field User, snapshot terus maju, dan selisih terdeteksi rekonsiliasi.
+ */
+@RunWith(AndroidJUnit4.class)
+public class LedgerReconciliationTest {
+
+    private static final String TAG = "LedgerReconciliationTest";
+    private static final String USER_ID = "ledger-user";
+    private static final String RESTAURANT_ID = "ledger-resto";
+    private static final int ROUNDS = 500;
+
+    private RealmConfiguration originalConfig;
+    private RealmConfiguration config;
+    private SessionManager sessionManager;
+    private Realm realm;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        // Manager memakai konfigurasi default, jadi diarahkan sementara ke file uji
+        originalConfig = Realm.getDefaultConfiguration();
+        config = new RealmConfiguration.Builder()
+                .name("ledger-test.realm")
+                .schemaVersion(DatabaseMigration.SCHEMA_VERSION)
+                .build();
+        Realm.deleteRealm(config);
+        Realm.setDefaultConfiguration(config);
+
+        realm = DatabaseManager.getInstance().acquireRealm();
+        realm.executeTransaction(r -> {
+            Restaurant restaurant = r.createObject(Restaurant.class, RESTAURANT_ID);
+            restaurant.setName("Resto Ledger");
+            restaurant.setAddress("-");
+
+            User user = r.createObject(User.class, USER_ID);
+            user.setEmail("ledger@mail.com");
+            user.setPassword("password");
+            user.setFullName("Ledger User");
+
+            Food food = r.createObject(Food.class, "ledger-food");
+            food.setName("Nasi Box");
+            food.setStock(1_000_000);
+            food.setPrice(15_000);
+            food.setPoint(3);
+            food.setRestaurant(RESTAURANT_ID);
+
+            r.copyToRealm(new Reward("ledger-reward", USER_ID, "Voucher", "-", 10, 1_000_000));
+        });
+        sessionManager = SessionManager.getInstance(context);
+        sessionManager.createLoginSession(USER_ID, "ledger@mail.com", "Ledger User");
+    }
+
+    @After
+    public void tearDown() {
+        sessionManager.logout();
+        DatabaseManager.getInstance().releaseRealm();
+        Realm.setDefaultConfiguration(originalConfig);
+        Realm.deleteRealm(config);
+    }
+
+    @Test
+    public void ledgerMatchesUserAndDetectsDrift() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        UserManager userManager = new UserManager(context);
+        DonationManager donationManager = new DonationManager(context);
+        RewardManager rewardManager = new RewardManager(context);
+        LedgerManager ledgerManager = new LedgerManager();
+
+        for (int round = 0; round < ROUNDS; round++) {
+            userManager.addBalance(50_000);
+            donationManager.addDonation(USER_ID, "ledger-food", 1 + round % 3, RESTAURANT_ID, null);
+            if (round % 5 == 4) assertTrue(rewardManager.redeemReward("ledger-reward"));
+        }
+
+        User user = userManager.getUserById(USER_ID);
+        LedgerAccount account = realm.where(LedgerAccount.class).equalTo("userId", USER_ID).findFirst();
+        LedgerManager.Balance balance = ledgerManager.getLedgerBalance(USER_ID);
+        assertEquals(user.getBalance(), balance.getBalance());
+        assertEquals(user.getTotalPoints(), balance.getPoints());
+        assertEquals(0, balance.getMissingEntries());
+        assertEquals(realm.where(LedgerEntry.class).equalTo("userId", USER_ID).count(), account.getHeadSequence());
+        // Rekonstruksi hanya memutar ulang entri sejak snapshot terakhir, bukan seluruh riwayat
+        assertTrue(balance.getEntriesReplayed() < 100);
+        Log.i(TAG, String.format(Locale.US, "%d entri, snapshot di entri %d, rekonstruksi memutar ulang %d entri",
+                account.getHeadSequence(), account.getSnapshotSequence(), balance.getEntriesReplayed()));
+
+        assertEquals(0, ledgerManager.reconcile().getMismatchCount());
+
+        // Perubahan langsung ke User tanpa entri ledger harus terdeteksi
+        realm.executeTransaction(r -> user.setBalance(user.getBalance() + 1));
+        LedgerManager.Report report = ledgerManager.reconcile();
+        assertEquals(1, report.getMismatchCount());
+        assertEquals(USER_ID, report.getMismatches().get(0));
+    }
+}
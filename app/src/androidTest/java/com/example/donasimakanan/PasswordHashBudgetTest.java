@@ -0,0 +1,50 @@
+package com.example.donasimakanan;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.donasimakanan.util.Pbkdf2PasswordHasher;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Memastikan verifikasi password dengan cost PBKDF2 bawaan muat dalam target waktu login di perangkat,
+ * dan kalibrasi di perangkat yang sama tidak menghasilkan cost di bawah bawaan.
+ * Median dan hasil kalibrasi ditulis ke logcat dengan tag "PasswordHashBudgetTest".
+ */
+@RunWith(AndroidJUnit4.class)
+public class PasswordHashBudgetTest {
+
+    private static final String TAG = "PasswordHashBudgetTest";
+    private static final int SAMPLES = 9;
+
+    @Test
+    public void defaultCostStaysWithinLoginBudget() {
+        Pbkdf2PasswordHasher hasher = new Pbkdf2PasswordHasher();
+        String stored = hasher.hash("password");
+        // Pemanasan JIT sebelum diukur
+        hasher.verify("password", stored);
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            assertTrue(hasher.verify("password", stored));
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        double medianMillis = samples[samples.length / 2] / 1e6;
+        int calibrated = Pbkdf2PasswordHasher.calibrate(Pbkdf2PasswordHasher.TARGET_LOGIN_MILLIS);
+
+        Log.i(TAG, String.format(Locale.US, "PBKDF2 %d iterasi: median %.1f ms; kalibrasi %d ms: %d iterasi",
+                Pbkdf2PasswordHasher.DEFAULT_ITERATIONS, medianMillis, Pbkdf2PasswordHasher.TARGET_LOGIN_MILLIS,
+                calibrated));
+        assertTrue("kalibrasi " + calibrated, Pbkdf2PasswordHasher.DEFAULT_ITERATIONS <= calibrated);
+        assertTrue("median " + medianMillis + " ms", medianMillis <= Pbkdf2PasswordHasher.TARGET_LOGIN_MILLIS);
+    }
+}
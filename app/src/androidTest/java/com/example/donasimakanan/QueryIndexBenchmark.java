@@ -0,0 +1,200 @@
+package com.example.donasimakanan;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.donasimakanan.model.Donation;
+import com.example.donasimakanan.model.Food;
+import com.example.donasimakanan.model.Reward;
+import com.example.donasimakanan.model.User;
+import com.example.donasimakanan.model.UserRewardExchange;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+import io.realm.DynamicRealm;
+import io.realm.Realm;
+import io.realm.RealmConfiguration;
+import io.realm.RealmSchema;
+import io.realm.Sort;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Benchmark latensi query manager dengan dan tanpa index.
+ * Hasil p50/p99 ditulis ke logcat dengan tag "QueryIndexBenchmark".
+ */
+@RunWith(AndroidJUnit4.class)
+public class QueryIndexBenchmark {
+
+    private static final String TAG = "QueryIndexBenchmark";
+    private static final int DONATIONS = 100_000;
+    private static final int FOODS = 10_000;
+    private static final int USERS = 10_000;
+    private static final int RESTAURANTS = 500;
+    private static final int EXCHANGES = 20_000;
+    private static final int REWARDS = 1_000;
+    private static final int BATCH = 10_000;
+    private static final int ITERATIONS = 200;
+
+    private RealmConfiguration config;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        Realm.init(context);
+        config = new RealmConfiguration.Builder()
+                .name("index-benchmark.realm")
+                .schemaVersion(DatabaseMigration.SCHEMA_VERSION)
+                .build();
+        Realm.deleteRealm(config);
+        seed();
+    }
+
+    @After
+    public void tearDown() {
+        Realm.deleteRealm(config);
+    }
+
+    @Test
+    public void compareIndexedAndUnindexedQueries() {
+        Map<String, long[]> indexed = runQueries();
+        dropIndexes();
+        Map<String, long[]> unindexed = runQueries();
+
+        for (String query : indexed.keySet()) {
+            long[] with = indexed.get(query);
+            long[] without = unindexed.get(query);
+            Log.i(TAG, String.format(Locale.US,
+                    "%-22s index p50=%.3fms p99=%.3fms | tanpa index p50=%.3fms p99=%.3fms",
+                    query, millis(with, 0.50), millis(with, 0.99), millis(without, 0.50), millis(without, 0.99)));
+        }
+        assertEquals(indexed.keySet(), unindexed.keySet());
+    }
+
+    
+    private void seed() {
+        try (Realm realm = Realm.getInstance(config)) {
+            realm.executeTransaction(r -> {
+                // Hash dihitung sekali dan dipakai semua pengguna; KDF per pengguna akan mendominasi waktu seed
+                String passwordHash = User.hashPassword("password");
+                List<User> users = new ArrayList<>();
+                for (int i = 0; i < USERS; i++) {
+                    User user = new User();
+                    user.setUserId("user-" + i);
+                    user.setEmail("user" + i + "@mail.com");
+                    user.setPasswordHash(passwordHash);
+                    user.setFullName("User " + i);
+                    users.add(user);
+                }
+                r.insert(users);
+
+                List<Reward> rewards = new ArrayList<>();
+                for (int i = 0; i < REWARDS; i++) {
+                    rewards.add(new Reward("reward-" + i, "admin", "Reward " + i, "", 100 + i, i % 10));
+                }
+                r.insert(rewards);
+            });
+
+            for (int start = 0; start < FOODS; start += BATCH) {
+                final int from = start;
+                realm.executeTransaction(r -> {
+                    List<Food> foods = new ArrayList<>();
+                    for (int i = from; i < Math.min(from + BATCH, FOODS); i++) {
+                        foods.add(new Food("Makanan " + i, "", 100, "resto-" + (i % RESTAURANTS), 10));
+                    }
+                    r.insert(foods);
+                });
+            }
+
+            for (int start = 0; start < DONATIONS; start += BATCH) {
+                final int from = start;
+                realm.executeTransaction(r -> {
+                    List<Donation> donations = new ArrayList<>();
+                    for (int i = from; i < Math.min(from + BATCH, DONATIONS); i++) {
+                        donations.add(new Donation("donation-" + i, "food-" + (i % FOODS), "user-" + (i % USERS),
+                                "resto-" + (i % RESTAURANTS), "Makanan", "", 1, 10));
+                    }
+                    r.insert(donations);
+                });
+            }
+
+            realm.executeTransaction(r -> {
+                List<UserRewardExchange> exchanges = new ArrayList<>();
+                for (int i = 0; i < EXCHANGES; i++) {
+                    exchanges.add(new UserRewardExchange("exchange-" + i, "user-" + (i % USERS), "reward-" + (i % REWARDS), 100));
+                }
+                r.insert(exchanges);
+            });
+        }
+    }
+
+    // Query dijalankan lewat DynamicRealm agar kedua putaran memakai jalur yang sama persis
+    private Map<String, long[]> runQueries() {
+        Map<String, long[]> results = new LinkedHashMap<>();
+        try (DynamicRealm realm = DynamicRealm.getInstance(config)) {
+            results.put("getUserDonation", measure(i ->
+                    realm.where("Donation").equalTo("userId", "user-" + (i % USERS)).findAll().size()));
+            results.put("getFoodByRestaurantId", measure(i ->
+                    realm.where("Food").equalTo("restaurantId", "resto-" + (i % RESTAURANTS)).findAll().size()));
+            results.put("getUserByEmail", measure(i ->
+                    realm.where("User").equalTo("email", "user" + (i % USERS) + "@mail.com")
+                            .equalTo("isActive", true).findFirst()));
+            results.put("getUserRewards", measure(i ->
+                    realm.where("UserRewardExchange").equalTo("userId", "user-" + (i % USERS))
+                            .sort("redeemedDate", Sort.DESCENDING).findAll().size()));
+            results.put("getAllActiveRewards", measure(i ->
+                    realm.where("Reward").greaterThan("stock", 0)
+                            .sort("pointsRequired", Sort.ASCENDING).findAll().size()));
+        }
+        return results;
+    }
+
+    
+    private void dropIndexes() {
+        try (DynamicRealm realm = DynamicRealm.getInstance(config)) {
+            realm.executeTransaction(r -> {
+                RealmSchema schema = r.getSchema();
+                schema.get("Donation").removeIndex("userId");
+                schema.get("Food").removeIndex("restaurantId");
+                schema.get("User").removeIndex("email");
+                schema.get("UserRewardExchange").removeIndex("userId");
+            });
+        }
+    }
+
+    
+    private static long[] measure(IntConsumer query) {
+        // Pemanasan agar JIT dan cache halaman tidak ikut terukur
+        for (int i = 0; i < 20; i++) {
+            query.accept(i);
+        }
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            query.accept(i * 7919);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    
+    private static double millis(long[] sortedSamples, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedSamples.length) - 1;
+        return sortedSamples[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
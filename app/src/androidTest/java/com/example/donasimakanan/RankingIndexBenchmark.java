@@ -0,0 +1,75 @@
+package com.example.donasimakanan;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.donasimakanan.util.RankingIndex;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Benchmark RankingIndex untuk leaderboard 100k pengguna: update skor, top-k dan rankOf.
+ * Hasil p50/p99 ditulis ke logcat dengan tag "RankingIndexBenchmark".
+ */
+@RunWith(AndroidJUnit4.class)
+public class RankingIndexBenchmark {
+
+    private static final String TAG = "RankingIndexBenchmark";
+    private static final int USERS = 100_000;
+    private static final int UPDATES = 200_000;
+    private static final int QUERIES = 10_000;
+    private static final int TOP_K = 20;
+
+    @Test
+    public void ranking100kUsers() {
+        Random random = new Random(7);
+        RankingIndex index = new RankingIndex();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < USERS; i++) {
+            index.update("user-" + i, random.nextInt(10_000));
+        }
+        long buildNanos = System.nanoTime() - start;
+
+        // Simulasi donasi: skor satu pengguna naik sedikit setiap kali
+        long[] updateSamples = new long[UPDATES];
+        for (int i = 0; i < UPDATES; i++) {
+            String id = "user-" + random.nextInt(USERS);
+            long t = System.nanoTime();
+            index.update(id, index.scoreOf(id) + 1 + random.nextInt(20));
+            updateSamples[i] = System.nanoTime() - t;
+        }
+
+        long[] topSamples = new long[QUERIES];
+        long[] rankSamples = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            long t = System.nanoTime();
+            index.top(TOP_K);
+            topSamples[i] = System.nanoTime() - t;
+
+            t = System.nanoTime();
+            index.rankOf("user-" + random.nextInt(USERS));
+            rankSamples[i] = System.nanoTime() - t;
+        }
+
+        Log.i(TAG, String.format(Locale.US, "build %d pengguna: %.1fms", USERS, buildNanos / 1e6));
+        Log.i(TAG, summary("update", updateSamples));
+        Log.i(TAG, summary("top" + TOP_K, topSamples));
+        Log.i(TAG, summary("rankOf", rankSamples));
+        assertEquals(USERS, index.size());
+    }
+
+    private static String summary(String name, long[] samples) {
+        Arrays.sort(samples);
+        return String.format(Locale.US, "%-7s p50=%.2fus p99=%.2fus",
+                name, samples[samples.length / 2] / 1e3, samples[(int) (samples.length * 0.99)] / 1e3);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.donasimakanan;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.donasimakanan.util.NGramIndex;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Benchmark NGramIndex untuk katalog 50k item dengan query yang diketik huruf demi huruf.
+ * Hasil p50/p99 ditulis ke logcat dengan tag "SearchIndexBenchmark".
+ */
+@RunWith(AndroidJUnit4.class)
+public class SearchIndexBenchmark {
+
+    private static final String TAG = "SearchIndexBenchmark";
+    private static final int ITEMS = 50_000;
+    private static final int QUERIES = 2_000;
+    private static final String[] WORDS = {
+            "nasi", "ayam", "bakar", "goreng", "telur", "tempe", "sayur", "soto", "bakso", "mie",
+            "roti", "donat", "cokelat", "keju", "salad", "buah", "sambal", "madu", "kuning", "komplit",
+            "warung", "dapur", "restoran", "bakery", "berkah", "sehat", "ibu", "jl.", "malioboro", "gejayan"
+    };
+
+    @Test
+    public void search50kItems() {
+        Random random = new Random(11);
+        NGramIndex<String> index = new NGramIndex<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITEMS; i++) {
+            index.put("item-" + i, randomText(random), "item-" + i);
+        }
+        long buildNanos = System.nanoTime() - start;
+
+        long[] samples = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            // Simulasi mengetik: panjang query 1 sampai panjang kata penuh
+            String query = word.substring(0, 1 + random.nextInt(word.length()));
+            long t = System.nanoTime();
+            index.search(query, 30);
+            samples[i] = System.nanoTime() - t;
+        }
+        Arrays.sort(samples);
+        Log.i(TAG, String.format(Locale.US, "build %d item: %.1fms, search p50=%.3fms p99=%.3fms",
+                ITEMS, buildNanos / 1e6, samples[QUERIES / 2] / 1e6, samples[(int) (QUERIES * 0.99)] / 1e6));
+        assertEquals(ITEMS, index.size());
+    }
+
+    private static String randomText(Random random) {
+        StringBuilder builder = new StringBuilder();
+        int words = 4 + random.nextInt(8);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) builder.append(' ');
+            builder.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return builder.toString();
+    }
+}
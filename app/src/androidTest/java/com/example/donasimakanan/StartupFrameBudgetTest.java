@@ -0,0 +1,133 @@
+package com.example.donasimakanan;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.donasimakanan.model.Restaurant;
+import com.example.donasimakanan.model.User;
+import com.example.donasimakanan.util.SessionManager;
+import com.example.donasimakanan.util.StartupTimeline;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import io.realm.Realm;
+import io.realm.RealmConfiguration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+
+/**
+ * Membuka MainActivity dengan pengguna yang sudah login dan memastikan frame pertama HomeFragment
+ * muncul dalam anggaran waktu sejak MainActivity.onCreate, Realm UI thread dibuka hanya sebentar,
+ * serta laporan startup JSON ditulis.
+ * Timeline hanya merekam satu peluncuran per proses, jadi uji ini dilewati jika sudah selesai lebih dulu.
+ * Urutan warm-up terhadap pembukaan Realm UI thread tidak diuji di sini: warm-up berjalan saat Application
+ * dibuat, dengan konfigurasi aplikasi, sebelum setUp mengganti konfigurasi ke startup-test.realm.
+ */
+@RunWith(AndroidJUnit4.class)
+public class StartupFrameBudgetTest {
+
+    private static final String TAG = "StartupFrameBudgetTest";
+    private static final String USER_ID = "startup-user";
+    private static final int RESTAURANTS = 500;
+    // Anggaran dari MainActivity.onCreate sampai frame pertama HomeFragment, termasuk query Realm di UI thread
+    private static final long HOME_FIRST_FRAME_BUDGET_MILLIS = 800;
+    // File uji sudah dibuat di setUp, jadi Realm UI thread hanya membuka file tanpa migrasi atau compaction
+    private static final long UI_REALM_OPEN_BUDGET_MILLIS = 50;
+
+    private RealmConfiguration originalConfig;
+    private RealmConfiguration config;
+    private SessionManager sessionManager;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        originalConfig = Realm.getDefaultConfiguration();
+        config = new RealmConfiguration.Builder()
+                .name("startup-test.realm")
+                .schemaVersion(DatabaseMigration.SCHEMA_VERSION)
+                .build();
+        Realm.deleteRealm(config);
+        Realm.setDefaultConfiguration(config);
+
+        try (Realm realm = Realm.getInstance(config)) {
+            realm.executeTransaction(r -> {
+                for (int i = 0; i < RESTAURANTS; i++) {
+                    Restaurant restaurant = r.createObject(Restaurant.class, "startup-resto-" + i);
+                    restaurant.setName("Restoran " + i);
+                    restaurant.setAddress("Jl. Uji No. " + i);
+                }
+                User user = r.createObject(User.class, USER_ID);
+                user.setEmail("startup@mail.com");
+                user.setPassword("password");
+                user.setFullName("Startup User");
+            });
+        }
+        sessionManager = SessionManager.getInstance(context);
+        sessionManager.createLoginSession(USER_ID, "startup@mail.com", "Startup User");
+    }
+
+    @After
+    public void tearDown() {
+        sessionManager.logout();
+        Realm.setDefaultConfiguration(originalConfig);
+        Realm.deleteRealm(config);
+    }
+
+    @Test
+    public void homeFirstFrameStaysWithinBudget() throws Exception {
+        StartupTimeline timeline = StartupTrace.getTimeline();
+        assumeFalse("Timeline startup proses ini sudah selesai", timeline.isFinished());
+
+        File report;
+        try (ActivityScenario<MainActivity> scenario = ActivityScenario.launch(MainActivity.class)) {
+            report = StartupTrace.awaitReport(10_000);
+        }
+        assertNotNull("Laporan startup tidak ditulis", report);
+
+        long onCreate = timeline.sectionStartMillis("MainActivity.onCreate");
+        long firstFrame = timeline.markMillis(StartupTrace.HOME_FIRST_FRAME);
+        assertTrue(onCreate >= 0 && firstFrame >= onCreate);
+        long elapsed = firstFrame - onCreate;
+        Log.i(TAG, String.format(Locale.US, "MainActivity.onCreate -> frame pertama HomeFragment: %d ms (anggaran %d ms)",
+                elapsed, HOME_FIRST_FRAME_BUDGET_MILLIS));
+        assertTrue("Frame pertama HomeFragment " + elapsed + " ms", elapsed <= HOME_FIRST_FRAME_BUDGET_MILLIS);
+
+        long uiRealmOpenDuration = timeline.sectionDurationMillis(StartupTrace.MAIN_REALM_OPEN);
+        Log.i(TAG, String.format(Locale.US, "Realm UI thread dibuka selama %d ms", uiRealmOpenDuration));
+        assertTrue("Realm UI thread dibuka dalam " + uiRealmOpenDuration + " ms",
+                uiRealmOpenDuration <= UI_REALM_OPEN_BUDGET_MILLIS);
+
+        JSONObject json = new JSONObject(read(report));
+        assertEquals(firstFrame, json.getJSONObject("launch").getLong("homeFirstFrameMillis"));
+        assertEquals(uiRealmOpenDuration, json.getJSONObject("launch").getLong("uiRealmOpenMillis"));
+        assertTrue(json.getJSONArray("traceEvents").length() > 0);
+    }
+
+    // java.nio.file baru tersedia di API 26
+    private static String read(File file) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (FileInputStream in = new FileInputStream(file)) {
+            byte[] buffer = new byte[8192];
+            for (int n = in.read(buffer); n > 0; n = in.read(buffer)) bytes.write(buffer, 0, n);
+        }
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
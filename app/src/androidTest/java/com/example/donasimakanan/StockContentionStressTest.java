@@ -0,0 +1,184 @@
+package com.example.donasimakanan;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.donasimakanan.manager.DonationManager;
+import com.example.donasimakanan.model.Donation;
+import com.example.donasimakanan.model.Food;
+import com.example.donasimakanan.model.Restaurant;
+import com.example.donasimakanan.model.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.realm.Realm;
+import io.realm.RealmConfiguration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Banyak penulis sekaligus berdonasi ke satu makanan populer. Total permintaan melebihi stok,
+ * sehingga sebagian harus ditolak; stok tidak boleh negatif dan jumlah donasi harus sama dengan stok awal.
+ * Throughput ditulis ke logcat dengan tag "StockContentionStressTest".
+ */
+@RunWith(AndroidJUnit4.class)
+public class StockContentionStressTest {
+
+    private static final String TAG = "StockContentionStressTest";
+    private static final String USER_ID = "stress-user";
+    private static final String RESTAURANT_ID = "stress-resto";
+    private static final String FOOD_ID = "stress-food";
+    private static final int INITIAL_STOCK = 2_000;
+    private static final int WRITERS = 8;
+    private static final int ATTEMPTS_PER_WRITER = 400;
+
+    private RealmConfiguration originalConfig;
+    private RealmConfiguration config;
+    private Realm realm;
+    private DonationManager donationManager;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        // Manager memakai konfigurasi default, jadi diarahkan sementara ke file pengujian
+        originalConfig = Realm.getDefaultConfiguration();
+        config = new RealmConfiguration.Builder()
+                .name("stock-stress.realm")
+                .schemaVersion(DatabaseMigration.SCHEMA_VERSION)
+                .build();
+        Realm.deleteRealm(config);
+        Realm.setDefaultConfiguration(config);
+
+        realm = DatabaseManager.getInstance().acquireRealm();
+        realm.executeTransaction(r -> {
+            Restaurant restaurant = r.createObject(Restaurant.class, RESTAURANT_ID);
+            restaurant.setName("Resto Populer");
+            restaurant.setAddress("-");
+
+            User user = r.createObject(User.class, USER_ID);
+            user.setEmail("stress@mail.com");
+            user.setPassword("password");
+            user.setFullName("Stress User");
+            user.setBalance(Integer.MAX_VALUE / 2);
+
+            Food food = r.createObject(Food.class, FOOD_ID);
+            food.setName("Nasi Populer");
+            food.setStock(INITIAL_STOCK);
+            food.setPrice(1);
+            food.setPoint(1);
+            food.setRestaurant(RESTAURANT_ID);
+            restaurant.applyStockChange(0, INITIAL_STOCK);
+        });
+        donationManager = new DonationManager(context);
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseManager.getInstance().releaseRealm();
+        Realm.setDefaultConfiguration(originalConfig);
+        Realm.deleteRealm(config);
+    }
+
+    @Test
+    public void concurrentDonationsNeverOversell() throws Exception {
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        ExecutorService writers = Executors.newFixedThreadPool(WRITERS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int w = 0; w < WRITERS; w++) {
+            futures.add(writers.submit(() -> {
+                // Setiap penulis memakai instance Realm milik thread-nya sendiri dari pool
+                DatabaseManager.getInstance().acquireRealm();
+                try {
+                    startSignal.await();
+                    List<DonationManager.CartItem> cart = new ArrayList<>();
+                    cart.add(new DonationManager.CartItem(FOOD_ID, 1, null));
+                    for (int i = 0; i < ATTEMPTS_PER_WRITER; i++) {
+                        try {
+                            donationManager.addDonations(USER_ID, RESTAURANT_ID, cart);
+                            accepted.incrementAndGet();
+                        } catch (IllegalArgumentException e) {
+                            // Stok habis: ditolak di dalam transaksi, tidak ada yang berubah
+                            rejected.incrementAndGet();
+                        }
+                    }
+                } finally {
+                    DatabaseManager.getInstance().releaseRealm();
+                }
+                return null;
+            }));
+        }
+
+        long start = System.nanoTime();
+        startSignal.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        writers.shutdown();
+        assertTrue(writers.awaitTermination(10, TimeUnit.SECONDS));
+
+        int attempts = WRITERS * ATTEMPTS_PER_WRITER;
+        Log.i(TAG, String.format(Locale.US,
+                "%d penulis, %d percobaan: %d diterima, %d ditolak, %.0f transaksi/detik",
+                WRITERS, attempts, accepted.get(), rejected.get(), attempts / (elapsedNanos / 1e9)));
+
+        realm.refresh();
+        Food food = realm.where(Food.class).equalTo("foodId", FOOD_ID).findFirst();
+        Restaurant restaurant = realm.where(Restaurant.class).equalTo("restaurantId", RESTAURANT_ID).findFirst();
+        assertEquals(0, food.getStock());
+        assertEquals(INITIAL_STOCK, accepted.get());
+        assertEquals(attempts - INITIAL_STOCK, rejected.get());
+        assertEquals(INITIAL_STOCK, realm.where(Donation.class).count());
+        // Agregat restoran ikut konsisten dengan stok makanan
+        assertEquals(0, restaurant.getTotalStock());
+        assertEquals(0, restaurant.getAvailableFoodCount());
+    }
+
+    @Test
+    public void cartWithFoodFromAnotherRestaurantIsRejected() {
+        realm.executeTransaction(r -> {
+            Restaurant other = r.createObject(Restaurant.class, "other-resto");
+            other.setName("Resto Lain");
+            other.setAddress("-");
+            Food food = r.createObject(Food.class, "other-food");
+            food.setName("Menu Lain");
+            food.setStock(10);
+            food.setPrice(1);
+            food.setPoint(1);
+            food.setRestaurant("other-resto");
+        });
+        List<DonationManager.CartItem> cart = new ArrayList<>();
+        cart.add(new DonationManager.CartItem(FOOD_ID, 1, null));
+        cart.add(new DonationManager.CartItem("other-food", 1, null));
+        try {
+            donationManager.addDonations(USER_ID, RESTAURANT_ID, cart);
+            throw new AssertionError("Keranjang campuran restoran seharusnya ditolak");
+        } catch (IllegalArgumentException expected) {
+            // Ditolak sebelum stok mana pun dikurangi
+        }
+        realm.refresh();
+        assertEquals(INITIAL_STOCK, realm.where(Food.class).equalTo("foodId", FOOD_ID).findFirst().getStock());
+        assertEquals(10, realm.where(Food.class).equalTo("foodId", "other-food").findFirst().getStock());
+        assertEquals(0, realm.where(Donation.class).count());
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.donasimakanan;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.donasimakanan.manager.LedgerManager;
+import com.example.donasimakanan.model.Donation;
+import com.example.donasimakanan.model.Food;
+import com.example.donasimakanan.model.UserRewardExchange;
+
+import java.io.File;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.realm.CompactOnLaunchCallback;
+import io.realm.Realm;
+import io.realm.RealmConfiguration;
+import io.realm.RealmResults;
+
+
+/**
+ * Pemeliharaan berkala file Realm: perbaikan baris yang melanggar invariant dan deteksi instance
+ * yang menahan versi lama. Compaction tidak dilakukan di sini: SearchManager, SnapshotCache dan OutboxManager
+ * memegang Realm di HandlerThread masing-masing selama proses hidup, jadi file hanya bisa di-compact oleh
+ * compactOnLaunch saat instance pertama dibuka di peluncuran berikutnya, dengan Policy yang sama.
+ */
+public class DatabaseMaintenance {
+
+    private static final String TAG = "DatabaseMaintenance";
+    private static final String PREF_NAME = "DatabaseMaintenance";
+    private static final String KEY_LAST_RUN = "lastRun";
+    // Jumlah baris yang diperbaiki per transaksi agar transaksi tetap kecil
+    private static final int REPAIR_BATCH = 500;
+    // Nama pengganti untuk donasi yang makanannya sudah tidak ada
+    private static final String UNKNOWN_FOOD_NAME = "Makanan tidak diketahui";
+
+    private final Context context;
+    private final Policy policy;
+
+    
+    public DatabaseMaintenance(Context context, Policy policy) {
+        this.context = context.getApplicationContext();
+        this.policy = policy;
+    }
+
+    
+    public boolean isDue() {
+        long lastRun = prefs().getLong(KEY_LAST_RUN, 0);
+        return System.currentTimeMillis() - lastRun >= policy.getIntervalMillis();
+    }
+
+    // Harus dijalankan di background thread, misalnya lewat DatabaseManager.getBackgroundExecutor()
+    public Report run() {
+        long start = SystemClock.uptimeMillis();
+        Report report = new Report();
+        // Compaction hanya terjadi lewat compactOnLaunch, jadi yang dilaporkan adalah ukuran di sekitar itu
+        report.sizeBefore = policy.getLaunchSizeBefore();
+        report.sizeAfter = policy.getLaunchSizeAfter();
+
+        report.pinnedThreads = DatabaseManager.getInstance().findPinnedThreads(policy.getPinThresholdMillis());
+        for (String thread : report.pinnedThreads) {
+            Log.w(TAG, "Thread " + thread + " menahan versi Realm lama lebih dari "
+                    + policy.getPinThresholdMillis() + " ms, file tidak bisa menyusut selama versi itu ditahan");
+        }
+
+        Realm realm = DatabaseManager.getInstance().acquireRealm();
+        try {
+            report.repairedDonations = repairDonationFoodNames(realm);
+            report.repairedExchanges = repairExchangeDates(realm);
+            // Saldo dan poin di User diverifikasi terhadap ledger; selisih dilaporkan, tidak diubah
+            report.ledger = new LedgerManager().reconcile();
+        } finally {
+            DatabaseManager.getInstance().releaseRealm();
+        }
+
+        prefs().edit().putLong(KEY_LAST_RUN, System.currentTimeMillis()).apply();
+        Log.i(TAG, "Pemeliharaan selesai dalam " + (SystemClock.uptimeMillis() - start) + " ms: " + report);
+        return report;
+    }
+
+    
+    private static int repairDonationFoodNames(Realm realm) {
+        int repaired = 0;
+        int[] batch = new int[1];
+        do {
+            realm.executeTransaction(r -> {
+                RealmResults<Donation> broken = r.where(Donation.class)
+                        .equalTo("foodName", "")
+                        .limit(REPAIR_BATCH)
+                        .findAll();
+                batch[0] = broken.size();
+                Map<String, String> names = new HashMap<>();
+                // Snapshot karena baris keluar dari hasil query begitu foodName diisi
+                for (Donation donation : broken.createSnapshot()) {
+                    String name = names.get(donation.getFoodId());
+                    if (name == null) {
+                        Food food = r.where(Food.class).equalTo("foodId", donation.getFoodId()).findFirst();
+                        name = food != null && food.getName() != null && !food.getName().isEmpty()
+                                ? food.getName() : UNKNOWN_FOOD_NAME;
+                        names.put(donation.getFoodId(), name);
+                    }
+                    donation.setFoodName(name);
+                }
+            });
+            repaired += batch[0];
+        } while (batch[0] == REPAIR_BATCH);
+        return repaired;
+    }
+
+    
+    private static int repairExchangeDates(Realm realm) {
+        // Waktu penukaran asli tidak tersimpan; waktu sweep adalah batas paling awal yang bisa dipastikan
+        Date sweepTime = new Date();
+        int repaired = 0;
+        int[] batch = new int[1];
+        do {
+            realm.executeTransaction(r -> {
+                RealmResults<UserRewardExchange> broken = r.where(UserRewardExchange.class)
+                        .isNull("redeemedDate")
+                        .limit(REPAIR_BATCH)
+                        .findAll();
+                batch[0] = broken.size();
+                for (UserRewardExchange exchange : broken.createSnapshot()) {
+                    exchange.setRedeemedDate(sweepTime);
+                }
+            });
+            repaired += batch[0];
+        } while (batch[0] == REPAIR_BATCH);
+        return repaired;
+    }
+
+    
+    public static long fileSize(RealmConfiguration config) {
+        return new File(config.getPath()).length();
+    }
+
+    
+    private SharedPreferences prefs() {
+        return context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * Policy ukuran dan ruang kosong yang menentukan kapan file Realm perlu di-compact.
+     * Dipakai juga sebagai callback compactOnLaunch di RealmConfiguration.
+     */
+    public static class Policy implements CompactOnLaunchCallback {
+        private final long minFileSizeBytes;
+        private final double minFreeRatio;
+        private final long intervalMillis;
+        private final long pinThresholdMillis;
+        // Ukuran file di peluncuran ini: saat instance pertama dibuka (sebelum compactOnLaunch) dan setelah warm-up.
+        // -1 jika belum tercatat, misalnya file baru dibuat atau warm-up gagal.
+        private volatile long launchSizeBefore = -1;
+        private volatile long launchSizeAfter = -1;
+
+        public Policy(long minFileSizeBytes, double minFreeRatio, long intervalMillis, long pinThresholdMillis) {
+            this.minFileSizeBytes = minFileSizeBytes;
+            this.minFreeRatio = minFreeRatio;
+            this.intervalMillis = intervalMillis;
+            this.pinThresholdMillis = pinThresholdMillis;
+        }
+
+        // Default: file >= 20 MB dengan >= 50% ruang kosong, dijalankan paling sering sekali sehari
+        public static Policy defaults() {
+            return new Policy(20L * 1024 * 1024, 0.5, 24L * 60 * 60 * 1000, 60_000L);
+        }
+
+        public long getIntervalMillis() { return intervalMillis; }
+        public long getPinThresholdMillis() { return pinThresholdMillis; }
+        public long getLaunchSizeBefore() { return launchSizeBefore; }
+        public long getLaunchSizeAfter() { return launchSizeAfter; }
+
+        // Dipanggil DatabaseManager setelah warm-up membuka Realm, saat compactOnLaunch pasti sudah selesai
+        void recordLaunchSizeAfter(long bytes) {
+            launchSizeAfter = bytes;
+        }
+
+        // Dipanggil Realm saat instance pertama dibuka, sebelum ada instance lain di proses ini
+        @Override
+        public boolean shouldCompact(long totalBytes, long usedBytes) {
+            launchSizeBefore = totalBytes;
+            if (totalBytes < minFileSizeBytes) return false;
+            boolean compact = (double) (totalBytes - usedBytes) / totalBytes >= minFreeRatio;
+            if (compact) {
+                Log.i(TAG, "Compaction: " + totalBytes + " byte, terpakai " + usedBytes + " byte");
+            }
+            return compact;
+        }
+    }
+
+    /**
+     * Hasil satu kali pemeliharaan. sizeBefore dan sizeAfter adalah ukuran file sebelum dan sesudah compactOnLaunch
+     * di peluncuran ini, karena compaction hanya terjadi di sana. pinnedThreads hanya melihat instance dari pool DatabaseManager
+     * (acquireRealm/bindToLifecycle). Instance milik Realm sendiri, seperti bgRealm executeTransactionAsync
+     * dan thread query findAllAsync, atau yang dibuka langsung dengan Realm.getInstance(), tidak ikut terdeteksi.
+     */
+    public static class Report {
+        long sizeBefore;
+        long sizeAfter;
+        int repairedDonations;
+        int repairedExchanges;
+        List<String> pinnedThreads;
+        LedgerManager.Report ledger;
+
+        public long getSizeBefore() { return sizeBefore; }
+        public long getSizeAfter() { return sizeAfter; }
+        public int getRepairedDonations() { return repairedDonations; }
+        public int getRepairedExchanges() { return repairedExchanges; }
+        public List<String> getPinnedThreads() { return pinnedThreads; }
+        public LedgerManager.Report getLedger() { return ledger; }
+
+        @Override
+        public String toString() {
+            return "ukuran saat peluncuran " + sizeBefore + " -> " + sizeAfter + " byte"
+                    + ", donasi diperbaiki=" + repairedDonations + ", penukaran diperbaiki=" + repairedExchanges
+                    + ", thread menahan versi=" + pinnedThreads + ", ledger: " + ledger;
+        }
+    }
+}
@@ -1,13 +1,34 @@
 package com.example.donasimakanan;
 
 import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
 import android.util.Log;
 
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.example.donasimakanan.manager.CatalogSyncManager;
+import com.example.donasimakanan.manager.OutboxManager;
+import com.example.donasimakanan.manager.SearchManager;
+import com.example.donasimakanan.manager.SnapshotCache;
 import com.example.donasimakanan.model.Food;
 import com.example.donasimakanan.model.Restaurant;
 import com.example.donasimakanan.model.Reward;
 
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import io.realm.Realm;
 import io.realm.RealmConfiguration;
@@ -15,15 +36,59 @@ import io.realm.RealmConfiguration;
 public class DatabaseManager extends Application {
 
     private static DatabaseManager instance;
-    private Realm realm;
+    // Pool instance Realm: satu instance per thread dengan hitungan referensi
+    private final ThreadLocal<PooledRealm> pooledRealms = new ThreadLocal<>();
+    // Executor untuk pekerjaan database yang tidak boleh berjalan di UI thread
+    private final ExecutorService backgroundExecutor = Executors.newSingleThreadExecutor();
+    // Executor untuk baca yang sedang ditunggu pengguna. Terpisah dari backgroundExecutor, karena di sana
+    // sinkronisasi katalog, pemeliharaan dan ekspor bisa memblokir selama beberapa menit.
+    private final ExecutorService interactiveExecutor = Executors.newSingleThreadExecutor();
+    // Semua instance yang sedang dipegang pool, dipakai untuk mendeteksi thread yang menahan versi lama
+    private final Map<Thread, PooledRealm> openRealms = new ConcurrentHashMap<>();
+    // Policy compaction untuk compactOnLaunch; job pemeliharaan memakai interval dan batas pin thread-nya
+    private final DatabaseMaintenance.Policy maintenancePolicy = DatabaseMaintenance.Policy.defaults();
+    // Callback UI thread yang menunggu warm-up Realm selesai; hanya diakses di UI thread
+    private final List<Runnable> realmReadyCallbacks = new ArrayList<>();
+    private volatile boolean realmReady;
 
     
     @Override
     public void onCreate(){
-        super.onCreate();
+        long start = SystemClock.uptimeMillis();
+        StartupTrace.Section section = StartupTrace.section("Application.onCreate");
+        try {
+            super.onCreate();
+            startUp();
+        } finally {
+            section.close();
+        }
+
+        long end = SystemClock.uptimeMillis();
+        Log.i("Startup", "Application.onCreate selesai dalam " + (end - start) + " ms ("
+                + (end - Process.getStartUptimeMillis()) + " ms sejak proses dimulai)");
+    }
+
+    
+    private void startUp(){
         instance = this;
-        initializeRealm();
-        seedDatabaseIfEmpty();
+        StartupTrace.trace("initializeRealm", this::initializeRealm);
+        // File Realm pertama kali dibuka di background: migrasi dan initialData tidak membebani UI thread
+        backgroundExecutor.execute(this::warmUpRealm);
+        // Pemeliharaan berjalan di executor yang sama, setelah warm-up selesai
+        backgroundExecutor.execute(this::runMaintenanceIfDue);
+        // Delta katalog dari backend, juga setelah warm-up; nonaktif jika endpoint kosong
+        backgroundExecutor.execute(this::syncCatalog);
+        StartupTrace.trace("startBackgroundManagers", this::startBackgroundManagers);
+    }
+
+    
+    private void startBackgroundManagers(){
+        // Index pencarian dibangun di thread-nya sendiri dan diperbarui lewat change listener
+        SearchManager.getInstance().start();
+        // Listener invalidasi cache snapshot juga berjalan di thread sendiri
+        SnapshotCache.getInstance().start();
+        // Outbox dikirim ke backend di thread sendiri; nonaktif jika endpoint kosong
+        OutboxManager.getInstance().start(getString(R.string.outbox_endpoint));
     }
 
     
@@ -39,163 +104,297 @@ public class DatabaseManager extends Application {
         Realm.init(this);
         RealmConfiguration config = new RealmConfiguration.Builder()
                 .name("donasimakanan.realm")
-                .schemaVersion(3) // Naikkan versi ini jika Anda mengubah skema model
-                .deleteRealmIfMigrationNeeded() // Hapus DB jika skema berubah (hanya untuk development)
-                .allowWritesOnUiThread(true) // Izinkan operasi tulis di UI thread (untuk kemudahan)
+                .schemaVersion(DatabaseMigration.SCHEMA_VERSION) // Naikkan versi di DatabaseMigration jika Anda mengubah skema model
+                .migration(new DatabaseMigration()) // Data lama dimigrasi, bukan dihapus
+                .allowWritesOnUiThread(false) // Semua operasi tulis wajib lewat background thread / executeTransactionAsync
+                .initialData(r -> StartupTrace.trace("seedInitialData", () -> seedInitialData(r))) // Hanya dijalankan sekali saat file Realm dibuat
+                .compactOnLaunch(maintenancePolicy) // Compact saat instance pertama dibuka jika policy terpenuhi
                 .build();
         Realm.setDefaultConfiguration(config);
-        realm = getRealm();
         Log.d("DatabaseManager", "Realm berhasil diinisialisasi dengan konfigurasi: " + config.toString());
     }
 
     
-    public Realm getRealm(){
-        return Realm.getDefaultInstance();
+    private void warmUpRealm(){
+        long start = SystemClock.uptimeMillis();
+        long sizeBefore = DatabaseMaintenance.fileSize(Realm.getDefaultConfiguration());
+        // Mencakup migrasi, compactOnLaunch dan seedInitialData jika file Realm baru dibuat
+        try {
+            StartupTrace.trace("warmUpRealm", () -> {
+                acquireRealm();
+                releaseRealm();
+            });
+        } finally {
+            // Juga saat gagal, agar UI thread membuka Realm sendiri dan melaporkan error yang sama
+            StartupTrace.mark(StartupTrace.REALM_READY);
+            new Handler(Looper.getMainLooper()).post(this::onRealmReady);
+        }
+        long sizeAfter = DatabaseMaintenance.fileSize(Realm.getDefaultConfiguration());
+        maintenancePolicy.recordLaunchSizeAfter(sizeAfter);
+        Log.i("Startup", "Realm siap di background dalam " + (SystemClock.uptimeMillis() - start) + " ms, ukuran file "
+                + sizeBefore + " -> " + sizeAfter + " byte");
     }
 
     
-    public void closeRealm(){
-        if(realm != null && !realm.isClosed()){
-            realm.close();
-            Log.d("DatabaseManager", "Instance Realm berhasil ditutup.");
-        } else {
-            Log.w("DatabaseManager", "Percobaan menutup Realm, tetapi sudah tertutup atau null.");
+    private void onRealmReady(){
+        realmReady = true;
+        for (Runnable callback : realmReadyCallbacks) {
+            callback.run();
         }
+        realmReadyCallbacks.clear();
     }
 
-   
+    
+    public boolean isRealmReady(){
+        return realmReady;
+    }
+
+    
+    public void whenRealmReady(LifecycleOwner owner, Runnable action){
+        // Dipanggil di UI thread. Membuka Realm sebelum warm-up selesai berarti UI thread ikut menjalankan
+        // migrasi, initialData dan compactOnLaunch, atau menunggu lock Realm selama itu berjalan
+        if (realmReady) {
+            action.run();
+            return;
+        }
+        realmReadyCallbacks.add(() -> {
+            if (owner.getLifecycle().getCurrentState() != Lifecycle.State.DESTROYED) {
+                action.run();
+            }
+        });
+    }
 
-    public void seedDatabaseIfEmpty() {
-        Realm realm = Realm.getDefaultInstance();
+    
+    private void syncCatalog(){
+        String endpoint = getString(R.string.catalog_endpoint);
+        if (endpoint.isEmpty()) return;
         try {
-            // --- Seed Restoran ---
-            if (realm.where(Restaurant.class).count() == 0) {
-                realm.executeTransaction(r -> {
-                    // Data Restoran
-                    String r1Id = UUID.randomUUID().toString();
-                    Restaurant r1 = r.createObject(Restaurant.class, r1Id);
-                    r1.setName("Restoran Sehat");
-                    r1.setAddress("Jl. Kesehatan No. 10, Yogyakarta");
-                    r1.setPhoneNumber("081234567890");
-                    r1.setDescription("Menyediakan makanan sehat dan bergizi.");
-
-                    String r2Id = UUID.randomUUID().toString();
-                    Restaurant r2 = r.createObject(Restaurant.class, r2Id);
-                    r2.setName("Dapur Berkah");
-                    r2.setAddress("Jl. Berkah No. 5, Sleman");
-                    r2.setPhoneNumber("081234123123");
-                    r2.setDescription("Melayani donasi makanan siap saji.");
-
-                    String r3Id = UUID.randomUUID().toString();
-                    Restaurant r3 = r.createObject(Restaurant.class, r3Id);
-                    r3.setName("Sari Roti Bakery");
-                    r3.setAddress("Jl. Malioboro No. 120, Yogyakarta");
-                    r3.setPhoneNumber("085511223344");
-                    r3.setDescription("Roti segar setiap hari, cocok untuk sarapan.");
-
-                    String r4Id = UUID.randomUUID().toString();
-                    Restaurant r4 = r.createObject(Restaurant.class, r4Id);
-                    r4.setName("Warteg Ibu Siti");
-                    r4.setAddress("Jl. Gejayan No. 1, Condongcatur");
-                    r4.setPhoneNumber("087755667788");
-                    r4.setDescription("Masakan rumah dengan harga terjangkau.");
-                });
+            new CatalogSyncManager(new URL(endpoint)).sync();
+        } catch (IOException | RuntimeException e) {
+            // Token hanya maju untuk halaman yang berhasil diterapkan, jadi aman dicoba lagi nanti
+            Log.w("CatalogSyncManager", "Sinkronisasi katalog gagal, dicoba lagi di peluncuran berikutnya", e);
+        }
+    }
+
+    
+    private void runMaintenanceIfDue(){
+        DatabaseMaintenance maintenance = new DatabaseMaintenance(this, maintenancePolicy);
+        if (maintenance.isDue()) {
+            try {
+                maintenance.run();
+            } catch (RuntimeException e) {
+                Log.e("DatabaseMaintenance", "Pemeliharaan gagal, dicoba lagi di peluncuran berikutnya", e);
             }
+        }
+    }
 
-            // --- Seed Makanan ---
-            if (realm.where(Food.class).count() == 0) {
-                realm.executeTransaction(r -> {
-                    // Ambil ID restoran yang sudah dibuat
-                    Restaurant resto1 = r.where(Restaurant.class).equalTo("name", "Restoran Sehat").findFirst();
-                    Restaurant resto2 = r.where(Restaurant.class).equalTo("name", "Dapur Berkah").findFirst();
-                    Restaurant resto3 = r.where(Restaurant.class).equalTo("name", "Sari Roti Bakery").findFirst();
-                    Restaurant resto4 = r.where(Restaurant.class).equalTo("name", "Warteg Ibu Siti").findFirst();
-
-                    // Makanan untuk Restoran Sehat
-                    if (resto1 != null) {
-                        Food f1 = r.createObject(Food.class, UUID.randomUUID().toString());
-                        f1.setName("Paket Nasi Ayam Bakar");
-                        f1.setDescription("Nasi, ayam bakar madu, lalapan, dan sambal.");
-                        f1.setStock(50);
-                        f1.setPrice(20000);
-                        f1.setPoint(20);
-                        f1.setRestaurant(resto1.getRestaurantId());
-
-                        Food f2 = r.createObject(Food.class, UUID.randomUUID().toString());
-                        f2.setName("Salad Buah Segar");
-                        f2.setDescription("Campuran buah segar dengan saus yogurt.");
-                        f2.setStock(30);
-                        f2.setPrice(15000);
-                        f2.setPoint(15);
-                        f1.setRestaurant(resto1.getRestaurantId());
-                    }
-
-                    // Makanan untuk Dapur Berkah
-                    if (resto2 != null) {
-                        Food f3 = r.createObject(Food.class, UUID.randomUUID().toString());
-                        f3.setName("Nasi Kuning Komplit");
-                        f3.setDescription("Nasi kuning, telur, kering tempe, dan abon.");
-                        f3.setStock(40);
-                        f3.setPrice(12000);
-                        f3.setPoint(10);
-                        f3.setRestaurant(resto2.getRestaurantId());
-                    }
-
-                    // Makanan untuk Sari Roti Bakery
-                    if (resto3 != null) {
-                        Food f4 = r.createObject(Food.class, UUID.randomUUID().toString());
-                        f4.setName("Donat Cokelat Meses");
-                        f4.setDescription("Donat empuk dengan topping cokelat dan meses.");
-                        f4.setStock(100);
-                        f4.setPrice(5000);
-                        f4.setPoint(5);
-                        f4.setRestaurant(resto3.getRestaurantId());
-                    }
-
-                    // Makanan untuk Warteg Ibu Siti
-                    if (resto4 != null) {
-                        Food f5 = r.createObject(Food.class, UUID.randomUUID().toString());
-                        f5.setName("Paket Nasi Telur Orek");
-                        f5.setDescription("Nasi putih, telur dadar, orek tempe, dan sayur.");
-                        f5.setStock(60);
-                        f5.setPrice(10000);
-                        f5.setPoint(10);
-                        f5.setRestaurant(resto4.getRestaurantId());
-                    }
-                });
+    
+    public Realm getRealm(){
+        // Mengembalikan instance milik thread ini tanpa membuka instance baru.
+        // Manager hanya memakainya untuk method yang mengembalikan objek managed, live results atau transaksi async,
+        // karena hasilnya harus tetap hidup setelah method selesai: thread pemanggil wajib sudah acquireRealm()
+        // atau bindToLifecycle(). Method manager lainnya meng-acquire dan me-release Realm sendiri.
+        PooledRealm pooled = pooledRealms.get();
+        if (pooled == null) {
+            throw new IllegalStateException("Belum ada instance Realm untuk thread "
+                    + Thread.currentThread().getName() + ", panggil acquireRealm() terlebih dahulu.");
+        }
+        return pooled.realm;
+    }
+
+    
+    public Realm acquireRealm(){
+        PooledRealm pooled = pooledRealms.get();
+        if (pooled == null) {
+            pooled = new PooledRealm(Realm.getDefaultInstance(), Looper.myLooper() != null);
+            pooledRealms.set(pooled);
+            openRealms.put(Thread.currentThread(), pooled);
+        }
+        pooled.refCount++;
+        return pooled.realm;
+    }
+
+    
+    public void releaseRealm(){
+        PooledRealm pooled = pooledRealms.get();
+        if (pooled == null) {
+            Log.w("DatabaseManager", "releaseRealm() dipanggil tanpa acquireRealm() di thread ini.");
+            return;
+        }
+        pooled.refCount--;
+        if (pooled.refCount == 0) {
+            // Referensi terakhir dilepas: tutup instance agar versi Realm lama tidak tertahan
+            pooledRealms.remove();
+            openRealms.remove(Thread.currentThread());
+            pooled.realm.close();
+        }
+    }
+
+    
+    public void bindToLifecycle(LifecycleOwner owner){
+        // Instance Realm di UI thread ditahan selama owner hidup dan dilepas saat ON_DESTROY
+        if (!realmReady) {
+            Log.w("DatabaseManager", "Realm UI thread dibuka sebelum warm-up selesai, gunakan whenRealmReady()");
+        }
+        acquireRealm();
+        owner.getLifecycle().addObserver(new DefaultLifecycleObserver() {
+            @Override
+            public void onDestroy(@NonNull LifecycleOwner source) {
+                source.getLifecycle().removeObserver(this);
+                releaseRealm();
             }
+        });
+    }
+
+    
+    public ExecutorService getBackgroundExecutor() {
+        return backgroundExecutor;
+    }
 
-            // --- Seed Hadiah (Reward) ---
-            if (realm.where(Reward.class).count() == 0) {
-                realm.executeTransaction(r -> {
-                    Reward reward1 = r.createObject(Reward.class, UUID.randomUUID().toString());
-                    reward1.setName("Voucher Diskon Rp 5.000");
-                    reward1.setDescription("Potongan Rp 5.000 untuk donasi berikutnya.");
-                    reward1.setPointsRequired(100);
-                    reward1.setStock(999);
-
-                    Reward reward2 = r.createObject(Reward.class, UUID.randomUUID().toString());
-                    reward2.setName("Voucher Diskon Rp 15.000");
-                    reward2.setDescription("Potongan Rp 15.000 untuk donasi berikutnya.");
-                    reward2.setPointsRequired(250);
-                    reward2.setStock(500);
-
-                    Reward reward3 = r.createObject(Reward.class, UUID.randomUUID().toString());
-                    reward3.setName("Kaos Eksklusif Donasi Makanan");
-                    reward3.setDescription("T-Shirt official sebagai tanda apresiasi.");
-                    reward3.setPointsRequired(500);
-                    reward3.setStock(100);
-
-                    Reward reward4 = r.createObject(Reward.class, UUID.randomUUID().toString());
-                    reward4.setName("Donasi Ganda");
-                    reward4.setDescription("Donasi Anda berikutnya akan kami gandakan (maks. 3 porsi).");
-                    reward4.setPointsRequired(750);
-                    reward4.setStock(50);
-                });
+    
+    public ExecutorService getInteractiveExecutor() {
+        return interactiveExecutor;
+    }
+
+    
+    public List<String> findPinnedThreads(long thresholdMillis){
+        // Thread dengan Looper di-refresh otomatis oleh Realm; thread tanpa Looper menahan versi
+        // tempat instance dibuka sampai instance itu dilepas, sehingga ruang lama di file tidak bisa dipakai ulang
+        List<String> pinned = new ArrayList<>();
+        long now = SystemClock.uptimeMillis();
+        for (Map.Entry<Thread, PooledRealm> entry : openRealms.entrySet()) {
+            PooledRealm pooled = entry.getValue();
+            if (!pooled.autoRefresh && now - pooled.openedAt > thresholdMillis) {
+                pinned.add(entry.getKey().getName());
             }
-        } finally {
-            // Selalu tutup realm setelah selesai
-            realm.close();
         }
+        return pinned;
+    }
+
+    
+    private static final class PooledRealm {
+        final Realm realm;
+        final boolean autoRefresh;
+        final long openedAt = SystemClock.uptimeMillis();
+        int refCount;
+
+        PooledRealm(Realm realm, boolean autoRefresh) {
+            this.realm = realm;
+            this.autoRefresh = autoRefresh;
+        }
+    }
+
+   
+    
+    private static void seedInitialData(Realm r) {
+        // Data Restoran
+        String r1Id = UUID.randomUUID().toString();
+        Restaurant r1 = r.createObject(Restaurant.class, r1Id);
+        r1.setName("Restoran Sehat");
+        r1.setAddress("Jl. Kesehatan No. 10, Yogyakarta");
+        r1.setPhoneNumber("081234567890");
+        r1.setDescription("Menyediakan makanan sehat dan bergizi.");
+        r1.setLocation(-7.7689, 110.3756);
+
+        String r2Id = UUID.randomUUID().toString();
+        Restaurant r2 = r.createObject(Restaurant.class, r2Id);
+        r2.setName("Dapur Berkah");
+        r2.setAddress("Jl. Berkah No. 5, Sleman");
+        r2.setPhoneNumber("081234123123");
+        r2.setDescription("Melayani donasi makanan siap saji.");
+        r2.setLocation(-7.7160, 110.3550);
+
+        String r3Id = UUID.randomUUID().toString();
+        Restaurant r3 = r.createObject(Restaurant.class, r3Id);
+        r3.setName("Sari Roti Bakery");
+        r3.setAddress("Jl. Malioboro No. 120, Yogyakarta");
+        r3.setPhoneNumber("085511223344");
+        r3.setDescription("Roti segar setiap hari, cocok untuk sarapan.");
+        r3.setLocation(-7.7925, 110.3658);
+
+        String r4Id = UUID.randomUUID().toString();
+        Restaurant r4 = r.createObject(Restaurant.class, r4Id);
+        r4.setName("Warteg Ibu Siti");
+        r4.setAddress("Jl. Gejayan No. 1, Condongcatur");
+        r4.setPhoneNumber("087755667788");
+        r4.setDescription("Masakan rumah dengan harga terjangkau.");
+        r4.setLocation(-7.7595, 110.3970);
+
+        // Makanan untuk Restoran Sehat, ID restoran dipakai langsung tanpa lookup berdasarkan nama
+        Food f1 = r.createObject(Food.class, UUID.randomUUID().toString());
+        f1.setName("Paket Nasi Ayam Bakar");
+        f1.setDescription("Nasi, ayam bakar madu, lalapan, dan sambal.");
+        f1.setStock(50);
+        f1.setPrice(20000);
+        f1.setPoint(20);
+        f1.setRestaurant(r1Id);
+
+        Food f2 = r.createObject(Food.class, UUID.randomUUID().toString());
+        f2.setName("Salad Buah Segar");
+        f2.setDescription("Campuran buah segar dengan saus yogurt.");
+        f2.setStock(30);
+        f2.setPrice(15000);
+        f2.setPoint(15);
+        f2.setRestaurant(r1Id);
+
+        // Makanan untuk Dapur Berkah
+        Food f3 = r.createObject(Food.class, UUID.randomUUID().toString());
+        f3.setName("Nasi Kuning Komplit");
+        f3.setDescription("Nasi kuning, telur, kering tempe, dan abon.");
+        f3.setStock(40);
+        f3.setPrice(12000);
+        f3.setPoint(10);
+        f3.setRestaurant(r2Id);
+
+        // Makanan untuk Sari Roti Bakery
+        Food f4 = r.createObject(Food.class, UUID.randomUUID().toString());
+        f4.setName("Donat Cokelat Meses");
+        f4.setDescription("Donat empuk dengan topping cokelat dan meses.");
+        f4.setStock(100);
+        f4.setPrice(5000);
+        f4.setPoint(5);
+        f4.setRestaurant(r3Id);
+
+        // Makanan untuk Warteg Ibu Siti
+        Food f5 = r.createObject(Food.class, UUID.randomUUID().toString());
+        f5.setName("Paket Nasi Telur Orek");
+        f5.setDescription("Nasi putih, telur dadar, orek tempe, dan sayur.");
+        f5.setStock(60);
+        f5.setPrice(10000);
+        f5.setPoint(10);
+        f5.setRestaurant(r4Id);
+
+        // Agregat stok per restoran dihitung sekali dari makanan yang baru dibuat
+        for (Food food : r.where(Food.class).findAll()) {
+            Restaurant owner = r.where(Restaurant.class).equalTo("restaurantId", food.getRestaurant()).findFirst();
+            if (owner != null) {
+                owner.applyStockChange(0, food.getStock());
+            }
+        }
+
+        // --- Seed Hadiah (Reward) ---
+        Reward reward1 = r.createObject(Reward.class, UUID.randomUUID().toString());
+        reward1.setName("Voucher Diskon Rp 5.000");
+        reward1.setDescription("Potongan Rp 5.000 untuk donasi berikutnya.");
+        reward1.setPointsRequired(100);
+        reward1.setStock(999);
+
+        Reward reward2 = r.createObject(Reward.class, UUID.randomUUID().toString());
+        reward2.setName("Voucher Diskon Rp 15.000");
+        reward2.setDescription("Potongan Rp 15.000 untuk donasi berikutnya.");
+        reward2.setPointsRequired(250);
+        reward2.setStock(500);
+
+        Reward reward3 = r.createObject(Reward.class, UUID.randomUUID().toString());
+        reward3.setName("Kaos Eksklusif Donasi Makanan");
+        reward3.setDescription("T-Shirt official sebagai tanda apresiasi.");
+        reward3.setPointsRequired(500);
+        reward3.setStock(100);
+
+        Reward reward4 = r.createObject(Reward.class, UUID.randomUUID().toString());
+        reward4.setName("Donasi Ganda");
+        reward4.setDescription("Donasi Anda berikutnya akan kami gandakan (maks. 3 porsi).");
+        reward4.setPointsRequired(750);
+        reward4.setStock(50);
     }
 }
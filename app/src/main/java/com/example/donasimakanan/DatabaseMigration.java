@@ -0,0 +1,411 @@
+package com.example.donasimakanan;
+
+import android.util.Log;
+
+import com.example.donasimakanan.model.DonationRollup;
+import com.example.donasimakanan.model.LeaderboardEntry;
+import com.example.donasimakanan.model.LedgerEntry;
+import com.example.donasimakanan.model.OutboxEntry;
+import com.example.donasimakanan.model.UserStats;
+import com.example.donasimakanan.util.GeoGrid;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.realm.DynamicRealm;
+import io.realm.DynamicRealmObject;
+import io.realm.FieldAttribute;
+import io.realm.RealmDictionary;
+import io.realm.RealmMigration;
+import io.realm.RealmObjectSchema;
+import io.realm.RealmSchema;
+import io.realm.Sort;
+
+
+public class DatabaseMigration implements RealmMigration {
+
+    // Versi skema terbaru, naikkan setiap kali ada langkah migrasi baru di bawah
+    public static final long SCHEMA_VERSION = 14;
+
+    // Koordinat restoran seed per nama, harus sama dengan DatabaseManager.seedInitialData
+    private static final Map<String, double[]> SEED_LOCATIONS = new HashMap<>();
+
+    static {
+        SEED_LOCATIONS.put("Restoran Sehat", new double[]{-7.7689, 110.3756});
+        SEED_LOCATIONS.put("Dapur Berkah", new double[]{-7.7160, 110.3550});
+        SEED_LOCATIONS.put("Sari Roti Bakery", new double[]{-7.7925, 110.3658});
+        SEED_LOCATIONS.put("Warteg Ibu Siti", new double[]{-7.7595, 110.3970});
+    }
+
+    
+    @Override
+    public void migrate(DynamicRealm realm, long oldVersion, long newVersion) {
+        RealmSchema schema = realm.getSchema();
+        Log.d("DatabaseMigration", "Migrasi skema dari versi " + oldVersion + " ke " + newVersion);
+
+        // Versi 3 -> 4: index untuk field foreign key dan lookup
+        if (oldVersion == 3) {
+            addIndex(schema.get("Donation"), "userId");
+            addIndex(schema.get("Food"), "restaurantId");
+            addIndex(schema.get("User"), "email");
+            addIndex(schema.get("UserRewardExchange"), "userId");
+            oldVersion++;
+        }
+
+        // Versi 4 -> 5: snapshot nama makanan, harga satuan dan nama restoran di Donation
+        if (oldVersion == 4) {
+            schema.get("Donation")
+                    .addField("unitPrice", int.class)
+                    .addField("restaurantName", String.class)
+                    .transform(donation -> backfillDonationSnapshot(realm, donation));
+            oldVersion++;
+        }
+
+        // Versi 5 -> 6: agregat statistik per pengguna, diisi dari riwayat yang sudah ada
+        if (oldVersion == 5) {
+            schema.create("UserStats")
+                    .addField("userId", String.class, FieldAttribute.PRIMARY_KEY, FieldAttribute.REQUIRED)
+                    .addField("totalDonations", int.class)
+                    .addField("totalPortions", int.class)
+                    .addField("totalAmount", long.class)
+                    .addField("totalPointsEarned", int.class)
+                    .addField("totalRedemptions", int.class)
+                    .addField("totalPointsRedeemed", int.class)
+                    .addField("monthKey", int.class)
+                    .addField("monthlyDonations", int.class)
+                    .addField("monthlyPortions", int.class)
+                    .addField("monthlyAmount", long.class)
+                    .addRealmDictionaryField("portionsByRestaurant", Integer.class)
+                    .addField("favoriteRestaurantId", String.class)
+                    .addField("favoriteRestaurantName", String.class)
+                    .addField("favoriteRestaurantPortions", int.class);
+            backfillUserStats(realm);
+            oldVersion++;
+        }
+
+        // Versi 6 -> 7: skor peringkat donatur per cakupan (global dan per restoran)
+        if (oldVersion == 6) {
+            schema.create("LeaderboardEntry")
+                    .addField("entryId", String.class, FieldAttribute.PRIMARY_KEY, FieldAttribute.REQUIRED)
+                    .addField("scope", String.class, FieldAttribute.INDEXED, FieldAttribute.REQUIRED)
+                    .addField("userId", String.class, FieldAttribute.REQUIRED)
+                    .addField("points", int.class)
+                    .addField("portions", int.class);
+            backfillLeaderboard(realm);
+            oldVersion++;
+        }
+
+        // Versi 7 -> 8: agregat stok dan jumlah menu tersedia per restoran
+        if (oldVersion == 7) {
+            schema.get("Restaurant")
+                    .addField("totalStock", int.class)
+                    .addField("availableFoodCount", int.class);
+            for (DynamicRealmObject food : realm.where("Food").findAll()) {
+                DynamicRealmObject restaurant = realm.where("Restaurant")
+                        .equalTo("restaurantId", food.getString("restaurantId"))
+                        .findFirst();
+                int stock = food.getInt("stock");
+                if (restaurant != null) {
+                    restaurant.setInt("totalStock", restaurant.getInt("totalStock") + stock);
+                    if (stock > 0) {
+                        restaurant.setInt("availableFoodCount", restaurant.getInt("availableFoodCount") + 1);
+                    }
+                }
+            }
+            oldVersion++;
+        }
+
+        // Versi 8 -> 9: koordinat restoran dan sel GeoGrid ber-index untuk pencarian terdekat.
+        // Restoran seed diisi koordinatnya berdasarkan nama; restoran lain tetap tanpa geoCell
+        // sampai lokasinya diisi lewat updateLocation atau sinkronisasi katalog.
+        if (oldVersion == 8) {
+            schema.get("Restaurant")
+                    .addField("latitude", double.class)
+                    .addField("longitude", double.class)
+                    .addField("geoCell", String.class, FieldAttribute.INDEXED);
+            for (DynamicRealmObject restaurant : realm.where("Restaurant").findAll()) {
+                double[] location = SEED_LOCATIONS.get(restaurant.getString("name"));
+                if (location != null) {
+                    restaurant.setDouble("latitude", location[0]);
+                    restaurant.setDouble("longitude", location[1]);
+                    restaurant.setString("geoCell", GeoGrid.cellId(location[0], location[1]));
+                }
+            }
+            oldVersion++;
+        }
+
+        // Versi 9 -> 10: outbox perubahan yang belum terkirim ke backend.
+        // Riwayat lama tidak dimasukkan ke antrean; hanya donasi dan penukaran baru yang dikirim.
+        if (oldVersion == 9) {
+            schema.create("OutboxEntry")
+                    .addField("entryId", String.class, FieldAttribute.PRIMARY_KEY, FieldAttribute.REQUIRED)
+                    .addField("type", String.class, FieldAttribute.REQUIRED)
+                    .addField("payload", String.class, FieldAttribute.REQUIRED)
+                    .addField("createdAt", long.class, FieldAttribute.INDEXED)
+                    .addField("parked", boolean.class, FieldAttribute.INDEXED)
+                    .addField("attempts", int.class);
+            oldVersion++;
+        }
+
+        // Versi 10 -> 11: token sinkronisasi katalog. Belum ada token berarti sinkronisasi pertama mengambil semua.
+        if (oldVersion == 10) {
+            schema.create("SyncState")
+                    .addField("key", String.class, FieldAttribute.PRIMARY_KEY, FieldAttribute.REQUIRED)
+                    .addField("token", String.class)
+                    .addField("updatedAt", long.class);
+            oldVersion++;
+        }
+
+        // Versi 11 -> 12: rollup donasi harian dan bulanan per restoran, diisi sekali dari riwayat yang sudah ada
+        if (oldVersion == 11) {
+            schema.create("DonationRollup")
+                    .addField("rollupId", String.class, FieldAttribute.PRIMARY_KEY, FieldAttribute.REQUIRED)
+                    .addField("granularity", String.class, FieldAttribute.REQUIRED)
+                    .addField("bucket", int.class, FieldAttribute.INDEXED)
+                    .addField("restaurantId", String.class, FieldAttribute.INDEXED, FieldAttribute.REQUIRED)
+                    .addField("restaurantName", String.class)
+                    .addField("donations", int.class)
+                    .addField("portions", int.class)
+                    .addField("amount", long.class)
+                    .addField("points", int.class);
+            backfillDonationRollups(realm);
+            oldVersion++;
+        }
+
+        // Versi 12 -> 13: ledger saldo dan poin. Riwayat sebelum ledger tidak bisa dirinci, jadi saldo dan poin
+        // saat ini dicatat sebagai satu entri pembuka yang sekaligus menjadi snapshot pertama.
+        if (oldVersion == 12) {
+            schema.create("LedgerEntry")
+                    .addField("entryId", String.class, FieldAttribute.PRIMARY_KEY, FieldAttribute.REQUIRED)
+                    .addField("userId", String.class, FieldAttribute.INDEXED, FieldAttribute.REQUIRED)
+                    .addField("sequence", long.class)
+                    .addField("type", String.class, FieldAttribute.REQUIRED)
+                    .addField("balanceDelta", long.class)
+                    .addField("pointsDelta", long.class)
+                    .addField("referenceId", String.class)
+                    .addField("createdAt", Date.class);
+            schema.create("LedgerAccount")
+                    .addField("userId", String.class, FieldAttribute.PRIMARY_KEY, FieldAttribute.REQUIRED)
+                    .addField("headSequence", long.class)
+                    .addField("snapshotSequence", long.class)
+                    .addField("snapshotBalance", long.class)
+                    .addField("snapshotPoints", long.class)
+                    .addField("snapshotAt", Date.class);
+            backfillLedgerOpenings(realm);
+            oldVersion++;
+        }
+
+        // Versi 13 -> 14: snapshot nama hadiah di UserRewardExchange, sebelum sinkronisasi katalog menghapus hadiah seed
+        if (oldVersion == 13) {
+            schema.get("UserRewardExchange")
+                    .addField("rewardName", String.class)
+                    .transform(exchange -> backfillRewardName(realm, exchange));
+            backfillOutboxRewardNames(realm);
+            oldVersion++;
+        }
+    }
+
+    
+    private static void backfillLedgerOpenings(DynamicRealm realm) {
+        Date now = new Date();
+        for (DynamicRealmObject user : realm.where("User").findAll()) {
+            int balance = user.getInt("balance");
+            int points = user.getInt("totalPoints");
+            if (balance == 0 && points == 0) continue;
+            String userId = user.getString("userId");
+            DynamicRealmObject entry = realm.createObject("LedgerEntry", LedgerEntry.entryId(userId, 1));
+            entry.setString("userId", userId);
+            entry.setLong("sequence", 1);
+            entry.setString("type", LedgerEntry.OPENING);
+            entry.setLong("balanceDelta", balance);
+            entry.setLong("pointsDelta", points);
+            entry.setDate("createdAt", now);
+
+            DynamicRealmObject account = realm.createObject("LedgerAccount", userId);
+            account.setLong("headSequence", 1);
+            account.setLong("snapshotSequence", 1);
+            account.setLong("snapshotBalance", balance);
+            account.setLong("snapshotPoints", points);
+            account.setDate("snapshotAt", now);
+        }
+    }
+
+    
+    private static void backfillDonationRollups(DynamicRealm realm) {
+        // Baris rollup ditahan di map selama backfill, jadi setiap donasi tidak perlu lookup primary key
+        Map<String, DynamicRealmObject> rollups = new HashMap<>();
+        // Urut dari yang terlama agar nama restoran yang tersimpan adalah nama terbaru
+        for (DynamicRealmObject donation : realm.where("Donation").sort("donationDate", Sort.ASCENDING).findAll()) {
+            Date donationDate = donation.getDate("donationDate");
+            if (donationDate == null) continue;
+            String restaurantId = donation.getString("restaurantId");
+            int portions = donation.getInt("quantity");
+            long amount = (long) donation.getInt("unitPrice") * portions;
+            int points = donation.getInt("pointsEarned");
+            addToRollup(realm, rollups, DonationRollup.DAY, DonationRollup.dayBucket(donationDate),
+                    restaurantId, donation.getString("restaurantName"), portions, amount, points);
+            addToRollup(realm, rollups, DonationRollup.MONTH, DonationRollup.monthBucket(donationDate),
+                    restaurantId, donation.getString("restaurantName"), portions, amount, points);
+        }
+    }
+
+    
+    private static void addToRollup(DynamicRealm realm, Map<String, DynamicRealmObject> rollups, String granularity,
+                                    int bucket, String restaurantId, String restaurantName,
+                                    int portions, long amount, int points) {
+        String rollupId = DonationRollup.rollupId(granularity, bucket, restaurantId);
+        DynamicRealmObject rollup = rollups.get(rollupId);
+        if (rollup == null) {
+            rollup = realm.createObject("DonationRollup", rollupId);
+            rollup.setString("granularity", granularity);
+            rollup.setInt("bucket", bucket);
+            rollup.setString("restaurantId", restaurantId);
+            rollups.put(rollupId, rollup);
+        }
+        if (restaurantName != null) rollup.setString("restaurantName", restaurantName);
+        rollup.setInt("donations", rollup.getInt("donations") + 1);
+        rollup.setInt("portions", rollup.getInt("portions") + portions);
+        rollup.setLong("amount", rollup.getLong("amount") + amount);
+        rollup.setInt("points", rollup.getInt("points") + points);
+    }
+
+    
+    private static void backfillLeaderboard(DynamicRealm realm) {
+        for (DynamicRealmObject donation : realm.where("Donation").findAll()) {
+            String userId = donation.getString("userId");
+            for (String scope : new String[]{LeaderboardEntry.GLOBAL_SCOPE, donation.getString("restaurantId")}) {
+                String entryId = LeaderboardEntry.entryId(scope, userId);
+                DynamicRealmObject entry = realm.where("LeaderboardEntry").equalTo("entryId", entryId).findFirst();
+                if (entry == null) {
+                    entry = realm.createObject("LeaderboardEntry", entryId);
+                    entry.setString("scope", scope);
+                    entry.setString("userId", userId);
+                }
+                entry.setInt("points", entry.getInt("points") + donation.getInt("pointsEarned"));
+                entry.setInt("portions", entry.getInt("portions") + donation.getInt("quantity"));
+            }
+        }
+    }
+
+    
+    private static void backfillUserStats(DynamicRealm realm) {
+        int currentMonth = UserStats.monthKey(new Date());
+
+        // Donasi diproses dari yang terlama agar restoran favorit dan total bulanan sama
+        // dengan hasil pembaruan inkremental di DonationManager
+        for (DynamicRealmObject donation : realm.where("Donation").sort("donationDate", Sort.ASCENDING).findAll()) {
+            DynamicRealmObject stats = getOrCreateStats(realm, donation.getString("userId"));
+            int portions = donation.getInt("quantity");
+            long amount = (long) donation.getInt("unitPrice") * portions;
+            stats.setInt("totalDonations", stats.getInt("totalDonations") + 1);
+            stats.setInt("totalPortions", stats.getInt("totalPortions") + portions);
+            stats.setLong("totalAmount", stats.getLong("totalAmount") + amount);
+            stats.setInt("totalPointsEarned", stats.getInt("totalPointsEarned") + donation.getInt("pointsEarned"));
+
+            Date donationDate = donation.getDate("donationDate");
+            if (donationDate != null && UserStats.monthKey(donationDate) == currentMonth) {
+                stats.setInt("monthKey", currentMonth);
+                stats.setInt("monthlyDonations", stats.getInt("monthlyDonations") + 1);
+                stats.setInt("monthlyPortions", stats.getInt("monthlyPortions") + portions);
+                stats.setLong("monthlyAmount", stats.getLong("monthlyAmount") + amount);
+            }
+
+            String restaurantId = donation.getString("restaurantId");
+            RealmDictionary<Integer> perRestaurant = stats.getDictionary("portionsByRestaurant", Integer.class);
+            Integer current = perRestaurant.get(restaurantId);
+            int restaurantPortions = (current != null ? current : 0) + portions;
+            perRestaurant.put(restaurantId, restaurantPortions);
+            if (restaurantPortions > stats.getInt("favoriteRestaurantPortions")
+                    || restaurantId.equals(stats.getString("favoriteRestaurantId"))) {
+                stats.setString("favoriteRestaurantId", restaurantId);
+                stats.setString("favoriteRestaurantName", donation.getString("restaurantName"));
+                stats.setInt("favoriteRestaurantPortions", restaurantPortions);
+            }
+        }
+
+        for (DynamicRealmObject exchange : realm.where("UserRewardExchange").findAll()) {
+            DynamicRealmObject stats = getOrCreateStats(realm, exchange.getString("userId"));
+            stats.setInt("totalRedemptions", stats.getInt("totalRedemptions") + 1);
+            stats.setInt("totalPointsRedeemed", stats.getInt("totalPointsRedeemed") + exchange.getInt("pointsUsed"));
+        }
+    }
+
+    
+    private static DynamicRealmObject getOrCreateStats(DynamicRealm realm, String userId) {
+        DynamicRealmObject stats = realm.where("UserStats").equalTo("userId", userId).findFirst();
+        return stats != null ? stats : realm.createObject("UserStats", userId);
+    }
+
+    
+    private static void backfillDonationSnapshot(DynamicRealm realm, DynamicRealmObject donation) {
+        DynamicRealmObject food = realm.where("Food")
+                .equalTo("foodId", donation.getString("foodId"))
+                .findFirst();
+        if (food != null) {
+            String foodName = donation.getString("foodName");
+            if (foodName == null || foodName.isEmpty()) {
+                donation.setString("foodName", food.getString("name") != null ? food.getString("name") : "");
+            }
+            donation.setInt("unitPrice", food.getInt("price"));
+        }
+
+        DynamicRealmObject restaurant = realm.where("Restaurant")
+                .equalTo("restaurantId", donation.getString("restaurantId"))
+                .findFirst();
+        if (restaurant != null) {
+            donation.setString("restaurantName", restaurant.getString("name"));
+        }
+    }
+
+    
+    private static void backfillRewardName(DynamicRealm realm, DynamicRealmObject exchange) {
+        DynamicRealmObject reward = realm.where("Reward")
+                .equalTo("rewardId", exchange.getString("rewardId"))
+                .findFirst();
+        if (reward != null) {
+            exchange.setString("rewardName", reward.getString("name"));
+        }
+    }
+
+    // Penukaran yang masih antre di outbox ikut membawa nama hadiah, karena server tidak mengenal rewardId seed
+    private static void backfillOutboxRewardNames(DynamicRealm realm) {
+        for (DynamicRealmObject entry : realm.where("OutboxEntry")
+                .equalTo("type", OutboxEntry.TYPE_REWARD_EXCHANGE)
+                .findAll()) {
+            try {
+                JSONObject payload = new JSONObject(entry.getString("payload"));
+                if (payload.has("rewardName")) continue;
+                DynamicRealmObject reward = realm.where("Reward")
+                        .equalTo("rewardId", payload.getString("rewardId"))
+                        .findFirst();
+                if (reward == null) continue;
+                payload.put("rewardName", reward.getString("name"));
+                entry.setString("payload", payload.toString());
+            } catch (JSONException e) {
+                Log.w("DatabaseMigration", "Payload outbox tidak valid: " + entry.getString("entryId"), e);
+            }
+        }
+    }
+
+    
+    private static void addIndex(RealmObjectSchema objectSchema, String fieldName) {
+        if (objectSchema != null && !objectSchema.hasIndex(fieldName)) {
+            objectSchema.addIndex(fieldName);
+        }
+    }
+
+    // Realm membandingkan konfigurasi, termasuk objek migrasi, saat file yang sama dibuka ulang
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof DatabaseMigration;
+    }
+
+    @Override
+    public int hashCode() {
+        return DatabaseMigration.class.hashCode();
+    }
+}
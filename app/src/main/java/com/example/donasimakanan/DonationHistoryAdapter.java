@@ -9,27 +9,30 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.example.donasimakanan.manager.FoodManager;
 import com.example.donasimakanan.model.Donation;
-import com.example.donasimakanan.model.Food;
 
 import java.text.SimpleDateFormat;
-import java.util.List;
 import java.util.Locale;
 
+import io.realm.RealmResults;
+
 
 public class DonationHistoryAdapter extends RecyclerView.Adapter<DonationHistoryAdapter.ViewHolder> {
 
-    private List<Donation> donationList;
+    // Jumlah baris yang ditambahkan setiap kali halaman berikutnya dimuat
+    public static final int PAGE_SIZE = 20;
+
+    private final RealmResults<Donation> donations;
     private Context context;
-    private FoodManager foodManager;
+    // Jumlah baris yang sudah "dibuka" untuk RecyclerView, bertambah per halaman saat di-scroll
+    private int loadedCount = PAGE_SIZE;
+    // Formatter dipakai ulang untuk semua baris
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("dd MMMM yyyy", new Locale("id", "ID"));
 
     
-    public DonationHistoryAdapter(Context context, List<Donation> donationList) {
+    public DonationHistoryAdapter(Context context, RealmResults<Donation> donations) {
         this.context = context;
-        this.donationList = donationList;
-        // Menginisialisasi FoodManager untuk mengambil detail makanan
-        this.foodManager = new FoodManager();
+        this.donations = donations;
     }
 
     
@@ -43,21 +46,20 @@ public class DonationHistoryAdapter extends RecyclerView.Adapter<DonationHistory
     
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        Donation donation = donationList.get(position);
-        if (donation != null) {
-            
-            Food food = foodManager.getFoodById(donation.getFoodId());
-            if (food != null) {
-                holder.tvFoodName.setText("Donasi: " + food.getName());
-            } else {
-                holder.tvFoodName.setText("Donasi: Makanan tidak ditemukan");
-            }
-
-            holder.tvQuantity.setText("Jumlah: " + donation.getQuantity() + " Porsi");
+        Donation donation = donations.get(position);
+        if (donation != null && donation.isValid()) {
+            // Semua data diambil dari snapshot di Donation, tanpa query ke tabel lain
+            String foodName = donation.getFoodName();
+            holder.tvFoodName.setText("Donasi: " + (foodName != null && !foodName.isEmpty() ? foodName : "Makanan tidak diketahui"));
+            String restaurantName = donation.getRestaurantName();
+            holder.tvRestaurant.setVisibility(restaurantName != null ? View.VISIBLE : View.GONE);
+            holder.tvRestaurant.setText(restaurantName);
+
+            holder.tvQuantity.setText("Jumlah: " + donation.getQuantity() + " Porsi (Rp "
+                    + (donation.getUnitPrice() * donation.getQuantity()) + ")");
 
             // Memformat objek Date menjadi string yang lebih mudah dibaca oleh pengguna
-            SimpleDateFormat sdf = new SimpleDateFormat("dd MMMM yyyy", new Locale("id", "ID"));
-            String formattedDate = sdf.format(donation.getDonationDate());
+            String formattedDate = dateFormat.format(donation.getDonationDate());
             holder.tvDate.setText("Tanggal: " + formattedDate);
         }
     }
@@ -65,17 +67,42 @@ public class DonationHistoryAdapter extends RecyclerView.Adapter<DonationHistory
     
     @Override
     public int getItemCount() {
-        return donationList != null ? donationList.size() : 0;
+        if (donations == null || !donations.isValid()) {
+            return 0;
+        }
+        return Math.min(loadedCount, donations.size());
+    }
+
+    
+    public boolean hasMore() {
+        return donations != null && donations.isValid() && loadedCount < donations.size();
+    }
+
+    
+    public void loadNextPage() {
+        if (!hasMore()) {
+            return;
+        }
+        int before = getItemCount();
+        loadedCount += PAGE_SIZE;
+        notifyItemRangeInserted(before, getItemCount() - before);
+    }
+
+    
+    public void onResultsChanged() {
+        // Dipanggil dari change listener RealmResults, misalnya setelah query async selesai atau ada donasi baru
+        notifyDataSetChanged();
     }
 
    
     public class ViewHolder extends RecyclerView.ViewHolder {
-        TextView tvFoodName, tvQuantity, tvDate;
+        TextView tvFoodName, tvRestaurant, tvQuantity, tvDate;
 
         
         public ViewHolder(@NonNull View itemView) {
             super(itemView);
             tvFoodName = itemView.findViewById(R.id.tv_history_food_name);
+            tvRestaurant = itemView.findViewById(R.id.tv_history_restaurant);
             tvQuantity = itemView.findViewById(R.id.tv_history_quantity);
             tvDate = itemView.findViewById(R.id.tv_history_date);
         }
@@ -15,29 +15,34 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.donasimakanan.manager.DonationManager;
+import com.example.donasimakanan.manager.TransactionCallback;
 import com.example.donasimakanan.model.Food;
 import com.example.donasimakanan.util.SessionManager;
 import com.google.android.material.textfield.TextInputEditText;
 
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
 import javax.annotation.Nonnull;
 
+import io.realm.RealmResults;
 
-public class FoodAdapter extends RecyclerView.Adapter<FoodAdapter.FoodViewHolder> {
-    private List<Food> foods;
+
+public class FoodAdapter extends RealmResultsAdapter<Food, FoodAdapter.FoodViewHolder> {
+    // Kuantitas donasi yang masih diproses per foodId, dipakai untuk update stok secara optimistis
+    private final Map<String, Integer> pendingQuantities = new HashMap<>();
     private DonationManager donationManager;
     private SessionManager sessionManager;
     private String restaurantId;
 
     
-    public FoodAdapter(Context context, List<Food> foods, String restaurantId) {
-        this.foods = foods;
+    public FoodAdapter(Context context, RealmResults<Food> foods, String restaurantId) {
+        super(foods);
         this.restaurantId = restaurantId;
 
         // Inisialisasi manager yang akan digunakan untuk logika bisnis
         this.donationManager = new DonationManager(context);
-        this.sessionManager = new SessionManager(context);
+        this.sessionManager = SessionManager.getInstance(context);
     }
 
     
@@ -49,21 +54,35 @@ public class FoodAdapter extends RecyclerView.Adapter<FoodAdapter.FoodViewHolder
     }
 
     
-    @Override
-    public int getItemCount() {
-        return foods.size();
+    private int displayedStock(Food food) {
+        Integer pending = pendingQuantities.get(food.getFoodId());
+        return food.getStock() - (pending != null ? pending : 0);
+    }
+
+    
+    private void notifyFoodChanged(String foodId) {
+        RealmResults<Food> foods = getData();
+        if (foods == null || !foods.isValid()) return;
+        for (int i = 0; i < foods.size(); i++) {
+            if (foodId.equals(foods.get(i).getFoodId())) {
+                notifyItemChanged(i);
+                return;
+            }
+        }
     }
 
     
     @Override
     public void onBindViewHolder(@Nonnull FoodViewHolder holder, int position) {
-        Food food = foods.get(position);
+        Food food = getItem(position);
+        if (food == null) return;
+        String foodId = food.getFoodId();
 
         // Mengisi data awal makanan ke dalam TextViews
         holder.tvFoodName.setText(food.getName());
         holder.tvFoodDescription.setText(food.getDescription());
         holder.tvFoodPoint.setText("Poin: " + food.getPoint());
-        holder.tvFoodStock.setText("Stok: " + food.getStock());
+        holder.tvFoodStock.setText("Stok: " + displayedStock(food));
         holder.tvFoodPrice.setText("Harga: Rp " + food.getPrice());
 
         // Listener untuk tombol "Donasikan makanan"
@@ -78,7 +97,7 @@ public class FoodAdapter extends RecyclerView.Adapter<FoodAdapter.FoodViewHolder
         holder.btnPlus.setOnClickListener(v -> {
             int currentQuantity = Integer.parseInt(holder.etQuantity.getText().toString());
             // Validasi agar jumlah tidak melebihi stok yang tersedia
-            if (currentQuantity < food.getStock()) {
+            if (currentQuantity < displayedStock(food)) {
                 currentQuantity++;
                 holder.etQuantity.setText(String.valueOf(currentQuantity));
             }
@@ -100,7 +119,6 @@ public class FoodAdapter extends RecyclerView.Adapter<FoodAdapter.FoodViewHolder
             int quantity = Integer.parseInt(quantityStr);
 
             String description = holder.etDescription.getText().toString().trim();
-            String foodId = food.getFoodId();
             String userId = sessionManager.getUserId(); // Mengambil ID pengguna dari sesi
 
             // Validasi sesi pengguna
@@ -109,20 +127,40 @@ public class FoodAdapter extends RecyclerView.Adapter<FoodAdapter.FoodViewHolder
                 return;
             }
 
-            // Validasi ketersediaan stok sebelum melanjutkan
-            if (!donationManager.checkQuantity(foodId, quantity)) {
+            // Validasi terhadap stok di daftar, yang sudah memperhitungkan donasi yang masih diproses.
+            // Transaksi tetap memeriksa ulang stok di database sebelum commit.
+            if (quantity > displayedStock(food)) {
                 Toast.makeText(holder.itemView.getContext(), "Jumlah donasi melebihi stok yang tersedia.", Toast.LENGTH_SHORT).show();
                 return;
             }
 
-            // Memanggil method addDonation dari DonationManager untuk memproses transaksi
-            try {
-                donationManager.addDonation(userId, foodId, quantity, this.restaurantId, description);
-                Toast.makeText(holder.itemView.getContext(), "Donasi berhasil!", Toast.LENGTH_SHORT).show();
-            } catch (Exception e) {
-                Toast.makeText(holder.itemView.getContext(), "Gagal melakukan donasi.", Toast.LENGTH_SHORT).show();
-                Log.e("DonationError", "Error: ", e);
-            }
+            // Update optimistis: stok yang ditampilkan langsung dikurangi sebelum transaksi selesai
+            Context context = holder.itemView.getContext();
+            int points = food.getPoint() * quantity;
+            pendingQuantities.merge(foodId, quantity, Integer::sum);
+            notifyFoodChanged(foodId);
+
+            // Transaksi donasi dijalankan di background, hasilnya dikirim kembali ke UI thread
+            donationManager.addDonationAsync(userId, foodId, quantity, this.restaurantId, description,
+                    new TransactionCallback() {
+                        @Override
+                        public void onSuccess() {
+                            // Stok asli di RealmResults sudah ter-update, jadi kuantitas tertunda dilepas
+                            releasePending(foodId, quantity);
+                            Toast.makeText(context, "Donasi berhasil! +" + points + " poin", Toast.LENGTH_SHORT).show();
+                        }
+
+                        @Override
+                        public void onError(Throwable error) {
+                            // Rollback update optimistis karena transaksi gagal
+                            releasePending(foodId, quantity);
+                            String message = error instanceof IllegalArgumentException
+                                    ? error.getMessage()
+                                    : "Gagal melakukan donasi.";
+                            Toast.makeText(context, message, Toast.LENGTH_SHORT).show();
+                            Log.e("DonationError", "Error: ", error);
+                        }
+                    });
 
             // Mengembalikan tampilan item ke kondisi semula setelah donasi
             holder.quantityLayout.setVisibility(View.GONE);
@@ -133,6 +171,17 @@ public class FoodAdapter extends RecyclerView.Adapter<FoodAdapter.FoodViewHolder
     }
 
     
+    private void releasePending(String foodId, int quantity) {
+        Integer pending = pendingQuantities.get(foodId);
+        if (pending == null || pending <= quantity) {
+            pendingQuantities.remove(foodId);
+        } else {
+            pendingQuantities.put(foodId, pending - quantity);
+        }
+        notifyFoodChanged(foodId);
+    }
+
+    
     public static class FoodViewHolder extends RecyclerView.ViewHolder {
         TextView tvFoodName, tvFoodDescription, tvFoodPoint, tvFoodStock, tvFoodPrice;
         Button btnDonate, btnMinus, btnPlus, btnConfirm;
@@ -8,26 +8,34 @@ import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.Button;
 import android.widget.TextView;
+import android.widget.Toast;
 
 import com.example.donasimakanan.manager.DonationManager;
+import com.example.donasimakanan.manager.ExportManager;
 import com.example.donasimakanan.model.Donation;
+import com.example.donasimakanan.util.ExportWriter;
 import com.example.donasimakanan.util.SessionManager;
 
-import java.util.List;
+import java.io.File;
+import java.io.IOException;
 
-import io.realm.Realm;
+import io.realm.RealmResults;
 
 
 public class HistoryFragment extends Fragment {
 
-    private Realm realm;
+    // Jarak (dalam baris) dari akhir daftar sebelum halaman berikutnya dimuat
+    private static final int PREFETCH_DISTANCE = 5;
+
     private RecyclerView rvDonationHistory;
     private DonationHistoryAdapter adapter;
-    private List<Donation> donationList;
+    private RealmResults<Donation> donations;
     private DonationManager donationManager;
     private SessionManager sessionManager;
     private TextView tvEmptyMessage; // Opsional, untuk pesan jika riwayat kosong
@@ -41,10 +49,11 @@ public class HistoryFragment extends Fragment {
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        // Membuka instance Realm yang akan digunakan selama siklus hidup Fragment ini
-        realm = Realm.getDefaultInstance();
+        // Instance Realm dari pool ditahan selama siklus hidup Fragment ini dan dilepas otomatis saat onDestroy.
+        // Fragment yang dipulihkan dari saved state bisa dibuat sebelum warm-up selesai, jadi menunggu dulu.
+        DatabaseManager.getInstance().whenRealmReady(this, () -> DatabaseManager.getInstance().bindToLifecycle(this));
         // Menginisialisasi manager yang diperlukan
-        sessionManager = new SessionManager(requireContext());
+        sessionManager = SessionManager.getInstance(requireContext());
         donationManager = new DonationManager(requireContext());
     }
 
@@ -66,30 +75,74 @@ public class HistoryFragment extends Fragment {
 
         // Memeriksa apakah ada sesi pengguna yang aktif
         if (sessionManager.isLoggedIn()) {
-            String userId = sessionManager.getUserId();
-
-            // Mengambil daftar riwayat donasi untuk pengguna yang sedang login
-            donationList = donationManager.getUserDonation(userId);
-
-            // Menyiapkan Adapter dan RecyclerView untuk menampilkan data
-            adapter = new DonationHistoryAdapter(getContext(), donationList);
-            rvDonationHistory.setLayoutManager(new LinearLayoutManager(getContext()));
-            rvDonationHistory.setAdapter(adapter);
+            DatabaseManager.getInstance().whenRealmReady(getViewLifecycleOwner(), () -> showHistory(view));
+        }
+    }
 
-            
+    
+    private void showHistory(View view) {
+        String userId = sessionManager.getUserId();
+
+        // Mengambil riwayat donasi (live, terurut terbaru) untuk pengguna yang sedang login
+        donations = donationManager.getUserDonationHistory(userId);
+
+        // Menyiapkan Adapter dan RecyclerView untuk menampilkan data
+        adapter = new DonationHistoryAdapter(getContext(), donations);
+        LinearLayoutManager layoutManager = new LinearLayoutManager(getContext());
+        rvDonationHistory.setLayoutManager(layoutManager);
+        rvDonationHistory.setAdapter(adapter);
+        donations.addChangeListener(results -> adapter.onResultsChanged());
+
+        // Halaman berikutnya dimuat saat pengguna mendekati akhir daftar
+        rvDonationHistory.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                int lastVisible = layoutManager.findLastVisibleItemPosition();
+                if (dy > 0 && lastVisible >= adapter.getItemCount() - PREFETCH_DISTANCE) {
+                    recyclerView.post(adapter::loadNextPage);
+                }
+            }
+        });
+
+        Button btnExport = view.findViewById(R.id.btn_export_history);
+        btnExport.setOnClickListener(v -> exportHistory(btnExport, userId));
+    }
 
-        } else {
-            
-        }
+    
+    private void exportHistory(Button button, String userId) {
+        // Riwayat bisa sangat panjang, jadi ekspor dijalankan di background dan ditulis langsung ke file
+        button.setEnabled(false);
+        File directory = new File(requireContext().getExternalFilesDir(null), "exports");
+        File file = new File(directory, "riwayat-donasi-" + System.currentTimeMillis() + ".csv");
+        DatabaseManager.getInstance().getBackgroundExecutor().execute(() -> {
+            String message;
+            try {
+                if (!directory.isDirectory() && !directory.mkdirs()) {
+                    throw new IOException("Folder ekspor tidak bisa dibuat: " + directory);
+                }
+                ExportManager.Report report = new ExportManager()
+                        .exportDonations(userId, file, ExportWriter.Format.CSV, null);
+                message = report.getRows() + " donasi diekspor ke " + file.getAbsolutePath();
+            } catch (IOException e) {
+                Log.e("HistoryFragment", "Ekspor riwayat gagal", e);
+                message = "Ekspor gagal, silakan coba lagi.";
+            }
+            String result = message;
+            button.post(() -> {
+                if (!isAdded()) return;
+                button.setEnabled(true);
+                Toast.makeText(getContext(), result, Toast.LENGTH_LONG).show();
+            });
+        });
     }
 
-   
+    
     @Override
-    public void onDestroy() {
-        super.onDestroy();
-        
-        if (realm != null && !realm.isClosed()) {
-            realm.close();
+    public void onDestroyView() {
+        super.onDestroyView();
+        // Listener dilepas agar adapter milik view yang sudah dihancurkan tidak ikut ter-update
+        if (donations != null) {
+            donations.removeAllChangeListeners();
         }
     }
 }
@@ -1,9 +1,20 @@
 package com.example.donasimakanan;
 
+import android.Manifest;
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.location.Location;
+import android.location.LocationManager;
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
 import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
@@ -12,14 +23,25 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.Button;
+import android.widget.EditText;
 import android.widget.TextView;
+import android.widget.Toast;
 
 import com.example.donasimakanan.manager.RestaurantManager;
+import com.example.donasimakanan.manager.SearchManager;
 import com.example.donasimakanan.manager.UserManager;
+import com.example.donasimakanan.manager.UserStatsManager;
+import com.example.donasimakanan.model.LeaderboardEntry;
 import com.example.donasimakanan.model.Restaurant;
 import com.example.donasimakanan.model.User;
+import com.example.donasimakanan.model.UserStats;
 
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.Locale;
+
+import io.realm.RealmResults;
 
 
 public class HomeFragment extends Fragment {
@@ -32,10 +54,34 @@ public class HomeFragment extends Fragment {
     private UserManager userManager;
     // Komponen UI untuk menampilkan informasi pengguna
     private TextView tvPoints, tvBalance, tvUsername;
+    // Komponen UI untuk statistik donasi pengguna
+    private TextView tvStatsTotal, tvStatsMonth, tvStatsFavorite;
     // Tombol untuk navigasi ke halaman tukar poin
     private Button btnRedeem;
     // Manager untuk mengelola data restoran
     private RestaurantManager restaurantManager = new RestaurantManager();
+    // Manager untuk membaca statistik agregat pengguna
+    private UserStatsManager userStatsManager = new UserStatsManager();
+    // Jumlah maksimum hasil pencarian yang ditampilkan
+    private static final int SEARCH_LIMIT = 30;
+    // Adapter untuk hasil pencarian restoran dan menu
+    private SearchResultAdapter searchAdapter;
+    // Jumlah maksimum restoran terdekat yang ditampilkan
+    private static final int NEARBY_LIMIT = 10;
+    // Komponen UI untuk daftar restoran terdekat
+    private Button btnNearby;
+    private RecyclerView rvNearby;
+    private SearchResultAdapter nearbyAdapter;
+    private boolean showingNearby;
+    // Meminta izin lokasi perkiraan saat pengguna pertama kali memilih urutan terdekat
+    private final ActivityResultLauncher<String> locationPermission = registerForActivityResult(
+            new ActivityResultContracts.RequestPermission(), granted -> {
+                if (granted) {
+                    showNearby();
+                } else if (getContext() != null) {
+                    Toast.makeText(getContext(), "Izin lokasi diperlukan untuk mengurutkan restoran terdekat.", Toast.LENGTH_SHORT).show();
+                }
+            });
 
     
     public HomeFragment() {
@@ -51,34 +97,73 @@ public class HomeFragment extends Fragment {
     
     @Override
     public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
-        View view = inflater.inflate(R.layout.fragment_home, container, false);
+        View view = StartupTrace.trace("HomeFragment.inflate", () -> inflater.inflate(R.layout.fragment_home, container, false));
 
         // Inisialisasi semua komponen UI dari layout
         Button btn_topup = view.findViewById(R.id.btn_top_up_balance);
         btnRedeem = view.findViewById(R.id.btn_redeem_points);
+        Button btnLeaderboard = view.findViewById(R.id.btn_leaderboard);
         rvRestaurant = view.findViewById(R.id.rv_restaurants);
         tvPoints = view.findViewById(R.id.tv_points);
         tvBalance = view.findViewById(R.id.tv_balance);
         tvUsername = view.findViewById(R.id.tv_username);
+        tvStatsTotal = view.findViewById(R.id.tv_stats_total);
+        tvStatsMonth = view.findViewById(R.id.tv_stats_month);
+        tvStatsFavorite = view.findViewById(R.id.tv_stats_favorite);
 
         // Menyiapkan RecyclerView untuk menampilkan daftar restoran
         rvRestaurant.setLayoutManager(new LinearLayoutManager(getContext()));
-        List<Restaurant> restaurantList = restaurantManager.getAllRestaurants();
-        restaurantAdapter = new RestaurantAdapter(restaurantList);
-        rvRestaurant.setAdapter(restaurantAdapter);
 
-        // Mengambil data pengguna yang sedang login dan memperbarui UI
-        User currentUser = userManager.getCurrentUser();
-        if (currentUser != null) {
-            tvBalance.setText("Saldo Anda: Rp " + currentUser.getBalance());
-            tvPoints.setText("Poin Anda: " + currentUser.getTotalPoints());
-            tvUsername.setText("Halo, " + currentUser.getFullName());
-        } else {
-            // Menangani kasus jika tidak ada pengguna yang login
-            tvPoints.setText("Login untuk melihat poin");
-            tvBalance.setText("Saldo Anda: -");
-            tvUsername.setText("Halo, Tamu");
-        }
+        // Urutan terdekat: restoran yang masih menerima donasi, diurutkan dari lokasi terakhir perangkat
+        btnNearby = view.findViewById(R.id.btn_nearby);
+        rvNearby = view.findViewById(R.id.rv_nearby);
+        nearbyAdapter = new SearchResultAdapter();
+        rvNearby.setLayoutManager(new LinearLayoutManager(getContext()));
+        rvNearby.setAdapter(nearbyAdapter);
+        btnNearby.setOnClickListener(v -> {
+            if (showingNearby) {
+                setShowingNearby(false);
+            } else if (ContextCompat.checkSelfPermission(requireContext(), Manifest.permission.ACCESS_COARSE_LOCATION)
+                    == PackageManager.PERMISSION_GRANTED) {
+                showNearby();
+            } else {
+                locationPermission.launch(Manifest.permission.ACCESS_COARSE_LOCATION);
+            }
+        });
+
+        // Pencarian saat mengetik: dijawab dari index n-gram di memori, bukan query Realm
+        RecyclerView rvSearchResults = view.findViewById(R.id.rv_search_results);
+        TextView tvRestaurantListTitle = view.findViewById(R.id.tv_restaurant_list_title);
+        EditText etSearch = view.findViewById(R.id.et_search);
+        searchAdapter = new SearchResultAdapter();
+        rvSearchResults.setLayoutManager(new LinearLayoutManager(getContext()));
+        rvSearchResults.setAdapter(searchAdapter);
+        etSearch.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                String query = s.toString().trim();
+                boolean searching = !query.isEmpty();
+                searchAdapter.setResults(searching
+                        ? SearchManager.getInstance().search(query, SEARCH_LIMIT)
+                        : new ArrayList<>());
+                rvSearchResults.setVisibility(searching ? View.VISIBLE : View.GONE);
+                rvRestaurant.setVisibility(searching || showingNearby ? View.GONE : View.VISIBLE);
+                rvNearby.setVisibility(!searching && showingNearby ? View.VISIBLE : View.GONE);
+                btnNearby.setVisibility(searching ? View.GONE : View.VISIBLE);
+                tvRestaurantListTitle.setVisibility(searching ? View.GONE : View.VISIBLE);
+            }
+        });
+
+        // Realm UI thread milik MainActivity belum terbuka jika fragment ini dipulihkan sebelum warm-up selesai
+        DatabaseManager.getInstance().whenRealmReady(getViewLifecycleOwner(), this::showRealmData);
 
         // Menetapkan listener untuk tombol "Isi Saldo"
         btn_topup.setOnClickListener(v -> {
@@ -106,6 +191,111 @@ public class HomeFragment extends Fragment {
             }
         });
 
+        // Menetapkan listener untuk tombol "Peringkat Donatur" (semua restoran)
+        btnLeaderboard.setOnClickListener(v -> {
+            if (getActivity() != null) {
+                getActivity().getSupportFragmentManager().beginTransaction()
+                        .replace(R.id.fragment_container, LeaderboardFragment.newInstance(LeaderboardEntry.GLOBAL_SCOPE))
+                        .addToBackStack(null)
+                        .commit();
+            }
+        });
+
+        // Frame pertama HomeFragment menutup timeline startup dan menulis laporannya
+        StartupTrace.markFirstFrame(requireActivity(), view, StartupTrace.HOME_FIRST_FRAME);
         return view;
     }
+
+    
+    private void showRealmData() {
+        // Daftar restoran live: perubahan data diteruskan per baris lewat change set
+        RealmResults<Restaurant> restaurants = StartupTrace.trace("HomeFragment.getRestaurantResults",
+                restaurantManager::getRestaurantResults);
+        restaurantAdapter = new RestaurantAdapter(restaurants);
+        rvRestaurant.setAdapter(restaurantAdapter);
+
+        // Mengambil data pengguna yang sedang login dan memperbarui UI
+        User currentUser = StartupTrace.trace("HomeFragment.getCurrentUser", userManager::getCurrentUser);
+        if (currentUser != null) {
+            tvBalance.setText("Saldo Anda: Rp " + currentUser.getBalance());
+            tvPoints.setText("Poin Anda: " + currentUser.getTotalPoints());
+            tvUsername.setText("Halo, " + currentUser.getFullName());
+            showStats(userStatsManager.getUserStats(currentUser.getUserId()));
+        } else {
+            // Menangani kasus jika tidak ada pengguna yang login
+            tvPoints.setText("Login untuk melihat poin");
+            tvBalance.setText("Saldo Anda: -");
+            tvUsername.setText("Halo, Tamu");
+            showStats(null);
+        }
+    }
+
+    
+    private void showNearby() {
+        Location location = lastKnownLocation();
+        if (location == null) {
+            Toast.makeText(getContext(), "Lokasi perangkat belum tersedia, coba lagi nanti.", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        btnNearby.setEnabled(false);
+        // Query GeoGrid membuka Realm sendiri, jadi dijalankan di background dan hasilnya berupa salinan.
+        // Pengguna menunggu tombolnya aktif lagi, jadi tidak diantrekan di belakang sinkronisasi katalog.
+        DatabaseManager.getInstance().getInteractiveExecutor().execute(() -> {
+            List<SearchManager.Result> results = new ArrayList<>();
+            for (RestaurantManager.NearbyRestaurant nearby : restaurantManager.getNearestAcceptingRestaurants(
+                    location.getLatitude(), location.getLongitude(), NEARBY_LIMIT)) {
+                Restaurant restaurant = nearby.getRestaurant();
+                results.add(new SearchManager.Result(SearchManager.ResultType.RESTAURANT, restaurant.getRestaurantId(),
+                        restaurant.getName(), String.format(Locale.US, "%.1f km · %s", nearby.getDistanceKm(),
+                        restaurant.getAddress()), restaurant.getRestaurantId()));
+            }
+            rvNearby.post(() -> {
+                if (!isAdded()) return;
+                btnNearby.setEnabled(true);
+                nearbyAdapter.setResults(results);
+                setShowingNearby(true);
+            });
+        });
+    }
+
+    
+    private void setShowingNearby(boolean nearby) {
+        showingNearby = nearby;
+        rvNearby.setVisibility(nearby ? View.VISIBLE : View.GONE);
+        rvRestaurant.setVisibility(nearby ? View.GONE : View.VISIBLE);
+        btnNearby.setText(nearby ? "Urutkan Default" : "Urutkan Terdekat");
+    }
+
+    
+    // Hanya dipanggil setelah izin ACCESS_COARSE_LOCATION diperiksa atau diberikan
+    @SuppressLint("MissingPermission")
+    @Nullable
+    private Location lastKnownLocation() {
+        // Lokasi terakhir dari provider mana pun sudah cukup untuk mengurutkan jarak ke restoran
+        LocationManager locationManager = (LocationManager) requireContext().getSystemService(Context.LOCATION_SERVICE);
+        Location best = null;
+        for (String provider : locationManager.getProviders(true)) {
+            Location location = locationManager.getLastKnownLocation(provider);
+            if (location != null && (best == null || location.getTime() > best.getTime())) {
+                best = location;
+            }
+        }
+        return best;
+    }
+
+    
+    private void showStats(@Nullable UserStats stats) {
+        // Statistik dibaca dari satu objek agregat, bukan dihitung dari seluruh riwayat donasi
+        if (stats == null) {
+            tvStatsTotal.setText("Total donasi: 0 porsi");
+            tvStatsMonth.setText("Bulan ini: 0 porsi");
+            tvStatsFavorite.setText("Restoran favorit: -");
+            return;
+        }
+        Date now = new Date();
+        tvStatsTotal.setText("Total donasi: " + stats.getTotalPortions() + " porsi (Rp " + stats.getTotalAmount() + ")");
+        tvStatsMonth.setText("Bulan ini: " + stats.getMonthlyPortions(now) + " porsi (Rp " + stats.getMonthlyAmount(now) + ")");
+        String favorite = stats.getFavoriteRestaurantName();
+        tvStatsFavorite.setText("Restoran favorit: " + (favorite != null ? favorite : "-"));
+    }
 }
@@ -0,0 +1,69 @@
+package com.example.donasimakanan;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.donasimakanan.manager.UserManager;
+import com.example.donasimakanan.model.User;
+import com.example.donasimakanan.util.RankingIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class LeaderboardAdapter extends RecyclerView.Adapter<LeaderboardAdapter.LeaderboardViewHolder> {
+
+    private final UserManager userManager;
+    private List<RankingIndex.Entry> entries = new ArrayList<>();
+    private String unit = "";
+
+    public LeaderboardAdapter(Context context) {
+        this.userManager = new UserManager(context);
+    }
+
+    // Mengganti isi daftar dengan hasil top-K terbaru dari indeks peringkat
+    public void setEntries(List<RankingIndex.Entry> entries, String unit) {
+        this.entries = entries;
+        this.unit = unit;
+        notifyDataSetChanged();
+    }
+
+    @NonNull
+    @Override
+    public LeaderboardViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_leaderboard, parent, false);
+        return new LeaderboardViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull LeaderboardViewHolder holder, int position) {
+        RankingIndex.Entry entry = entries.get(position);
+        // Nama dibaca lewat primary key, hanya untuk baris yang tampil
+        User user = userManager.getUserById(entry.getId());
+
+        holder.tvRank.setText("#" + (position + 1));
+        holder.tvName.setText(user != null ? user.getFullName() : "-");
+        holder.tvScore.setText(entry.getScore() + " " + unit);
+    }
+
+    @Override
+    public int getItemCount() {
+        return entries.size();
+    }
+
+    public static class LeaderboardViewHolder extends RecyclerView.ViewHolder {
+        TextView tvRank, tvName, tvScore;
+
+        public LeaderboardViewHolder(@NonNull View itemView) {
+            super(itemView);
+            tvRank = itemView.findViewById(R.id.tv_rank);
+            tvName = itemView.findViewById(R.id.tv_donor_name);
+            tvScore = itemView.findViewById(R.id.tv_score);
+        }
+    }
+}
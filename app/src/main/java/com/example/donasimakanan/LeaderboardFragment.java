@@ -0,0 +1,110 @@
+package com.example.donasimakanan;
+
+import android.os.Bundle;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.TextView;
+
+import com.example.donasimakanan.manager.LeaderboardManager;
+import com.example.donasimakanan.manager.RestaurantManager;
+import com.example.donasimakanan.model.LeaderboardEntry;
+import com.example.donasimakanan.model.RestaurantSnapshot;
+import com.example.donasimakanan.util.RankingIndex;
+import com.example.donasimakanan.util.SessionManager;
+
+import java.util.List;
+
+
+public class LeaderboardFragment extends Fragment {
+    // Kunci untuk cakupan peringkat (GLOBAL_SCOPE atau restaurantId) di Bundle arguments
+    private static final String ARG_SCOPE = "scope";
+    // Jumlah donatur teratas yang ditampilkan
+    private static final int TOP_LIMIT = 20;
+
+    private String scope = LeaderboardEntry.GLOBAL_SCOPE;
+    private LeaderboardManager leaderboardManager = new LeaderboardManager();
+    private LeaderboardAdapter adapter;
+    private SessionManager sessionManager;
+    private TextView tvMyRank;
+
+    
+    public static LeaderboardFragment newInstance(String scope) {
+        LeaderboardFragment fragment = new LeaderboardFragment();
+        Bundle args = new Bundle();
+        args.putString(ARG_SCOPE, scope);
+        fragment.setArguments(args);
+        return fragment;
+    }
+
+    
+    @Override
+    public void onCreate(@Nullable Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        if (getArguments() != null && getArguments().getString(ARG_SCOPE) != null) {
+            scope = getArguments().getString(ARG_SCOPE);
+        }
+        sessionManager = SessionManager.getInstance(requireContext());
+    }
+
+    
+    @Override
+    public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container,
+                             @Nullable Bundle savedInstanceState) {
+        View view = inflater.inflate(R.layout.fragment_leaderboard, container, false);
+
+        TextView tvTitle = view.findViewById(R.id.tv_leaderboard_title);
+        Button btnPoints = view.findViewById(R.id.btn_rank_points);
+        Button btnPortions = view.findViewById(R.id.btn_rank_portions);
+        tvMyRank = view.findViewById(R.id.tv_my_rank);
+        RecyclerView rvLeaderboard = view.findViewById(R.id.rv_leaderboard);
+
+        // Judul menyesuaikan cakupan: seluruh restoran atau satu restoran
+        if (!LeaderboardEntry.GLOBAL_SCOPE.equals(scope)) {
+            // Fragment yang dipulihkan sebelum warm-up selesai belum boleh membuka Realm
+            DatabaseManager.getInstance().whenRealmReady(getViewLifecycleOwner(), () -> {
+                RestaurantSnapshot restaurant = new RestaurantManager().getRestaurantById(scope);
+                if (restaurant != null) {
+                    tvTitle.setText("Peringkat Donatur " + restaurant.getName());
+                }
+            });
+        }
+
+        adapter = new LeaderboardAdapter(requireContext());
+        rvLeaderboard.setLayoutManager(new LinearLayoutManager(getContext()));
+        rvLeaderboard.setAdapter(adapter);
+
+        btnPoints.setOnClickListener(v -> showRanking(LeaderboardManager.Metric.POINTS));
+        btnPortions.setOnClickListener(v -> showRanking(LeaderboardManager.Metric.PORTIONS));
+        DatabaseManager.getInstance().whenRealmReady(getViewLifecycleOwner(),
+                () -> showRanking(LeaderboardManager.Metric.POINTS));
+
+        return view;
+    }
+
+    
+    private void showRanking(LeaderboardManager.Metric metric) {
+        String unit = metric == LeaderboardManager.Metric.POINTS ? "poin" : "porsi";
+        String userId = sessionManager.getUserId();
+        TextView myRank = tvMyRank;
+        // Top-K dan peringkat pengguna dibaca dari indeks peringkat, tanpa mengurutkan seluruh pengguna.
+        // Pembukaan pertama membangun indeks dari seluruh LeaderboardEntry, jadi dijalankan di background.
+        DatabaseManager.getInstance().getInteractiveExecutor().execute(() -> {
+            List<RankingIndex.Entry> top = leaderboardManager.getTop(scope, metric, TOP_LIMIT);
+            int rank = userId != null ? leaderboardManager.getRank(scope, metric, userId) : -1;
+            myRank.post(() -> {
+                if (!isAdded()) return;
+                adapter.setEntries(top, unit);
+                myRank.setText(rank > 0 ? "Peringkat Anda: #" + rank : "Peringkat Anda: -");
+            });
+        });
+    }
+}
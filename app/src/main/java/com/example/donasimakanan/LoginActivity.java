@@ -7,8 +7,8 @@ import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.example.donasimakanan.manager.LoginCallback;
 import com.example.donasimakanan.manager.UserManager;
-import com.example.donasimakanan.model.User;
 import com.example.donasimakanan.util.SessionManager;
 import com.google.android.material.textfield.TextInputEditText;
 
@@ -30,12 +30,25 @@ public class LoginActivity extends AppCompatActivity {
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
-        super.onCreate(savedInstanceState);
+        StartupTrace.Section section = StartupTrace.section("LoginActivity.onCreate");
+        try {
+            super.onCreate(savedInstanceState);
+            setUpContent();
+        } finally {
+            section.close();
+        }
+        StartupTrace.markFirstFrame(this, getWindow().getDecorView(), StartupTrace.LOGIN_FIRST_FRAME);
+    }
+
+    
+    private void setUpContent() {
+        // Instance Realm dari pool ditahan selama Activity ini hidup, dibuka setelah warm-up di background selesai
+        DatabaseManager.getInstance().whenRealmReady(this, () -> DatabaseManager.getInstance().bindToLifecycle(this));
         setContentView(R.layout.activity_login);
 
         // Inisialisasi manager yang diperlukan
         userManager = new UserManager(getApplicationContext());
-        sessionManager = new SessionManager(this);
+        sessionManager = SessionManager.getInstance(this);
 
         // Inisialisasi semua komponen View dan atur listener-nya
         initViews();
@@ -78,28 +91,30 @@ public class LoginActivity extends AppCompatActivity {
             return;
         }
 
-        // Mencari pengguna di database berdasarkan email
-        User user = userManager.getUserByEmail(email);
-
-        if (user == null) {
-            Toast.makeText(this, "Email tidak terdaftar", Toast.LENGTH_SHORT).show();
-            return;
-        }
-
-        // Memverifikasi password yang dimasukkan dengan hash yang tersimpan
-        if (user.verifyPassword(password)) {
-            // Jika login berhasil, buat sesi untuk pengguna
-            sessionManager.createLoginSession(
-                    user.getUserId(),
-                    user.getEmail(),
-                    user.getFullName()
-            );
-
-            Toast.makeText(this, "Login berhasil!", Toast.LENGTH_SHORT).show();
-            redirectToMain(); // Arahkan ke halaman utama
-        } else {
-            Toast.makeText(this, "Password salah", Toast.LENGTH_SHORT).show();
-        }
+        // Verifikasi password (KDF) berjalan di background thread agar UI tidak tersendat
+        btnLogin.setEnabled(false);
+        userManager.authenticateUserAsync(email, password, new LoginCallback() {
+            @Override
+            public void onSuccess(String userId, String userEmail, String fullName) {
+                if (isDestroyed()) return;
+                // Jika login berhasil, buat sesi untuk pengguna
+                sessionManager.createLoginSession(userId, userEmail, fullName);
+
+                Toast.makeText(LoginActivity.this, "Login berhasil!", Toast.LENGTH_SHORT).show();
+                redirectToMain(); // Arahkan ke halaman utama
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                if (isDestroyed()) return;
+                btnLogin.setEnabled(true);
+                // Email tidak terdaftar atau password salah dilaporkan lewat IllegalArgumentException
+                String message = error instanceof IllegalArgumentException
+                        ? error.getMessage()
+                        : "Login gagal, silakan coba lagi.";
+                Toast.makeText(LoginActivity.this, message, Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 
     
@@ -109,13 +124,4 @@ public class LoginActivity extends AppCompatActivity {
         startActivity(intent);
         finish(); // Menutup LoginActivity
     }
-
-    
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        if (userManager != null) {
-            userManager.close();
-        }
-    }
 }
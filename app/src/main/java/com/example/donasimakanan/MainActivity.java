@@ -16,7 +16,19 @@ public class MainActivity extends AppCompatActivity {
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
-        super.onCreate(savedInstanceState);
+        StartupTrace.Section section = StartupTrace.section("MainActivity.onCreate");
+        try {
+            // State Activity selalu dipulihkan; fragment yang dipulihkan sebelum warm-up selesai menunda
+            // akses Realm-nya sendiri lewat whenRealmReady
+            super.onCreate(savedInstanceState);
+            setUpContent();
+        } finally {
+            section.close();
+        }
+    }
+
+    
+    private void setUpContent() {
         // Mengaktifkan mode edge-to-edge agar aplikasi dapat digambar di bawah status dan navigation bar sistem
         EdgeToEdge.enable(this);
         setContentView(R.layout.activity_main);
@@ -29,10 +41,8 @@ public class MainActivity extends AppCompatActivity {
             return insets;
         });
 
-        // Memuat HomeFragment sebagai tampilan default saat MainActivity pertama kali dibuka
-        if (savedInstanceState == null) {
-            getSupportFragmentManager().beginTransaction().replace(R.id.fragment_container, new HomeFragment()).commit();
-        }
+        // Realm UI thread dan HomeFragment menunggu warm-up; sampai itu selesai layout kosong sudah tampil
+        DatabaseManager.getInstance().whenRealmReady(this, this::onRealmReady);
 
         // Inisialisasi BottomNavigationView dan atur listener untuk item yang dipilih
         BottomNavigationView bottomNav = findViewById(R.id.bottom_navigation);
@@ -50,14 +60,28 @@ public class MainActivity extends AppCompatActivity {
             }
 
             // Jika ada fragment yang terpilih, ganti fragment yang sedang tampil di container
-            if (selectedFragment != null) {
+            boolean realmReady = DatabaseManager.getInstance().isRealmReady();
+            if (selectedFragment != null && realmReady) {
                 getSupportFragmentManager().beginTransaction()
                         .replace(R.id.fragment_container, selectedFragment)
                         .commit();
             }
 
-            // Mengembalikan true untuk menandakan bahwa item yang dipilih telah ditangani
-            return true;
+            // Sebelum Realm siap pilihan ditolak, agar item yang disorot tetap sesuai dengan HomeFragment
+            // yang dimuat di onRealmReady
+            return realmReady;
         });
     }
+
+    
+    private void onRealmReady() {
+        // Instance Realm UI thread ditahan selama MainActivity hidup, dipakai oleh semua fragment di dalamnya
+        StartupTrace.trace(StartupTrace.MAIN_REALM_OPEN, () -> DatabaseManager.getInstance().bindToLifecycle(this));
+        // Memuat HomeFragment sebagai tampilan default saat MainActivity pertama kali dibuka
+        if (getSupportFragmentManager().findFragmentById(R.id.fragment_container) == null) {
+            // Bisa berjalan setelah onSaveInstanceState jika warm-up selesai saat Activity sudah di belakang
+            getSupportFragmentManager().beginTransaction().replace(R.id.fragment_container, new HomeFragment())
+                    .commitAllowingStateLoss();
+        }
+    }
 }
@@ -0,0 +1,115 @@
+package com.example.donasimakanan;
+
+import android.os.Bundle;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import com.example.donasimakanan.manager.SnapshotCache;
+import com.example.donasimakanan.util.LatencyHistogram;
+import com.example.donasimakanan.util.MetricsRegistry;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+
+public class MetricsFragment extends Fragment {
+
+    private static final String TAG = "MetricsFragment";
+    // Komponen UI untuk menampilkan tabel latensi
+    private TextView tvMetrics;
+    private final MetricsRegistry metrics = MetricsRegistry.getInstance();
+
+    
+    public MetricsFragment() {
+    }
+
+    
+    @Override
+    public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
+        return inflater.inflate(R.layout.fragment_metrics, container, false);
+    }
+
+    
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        tvMetrics = view.findViewById(R.id.tv_metrics);
+        Button btnRefresh = view.findViewById(R.id.btn_metrics_refresh);
+        Button btnDump = view.findViewById(R.id.btn_metrics_dump);
+        Button btnReset = view.findViewById(R.id.btn_metrics_reset);
+
+        btnRefresh.setOnClickListener(v -> showMetrics());
+        btnDump.setOnClickListener(v -> dumpMetrics(btnDump));
+        btnReset.setOnClickListener(v -> {
+            metrics.reset();
+            showMetrics();
+        });
+        showMetrics();
+    }
+
+    
+    private void showMetrics() {
+        // Satu baris per operasi dan fase, waktu dalam milidetik
+        StringBuilder table = new StringBuilder();
+        table.append(String.format(Locale.US, "%-46s %-11s %7s %8s %8s %8s %5s%n",
+                "operasi", "fase", "n", "p50", "p99", "max", "err"));
+        for (MetricsRegistry.Operation operation : metrics.getOperations()) {
+            for (MetricsRegistry.Phase phase : MetricsRegistry.Phase.values()) {
+                LatencyHistogram histogram = operation.getHistogram(phase);
+                if (histogram == null || histogram.getCount() == 0) continue;
+                table.append(String.format(Locale.US, "%-46s %-11s %7d %8.2f %8.2f %8.2f %5d%n",
+                        operation.getName(), phase.getLabel(), histogram.getCount(),
+                        histogram.getValueAtQuantile(0.5) / 1e6, histogram.getValueAtQuantile(0.99) / 1e6,
+                        histogram.getMaxNanos() / 1e6, operation.getErrorCount()));
+            }
+        }
+        SnapshotCache cache = SnapshotCache.getInstance();
+        long lookups = cache.getHitCount() + cache.getMissCount();
+        table.append(String.format(Locale.US, "%nSnapshotCache: %d hit, %d miss (%.1f%% hit)%n",
+                cache.getHitCount(), cache.getMissCount(), lookups > 0 ? 100.0 * cache.getHitCount() / lookups : 0.0));
+        tvMetrics.setText(table);
+    }
+
+    
+    private void dumpMetrics(Button button) {
+        // Teks Prometheus ditulis ke folder aplikasi agar bisa diambil dengan adb pull
+        button.setEnabled(false);
+        String text = metrics.toPrometheusText();
+        File directory = new File(requireContext().getExternalFilesDir(null), "metrics");
+        File file = new File(directory, "metrics-" + System.currentTimeMillis() + ".prom");
+        DatabaseManager.getInstance().getBackgroundExecutor().execute(() -> {
+            String message;
+            try {
+                if (!directory.isDirectory() && !directory.mkdirs()) {
+                    throw new IOException("Folder metrik tidak bisa dibuat: " + directory);
+                }
+                try (FileOutputStream out = new FileOutputStream(file)) {
+                    out.write(text.getBytes(StandardCharsets.UTF_8));
+                }
+                message = "Metrik disimpan ke " + file.getAbsolutePath();
+            } catch (IOException e) {
+                Log.e(TAG, "Gagal menyimpan metrik", e);
+                message = "Gagal menyimpan metrik.";
+            }
+            String result = message;
+            button.post(() -> {
+                if (!isAdded()) return;
+                button.setEnabled(true);
+                Toast.makeText(getContext(), result, Toast.LENGTH_LONG).show();
+            });
+        });
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.donasimakanan;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+import io.realm.OrderedCollectionChangeSet;
+import io.realm.OrderedRealmCollectionChangeListener;
+import io.realm.RealmModel;
+import io.realm.RealmResults;
+
+
+/**
+ * Adapter dasar untuk RecyclerView yang membaca langsung dari RealmResults.
+ * Perubahan data diteruskan per rentang (insert/remove/change) dari OrderedCollectionChangeSet,
+ * sehingga hanya baris yang benar-benar berubah yang di-bind ulang.
+ */
+public abstract class RealmResultsAdapter<T extends RealmModel, VH extends RecyclerView.ViewHolder>
+        extends RecyclerView.Adapter<VH> {
+
+    @Nullable
+    private RealmResults<T> data;
+    private final OrderedRealmCollectionChangeListener<RealmResults<T>> listener = this::dispatchChanges;
+    private boolean attached;
+
+    
+    protected RealmResultsAdapter(@Nullable RealmResults<T> data) {
+        this.data = data;
+    }
+
+    
+    @Override
+    public int getItemCount() {
+        return isDataValid() ? data.size() : 0;
+    }
+
+    
+    @Nullable
+    public T getItem(int position) {
+        return isDataValid() && position >= 0 && position < data.size() ? data.get(position) : null;
+    }
+
+    
+    @Nullable
+    public RealmResults<T> getData() {
+        return data;
+    }
+
+    
+    public void updateData(@Nullable RealmResults<T> newData) {
+        if (attached) {
+            removeListener(data);
+            addListener(newData);
+        }
+        this.data = newData;
+        notifyDataSetChanged();
+    }
+
+    
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        attached = true;
+        addListener(data);
+    }
+
+    
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        attached = false;
+        removeListener(data);
+    }
+
+    
+    private void dispatchChanges(RealmResults<T> results, OrderedCollectionChangeSet changeSet) {
+        // Hasil pertama dari query async: seluruh daftar baru saja tersedia
+        if (changeSet.getState() == OrderedCollectionChangeSet.State.INITIAL) {
+            notifyDataSetChanged();
+            return;
+        }
+
+        // Penghapusan diproses dari belakang agar posisi rentang sebelumnya tetap benar
+        OrderedCollectionChangeSet.Range[] deletions = changeSet.getDeletionRanges();
+        for (int i = deletions.length - 1; i >= 0; i--) {
+            notifyItemRangeRemoved(deletions[i].startIndex, deletions[i].length);
+        }
+        for (OrderedCollectionChangeSet.Range range : changeSet.getInsertionRanges()) {
+            notifyItemRangeInserted(range.startIndex, range.length);
+        }
+        for (OrderedCollectionChangeSet.Range range : changeSet.getChangeRanges()) {
+            notifyItemRangeChanged(range.startIndex, range.length);
+        }
+    }
+
+    
+    private boolean isDataValid() {
+        return data != null && data.isValid();
+    }
+
+    
+    private void addListener(@Nullable RealmResults<T> results) {
+        if (results != null && results.isValid()) {
+            results.addChangeListener(listener);
+        }
+    }
+
+    
+    private void removeListener(@Nullable RealmResults<T> results) {
+        if (results != null && results.isValid()) {
+            results.removeChangeListener(listener);
+        }
+    }
+}
@@ -11,13 +11,11 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.donasimakanan.manager.RewardManager;
 import com.example.donasimakanan.model.Reward;
-import io.realm.Realm;
 import io.realm.RealmResults;
 
 
 public class RedeemFragment extends Fragment {
 
-    private Realm realm;
     private RecyclerView rvRewards;
     private RewardAdapter adapter;
     private RewardManager rewardManager;
@@ -26,8 +24,9 @@ public class RedeemFragment extends Fragment {
     @Override
     public void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        // Membuka instance Realm yang akan digunakan selama siklus hidup Fragment ini
-        realm = Realm.getDefaultInstance();
+        // Instance Realm dari pool ditahan selama siklus hidup Fragment ini dan dilepas otomatis saat onDestroy.
+        // Fragment yang dipulihkan dari saved state bisa dibuat sebelum warm-up selesai, jadi menunggu dulu.
+        DatabaseManager.getInstance().whenRealmReady(this, () -> DatabaseManager.getInstance().bindToLifecycle(this));
         // Menginisialisasi manager yang diperlukan untuk mengambil data hadiah
         rewardManager = new RewardManager(requireContext());
     }
@@ -44,24 +43,18 @@ public class RedeemFragment extends Fragment {
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
         rvRewards = view.findViewById(R.id.rv_rewards);
+        rvRewards.setLayoutManager(new LinearLayoutManager(getContext()));
+        DatabaseManager.getInstance().whenRealmReady(getViewLifecycleOwner(), this::showRewards);
+    }
 
+    
+    private void showRewards() {
         // Mengambil semua hadiah yang aktif (stok > 0) dari database
         RealmResults<Reward> activeRewards = rewardManager.getAllActiveRewards();
 
         // Menyiapkan Adapter dan RecyclerView untuk menampilkan data
-        // Menggunakan RealmRecyclerViewAdapter (diasumsikan) untuk efisiensi dan update otomatis
+        // RewardAdapter mendengarkan change set dari RealmResults, jadi hanya baris yang berubah yang di-bind ulang
         adapter = new RewardAdapter(requireContext(), activeRewards);
-        rvRewards.setLayoutManager(new LinearLayoutManager(getContext()));
         rvRewards.setAdapter(adapter);
     }
-
-    
-    @Override
-    public void onDestroy() {
-        super.onDestroy();
-        // Menutup instance Realm adalah langkah krusial untuk manajemen memori yang baik
-        if (realm != null && !realm.isClosed()) {
-            realm.close();
-        }
-    }
 }
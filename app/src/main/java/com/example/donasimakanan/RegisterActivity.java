@@ -8,8 +8,8 @@ import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.example.donasimakanan.manager.TransactionCallback;
 import com.example.donasimakanan.manager.UserManager;
-import com.example.donasimakanan.model.User;
 import com.google.android.material.textfield.TextInputEditText;
 
 import java.util.UUID;
@@ -31,6 +31,8 @@ public class RegisterActivity extends AppCompatActivity {
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        // Instance Realm dari pool ditahan selama Activity ini hidup, dibuka setelah warm-up di background selesai
+        DatabaseManager.getInstance().whenRealmReady(this, () -> DatabaseManager.getInstance().bindToLifecycle(this));
         setContentView(R.layout.activity_register);
 
         // Inisialisasi UserManager yang akan digunakan untuk mendaftarkan pengguna
@@ -76,21 +78,30 @@ public class RegisterActivity extends AppCompatActivity {
             return; // Hentikan proses jika validasi gagal
         }
 
-        // Memanggil UserManager untuk mendaftarkan pengguna
-        User newUser = userManager.registerUser(email, password, fullName);
-
-        if (newUser != null) {
-            // Jika registrasi berhasil
-            Toast.makeText(this, "Registrasi berhasil! Silakan login.", Toast.LENGTH_LONG).show();
-
-            // Arahkan pengguna ke halaman login
-            Intent intent = new Intent(RegisterActivity.this, LoginActivity.class);
-            startActivity(intent);
-            finish();
-        } else {
-            // Jika registrasi gagal (kemungkinan email sudah terdaftar)
-            Toast.makeText(this, "Email sudah terdaftar", Toast.LENGTH_SHORT).show();
-        }
+        // Memanggil UserManager untuk mendaftarkan pengguna di background thread
+        btnRegister.setEnabled(false);
+        userManager.registerUserAsync(email, password, fullName, new TransactionCallback() {
+            @Override
+            public void onSuccess() {
+                // Jika registrasi berhasil
+                Toast.makeText(RegisterActivity.this, "Registrasi berhasil! Silakan login.", Toast.LENGTH_LONG).show();
+
+                // Arahkan pengguna ke halaman login
+                Intent intent = new Intent(RegisterActivity.this, LoginActivity.class);
+                startActivity(intent);
+                finish();
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                btnRegister.setEnabled(true);
+                // Jika registrasi gagal (kemungkinan email sudah terdaftar)
+                String message = error instanceof IllegalArgumentException
+                        ? error.getMessage()
+                        : "Registrasi gagal, silakan coba lagi.";
+                Toast.makeText(RegisterActivity.this, message, Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 
     
@@ -129,13 +140,4 @@ public class RegisterActivity extends AppCompatActivity {
 
         return true; // Semua input valid
     }
-
-    
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        if (userManager != null) {
-            userManager.close();
-        }
-    }
 }
@@ -1,5 +1,6 @@
 package com.example.donasimakanan;
 
+import android.graphics.Color;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -13,15 +14,17 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.donasimakanan.model.Restaurant;
 
-import java.util.List;
+import io.realm.RealmResults;
 
 
-public class RestaurantAdapter extends RecyclerView.Adapter<RestaurantAdapter.ViewHolder> {
-    private List<Restaurant> restaurantList;
+public class RestaurantAdapter extends RealmResultsAdapter<Restaurant, RestaurantAdapter.ViewHolder> {
+    // Warna teks status, sama dengan warna default di item_restaurant_layout
+    private static final int STATUS_AVAILABLE = Color.parseColor("#4CAF50");
+    private static final int STATUS_EMPTY = Color.parseColor("#9E9E9E");
 
     
-    public RestaurantAdapter(List<Restaurant> restaurantList) {
-        this.restaurantList = restaurantList;
+    public RestaurantAdapter(RealmResults<Restaurant> restaurants) {
+        super(restaurants);
     }
 
     
@@ -50,18 +53,27 @@ public class RestaurantAdapter extends RecyclerView.Adapter<RestaurantAdapter.Vi
     
     @Override
     public void onBindViewHolder(@NonNull RestaurantAdapter.ViewHolder holder, int position) {
-        Restaurant restaurant = restaurantList.get(position);
+        Restaurant restaurant = getItem(position);
+        if (restaurant == null) return;
 
         // Mengisi data restoran ke dalam komponen View
         holder.tvName.setText(restaurant.getName());
         holder.tvAddress.setText(restaurant.getAddress());
-        holder.tvStatus.setText("Menerima Donasi"); // Status default
+        // Status dibaca dari agregat stok yang tersimpan di restoran, tanpa query per baris
+        if (restaurant.isAcceptingDonations()) {
+            holder.tvStatus.setText("Menerima Donasi (" + restaurant.getAvailableFoodCount() + " menu)");
+            holder.tvStatus.setTextColor(STATUS_AVAILABLE);
+        } else {
+            holder.tvStatus.setText("Stok Habis");
+            holder.tvStatus.setTextColor(STATUS_EMPTY);
+        }
         holder.ivImage.setImageResource(R.drawable.ic_restaurant_placeholder); // Gambar placeholder
 
         // Menetapkan listener untuk setiap item view
+        String restaurantId = restaurant.getRestaurantId();
         holder.itemView.setOnClickListener(v -> {
             // Membuat instance baru dari RestaurantDetail fragment, mengirimkan ID restoran
-            Fragment fragment = RestaurantDetail.newInstance(restaurant.getRestaurantId());
+            Fragment fragment = RestaurantDetail.newInstance(restaurantId);
 
             // Melakukan transaksi untuk mengganti fragment saat ini dengan fragment detail
             // Ini memungkinkan navigasi ke halaman detail saat item diklik.
@@ -73,16 +85,4 @@ public class RestaurantAdapter extends RecyclerView.Adapter<RestaurantAdapter.Vi
         });
         
     }
-
-    
-    @Override
-    public int getItemCount() {
-        return restaurantList.size();
-    }
-
-    
-    public void updateData(List<Restaurant> restaurantList) {
-        this.restaurantList = restaurantList;
-        notifyDataSetChanged(); // Memberi tahu adapter bahwa seluruh data telah berubah
-    }
 }
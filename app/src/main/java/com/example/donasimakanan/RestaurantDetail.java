@@ -11,14 +11,15 @@ import androidx.recyclerview.widget.RecyclerView;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.Button;
 import android.widget.TextView;
 
 import com.example.donasimakanan.manager.FoodManager;
 import com.example.donasimakanan.manager.RestaurantManager;
 import com.example.donasimakanan.model.Food;
-import com.example.donasimakanan.model.Restaurant;
+import com.example.donasimakanan.model.RestaurantSnapshot;
 
-import java.util.List;
+import io.realm.RealmResults;
 
 
 public class RestaurantDetail extends Fragment {
@@ -59,25 +60,39 @@ public class RestaurantDetail extends Fragment {
         TextView tvName = view.findViewById(R.id.tv_restaurant_name);
         TextView tvAddress = view.findViewById(R.id.tv_restaurant_address);
         TextView tvDescription = view.findViewById(R.id.tv_restaurant_description);
+        Button btnLeaderboard = view.findViewById(R.id.btn_restaurant_leaderboard);
         RecyclerView rvFoodList = view.findViewById(R.id.rv_food_list);
         rvFoodList.setLayoutManager(new LinearLayoutManager(getContext()));
 
-        // Mengambil data detail restoran berdasarkan ID yang diterima
-        Restaurant restaurant = restaurantManager.getRestaurantById(restaurantId);
-
-        // Memastikan objek restoran tidak null sebelum digunakan
-        if (restaurant != null) {
-            // Mengisi komponen UI dengan data dari objek restoran
-            tvName.setText(restaurant.getName());
-            tvAddress.setText(restaurant.getAddress());
-            tvDescription.setText(restaurant.getDescription());
-
-            // Mengambil daftar makanan yang terkait dengan restoran ini
-            List<Food> foodList = foodManager.getFoodByRestaurantId(restaurantId);
-            // Menyiapkan dan mengatur adapter untuk menampilkan daftar makanan
-            FoodAdapter adapter = new FoodAdapter(requireContext(), foodList, this.restaurantId);
-            rvFoodList.setAdapter(adapter);
-        }
+        // Fragment yang dipulihkan sebelum warm-up selesai menunggu Realm UI thread milik MainActivity
+        DatabaseManager.getInstance().whenRealmReady(getViewLifecycleOwner(), () -> {
+            // Mengambil data detail restoran berdasarkan ID yang diterima
+            RestaurantSnapshot restaurant = restaurantManager.getRestaurantById(restaurantId);
+
+            // Memastikan objek restoran tidak null sebelum digunakan
+            if (restaurant != null) {
+                // Mengisi komponen UI dengan data dari objek restoran
+                tvName.setText(restaurant.getName());
+                tvAddress.setText(restaurant.getAddress());
+                tvDescription.setText(restaurant.getDescription());
+
+                // Mengambil daftar makanan (live) yang terkait dengan restoran ini
+                RealmResults<Food> foodList = foodManager.getFoodResultsByRestaurantId(restaurantId);
+                // Menyiapkan dan mengatur adapter untuk menampilkan daftar makanan
+                FoodAdapter adapter = new FoodAdapter(requireContext(), foodList, this.restaurantId);
+                rvFoodList.setAdapter(adapter);
+            }
+        });
+
+        // Membuka peringkat donatur khusus restoran ini
+        btnLeaderboard.setOnClickListener(v -> {
+            if (getActivity() != null) {
+                getActivity().getSupportFragmentManager().beginTransaction()
+                        .replace(R.id.fragment_container, LeaderboardFragment.newInstance(restaurantId))
+                        .addToBackStack(null)
+                        .commit();
+            }
+        });
 
         return view;
     }
@@ -13,20 +13,20 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.donasimakanan.manager.RewardManager; // ✅ 1. Import RewardManager
+import com.example.donasimakanan.manager.TransactionCallback;
 import com.example.donasimakanan.manager.UserManager;
 import com.example.donasimakanan.model.Reward;
 import com.example.donasimakanan.model.User;
 
-import java.util.List;
+import io.realm.RealmResults;
 
-public class RewardAdapter extends RecyclerView.Adapter<RewardAdapter.RewardViewHolder> {
+public class RewardAdapter extends RealmResultsAdapter<Reward, RewardAdapter.RewardViewHolder> {
 
-    private final List<Reward> rewards;
     private final UserManager userManager;
     private final RewardManager rewardManager; // ✅ 2. Tambahkan RewardManager
 
-    public RewardAdapter(Context context, List<Reward> rewards) {
-        this.rewards = rewards;
+    public RewardAdapter(Context context, RealmResults<Reward> rewards) {
+        super(rewards);
         this.userManager = new UserManager(context);
         this.rewardManager = new RewardManager(context);
     }
@@ -40,7 +40,8 @@ public class RewardAdapter extends RecyclerView.Adapter<RewardAdapter.RewardView
 
     @Override
     public void onBindViewHolder(@NonNull RewardViewHolder holder, int position) {
-        final Reward reward = rewards.get(position);
+        final Reward reward = getItem(position);
+        if (reward == null) return;
 
         holder.tvName.setText(reward.getName());
         holder.tvDescription.setText(reward.getDescription());
@@ -63,14 +64,19 @@ public class RewardAdapter extends RecyclerView.Adapter<RewardAdapter.RewardView
                     return;
                 }
 
-                boolean success = rewardManager.redeemReward(reward.getRewardId());
+                // Penukaran dijalankan di background; baris yang berubah di-update lewat change set RealmResults
+                String rewardName = reward.getName();
+                rewardManager.redeemRewardAsync(reward.getRewardId(), new TransactionCallback() {
+                    @Override
+                    public void onSuccess() {
+                        Toast.makeText(v.getContext(), "Berhasil menukarkan: " + rewardName, Toast.LENGTH_SHORT).show();
+                    }
 
-                if (success) {
-                    Toast.makeText(v.getContext(), "Berhasil menukarkan: " + reward.getName(), Toast.LENGTH_SHORT).show();
-                    notifyItemChanged(holder.getAdapterPosition());
-                } else {
-                    Toast.makeText(v.getContext(), "Gagal menukar. Stok mungkin habis.", Toast.LENGTH_SHORT).show();
-                }
+                    @Override
+                    public void onError(Throwable error) {
+                        Toast.makeText(v.getContext(), "Gagal menukar. Stok mungkin habis.", Toast.LENGTH_SHORT).show();
+                    }
+                });
 
             } catch (Exception e) {
                 Toast.makeText(v.getContext(), "Terjadi kesalahan.", Toast.LENGTH_SHORT).show();
@@ -79,11 +85,6 @@ public class RewardAdapter extends RecyclerView.Adapter<RewardAdapter.RewardView
         });
     }
 
-    @Override
-    public int getItemCount() {
-        return rewards != null ? rewards.size() : 0;
-    }
-
     public static class RewardViewHolder extends RecyclerView.ViewHolder {
         TextView tvName, tvDescription, tvPoints, tvStock;
         Button btnRedeem;
@@ -0,0 +1,65 @@
+package com.example.donasimakanan;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.donasimakanan.manager.SearchManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SearchResultAdapter extends RecyclerView.Adapter<SearchResultAdapter.SearchViewHolder> {
+
+    private List<SearchManager.Result> results = new ArrayList<>();
+
+    // Mengganti isi daftar dengan hasil pencarian terbaru
+    public void setResults(List<SearchManager.Result> results) {
+        this.results = results;
+        notifyDataSetChanged();
+    }
+
+    @NonNull
+    @Override
+    public SearchViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_search_result, parent, false);
+        return new SearchViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull SearchViewHolder holder, int position) {
+        SearchManager.Result result = results.get(position);
+        String label = result.getType() == SearchManager.ResultType.RESTAURANT ? "Restoran" : "Menu";
+
+        holder.tvTitle.setText(result.getTitle());
+        holder.tvSubtitle.setText(result.getSubtitle() != null ? label + " · " + result.getSubtitle() : label);
+
+        // Hasil restoran maupun menu membuka halaman detail restoran terkait
+        String restaurantId = result.getRestaurantId();
+        holder.itemView.setOnClickListener(v -> ((AppCompatActivity) v.getContext()).getSupportFragmentManager()
+                .beginTransaction()
+                .replace(R.id.fragment_container, RestaurantDetail.newInstance(restaurantId))
+                .addToBackStack(null)
+                .commit());
+    }
+
+    @Override
+    public int getItemCount() {
+        return results.size();
+    }
+
+    public static class SearchViewHolder extends RecyclerView.ViewHolder {
+        TextView tvTitle, tvSubtitle;
+
+        public SearchViewHolder(@NonNull View itemView) {
+            super(itemView);
+            tvTitle = itemView.findViewById(R.id.tv_search_title);
+            tvSubtitle = itemView.findViewById(R.id.tv_search_subtitle);
+        }
+    }
+}
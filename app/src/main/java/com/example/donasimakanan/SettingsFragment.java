@@ -1,6 +1,7 @@
 package com.example.donasimakanan;
 
 import android.content.Intent;
+import android.content.pm.ApplicationInfo;
 import android.os.Bundle;
 
 import androidx.annotation.NonNull;
@@ -18,15 +19,16 @@ import com.example.donasimakanan.manager.UserManager;
 import com.example.donasimakanan.model.User;
 import com.example.donasimakanan.util.SessionManager;
 
-import io.realm.Realm;
-
 
 public class SettingsFragment extends Fragment {
-    private Realm realm;
     private SessionManager sessionManager;
     private TextView tv_user_name, tv_user_email;
     private Button btn_logout;
     private UserManager userManager;
+    // Memperbarui tampilan jika sesi berubah (misalnya nama diperbarui) selama fragment terlihat
+    private final SessionManager.Listener sessionListener = session -> {
+        if (getView() != null) getView().post(this::showUser);
+    };
 
     
     public SettingsFragment() {
@@ -37,10 +39,11 @@ public class SettingsFragment extends Fragment {
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        // Membuka instance Realm yang akan digunakan selama siklus hidup Fragment ini
-        realm = Realm.getDefaultInstance();
+        // Instance Realm dari pool ditahan selama siklus hidup Fragment ini dan dilepas otomatis saat onDestroy.
+        // Fragment yang dipulihkan dari saved state bisa dibuat sebelum warm-up selesai, jadi menunggu dulu.
+        DatabaseManager.getInstance().whenRealmReady(this, () -> DatabaseManager.getInstance().bindToLifecycle(this));
         // Menginisialisasi manager yang diperlukan untuk sesi dan data pengguna
-        sessionManager = new SessionManager(requireContext());
+        sessionManager = SessionManager.getInstance(requireContext());
         userManager = new UserManager(getContext());
     }
 
@@ -59,18 +62,20 @@ public class SettingsFragment extends Fragment {
         tv_user_email = view.findViewById(R.id.tv_user_email);
         tv_user_name = view.findViewById(R.id.tv_user_name);
         btn_logout = view.findViewById(R.id.btn_logout);
+        Button btnMetrics = view.findViewById(R.id.btn_metrics);
 
-        // Mengambil data pengguna yang sedang login
-        User user = userManager.getUserById(sessionManager.getUserId());
+        DatabaseManager.getInstance().whenRealmReady(getViewLifecycleOwner(), () -> {
+            showUser();
+            sessionManager.addListener(sessionListener);
+        });
 
-        // Memeriksa apakah pengguna ditemukan sebelum menampilkan data
-        if (user != null) {
-            tv_user_email.setText("Email: " + user.getEmail());
-            tv_user_name.setText("Nama: " + user.getFullName());
-        } else {
-            // Menangani kasus jika data pengguna tidak ditemukan (misal: setelah dihapus)
-            tv_user_email.setText("Email: Tidak tersedia");
-            tv_user_name.setText("Nama: Pengguna tidak ditemukan");
+        // Layar metrik latensi hanya tersedia di build debuggable
+        if ((requireContext().getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+            btnMetrics.setVisibility(View.VISIBLE);
+            btnMetrics.setOnClickListener(v -> getParentFragmentManager().beginTransaction()
+                    .replace(R.id.fragment_container, new MetricsFragment())
+                    .addToBackStack(null)
+                    .commit());
         }
 
         // Menetapkan listener untuk tombol logout
@@ -96,11 +101,24 @@ public class SettingsFragment extends Fragment {
 
     
     @Override
-    public void onDestroy() {
-        super.onDestroy();
-        // Menutup instance Realm adalah langkah krusial untuk manajemen memori yang baik
-        if (realm != null && !realm.isClosed()) {
-            realm.close();
+    public void onDestroyView() {
+        sessionManager.removeListener(sessionListener);
+        super.onDestroyView();
+    }
+
+    
+    private void showUser() {
+        // Mengambil data pengguna yang sedang login
+        User user = userManager.getUserById(sessionManager.getUserId());
+
+        // Memeriksa apakah pengguna ditemukan sebelum menampilkan data
+        if (user != null) {
+            tv_user_email.setText("Email: " + user.getEmail());
+            tv_user_name.setText("Nama: " + user.getFullName());
+        } else {
+            // Menangani kasus jika data pengguna tidak ditemukan (misal: setelah dihapus)
+            tv_user_email.setText("Email: Tidak tersedia");
+            tv_user_name.setText("Nama: Pengguna tidak ditemukan");
         }
     }
 }
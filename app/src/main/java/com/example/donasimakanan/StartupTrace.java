@@ -0,0 +1,195 @@
+package com.example.donasimakanan;
+
+import android.app.Activity;
+import android.content.Context;
+import android.os.Build;
+import android.os.Process;
+import android.os.SystemClock;
+import android.os.Trace;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import com.example.donasimakanan.util.StartupTimeline;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+
+public final class StartupTrace {
+
+    private static final String TAG = "Startup";
+    // Penanda frame pertama HomeFragment; timeline selesai dan laporan ditulis saat penanda ini tercatat
+    public static final String HOME_FIRST_FRAME = "HomeFragment.firstFrame";
+    public static final String LOGIN_FIRST_FRAME = "LoginActivity.firstFrame";
+    // Penanda saat warm-up Realm di background selesai; UI thread baru membuka Realm setelahnya
+    public static final String REALM_READY = "realmReady";
+    // Section pembukaan Realm UI thread di MainActivity
+    public static final String MAIN_REALM_OPEN = "MainActivity.bindToLifecycle";
+    // Laporan per peluncuran disimpan di filesDir/startup, hanya sejumlah ini yang terbaru yang disimpan
+    private static final String REPORT_DIR = "startup";
+    private static final int MAX_REPORTS = 10;
+
+    // Titik nol timeline adalah saat proses dibuat (Process.getStartUptimeMillis), bukan saat kelas ini dimuat
+    private static final StartupTimeline timeline = new StartupTimeline(System::nanoTime,
+            System.nanoTime() - (SystemClock.uptimeMillis() - Process.getStartUptimeMillis()) * 1_000_000L);
+    private static final CountDownLatch reportWritten = new CountDownLatch(1);
+    private static volatile File lastReport;
+
+    private StartupTrace() {
+    }
+
+    /**
+     * Mulai section yang tercatat di timeline dan juga terlihat di systrace/Perfetto.
+     * Wajib ditutup di thread yang sama, di blok finally.
+     */
+    public static Section section(String name) {
+        // Trace membatasi nama section sampai 127 karakter
+        Trace.beginSection(name.length() > 127 ? name.substring(0, 127) : name);
+        return new Section(timeline.begin(name));
+    }
+
+    /**
+     * Jalankan body di dalam satu section
+     */
+    public static void trace(String name, Runnable body) {
+        Section section = section(name);
+        try {
+            body.run();
+        } finally {
+            section.close();
+        }
+    }
+
+    /**
+     * Jalankan body di dalam satu section dan kembalikan hasilnya
+     */
+    public static <T> T trace(String name, Supplier<T> body) {
+        Section section = section(name);
+        try {
+            return body.get();
+        } finally {
+            section.close();
+        }
+    }
+
+    public static void mark(String name) {
+        timeline.mark(name);
+    }
+
+    /**
+     * Catat penanda saat view ini pertama kali digambar. Jika markerName adalah HOME_FIRST_FRAME,
+     * timeline diselesaikan dan laporan JSON ditulis ke penyimpanan aplikasi.
+     */
+    public static void markFirstFrame(Activity activity, View view, String markerName) {
+        if (timeline.isFinished()) return;
+        view.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                view.getViewTreeObserver().removeOnPreDrawListener(this);
+                // Dicatat setelah frame ini selesai digambar, bukan sebelum
+                view.post(() -> {
+                    mark(markerName);
+                    if (HOME_FIRST_FRAME.equals(markerName)) {
+                        activity.reportFullyDrawn();
+                        finish(activity.getApplicationContext());
+                    }
+                });
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Hentikan perekaman dan tulis laporan di background executor. Hanya berlaku sekali per proses.
+     */
+    public static void finish(Context context) {
+        if (!timeline.finish()) return;
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("recordedAt", new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ", Locale.US).format(new Date()));
+        summary.put("device", Build.MANUFACTURER + " " + Build.MODEL);
+        summary.put("sdk", Build.VERSION.SDK_INT);
+        summary.put("applicationOnCreateStartMillis", timeline.sectionStartMillis("Application.onCreate"));
+        summary.put("realmReadyMillis", timeline.markMillis(REALM_READY));
+        summary.put("uiRealmOpenMillis", timeline.sectionDurationMillis(MAIN_REALM_OPEN));
+        summary.put("loginFirstFrameMillis", timeline.markMillis(LOGIN_FIRST_FRAME));
+        summary.put("homeFirstFrameMillis", timeline.markMillis(HOME_FIRST_FRAME));
+        String json = timeline.toJson(Process.myPid(), summary);
+        File dir = new File(context.getFilesDir(), REPORT_DIR);
+        Log.i(TAG, "Frame pertama HomeFragment " + timeline.markMillis(HOME_FIRST_FRAME) + " ms sejak proses dimulai");
+        DatabaseManager.getInstance().getBackgroundExecutor().execute(() -> {
+            try {
+                lastReport = writeReport(dir, json);
+                Log.i(TAG, "Laporan startup ditulis ke " + lastReport);
+            } catch (IOException e) {
+                Log.w(TAG, "Laporan startup gagal ditulis", e);
+            } finally {
+                reportWritten.countDown();
+            }
+        });
+    }
+
+    public static StartupTimeline getTimeline() {
+        return timeline;
+    }
+
+    /**
+     * Tunggu laporan peluncuran ini selesai ditulis. Mengembalikan null jika waktu habis atau penulisan gagal.
+     */
+    public static File awaitReport(long timeoutMillis) throws InterruptedException {
+        reportWritten.await(timeoutMillis, TimeUnit.MILLISECONDS);
+        return lastReport;
+    }
+
+    private static File writeReport(File dir, String json) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("Folder tidak bisa dibuat: " + dir);
+        File file = new File(dir, "launch-" + System.currentTimeMillis() + ".json");
+        // Ditulis ke file sementara lalu di-rename agar tidak ada laporan setengah jadi
+        File part = new File(dir, file.getName() + ".part");
+        try (FileOutputStream out = new FileOutputStream(part)) {
+            out.write(json.getBytes(StandardCharsets.UTF_8));
+        }
+        if (!part.renameTo(file)) throw new IOException("Rename gagal: " + part);
+
+        File[] reports = dir.listFiles((d, name) -> name.startsWith("launch-") && name.endsWith(".json"));
+        if (reports != null && reports.length > MAX_REPORTS) {
+            // Nama file berisi timestamp dengan jumlah digit yang sama, jadi urutan nama sama dengan urutan waktu
+            Arrays.sort(reports);
+            for (int i = 0; i < reports.length - MAX_REPORTS; i++) {
+                reports[i].delete();
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Section yang sedang berjalan, menutup section timeline dan section Trace sekaligus
+     */
+    public static final class Section implements AutoCloseable {
+        private final StartupTimeline.Section section;
+        private boolean closed;
+
+        private Section(StartupTimeline.Section section) {
+            this.section = section;
+        }
+
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            section.close();
+            Trace.endSection();
+        }
+    }
+}
@@ -12,6 +12,7 @@ import android.view.ViewGroup;
 import android.widget.Button;
 import android.widget.Toast;
 
+import com.example.donasimakanan.manager.TransactionCallback;
 import com.example.donasimakanan.manager.UserManager;
 import com.google.android.material.textfield.TextInputEditText;
 
@@ -39,6 +40,9 @@ public class TopupFragment extends Fragment {
         // Inisialisasi komponen UI dari layout
         Button btnConfirmTopup = view.findViewById(R.id.btn_confirm_topup);
         TextInputEditText topupAmount = view.findViewById(R.id.et_topup_amount);
+        // addBalanceAsync memakai Realm UI thread, yang belum terbuka jika fragment ini dipulihkan sebelum warm-up selesai
+        btnConfirmTopup.setEnabled(false);
+        DatabaseManager.getInstance().whenRealmReady(getViewLifecycleOwner(), () -> btnConfirmTopup.setEnabled(true));
 
         // Menetapkan listener untuk tombol konfirmasi
         btnConfirmTopup.setOnClickListener(v -> {
@@ -55,16 +59,28 @@ public class TopupFragment extends Fragment {
                     return; // Hentikan proses jika tidak valid
                 }
 
-                // Memanggil UserManager untuk menambahkan saldo ke akun pengguna
-                userManager.addBalance(parsedAmount);
-
-                // Memberikan feedback kepada pengguna bahwa top-up berhasil
-                Toast.makeText(getContext(), "Top-up berhasil sebesar Rp " + parsedAmount, Toast.LENGTH_SHORT).show();
-
-                // Kembali ke fragment sebelumnya setelah top-up berhasil
-                if (getActivity() != null) {
-                    getActivity().getSupportFragmentManager().popBackStack();
-                }
+                // Memanggil UserManager untuk menambahkan saldo ke akun pengguna di background thread
+                btnConfirmTopup.setEnabled(false);
+                userManager.addBalanceAsync(parsedAmount, new TransactionCallback() {
+                    @Override
+                    public void onSuccess() {
+                        if (!isAdded()) return;
+                        // Memberikan feedback kepada pengguna bahwa top-up berhasil
+                        Toast.makeText(getContext(), "Top-up berhasil sebesar Rp " + parsedAmount, Toast.LENGTH_SHORT).show();
+
+                        // Kembali ke fragment sebelumnya setelah top-up berhasil
+                        if (getActivity() != null) {
+                            getActivity().getSupportFragmentManager().popBackStack();
+                        }
+                    }
+
+                    @Override
+                    public void onError(Throwable error) {
+                        if (!isAdded()) return;
+                        btnConfirmTopup.setEnabled(true);
+                        Toast.makeText(getContext(), "Top-up gagal, silakan coba lagi.", Toast.LENGTH_SHORT).show();
+                    }
+                });
             }
         });
 
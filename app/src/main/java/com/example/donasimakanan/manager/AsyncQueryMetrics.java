@@ -0,0 +1,36 @@
+package com.example.donasimakanan.manager;
+
+import com.example.donasimakanan.util.MetricsRegistry;
+
+import io.realm.RealmChangeListener;
+import io.realm.RealmModel;
+import io.realm.RealmQuery;
+import io.realm.RealmResults;
+
+/**
+ * Pengukur query findAllAsync. Pemanggil hanya menunggu pengiriman query, sedangkan query sebenarnya berjalan
+ * di thread Realm, jadi yang dicatat adalah ASYNC_TOTAL dari pengiriman sampai hasil pertama selesai dimuat.
+ */
+final class AsyncQueryMetrics {
+
+    private static final MetricsRegistry metrics = MetricsRegistry.getInstance();
+
+    private AsyncQueryMetrics() {
+    }
+
+    static <E extends RealmModel> RealmResults<E> findAllAsync(String name, RealmQuery<E> query) {
+        MetricsRegistry.Operation operation = metrics.operation(name);
+        long submitted = metrics.now();
+        RealmResults<E> results = query.findAllAsync();
+        results.addChangeListener(new RealmChangeListener<RealmResults<E>>() {
+            @Override
+            public void onChange(RealmResults<E> loaded) {
+                if (!loaded.isLoaded()) return;
+                // Hanya pemuatan pertama; perubahan data sesudahnya bukan latensi query
+                operation.recordSince(MetricsRegistry.Phase.ASYNC_TOTAL, submitted);
+                loaded.removeChangeListener(this);
+            }
+        });
+        return results;
+    }
+}
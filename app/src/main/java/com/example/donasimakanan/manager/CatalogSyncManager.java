@@ -0,0 +1,242 @@
+package com.example.donasimakanan.manager;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.donasimakanan.DatabaseManager;
+import com.example.donasimakanan.model.Food;
+import com.example.donasimakanan.model.Restaurant;
+import com.example.donasimakanan.model.Reward;
+import com.example.donasimakanan.model.SyncState;
+import com.example.donasimakanan.util.CatalogSyncClient;
+import com.example.donasimakanan.util.MetricsRegistry;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.realm.Realm;
+
+
+public class CatalogSyncManager {
+
+    private static final String TAG = "CatalogSyncManager";
+    private static final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    // Batas baris per halaman; setiap halaman diterapkan dalam satu transaksi bersama token barunya
+    private static final int PAGE_SIZE = 500;
+    // Pengaman jika server terus mengembalikan hasMore
+    private static final int MAX_PAGES = 1_000;
+
+    private final CatalogSyncClient client;
+
+    
+    public CatalogSyncManager(URL endpoint) {
+        this.client = new CatalogSyncClient(endpoint);
+    }
+
+    // Harus dijalankan di background thread, misalnya lewat DatabaseManager.getBackgroundExecutor().
+    // Jika gagal di tengah jalan, halaman yang sudah diterapkan tetap tersimpan beserta tokennya,
+    // sehingga percobaan berikutnya melanjutkan dari halaman yang gagal.
+    public Report sync() throws IOException {
+        try (MetricsRegistry.Timer timer = metrics.time("CatalogSyncManager.sync")) {
+            Report report = new Report();
+            Realm realm = DatabaseManager.getInstance().acquireRealm();
+            try {
+                SyncState state = realm.where(SyncState.class).equalTo("key", SyncState.CATALOG).findFirst();
+                String token = state != null ? state.getToken() : null;
+                // Tanpa token berarti katalog belum pernah diunduh, jadi isinya masih data seed
+                boolean dropSeed = token == null;
+                boolean hasMore = true;
+                while (hasMore && report.pages < MAX_PAGES) {
+                    long fetchStart = SystemClock.uptimeMillis();
+                    CatalogSyncClient.Page page = client.fetch(token, PAGE_SIZE);
+                    report.fetchMillis += SystemClock.uptimeMillis() - fetchStart;
+                    report.bytesTransferred += page.getBytesTransferred();
+
+                    long applyStart = SystemClock.uptimeMillis();
+                    boolean firstPage = dropSeed;
+                    realm.executeTransaction(r -> applyPage(r, page, firstPage, report));
+                    dropSeed = false;
+                    report.applyMillis += SystemClock.uptimeMillis() - applyStart;
+
+                    report.pages++;
+                    token = page.getVersion();
+                    hasMore = page.hasMore();
+                }
+                report.version = token;
+            } catch (IOException | RuntimeException e) {
+                timer.failed();
+                throw e;
+            } finally {
+                DatabaseManager.getInstance().releaseRealm();
+            }
+            Log.i(TAG, "Sinkronisasi katalog selesai: " + report);
+            return report;
+        }
+    }
+
+    
+    private static void applyPage(Realm realm, CatalogSyncClient.Page page, boolean dropSeed, Report report) {
+        if (dropSeed) {
+            // ID seed dibuat acak per instalasi dan tidak pernah dikenal server, jadi tanpa ini
+            // sinkronisasi penuh pertama menggandakan katalog. Donation menyimpan snapshot nama makanan,
+            // harga dan restoran, UserRewardExchange menyimpan nama hadiah dan poin, jadi riwayat dan
+            // ekspornya tetap terbaca walau rewardId/foodId-nya tidak lagi ada di katalog.
+            report.deleted += realm.where(Restaurant.class).count()
+                    + realm.where(Food.class).count() + realm.where(Reward.class).count();
+            realm.delete(Restaurant.class);
+            realm.delete(Food.class);
+            realm.delete(Reward.class);
+        }
+
+        // Restoran yang agregat stoknya perlu dihitung ulang setelah halaman ini diterapkan
+        Set<String> touched = new HashSet<>();
+
+        List<Restaurant> restaurants = new ArrayList<>(page.getRestaurants().size());
+        for (Map<String, Object> row : page.getRestaurants()) {
+            Restaurant restaurant = new Restaurant();
+            restaurant.setRestaurantId(string(row, "restaurantId"));
+            restaurant.setName(string(row, "name"));
+            restaurant.setAddress(string(row, "address"));
+            restaurant.setPhoneNumber(string(row, "phoneNumber"));
+            restaurant.setDescription(string(row, "description"));
+            if (row.get("latitude") != null && row.get("longitude") != null) {
+                restaurant.setLocation(number(row, "latitude").doubleValue(), number(row, "longitude").doubleValue());
+            } else {
+                // insertOrUpdate menimpa semua field, jadi lokasi yang sudah diisi lokal dipertahankan
+                Restaurant existing = realm.where(Restaurant.class)
+                        .equalTo("restaurantId", restaurant.getRestaurantId())
+                        .findFirst();
+                if (existing != null && existing.hasLocation()) {
+                    restaurant.setLocation(existing.getLatitude(), existing.getLongitude());
+                }
+            }
+            restaurants.add(restaurant);
+            touched.add(restaurant.getRestaurantId());
+        }
+        realm.insertOrUpdate(restaurants);
+
+        // Stok server belum memuat donasi lokal yang masih di outbox, jadi dikurangi di sini agar
+        // pengurangan stok lokal tidak tertimpa sampai server menerimanya
+        Map<String, Integer> unsent = page.getFoods().isEmpty()
+                ? Collections.emptyMap() : OutboxManager.unsentDonationQuantities(realm);
+        List<Food> foods = new ArrayList<>(page.getFoods().size());
+        for (Map<String, Object> row : page.getFoods()) {
+            Food food = new Food();
+            food.setFoodId(string(row, "foodId"));
+            food.setName(string(row, "name"));
+            food.setDescription(string(row, "description"));
+            Integer pending = unsent.get(food.getFoodId());
+            food.setStock(Math.max(0, number(row, "stock").intValue() - (pending != null ? pending : 0)));
+            food.setPrice(number(row, "price").intValue());
+            food.setPoint(number(row, "point").intValue());
+            food.setRestaurant(string(row, "restaurantId"));
+            // Makanan yang pindah restoran mengubah agregat restoran lama juga
+            Food existing = realm.where(Food.class).equalTo("foodId", food.getFoodId()).findFirst();
+            if (existing != null) touched.add(existing.getRestaurant());
+            touched.add(food.getRestaurant());
+            foods.add(food);
+        }
+        realm.insertOrUpdate(foods);
+
+        // Sama seperti stok makanan: setiap penukaran yang masih di outbox sudah mengurangi stok hadiah lokal
+        Map<String, Integer> unsentRedemptions = page.getRewards().isEmpty()
+                ? Collections.emptyMap() : OutboxManager.unsentRedemptionCounts(realm);
+        List<Reward> rewards = new ArrayList<>(page.getRewards().size());
+        for (Map<String, Object> row : page.getRewards()) {
+            String userId = string(row, "userId");
+            String rewardId = string(row, "rewardId");
+            Integer redeemed = unsentRedemptions.get(rewardId);
+            int stock = Math.max(0, number(row, "stock").intValue() - (redeemed != null ? redeemed : 0));
+            Reward reward = new Reward(rewardId, userId != null ? userId : "",
+                    string(row, "name"), string(row, "description"),
+                    number(row, "pointsRequired").intValue(), stock);
+            Object createdAt = row.get("createdAt");
+            if (createdAt instanceof Number) reward.setCreatedDate(new Date(((Number) createdAt).longValue()));
+            rewards.add(reward);
+        }
+        realm.insertOrUpdate(rewards);
+
+        for (CatalogSyncClient.Deletion deletion : page.getDeleted()) {
+            if ("restaurant".equals(deletion.getType())) {
+                Restaurant restaurant = realm.where(Restaurant.class).equalTo("restaurantId", deletion.getId()).findFirst();
+                if (restaurant != null) restaurant.deleteFromRealm();
+                touched.remove(deletion.getId());
+            } else if ("food".equals(deletion.getType())) {
+                Food food = realm.where(Food.class).equalTo("foodId", deletion.getId()).findFirst();
+                if (food != null) {
+                    touched.add(food.getRestaurant());
+                    food.deleteFromRealm();
+                }
+            } else if ("reward".equals(deletion.getType())) {
+                Reward reward = realm.where(Reward.class).equalTo("rewardId", deletion.getId()).findFirst();
+                if (reward != null) reward.deleteFromRealm();
+            } else {
+                Log.w(TAG, "Jenis penghapusan tidak dikenal: " + deletion.getType());
+            }
+        }
+
+        // Agregat dihitung ulang dari tabel Food karena insertOrUpdate tidak melewati onFoodStockChanged
+        for (String restaurantId : touched) {
+            Restaurant restaurant = realm.where(Restaurant.class).equalTo("restaurantId", restaurantId).findFirst();
+            if (restaurant == null) continue;
+            long totalStock = realm.where(Food.class).equalTo("restaurantId", restaurantId).sum("stock").longValue();
+            long available = realm.where(Food.class).equalTo("restaurantId", restaurantId).greaterThan("stock", 0).count();
+            restaurant.setStockAggregate((int) totalStock, (int) available);
+        }
+
+        SyncState state = realm.where(SyncState.class).equalTo("key", SyncState.CATALOG).findFirst();
+        if (state == null) state = realm.createObject(SyncState.class, SyncState.CATALOG);
+        state.setToken(page.getVersion());
+        state.setUpdatedAt(System.currentTimeMillis());
+
+        report.upserted += restaurants.size() + foods.size() + rewards.size();
+        report.deleted += page.getDeleted().size();
+    }
+
+    
+    private static String string(Map<String, Object> row, String key) {
+        Object value = row.get(key);
+        return value != null ? value.toString() : null;
+    }
+
+    
+    private static Number number(Map<String, Object> row, String key) {
+        Object value = row.get(key);
+        return value instanceof Number ? (Number) value : 0;
+    }
+
+    /**
+     * Hasil satu kali sinkronisasi katalog
+     */
+    public static class Report {
+        String version;
+        int pages;
+        int upserted;
+        int deleted;
+        long bytesTransferred;
+        long fetchMillis;
+        long applyMillis;
+
+        public String getVersion() { return version; }
+        public int getPages() { return pages; }
+        public int getUpserted() { return upserted; }
+        public int getDeleted() { return deleted; }
+        public long getBytesTransferred() { return bytesTransferred; }
+        public long getFetchMillis() { return fetchMillis; }
+        public long getApplyMillis() { return applyMillis; }
+
+        @Override
+        public String toString() {
+            return pages + " halaman, " + upserted + " baris diperbarui, " + deleted + " dihapus, "
+                    + bytesTransferred + " byte, unduh " + fetchMillis + " ms, terapkan " + applyMillis
+                    + " ms, versi " + version;
+        }
+    }
+}
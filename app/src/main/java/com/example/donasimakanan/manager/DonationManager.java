@@ -1,23 +1,31 @@
 package com.example.donasimakanan.manager;
 
 import android.content.Context;
-import android.widget.Toast;
 
 import com.example.donasimakanan.DatabaseManager;
 import com.example.donasimakanan.model.Donation;
 import com.example.donasimakanan.model.Food;
+import com.example.donasimakanan.model.LedgerEntry;
+import com.example.donasimakanan.model.Restaurant;
 import com.example.donasimakanan.model.User;
+import com.example.donasimakanan.util.MetricsRegistry;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import io.realm.Realm;
+import io.realm.RealmAsyncTask;
 import io.realm.RealmResults;
+import io.realm.Sort;
 
 
 public class DonationManager {
-    private Realm realm;
+    private static final MetricsRegistry metrics = MetricsRegistry.getInstance();
     private FoodManager foodManager;
     private UserManager userManager;
     private Context context;
@@ -25,94 +33,297 @@ public class DonationManager {
     
     public DonationManager(Context context) {
         this.context = context.getApplicationContext();
-        this.realm = DatabaseManager.getInstance().getRealm();
         this.foodManager = new FoodManager();
         this.userManager = new UserManager(context);
     }
 
     
     public void addDonation(String userId, String foodId, int quantity, String restaurantId, String description) {
-        realm.beginTransaction();
-        try {
-            User user = userManager.getUserById(userId);
-            Food food = foodManager.getFoodById(foodId);
+        try (MetricsRegistry.Timer timer = metrics.time("DonationManager.addDonation")) {
+            Realm realm = DatabaseManager.getInstance().acquireRealm();
+            try {
+                realm.beginTransaction();
+                applyDonation(realm, userId, foodId, quantity, restaurantId, description);
+                timer.commit(realm::commitTransaction);
+                LeaderboardManager.onDonationCommitted(userId, restaurantId);
+            } catch (Exception e) {
+                timer.failed();
+                if (realm.isInTransaction()) {
+                    realm.cancelTransaction();
+                }
+                throw e; // Lemparkan kembali error untuk ditangani di pemanggil
+            } finally {
+                DatabaseManager.getInstance().releaseRealm();
+            }
+        }
+    }
+
+    
+    public RealmAsyncTask addDonationAsync(String userId, String foodId, int quantity, String restaurantId,
+                                           String description, TransactionCallback callback) {
+        // Butuh Realm yang sudah dipegang thread ini (Looper), karena callback dikirim lewat instance tersebut
+        Realm realm = DatabaseManager.getInstance().getRealm();
+        MetricsRegistry.Operation operation = metrics.operation("DonationManager.addDonationAsync");
+        long submitted = metrics.now();
+        // Transaksi dijalankan di background thread milik Realm, callback kembali ke UI thread.
+        // Commit dilakukan Realm setelah lambda selesai, jadi hanya terukur sebagai bagian dari ASYNC_TOTAL.
+        return realm.executeTransactionAsync(
+                bgRealm -> {
+                    MetricsRegistry.Timer timer = operation.time();
+                    try {
+                        applyDonation(bgRealm, userId, foodId, quantity, restaurantId, description);
+                    } finally {
+                        timer.close();
+                    }
+                },
+                () -> {
+                    operation.recordSince(MetricsRegistry.Phase.ASYNC_TOTAL, submitted);
+                    LeaderboardManager.onDonationCommitted(userId, restaurantId);
+                    callback.onSuccess();
+                },
+                error -> {
+                    operation.failed();
+                    operation.recordSince(MetricsRegistry.Phase.ASYNC_TOTAL, submitted);
+                    callback.onError(error);
+                });
+    }
+
+    
+    public void addDonations(String userId, String restaurantId, List<CartItem> items) {
+        try (MetricsRegistry.Timer timer = metrics.time("DonationManager.addDonations")) {
+            Realm realm = DatabaseManager.getInstance().acquireRealm();
+            try {
+                realm.beginTransaction();
+                applyCart(realm, userId, restaurantId, items);
+                timer.commit(realm::commitTransaction);
+                LeaderboardManager.onDonationCommitted(userId, restaurantId);
+            } catch (Exception e) {
+                timer.failed();
+                if (realm.isInTransaction()) {
+                    realm.cancelTransaction();
+                }
+                throw e;
+            } finally {
+                DatabaseManager.getInstance().releaseRealm();
+            }
+        }
+    }
+
+    
+    public RealmAsyncTask addDonationsAsync(String userId, String restaurantId, List<CartItem> items,
+                                            TransactionCallback callback) {
+        Realm realm = DatabaseManager.getInstance().getRealm();
+        // Salinan list agar perubahan keranjang di UI tidak mempengaruhi transaksi yang sedang berjalan
+        List<CartItem> snapshot = new ArrayList<>(items);
+        MetricsRegistry.Operation operation = metrics.operation("DonationManager.addDonationsAsync");
+        long submitted = metrics.now();
+        return realm.executeTransactionAsync(
+                bgRealm -> {
+                    MetricsRegistry.Timer timer = operation.time();
+                    try {
+                        applyCart(bgRealm, userId, restaurantId, snapshot);
+                    } finally {
+                        timer.close();
+                    }
+                },
+                () -> {
+                    operation.recordSince(MetricsRegistry.Phase.ASYNC_TOTAL, submitted);
+                    LeaderboardManager.onDonationCommitted(userId, restaurantId);
+                    callback.onSuccess();
+                },
+                error -> {
+                    operation.failed();
+                    operation.recordSince(MetricsRegistry.Phase.ASYNC_TOTAL, submitted);
+                    callback.onError(error);
+                });
+    }
+
+    
+    private static void applyDonation(Realm realm, String userId, String foodId, int quantity, String restaurantId, String description) {
+        applyCart(realm, userId, restaurantId, Collections.singletonList(new CartItem(foodId, quantity, description)));
+    }
+
+    
+    private static void applyCart(Realm realm, String userId, String restaurantId, List<CartItem> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Keranjang donasi kosong.");
+        }
+
+        // Query langsung ke realm milik transaksi agar aman dipakai dari thread mana pun
+        User user = realm.where(User.class).equalTo("userId", userId).findFirst();
+        if (user == null) {
+            throw new IllegalArgumentException("Pengguna dengan ID yang diberikan tidak ditemukan.");
+        }
+
+        // Jumlahkan kuantitas per makanan, karena satu makanan bisa muncul lebih dari sekali di keranjang
+        Map<String, Integer> requested = new HashMap<>();
+        for (CartItem item : items) {
+            if (item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Jumlah donasi harus lebih dari 0.");
+            }
+            requested.merge(item.getFoodId(), item.getQuantity(), Integer::sum);
+        }
+
+        // Semua makanan di keranjang diambil dengan satu query
+        Map<String, Food> foods = new HashMap<>();
+        for (Food food : realm.where(Food.class).in("foodId", requested.keySet().toArray(new String[0])).findAll()) {
+            foods.put(food.getFoodId(), food);
+        }
 
+        // Semua makanan harus milik restoran keranjang, diperiksa sebelum ada stok yang dikurangi.
+        // Jika tidak, Donation, statistik, leaderboard, rollup dan outbox tercatat ke restoran yang salah.
+        for (String foodId : requested.keySet()) {
+            Food food = foods.get(foodId);
             if (food == null) {
                 throw new IllegalArgumentException("Makanan dengan ID yang diberikan tidak ditemukan.");
             }
-            if (user == null) {
-                throw new IllegalArgumentException("Pengguna dengan ID yang diberikan tidak ditemukan.");
+            if (restaurantId == null || !restaurantId.equals(food.getRestaurant())) {
+                throw new IllegalArgumentException("Makanan " + food.getName() + " bukan milik restoran ini.");
             }
+        }
 
-            int totalAmount = food.getPrice() * quantity;
-            if (user.getBalance() < totalAmount) {
-                // Memberikan feedback langsung ke pengguna jika saldo tidak cukup.
-                Toast.makeText(context, "Saldo tidak mencukupi untuk donasi ini.", Toast.LENGTH_SHORT).show();
-                throw new IllegalArgumentException("Saldo tidak mencukupi untuk donasi ini.");
+        // Pemeriksaan dan pengurangan stok digabung dalam satu langkah di dalam transaksi, per makanan.
+        // Jika salah satu gagal, exception membatalkan transaksi sehingga pengurangan sebelumnya ikut batal.
+        long totalAmount = 0;
+        for (Map.Entry<String, Integer> entry : requested.entrySet()) {
+            Food food = foods.get(entry.getKey());
+            if (food == null) {
+                throw new IllegalArgumentException("Makanan dengan ID yang diberikan tidak ditemukan.");
+            }
+            int oldStock = food.getStock();
+            if (!food.tryDecreaseStock(entry.getValue())) {
+                throw new IllegalArgumentException("Jumlah donasi melebihi stok yang tersedia.");
             }
+            RestaurantManager.onFoodStockChanged(realm, food.getRestaurant(), oldStock, food.getStock());
+            totalAmount += (long) food.getPrice() * entry.getValue();
+        }
+        if (user.getBalance() < totalAmount) {
+            throw new IllegalArgumentException("Saldo tidak mencukupi untuk donasi ini.");
+        }
+
+        Restaurant restaurant = realm.where(Restaurant.class).equalTo("restaurantId", restaurantId).findFirst();
+        String restaurantName = restaurant != null ? restaurant.getName() : null;
+        Date donationDate = new Date();
+        int totalPoints = 0;
+        int totalPortions = 0;
+
+        for (CartItem item : items) {
+            Food food = foods.get(item.getFoodId());
+            int points = food.getPoint() * item.getQuantity();
 
-            // Membuat objek donasi baru
+            // Membuat objek donasi baru beserta snapshot data makanan dan restoran
             Donation donation = realm.createObject(Donation.class, UUID.randomUUID().toString());
             donation.setUserId(userId);
-            donation.setFoodId(foodId);
-            donation.setQuantity(quantity);
-            donation.setDescription(description);
+            donation.setFoodId(food.getFoodId());
+            donation.setFoodName(food.getName() != null ? food.getName() : "");
+            donation.setUnitPrice(food.getPrice());
+            donation.setRestaurantName(restaurantName);
+            donation.setQuantity(item.getQuantity());
+            donation.setPointsEarned(points);
+            donation.setDescription(item.getDescription());
             donation.setRestaurantId(restaurantId);
-            donation.setDonationDate(new Date());
+            donation.setDonationDate(donationDate);
+            // Dikirim ke backend oleh OutboxManager; ikut batal jika transaksi dibatalkan
+            OutboxManager.enqueueDonation(realm, donation);
+            // Debit saldo dan kredit poin dicatat per donasi; totalnya sama dengan perubahan User di bawah
+            LedgerManager.record(realm, userId, LedgerEntry.DONATION_DEBIT,
+                    -(long) food.getPrice() * item.getQuantity(), 0, donation.getDonationId());
+            LedgerManager.record(realm, userId, LedgerEntry.POINTS_CREDIT, 0, points, donation.getDonationId());
 
-            // Melakukan perubahan pada objek lain yang terkait
-            food.setStock(food.getStock() - quantity);
-            user.decreaseBalance(totalAmount);
-            user.addPoints(food.getPoint() * quantity);
+            totalPoints += points;
+            totalPortions += item.getQuantity();
 
-            realm.commitTransaction();
-
-        } catch (Exception e) {
-            if (realm.isInTransaction()) {
-                realm.cancelTransaction();
-            }
-            throw e; // Lemparkan kembali error untuk ditangani di pemanggil
+            // Statistik pengguna ikut diperbarui di transaksi yang sama
+            UserStatsManager.recordDonation(realm, userId, restaurantId, restaurantName, item.getQuantity(),
+                    (long) food.getPrice() * item.getQuantity(), points, donationDate);
+            // Rollup harian dan bulanan untuk dashboard, juga di transaksi yang sama
+            DonationRollupManager.recordDonation(realm, restaurantId, restaurantName, item.getQuantity(),
+                    (long) food.getPrice() * item.getQuantity(), points, donationDate);
         }
+
+        // Saldo dan poin pengguna diperbarui sekali untuk seluruh keranjang
+        user.decreaseBalance((int) totalAmount);
+        user.addPoints(totalPoints);
+
+        // Skor peringkat global dan per restoran ikut diperbarui di transaksi yang sama
+        LeaderboardManager.recordDonation(realm, userId, restaurantId, totalPortions, totalPoints);
     }
 
     
-    public List<Donation> getUserDonation(String userId) {
-        RealmResults<Donation> donations = realm.where(Donation.class).equalTo("userId", userId).findAll();
-        return realm.copyFromRealm(donations);
+    public RealmResults<Donation> getUserDonationHistory(String userId) {
+        // Live results terurut dari donasi terbaru; objek dibaca lazy dari Realm sehingga
+        // tidak ada salinan seluruh riwayat di heap. Query dijalankan async di thread dengan Looper,
+        // yang Realm-nya sudah di-bind ke lifecycle.
+        return AsyncQueryMetrics.findAllAsync("DonationManager.getUserDonationHistory",
+                DatabaseManager.getInstance().getRealm().where(Donation.class)
+                        .equalTo("userId", userId)
+                        .sort("donationDate", Sort.DESCENDING));
     }
 
     
     public void calcaulatePoints(String donationId) {
-        realm.beginTransaction();
-        try {
-            Donation donation = realm.where(Donation.class).equalTo("donationId", donationId).findFirst();
-            if (donation == null) {
-                throw new IllegalArgumentException("Donasi tidak ditemukan.");
-            }
-            Food food = foodManager.getFoodById(donation.getFoodId());
-            if (food != null) {
-                int points = food.getPoint() * donation.getQuantity();
-                donation.setPointsEarned(points);
-            } else {
-                throw new IllegalArgumentException("Makanan terkait donasi tidak ditemukan.");
+        try (MetricsRegistry.Timer timer = metrics.time("DonationManager.calcaulatePoints")) {
+            Realm realm = DatabaseManager.getInstance().acquireRealm();
+            try {
+                realm.beginTransaction();
+                Donation donation = realm.where(Donation.class).equalTo("donationId", donationId).findFirst();
+                if (donation == null) {
+                    throw new IllegalArgumentException("Donasi tidak ditemukan.");
+                }
+                Food food = foodManager.getFoodById(donation.getFoodId());
+                if (food != null) {
+                    int points = food.getPoint() * donation.getQuantity();
+                    donation.setPointsEarned(points);
+                } else {
+                    throw new IllegalArgumentException("Makanan terkait donasi tidak ditemukan.");
+                }
+                timer.commit(realm::commitTransaction);
+            } catch (Exception e) {
+                timer.failed();
+                if (realm.isInTransaction()) realm.cancelTransaction();
+                throw e;
+            } finally {
+                DatabaseManager.getInstance().releaseRealm();
             }
-            realm.commitTransaction();
-        } catch (Exception e) {
-            if (realm.isInTransaction()) realm.cancelTransaction();
-            throw e;
         }
     }
 
     
+    // Hanya petunjuk untuk UI: stok bisa berubah sebelum donasi dikirim.
+    // Pemeriksaan yang menentukan dilakukan di dalam transaksi oleh applyCart.
     public boolean checkQuantity(String foodId, int quantity) {
-        try {
-            Food food = foodManager.getFoodById(foodId);
-            if (food != null) {
-                return food.getStock() >= quantity;
+        try (MetricsRegistry.Timer timer = metrics.time("DonationManager.checkQuantity")) {
+            // Hanya boolean yang keluar, jadi Realm cukup dipegang selama pemeriksaan
+            DatabaseManager.getInstance().acquireRealm();
+            try {
+                Food food = foodManager.getFoodById(foodId);
+                if (food != null) {
+                    return food.getStock() >= quantity;
+                }
+                return false; // Makanan tidak ditemukan
+            } catch (Exception e) {
+                timer.failed();
+                throw new RuntimeException("Gagal memeriksa kuantitas makanan: " + e.getMessage(), e);
+            } finally {
+                DatabaseManager.getInstance().releaseRealm();
             }
-            return false; // Makanan tidak ditemukan
-        } catch (Exception e) {
-            throw new RuntimeException("Gagal memeriksa kuantitas makanan: " + e.getMessage(), e);
         }
     }
+
+    
+    public static class CartItem {
+        private final String foodId;
+        private final int quantity;
+        private final String description;
+
+        public CartItem(String foodId, int quantity, String description) {
+            this.foodId = foodId;
+            this.quantity = quantity;
+            this.description = description;
+        }
+
+        public String getFoodId() { return foodId; }
+        public int getQuantity() { return quantity; }
+        public String getDescription() { return description; }
+    }
 }
@@ -0,0 +1,189 @@
+package com.example.donasimakanan.manager;
+
+import com.example.donasimakanan.DatabaseManager;
+import com.example.donasimakanan.model.DonationRollup;
+import com.example.donasimakanan.util.MetricsRegistry;
+import com.example.donasimakanan.util.TimeBuckets;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+import io.realm.Realm;
+import io.realm.RealmQuery;
+
+
+public class DonationRollupManager {
+
+    private static final MetricsRegistry metrics = MetricsRegistry.getInstance();
+
+    
+    public DonationRollupManager() {
+    }
+
+    // Total donasi dari tanggal from sampai to (inklusif, per hari lokal). restaurantId null berarti semua restoran.
+    // Bulan penuh di dalam rentang dibaca dari bucket bulanan, sisanya dari bucket harian.
+    public Totals getTotals(Date from, Date to, String restaurantId) {
+        return metrics.time("DonationRollupManager.getTotals", () -> {
+            Totals totals = new Totals(null, 0, restaurantId);
+            Realm realm = DatabaseManager.getInstance().acquireRealm();
+            try {
+                for (TimeBuckets.Span span : TimeBuckets.split(DonationRollup.dayBucket(from), DonationRollup.dayBucket(to))) {
+                    String granularity = span.isMonthly() ? DonationRollup.MONTH : DonationRollup.DAY;
+                    for (DonationRollup rollup : query(realm, granularity, span.getFrom(), span.getTo(), restaurantId).findAll()) {
+                        totals.add(rollup);
+                    }
+                }
+            } finally {
+                DatabaseManager.getInstance().releaseRealm();
+            }
+            return totals;
+        });
+    }
+
+    // Satu baris per hari di rentang, termasuk hari tanpa donasi, terurut dari yang terlama
+    public List<Totals> getDailySeries(Date from, Date to, String restaurantId) {
+        return metrics.time("DonationRollupManager.getDailySeries", () ->
+                series(DonationRollup.DAY, DonationRollup.dayBucket(from), DonationRollup.dayBucket(to), restaurantId));
+    }
+
+    // Satu baris per bulan di rentang, termasuk bulan tanpa donasi, terurut dari yang terlama
+    public List<Totals> getMonthlySeries(Date from, Date to, String restaurantId) {
+        return metrics.time("DonationRollupManager.getMonthlySeries", () ->
+                series(DonationRollup.MONTH, DonationRollup.monthBucket(from), DonationRollup.monthBucket(to), restaurantId));
+    }
+
+    // Total per restoran pada rentang tanggal, terurut dari nilai donasi terbesar
+    public List<Totals> getRestaurantBreakdown(Date from, Date to) {
+        return metrics.time("DonationRollupManager.getRestaurantBreakdown", () -> {
+            Map<String, Totals> byRestaurant = new LinkedHashMap<>();
+            Realm realm = DatabaseManager.getInstance().acquireRealm();
+            try {
+                for (TimeBuckets.Span span : TimeBuckets.split(DonationRollup.dayBucket(from), DonationRollup.dayBucket(to))) {
+                    String granularity = span.isMonthly() ? DonationRollup.MONTH : DonationRollup.DAY;
+                    for (DonationRollup rollup : query(realm, granularity, span.getFrom(), span.getTo(), null).findAll()) {
+                        Totals totals = byRestaurant.get(rollup.getRestaurantId());
+                        if (totals == null) {
+                            totals = new Totals(null, 0, rollup.getRestaurantId());
+                            byRestaurant.put(rollup.getRestaurantId(), totals);
+                        }
+                        totals.add(rollup);
+                    }
+                }
+            } finally {
+                DatabaseManager.getInstance().releaseRealm();
+            }
+            List<Totals> result = new ArrayList<>(byRestaurant.values());
+            Collections.sort(result, (a, b) -> Long.compare(b.amount, a.amount));
+            return result;
+        });
+    }
+
+    // Harus dipanggil di dalam transaksi yang sama dengan pembuatan Donation
+    static void recordDonation(Realm realm, String restaurantId, String restaurantName,
+                               int portions, long amount, int points, Date date) {
+        getOrCreate(realm, DonationRollup.DAY, DonationRollup.dayBucket(date), restaurantId, restaurantName)
+                .addDonation(portions, amount, points);
+        getOrCreate(realm, DonationRollup.MONTH, DonationRollup.monthBucket(date), restaurantId, restaurantName)
+                .addDonation(portions, amount, points);
+    }
+
+    
+    private static List<Totals> series(String granularity, int fromBucket, int toBucket, String restaurantId) {
+        if (fromBucket > toBucket) return Collections.emptyList();
+        List<Totals> series = new ArrayList<>(toBucket - fromBucket + 1);
+        for (int bucket = fromBucket; bucket <= toBucket; bucket++) {
+            series.add(new Totals(granularity, bucket, restaurantId));
+        }
+        // Totals adalah salinan biasa, jadi Realm hanya dipegang selama membaca rollup
+        Realm realm = DatabaseManager.getInstance().acquireRealm();
+        try {
+            for (DonationRollup rollup : query(realm, granularity, fromBucket, toBucket, restaurantId).findAll()) {
+                series.get(rollup.getBucket() - fromBucket).add(rollup);
+            }
+        } finally {
+            DatabaseManager.getInstance().releaseRealm();
+        }
+        return series;
+    }
+
+    
+    private static RealmQuery<DonationRollup> query(Realm realm, String granularity, int fromBucket, int toBucket,
+                                                    String restaurantId) {
+        RealmQuery<DonationRollup> query = realm.where(DonationRollup.class)
+                .between("bucket", fromBucket, toBucket)
+                .equalTo("granularity", granularity);
+        if (restaurantId != null) query.equalTo("restaurantId", restaurantId);
+        return query;
+    }
+
+    
+    private static DonationRollup getOrCreate(Realm realm, String granularity, int bucket,
+                                              String restaurantId, String restaurantName) {
+        String rollupId = DonationRollup.rollupId(granularity, bucket, restaurantId);
+        DonationRollup rollup = realm.where(DonationRollup.class).equalTo("rollupId", rollupId).findFirst();
+        if (rollup == null) {
+            rollup = realm.createObject(DonationRollup.class, rollupId);
+            rollup.setGranularity(granularity);
+            rollup.setBucket(bucket);
+            rollup.setRestaurantId(restaurantId);
+        }
+        // Nama terbaru dipakai untuk label dashboard
+        if (restaurantName != null) rollup.setRestaurantName(restaurantName);
+        return rollup;
+    }
+
+    /**
+     * Total donasi untuk satu bucket atau satu rentang. Salinan biasa, aman dipakai setelah Realm ditutup.
+     */
+    public static class Totals {
+        final String granularity;
+        final int bucket;
+        final String restaurantId;
+        String restaurantName;
+        int donations;
+        int portions;
+        long amount;
+        int points;
+
+        Totals(String granularity, int bucket, String restaurantId) {
+            this.granularity = granularity;
+            this.bucket = bucket;
+            this.restaurantId = restaurantId;
+        }
+
+        void add(DonationRollup rollup) {
+            if (restaurantId != null && rollup.getRestaurantName() != null) restaurantName = rollup.getRestaurantName();
+            donations += rollup.getDonations();
+            portions += rollup.getPortions();
+            amount += rollup.getAmount();
+            points += rollup.getPoints();
+        }
+
+        // DAY, MONTH, atau null untuk total satu rentang
+        public String getGranularity() { return granularity; }
+        public int getBucket() { return bucket; }
+        public String getRestaurantId() { return restaurantId; }
+        public String getRestaurantName() { return restaurantName; }
+        public int getDonations() { return donations; }
+        public int getPortions() { return portions; }
+        public long getAmount() { return amount; }
+        public int getPoints() { return points; }
+
+        // Awal bucket (00:00 lokal pada hari atau tanggal 1 bulan tersebut), untuk label grafik
+        public Date getBucketStart() {
+            int day = DonationRollup.MONTH.equals(granularity) ? TimeBuckets.firstDayOfMonth(bucket) : bucket;
+            return new Date(TimeBuckets.startOfDay(day, TimeZone.getDefault()));
+        }
+
+        @Override
+        public String toString() {
+            return (granularity != null ? granularity + " " + bucket + ": " : "")
+                    + donations + " donasi, " + portions + " porsi, Rp" + amount + ", " + points + " poin";
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.donasimakanan.manager;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.donasimakanan.DatabaseManager;
+import com.example.donasimakanan.model.Donation;
+import com.example.donasimakanan.model.UserRewardExchange;
+import com.example.donasimakanan.util.ExportWriter;
+import com.example.donasimakanan.util.MetricsRegistry;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+import io.realm.Realm;
+import io.realm.RealmQuery;
+import io.realm.RealmResults;
+import io.realm.Sort;
+
+
+public class ExportManager {
+
+    private static final String TAG = "ExportManager";
+    private static final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    // Jumlah baris per potongan; di antara potongan pembatalan diperiksa dan progres dilaporkan
+    private static final int CHUNK_SIZE = 5_000;
+
+    private static final String[] DONATION_COLUMNS = {
+            "donationId", "donationDate", "userId", "restaurantId", "restaurantName",
+            "foodId", "foodName", "quantity", "unitPrice", "pointsEarned", "description"};
+    private static final String[] REDEMPTION_COLUMNS = {
+            "userRewardId", "redeemedDate", "userId", "rewardId", "rewardName", "pointsUsed"};
+
+    // Progres ekspor, dipanggil di thread yang menjalankan ekspor setelah setiap potongan
+    public interface ProgressListener {
+        // Kembalikan false untuk membatalkan ekspor
+        boolean onProgress(long rowsWritten, long totalRows);
+    }
+
+    
+    public ExportManager() {
+    }
+
+    // Harus dijalankan di background thread. userId null mengekspor donasi semua pengguna (untuk audit).
+    public Report exportDonations(String userId, File file, ExportWriter.Format format,
+                                  ProgressListener listener) throws IOException {
+        try (MetricsRegistry.Timer timer = metrics.time("ExportManager.exportDonations")) {
+            Realm realm = DatabaseManager.getInstance().acquireRealm();
+            try {
+                RealmQuery<Donation> query = realm.where(Donation.class);
+                if (userId != null) query.equalTo("userId", userId);
+                // Hasil Realm dibaca lazy: hanya baris yang sedang ditulis yang dimuat, bukan salinan seluruh riwayat
+                RealmResults<Donation> donations = query.sort("donationDate", Sort.ASCENDING).findAll();
+                return write(file, format, DONATION_COLUMNS, donations, listener, (writer, donation) -> {
+                    writer.value(donation.getDonationId());
+                    writer.value(donation.getDonationDate());
+                    writer.value(donation.getUserId());
+                    writer.value(donation.getRestaurantId());
+                    writer.value(donation.getRestaurantName());
+                    writer.value(donation.getFoodId());
+                    writer.value(donation.getFoodName());
+                    writer.value(donation.getQuantity());
+                    writer.value(donation.getUnitPrice());
+                    writer.value(donation.getPointsEarned());
+                    writer.value(donation.getDescription());
+                });
+            } catch (IOException | RuntimeException e) {
+                timer.failed();
+                throw e;
+            } finally {
+                DatabaseManager.getInstance().releaseRealm();
+            }
+        }
+    }
+
+    // Harus dijalankan di background thread. userId null mengekspor penukaran semua pengguna (untuk audit).
+    public Report exportRedemptions(String userId, File file, ExportWriter.Format format,
+                                    ProgressListener listener) throws IOException {
+        try (MetricsRegistry.Timer timer = metrics.time("ExportManager.exportRedemptions")) {
+            Realm realm = DatabaseManager.getInstance().acquireRealm();
+            try {
+                RealmQuery<UserRewardExchange> query = realm.where(UserRewardExchange.class);
+                if (userId != null) query.equalTo("userId", userId);
+                RealmResults<UserRewardExchange> exchanges = query.sort("redeemedDate", Sort.ASCENDING).findAll();
+                return write(file, format, REDEMPTION_COLUMNS, exchanges, listener, (writer, exchange) -> {
+                    writer.value(exchange.getUserRewardId());
+                    writer.value(exchange.getRedeemedDate());
+                    writer.value(exchange.getUserId());
+                    writer.value(exchange.getRewardId());
+                    writer.value(exchange.getRewardName());
+                    writer.value(exchange.getPointsUsed());
+                });
+            } catch (IOException | RuntimeException e) {
+                timer.failed();
+                throw e;
+            } finally {
+                DatabaseManager.getInstance().releaseRealm();
+            }
+        }
+    }
+
+    
+    private interface RowMapper<T> {
+        void write(ExportWriter writer, T row);
+    }
+
+    
+    private static <T> Report write(File file, ExportWriter.Format format, String[] columns, RealmResults<T> rows,
+                                    ProgressListener listener, RowMapper<T> mapper) throws IOException {
+        long start = SystemClock.uptimeMillis();
+        Report report = new Report();
+        report.file = file;
+        int total = rows.size();
+        // File ditulis ke nama sementara lalu di-rename, agar ekspor yang gagal tidak meninggalkan file setengah jadi
+        File partial = new File(file.getPath() + ".part");
+        // FileOutputStream.getChannel dipakai karena FileChannel.open baru tersedia di API 26
+        try (FileOutputStream out = new FileOutputStream(partial); FileChannel channel = out.getChannel()) {
+            ExportWriter writer = new ExportWriter(channel, format, columns);
+            for (int chunkStart = 0; chunkStart < total; chunkStart += CHUNK_SIZE) {
+                int chunkEnd = Math.min(total, chunkStart + CHUNK_SIZE);
+                for (int i = chunkStart; i < chunkEnd; i++) {
+                    writer.beginRow();
+                    mapper.write(writer, rows.get(i));
+                    writer.endRow();
+                }
+                if (listener != null && !listener.onProgress(chunkEnd, total)) {
+                    report.cancelled = true;
+                    break;
+                }
+            }
+            writer.close();
+            report.rows = writer.getRowCount();
+            report.bytes = writer.getBytesWritten();
+        } catch (IOException | RuntimeException e) {
+            if (!partial.delete()) Log.w(TAG, "Gagal menghapus file ekspor sementara " + partial);
+            throw e;
+        }
+
+        if (report.cancelled) {
+            if (!partial.delete()) Log.w(TAG, "Gagal menghapus file ekspor sementara " + partial);
+        } else if (!partial.renameTo(file)) {
+            throw new IOException("Gagal memindahkan hasil ekspor ke " + file);
+        }
+        report.millis = SystemClock.uptimeMillis() - start;
+        Log.i(TAG, "Ekspor " + file.getName() + ": " + report);
+        return report;
+    }
+
+    /**
+     * Hasil satu kali ekspor
+     */
+    public static class Report {
+        File file;
+        long rows;
+        long bytes;
+        long millis;
+        boolean cancelled;
+
+        public File getFile() { return file; }
+        public long getRows() { return rows; }
+        public long getBytes() { return bytes; }
+        public long getMillis() { return millis; }
+        public boolean isCancelled() { return cancelled; }
+        public double getRowsPerSecond() { return millis > 0 ? rows * 1000.0 / millis : rows; }
+
+        @Override
+        public String toString() {
+            return rows + " baris, " + bytes + " byte dalam " + millis + " ms ("
+                    + Math.round(getRowsPerSecond()) + " baris/detik)" + (cancelled ? ", dibatalkan" : "");
+        }
+    }
+}
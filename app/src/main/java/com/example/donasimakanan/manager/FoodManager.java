@@ -2,8 +2,12 @@ package com.example.donasimakanan.manager;
 
 import com.example.donasimakanan.DatabaseManager;
 import com.example.donasimakanan.model.Food;
+import com.example.donasimakanan.model.FoodSnapshot;
 import com.example.donasimakanan.model.Restaurant;
+import com.example.donasimakanan.util.MetricsRegistry;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
@@ -13,63 +17,103 @@ import io.realm.exceptions.RealmException;
 
 
 public class FoodManager {
-    private Realm realm;
+
+    private static final MetricsRegistry metrics = MetricsRegistry.getInstance();
 
     
     public FoodManager() {
-        this.realm = DatabaseManager.getInstance().getRealm();
     }
 
     
     public Food addFood(String name, String description, int stock, String restaurantId) {
-        realm.beginTransaction();
-        try {
-            
-            Food newFood = realm.createObject(Food.class, UUID.randomUUID().toString());
-            newFood.setName(name);
-            newFood.setDescription(description);
-            newFood.setStock(stock);
-            newFood.setRestaurant(restaurantId);
-            realm.commitTransaction();
-            return newFood;
-        } catch (RealmException e) {
-            if (realm.isInTransaction()) realm.cancelTransaction();
-            return null;
+        try (MetricsRegistry.Timer timer = metrics.time("FoodManager.addFood")) {
+            // Salinan unmanaged dikembalikan seperti addRestaurant, sehingga aman dipanggil dari thread mana pun
+            Realm realm = DatabaseManager.getInstance().acquireRealm();
+            try {
+                realm.beginTransaction();
+                Food newFood = realm.createObject(Food.class, UUID.randomUUID().toString());
+                newFood.setName(name);
+                newFood.setDescription(description);
+                newFood.setStock(stock);
+                newFood.setRestaurant(restaurantId);
+                RestaurantManager.onFoodStockChanged(realm, restaurantId, 0, stock);
+                timer.commit(realm::commitTransaction);
+                return realm.copyFromRealm(newFood);
+            } catch (RealmException e) {
+                timer.failed();
+                if (realm.isInTransaction()) realm.cancelTransaction();
+                return null;
+            } catch (RuntimeException e) {
+                timer.failed();
+                if (realm.isInTransaction()) realm.cancelTransaction();
+                throw e;
+            } finally {
+                DatabaseManager.getInstance().releaseRealm();
+            }
         }
     }
 
     
     public Food getFoodById(String foodId) {
-        try {
-            return realm.where(Food.class).equalTo("foodId", foodId).findFirst();
-        } catch (Exception e) {
-            throw new RuntimeException("Gagal mengambil makanan berdasarkan ID: " + e.getMessage(), e);
+        try (MetricsRegistry.Timer timer = metrics.time("FoodManager.getFoodById")) {
+            // Objek managed milik Realm thread pemanggil; thread ini harus sudah acquireRealm() atau bindToLifecycle()
+            Realm realm = DatabaseManager.getInstance().getRealm();
+            try {
+                return realm.where(Food.class).equalTo("foodId", foodId).findFirst();
+            } catch (Exception e) {
+                timer.failed();
+                throw new RuntimeException("Gagal mengambil makanan berdasarkan ID: " + e.getMessage(), e);
+            }
         }
     }
 
     
-    public List<Food> getFoodByRestaurantId(String restaurantId) {
-        RealmResults<Food> foods = realm.where(Food.class).equalTo("restaurantId", restaurantId)
-                .findAll();
-        // Mengembalikan salinan agar aman digunakan di luar thread Realm
-        return realm.copyFromRealm(foods);
+    public List<FoodSnapshot> getFoodByRestaurantId(String restaurantId) {
+        return metrics.time("FoodManager.getFoodByRestaurantId", () -> {
+            // Snapshot tidak terikat ke Realm sehingga aman dipakai di thread mana pun
+            Realm realm = DatabaseManager.getInstance().acquireRealm();
+            try {
+                List<FoodSnapshot> snapshots = new ArrayList<>();
+                for (Food food : realm.where(Food.class).equalTo("restaurantId", restaurantId).findAll()) {
+                    snapshots.add(FoodSnapshot.from(food));
+                }
+                return Collections.unmodifiableList(snapshots);
+            } finally {
+                DatabaseManager.getInstance().releaseRealm();
+            }
+        });
+    }
+
+    
+    public RealmResults<Food> getFoodResultsByRestaurantId(String restaurantId) {
+        // Live results untuk UI thread, query dijalankan async; Realm UI thread harus sudah di-bind ke lifecycle
+        return AsyncQueryMetrics.findAllAsync("FoodManager.getFoodResultsByRestaurantId",
+                DatabaseManager.getInstance().getRealm().where(Food.class)
+                        .equalTo("restaurantId", restaurantId));
     }
 
     
     public void decreaseStock(String foodId, int quantity) {
-        realm.beginTransaction();
-        try {
-            Food food = realm.where(Food.class).equalTo("foodId", foodId).findFirst();
-            if (food != null && food.getStock() >= quantity) {
-                food.setStock(food.getStock() - quantity);
-                realm.commitTransaction();
-            } else {
-                realm.cancelTransaction();
-                if (food != null) throw new IllegalArgumentException("Stok makanan tidak mencukupi.");
+        try (MetricsRegistry.Timer timer = metrics.time("FoodManager.decreaseStock")) {
+            Realm realm = DatabaseManager.getInstance().acquireRealm();
+            try {
+                realm.beginTransaction();
+                Food food = realm.where(Food.class).equalTo("foodId", foodId).findFirst();
+                int oldStock = food != null ? food.getStock() : 0;
+                if (food != null && food.tryDecreaseStock(quantity)) {
+                    RestaurantManager.onFoodStockChanged(realm, food.getRestaurant(), oldStock, food.getStock());
+                    timer.commit(realm::commitTransaction);
+                } else {
+                    realm.cancelTransaction();
+                    if (food != null) throw new IllegalArgumentException("Stok makanan tidak mencukupi.");
+                }
+            } catch (Exception e) {
+                timer.failed();
+                if (realm.isInTransaction()) realm.cancelTransaction();
+                throw e; // Lemparkan kembali error untuk ditangani di pemanggil
+            } finally {
+                DatabaseManager.getInstance().releaseRealm();
             }
-        } catch (Exception e) {
-            if (realm.isInTransaction()) realm.cancelTransaction();
-            throw e; // Lemparkan kembali error untuk ditangani di pemanggil
         }
     }
 }
@@ -0,0 +1,141 @@
+package com.example.donasimakanan.manager;
+
+import com.example.donasimakanan.DatabaseManager;
+import com.example.donasimakanan.model.LeaderboardEntry;
+import com.example.donasimakanan.util.MetricsRegistry;
+import com.example.donasimakanan.util.RankingIndex;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.realm.Realm;
+
+
+public class LeaderboardManager {
+
+    private static final MetricsRegistry metrics = MetricsRegistry.getInstance();
+
+    // Metrik yang bisa diperingkat
+    public enum Metric { POINTS, PORTIONS }
+
+    // Indeks peringkat di memori per (cakupan, metrik), dibagi oleh semua thread di proses ini.
+    // Dibangun sekali dari tabel LeaderboardEntry, setelah itu hanya diperbarui per donasi.
+    private static final Map<String, RankingIndex> indexes = new ConcurrentHashMap<>();
+    // Pembangunan indeks dan pembaruan setelah commit memakai lock yang sama: donasi yang commit sebelum
+    // pembangunan terbaca oleh scan, donasi sesudahnya diterapkan ke indeks yang sudah dipublikasikan
+    private static final Object lock = new Object();
+
+    
+    public LeaderboardManager() {
+    }
+
+    // Panggilan pertama per cakupan dan metrik membangun indeks dari database, jadi jangan dari UI thread;
+    // gunakan DatabaseManager.getInteractiveExecutor()
+    public List<RankingIndex.Entry> getTop(String scope, Metric metric, int limit) {
+        return metrics.time("LeaderboardManager.getTop", () -> index(scope, metric).top(limit));
+    }
+
+    
+    public int getRank(String scope, Metric metric, String userId) {
+        return metrics.time("LeaderboardManager.getRank", () -> index(scope, metric).rankOf(userId));
+    }
+
+    
+    public LeaderboardEntry getEntry(String scope, String userId) {
+        return metrics.time("LeaderboardManager.getEntry", () -> {
+            // Objek managed milik Realm thread pemanggil
+            Realm realm = DatabaseManager.getInstance().getRealm();
+            return realm.where(LeaderboardEntry.class)
+                    .equalTo("entryId", LeaderboardEntry.entryId(scope, userId))
+                    .findFirst();
+        });
+    }
+
+    // Harus dipanggil di dalam transaksi yang sama dengan pembuatan Donation
+    static void recordDonation(Realm realm, String userId, String restaurantId, int portions, int points) {
+        getOrCreate(realm, LeaderboardEntry.GLOBAL_SCOPE, userId).addDonation(portions, points);
+        getOrCreate(realm, restaurantId, userId).addDonation(portions, points);
+    }
+
+    // Dipanggil setelah commit berhasil: skor terbaru dibaca dari Realm lalu di-set ke indeks.
+    // Dijalankan di executor interaktif agar thread pemanggil, biasanya UI thread, tidak menunggu lock
+    // selama indeks dibangun. Indeks yang belum dibangun dilewati karena scan-nya akan membaca commit ini.
+    static void onDonationCommitted(String userId, String restaurantId) {
+        DatabaseManager.getInstance().getInteractiveExecutor().execute(() -> applyCommitted(userId, restaurantId));
+    }
+
+    
+    private static void applyCommitted(String userId, String restaurantId) {
+        synchronized (lock) {
+            Realm realm = DatabaseManager.getInstance().acquireRealm();
+            try {
+                // Instance di thread tanpa Looper bisa masih menahan versi sebelum commit
+                realm.refresh();
+                for (String scope : new String[]{LeaderboardEntry.GLOBAL_SCOPE, restaurantId}) {
+                    RankingIndex byPoints = indexes.get(key(scope, Metric.POINTS));
+                    RankingIndex byPortions = indexes.get(key(scope, Metric.PORTIONS));
+                    if (byPoints == null && byPortions == null) continue;
+
+                    LeaderboardEntry entry = realm.where(LeaderboardEntry.class)
+                            .equalTo("entryId", LeaderboardEntry.entryId(scope, userId))
+                            .findFirst();
+                    if (entry == null) continue;
+                    if (byPoints != null) byPoints.update(userId, entry.getPoints());
+                    if (byPortions != null) byPortions.update(userId, entry.getPortions());
+                }
+            } finally {
+                DatabaseManager.getInstance().releaseRealm();
+            }
+        }
+    }
+
+    
+    private static RankingIndex index(String scope, Metric metric) {
+        String key = key(scope, metric);
+        RankingIndex index = indexes.get(key);
+        if (index != null) return index;
+        synchronized (lock) {
+            index = indexes.get(key);
+            if (index == null) {
+                index = build(scope, metric);
+                indexes.put(key, index);
+            }
+            return index;
+        }
+    }
+
+    // Hanya dipanggil sambil memegang lock
+    private static RankingIndex build(String scope, Metric metric) {
+        // Indeks hanya menyimpan ID dan skor, jadi Realm cukup dipegang selama pembangunan
+        RankingIndex index = new RankingIndex();
+        Realm realm = DatabaseManager.getInstance().acquireRealm();
+        try {
+            // Versi yang ditahan thread ini bisa lebih lama dari commit yang dilewati applyCommitted
+            realm.refresh();
+            for (LeaderboardEntry entry : realm.where(LeaderboardEntry.class).equalTo("scope", scope).findAll()) {
+                index.update(entry.getUserId(), metric == Metric.POINTS ? entry.getPoints() : entry.getPortions());
+            }
+        } finally {
+            DatabaseManager.getInstance().releaseRealm();
+        }
+        return index;
+    }
+
+    
+    private static LeaderboardEntry getOrCreate(Realm realm, String scope, String userId) {
+        String entryId = LeaderboardEntry.entryId(scope, userId);
+        LeaderboardEntry entry = realm.where(LeaderboardEntry.class).equalTo("entryId", entryId).findFirst();
+        if (entry == null) {
+            entry = realm.createObject(LeaderboardEntry.class, entryId);
+            entry.setScope(scope);
+            entry.setUserId(userId);
+        }
+        return entry;
+    }
+
+    
+    private static String key(String scope, Metric metric) {
+        return scope + "|" + metric.name();
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.donasimakanan.manager;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.donasimakanan.DatabaseManager;
+import com.example.donasimakanan.model.LedgerAccount;
+import com.example.donasimakanan.model.LedgerEntry;
+import com.example.donasimakanan.model.User;
+import com.example.donasimakanan.util.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import io.realm.Realm;
+import io.realm.RealmResults;
+import io.realm.Sort;
+
+
+public class LedgerManager {
+
+    private static final String TAG = "LedgerManager";
+    private static final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    // Snapshot baru diambil setiap kali jumlah entri sejak snapshot terakhir mencapai batas ini
+    static final int SNAPSHOT_INTERVAL = 100;
+    // Batas userId yang dicatat di laporan rekonsiliasi
+    private static final int MAX_REPORTED_MISMATCHES = 50;
+
+    
+    public LedgerManager() {
+    }
+
+    
+    public RealmResults<LedgerEntry> getEntries(String userId) {
+        // Live results async, jadi thread pemanggil harus punya Looper dan Realm yang di-bind ke lifecycle
+        return AsyncQueryMetrics.findAllAsync("LedgerManager.getEntries",
+                DatabaseManager.getInstance().getRealm().where(LedgerEntry.class)
+                        .equalTo("userId", userId)
+                        .sort("sequence", Sort.DESCENDING));
+    }
+
+    // Saldo dan poin menurut ledger, dihitung dari snapshot terakhir ditambah entri sesudahnya
+    public Balance getLedgerBalance(String userId) {
+        return metrics.time("LedgerManager.getLedgerBalance", () -> {
+            Realm realm = DatabaseManager.getInstance().acquireRealm();
+            try {
+                LedgerAccount account = realm.where(LedgerAccount.class).equalTo("userId", userId).findFirst();
+                return account != null ? replay(realm, account) : new Balance(userId);
+            } finally {
+                DatabaseManager.getInstance().releaseRealm();
+            }
+        });
+    }
+
+    // Harus dijalankan di background thread. Membandingkan User.balance dan User.totalPoints dengan ledger;
+    // selisih hanya dilaporkan dan dicatat di log, tidak diperbaiki otomatis.
+    public Report reconcile() {
+        return metrics.time("LedgerManager.reconcile", () -> {
+            long start = SystemClock.uptimeMillis();
+            Report report = new Report();
+            Realm realm = DatabaseManager.getInstance().acquireRealm();
+            try {
+                for (User user : realm.where(User.class).findAll()) {
+                    Balance balance = getLedgerBalance(user.getUserId());
+                    report.usersChecked++;
+                    report.entriesReplayed += balance.entriesReplayed;
+                    if (balance.missingEntries > 0 || balance.balance != user.getBalance()
+                            || balance.points != user.getTotalPoints()) {
+                        report.mismatchCount++;
+                        if (report.mismatches.size() < MAX_REPORTED_MISMATCHES) report.mismatches.add(user.getUserId());
+                        Log.w(TAG, "Ledger tidak cocok untuk " + user.getUserId() + ": saldo " + user.getBalance()
+                                + " vs " + balance.balance + ", poin " + user.getTotalPoints() + " vs " + balance.points
+                                + ", entri hilang " + balance.missingEntries);
+                    }
+                }
+            } finally {
+                DatabaseManager.getInstance().releaseRealm();
+            }
+            report.millis = SystemClock.uptimeMillis() - start;
+            Log.i(TAG, "Rekonsiliasi ledger selesai: " + report);
+            return report;
+        });
+    }
+
+    // Harus dipanggil di dalam transaksi yang sama dengan perubahan User.balance atau User.totalPoints.
+    // Delta adalah perubahan yang benar-benar diterapkan ke User; entri dengan delta nol dilewati.
+    static void record(Realm realm, String userId, String type, long balanceDelta, long pointsDelta, String referenceId) {
+        if (balanceDelta == 0 && pointsDelta == 0) return;
+        LedgerAccount account = realm.where(LedgerAccount.class).equalTo("userId", userId).findFirst();
+        if (account == null) {
+            account = realm.createObject(LedgerAccount.class, userId);
+        }
+        long sequence = account.nextSequence();
+        LedgerEntry entry = realm.createObject(LedgerEntry.class, LedgerEntry.entryId(userId, sequence));
+        entry.setUserId(userId);
+        entry.setSequence(sequence);
+        entry.setType(type);
+        entry.setBalanceDelta(balanceDelta);
+        entry.setPointsDelta(pointsDelta);
+        entry.setReferenceId(referenceId);
+        entry.setCreatedAt(new Date());
+
+        // Snapshot dihitung dari ledger itu sendiri, bukan disalin dari User, agar rekonsiliasi tetap bermakna.
+        // Biayanya SNAPSHOT_INTERVAL lookup sekali per SNAPSHOT_INTERVAL entri.
+        if (sequence - account.getSnapshotSequence() >= SNAPSHOT_INTERVAL) {
+            Balance balance = replay(realm, account);
+            if (balance.missingEntries == 0) {
+                account.setSnapshot(sequence, balance.balance, balance.points, entry.getCreatedAt());
+            }
+        }
+    }
+
+    
+    private static Balance replay(Realm realm, LedgerAccount account) {
+        Balance balance = new Balance(account.getUserId());
+        balance.balance = account.getSnapshotBalance();
+        balance.points = account.getSnapshotPoints();
+        balance.sequence = account.getHeadSequence();
+        // Entri sesudah snapshot dibaca satu per satu lewat primary key, jadi biayanya O(entri sejak snapshot)
+        for (long sequence = account.getSnapshotSequence() + 1; sequence <= account.getHeadSequence(); sequence++) {
+            LedgerEntry entry = realm.where(LedgerEntry.class)
+                    .equalTo("entryId", LedgerEntry.entryId(account.getUserId(), sequence))
+                    .findFirst();
+            if (entry == null) {
+                balance.missingEntries++;
+                continue;
+            }
+            balance.balance += entry.getBalanceDelta();
+            balance.points += entry.getPointsDelta();
+            balance.entriesReplayed++;
+        }
+        return balance;
+    }
+
+    /**
+     * Saldo dan poin hasil rekonstruksi ledger
+     */
+    public static class Balance {
+        final String userId;
+        long balance;
+        long points;
+        long sequence;
+        int entriesReplayed;
+        int missingEntries;
+
+        Balance(String userId) {
+            this.userId = userId;
+        }
+
+        public String getUserId() { return userId; }
+        public long getBalance() { return balance; }
+        public long getPoints() { return points; }
+        // Nomor urut entri terakhir yang sudah dihitung
+        public long getSequence() { return sequence; }
+        public int getEntriesReplayed() { return entriesReplayed; }
+        public int getMissingEntries() { return missingEntries; }
+    }
+
+    /**
+     * Hasil satu kali rekonsiliasi ledger
+     */
+    public static class Report {
+        int usersChecked;
+        long entriesReplayed;
+        int mismatchCount;
+        List<String> mismatches = new ArrayList<>();
+        long millis;
+
+        public int getUsersChecked() { return usersChecked; }
+        public long getEntriesReplayed() { return entriesReplayed; }
+        public int getMismatchCount() { return mismatchCount; }
+        // Paling banyak MAX_REPORTED_MISMATCHES userId pertama yang tidak cocok
+        public List<String> getMismatches() { return mismatches; }
+        public long getMillis() { return millis; }
+
+        @Override
+        public String toString() {
+            return usersChecked + " pengguna, " + entriesReplayed + " entri diputar ulang, "
+                    + mismatchCount + " tidak cocok dalam " + millis + " ms";
+        }
+    }
+}
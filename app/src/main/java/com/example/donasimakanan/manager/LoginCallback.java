@@ -0,0 +1,15 @@
+package com.example.donasimakanan.manager;
+
+
+/**
+ * Callback untuk login yang diverifikasi di background thread.
+ * Kedua method selalu dipanggil di UI thread.
+ */
+public interface LoginCallback {
+
+    // Data pengguna disalin sebagai nilai biasa karena objek Realm tidak boleh berpindah thread
+    void onSuccess(String userId, String email, String fullName);
+
+    
+    void onError(Throwable error);
+}
@@ -0,0 +1,275 @@
+package com.example.donasimakanan.manager;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.donasimakanan.DatabaseManager;
+import com.example.donasimakanan.model.Donation;
+import com.example.donasimakanan.model.OutboxEntry;
+import com.example.donasimakanan.model.UserRewardExchange;
+import com.example.donasimakanan.util.MetricsRegistry;
+import com.example.donasimakanan.util.OutboxSender;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import io.realm.Realm;
+import io.realm.RealmResults;
+
+
+public class OutboxManager {
+
+    private static final String TAG = "OutboxManager";
+    private static final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    // Jumlah entri per request; cukup besar agar overhead HTTP terbagi, cukup kecil agar body tetap ringan
+    private static final int BATCH_SIZE = 200;
+    private static final long BACKOFF_BASE_MS = 2_000;
+    private static final long BACKOFF_MAX_MS = 10 * 60 * 1000;
+
+    private static OutboxManager instance;
+
+    private final Random random = new Random();
+    private final Runnable drainTask = this::drain;
+
+    private HandlerThread thread;
+    private Handler handler;
+    private OutboxSender sender;
+    private RealmResults<OutboxEntry> pending;
+    // Hanya diakses dari thread uploader
+    private int consecutiveFailures;
+    private long backoffUntil;
+
+    
+    private OutboxManager() {
+    }
+
+    
+    public static synchronized OutboxManager getInstance() {
+        if (instance == null) {
+            instance = new OutboxManager();
+        }
+        return instance;
+    }
+
+    
+    public synchronized void start(String endpoint) {
+        if (thread != null) return;
+        if (endpoint == null || endpoint.isEmpty()) {
+            Log.i(TAG, "Endpoint outbox belum diatur, upload dinonaktifkan");
+            return;
+        }
+        try {
+            sender = new OutboxSender(new URL(endpoint));
+        } catch (MalformedURLException e) {
+            Log.e(TAG, "Endpoint outbox tidak valid: " + endpoint, e);
+            return;
+        }
+        // Upload berjalan di thread sendiri; change listener outbox juga dikirim ke Looper thread ini
+        thread = new HandlerThread("OutboxUploader", Process.THREAD_PRIORITY_BACKGROUND);
+        thread.start();
+        handler = new Handler(thread.getLooper());
+        handler.post(this::observe);
+    }
+
+    
+    public synchronized void stop() {
+        if (thread == null) return;
+        Handler stopping = handler;
+        HandlerThread stoppingThread = thread;
+        stopping.removeCallbacks(drainTask);
+        stopping.post(() -> {
+            if (pending != null) pending.removeAllChangeListeners();
+            pending = null;
+            DatabaseManager.getInstance().releaseRealm();
+            stoppingThread.quitSafely();
+        });
+        thread = null;
+        handler = null;
+    }
+
+    
+    public long getPendingCount() {
+        return metrics.time("OutboxManager.getPendingCount", () -> {
+            Realm realm = DatabaseManager.getInstance().acquireRealm();
+            try {
+                return realm.where(OutboxEntry.class).equalTo("parked", false).count();
+            } finally {
+                DatabaseManager.getInstance().releaseRealm();
+            }
+        });
+    }
+
+    // Harus dipanggil di dalam transaksi yang sama dengan pembuatan Donation
+    static void enqueueDonation(Realm realm, Donation donation) {
+        try {
+            JSONObject payload = new JSONObject()
+                    .put("donationId", donation.getDonationId())
+                    .put("userId", donation.getUserId())
+                    .put("restaurantId", donation.getRestaurantId())
+                    .put("foodId", donation.getFoodId())
+                    .put("foodName", donation.getFoodName())
+                    .put("quantity", donation.getQuantity())
+                    .put("unitPrice", donation.getUnitPrice())
+                    .put("pointsEarned", donation.getPointsEarned())
+                    .put("description", donation.getDescription())
+                    .put("donationDate", donation.getDonationDate().getTime());
+            enqueue(realm, OutboxEntry.TYPE_DONATION, payload);
+        } catch (JSONException e) {
+            throw new IllegalStateException("Gagal menyusun payload donasi: " + e.getMessage(), e);
+        }
+    }
+
+    // Harus dipanggil di dalam transaksi yang sama dengan pembuatan UserRewardExchange
+    static void enqueueRedemption(Realm realm, UserRewardExchange exchange) {
+        try {
+            JSONObject payload = new JSONObject()
+                    .put("userRewardId", exchange.getUserRewardId())
+                    .put("userId", exchange.getUserId())
+                    .put("rewardId", exchange.getRewardId())
+                    .put("rewardName", exchange.getRewardName())
+                    .put("pointsUsed", exchange.getPointsUsed())
+                    .put("redeemedDate", exchange.getRedeemedDate().getTime());
+            enqueue(realm, OutboxEntry.TYPE_REWARD_EXCHANGE, payload);
+        } catch (JSONException e) {
+            throw new IllegalStateException("Gagal menyusun payload penukaran hadiah: " + e.getMessage(), e);
+        }
+    }
+
+    // Jumlah porsi per foodId dari donasi yang belum diterima server, termasuk entri yang diparkir
+    // dan entri yang tidak pernah dikirim karena outbox_endpoint kosong
+    static Map<String, Integer> unsentDonationQuantities(Realm realm) {
+        Map<String, Integer> quantities = new HashMap<>();
+        for (OutboxEntry entry : realm.where(OutboxEntry.class)
+                .equalTo("type", OutboxEntry.TYPE_DONATION)
+                .findAll()) {
+            try {
+                JSONObject payload = new JSONObject(entry.getPayload());
+                String foodId = payload.getString("foodId");
+                Integer current = quantities.get(foodId);
+                quantities.put(foodId, (current != null ? current : 0) + payload.getInt("quantity"));
+            } catch (JSONException e) {
+                Log.w(TAG, "Payload outbox tidak valid: " + entry.getEntryId(), e);
+            }
+        }
+        return quantities;
+    }
+
+    // Jumlah penukaran per rewardId yang belum diterima server, dengan cakupan yang sama seperti di atas
+    static Map<String, Integer> unsentRedemptionCounts(Realm realm) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (OutboxEntry entry : realm.where(OutboxEntry.class)
+                .equalTo("type", OutboxEntry.TYPE_REWARD_EXCHANGE)
+                .findAll()) {
+            try {
+                String rewardId = new JSONObject(entry.getPayload()).getString("rewardId");
+                Integer current = counts.get(rewardId);
+                counts.put(rewardId, (current != null ? current : 0) + 1);
+            } catch (JSONException e) {
+                Log.w(TAG, "Payload outbox tidak valid: " + entry.getEntryId(), e);
+            }
+        }
+        return counts;
+    }
+
+    
+    private static void enqueue(Realm realm, String type, JSONObject payload) {
+        OutboxEntry entry = realm.createObject(OutboxEntry.class, UUID.randomUUID().toString());
+        entry.setType(type);
+        entry.setPayload(payload.toString());
+        entry.setCreatedAt(System.currentTimeMillis());
+    }
+
+    
+    private void observe() {
+        Realm realm = DatabaseManager.getInstance().acquireRealm();
+        // Entri baru dari transaksi mana pun membangunkan uploader, kecuali sedang dalam backoff
+        pending = realm.where(OutboxEntry.class).equalTo("parked", false).findAll();
+        pending.addChangeListener((results, changeSet) -> {
+            if (changeSet.getInsertions().length > 0) {
+                scheduleDrain(Math.max(0, backoffUntil - SystemClock.uptimeMillis()));
+            }
+        });
+        scheduleDrain(0);
+    }
+
+    
+    private void scheduleDrain(long delayMillis) {
+        if (handler == null) return;
+        handler.removeCallbacks(drainTask);
+        handler.postDelayed(drainTask, delayMillis);
+    }
+
+    
+    private void drain() {
+        Realm realm = DatabaseManager.getInstance().getRealm();
+        RealmResults<OutboxEntry> batch = realm.where(OutboxEntry.class)
+                .equalTo("parked", false)
+                .sort("createdAt")
+                .limit(BATCH_SIZE)
+                .findAll();
+        if (batch.isEmpty()) return;
+
+        List<OutboxSender.Item> items = new ArrayList<>(batch.size());
+        for (OutboxEntry entry : batch) {
+            items.add(new OutboxSender.Item(entry.getEntryId(), entry.getType(), entry.getPayload()));
+        }
+
+        long start = SystemClock.uptimeMillis();
+        OutboxSender.Delivery delivery = sender.deliver(items);
+        if (!delivery.getDelivered().isEmpty()) {
+            String[] delivered = ids(delivery.getDelivered());
+            realm.executeTransaction(r -> r.where(OutboxEntry.class).in("entryId", delivered).findAll().deleteAllFromRealm());
+            Log.d(TAG, delivered.length + " entri terkirim dalam " + (SystemClock.uptimeMillis() - start) + " ms");
+        }
+        if (!delivery.getRejected().isEmpty()) {
+            // Hanya entri yang ditolak sendiri oleh server yang diparkir, entri lain di batch yang sama tetap terkirim
+            String[] rejected = ids(delivery.getRejected());
+            markAttempt(realm, rejected, true);
+            Log.e(TAG, rejected.length + " entri ditolak server dan diparkir: " + String.join(", ", rejected));
+        }
+        if (delivery.needsRetry()) {
+            consecutiveFailures++;
+            long delay = OutboxSender.backoffMillis(consecutiveFailures, BACKOFF_BASE_MS, BACKOFF_MAX_MS, random);
+            backoffUntil = SystemClock.uptimeMillis() + delay;
+            markAttempt(realm, ids(delivery.getPending()), false);
+            Log.w(TAG, "Upload gagal (" + consecutiveFailures + "x berturut-turut), dicoba lagi dalam " + delay + " ms");
+            scheduleDrain(delay);
+        } else {
+            consecutiveFailures = 0;
+            backoffUntil = 0;
+            // Sisa antrean langsung dikirim tanpa menunggu
+            scheduleDrain(0);
+        }
+    }
+
+    
+    private static String[] ids(List<OutboxSender.Item> items) {
+        String[] ids = new String[items.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = items.get(i).getId();
+        }
+        return ids;
+    }
+
+    
+    private static void markAttempt(Realm realm, String[] ids, boolean park) {
+        realm.executeTransaction(r -> {
+            for (OutboxEntry entry : r.where(OutboxEntry.class).in("entryId", ids).findAll()) {
+                entry.setAttempts(entry.getAttempts() + 1);
+                if (park) entry.setParked(true);
+            }
+        });
+    }
+}
@@ -2,47 +2,201 @@ package com.example.donasimakanan.manager;
 
 import com.example.donasimakanan.DatabaseManager;
 import com.example.donasimakanan.model.Restaurant;
+import com.example.donasimakanan.model.RestaurantSnapshot;
+import com.example.donasimakanan.util.GeoGrid;
+import com.example.donasimakanan.util.MetricsRegistry;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
 import io.realm.Realm;
 import io.realm.RealmResults;
+import io.realm.Sort;
 import io.realm.exceptions.RealmException;
 
 public class RestaurantManager {
+    private static final MetricsRegistry metrics = MetricsRegistry.getInstance();
+    // Batas pelebaran cincin GeoGrid (~40 sel, sekitar 200 km) sebelum beralih ke pemeriksaan langsung
+    private static final int MAX_SEARCH_RING = 40;
 
     
     public Restaurant addRestaurant(String name, String address, String phoneNumber, String description) {
-        try(Realm realm = DatabaseManager.getInstance().getRealm()){
-            realm.beginTransaction();
-            Restaurant newRestaurant = realm.createObject(Restaurant.class, UUID.randomUUID().toString());
-            newRestaurant.setName(name);
-            newRestaurant.setAddress(address);
-            newRestaurant.setPhoneNumber(phoneNumber);
-            newRestaurant.setDescription(description);
-            realm.commitTransaction();
-            return newRestaurant;
-        } catch (RealmException e) {
-            throw new RuntimeException("Error adding restaurant: " + e.getMessage(), e);
+        try (MetricsRegistry.Timer timer = metrics.time("RestaurantManager.addRestaurant")) {
+            // Realm di-acquire dari pool agar method ini aman dipanggil dari thread mana pun
+            Realm realm = DatabaseManager.getInstance().acquireRealm();
+            try {
+                realm.beginTransaction();
+                Restaurant newRestaurant = realm.createObject(Restaurant.class, UUID.randomUUID().toString());
+                newRestaurant.setName(name);
+                newRestaurant.setAddress(address);
+                newRestaurant.setPhoneNumber(phoneNumber);
+                newRestaurant.setDescription(description);
+                timer.commit(realm::commitTransaction);
+                return realm.copyFromRealm(newRestaurant);
+            } catch (RealmException e) {
+                timer.failed();
+                if (realm.isInTransaction()) realm.cancelTransaction();
+                throw new RuntimeException("Error adding restaurant: " + e.getMessage(), e);
+            } catch (RuntimeException e) {
+                timer.failed();
+                if (realm.isInTransaction()) realm.cancelTransaction();
+                throw e;
+            } finally {
+                DatabaseManager.getInstance().releaseRealm();
+            }
         }
     }
 
     
-    public List<Restaurant> getAllRestaurants(){
-        try(Realm realm = DatabaseManager.getInstance().getRealm()){
-            List<Restaurant> restaurants = realm.where(Restaurant.class).findAll();
-            return realm.copyFromRealm(restaurants);
+    public List<RestaurantSnapshot> getAllRestaurants(){
+        return metrics.time("RestaurantManager.getAllRestaurants", () -> {
+            Realm realm = DatabaseManager.getInstance().acquireRealm();
+            try {
+                List<RestaurantSnapshot> snapshots = new ArrayList<>();
+                for (Restaurant restaurant : realm.where(Restaurant.class).findAll()) {
+                    snapshots.add(RestaurantSnapshot.from(restaurant));
+                }
+                return Collections.unmodifiableList(snapshots);
+            } finally {
+                DatabaseManager.getInstance().releaseRealm();
+            }
+        });
+    }
+
+    
+    public RealmResults<Restaurant> getRestaurantResults() {
+        // Live results untuk UI thread; membutuhkan instance Realm yang sudah di-bind ke lifecycle
+        // Restoran yang masih punya menu tersedia ditampilkan lebih dulu, memakai agregat yang tersimpan
+        return AsyncQueryMetrics.findAllAsync("RestaurantManager.getRestaurantResults",
+                DatabaseManager.getInstance().getRealm()
+                        .where(Restaurant.class)
+                        .sort(new String[]{"availableFoodCount", "totalStock"}, new Sort[]{Sort.DESCENDING, Sort.DESCENDING}));
+    }
+
+    
+    public RestaurantSnapshot getRestaurantById(String restaurantId) {
+        return metrics.time("RestaurantManager.getRestaurantById", () -> {
+            return SnapshotCache.getInstance().getRestaurant(restaurantId, () -> {
+                Realm realm = DatabaseManager.getInstance().acquireRealm();
+                try {
+                    Restaurant restaurant = realm.where(Restaurant.class)
+                            .equalTo("restaurantId", restaurantId)
+                            .findFirst();
+                    return restaurant != null ? RestaurantSnapshot.from(restaurant) : null;
+                } finally {
+                    DatabaseManager.getInstance().releaseRealm();
+                }
+            });
+        });
+    }
+
+    
+    public boolean updateLocation(String restaurantId, double latitude, double longitude) {
+        try (MetricsRegistry.Timer timer = metrics.time("RestaurantManager.updateLocation")) {
+            Realm realm = DatabaseManager.getInstance().acquireRealm();
+            try {
+                realm.beginTransaction();
+                Restaurant restaurant = realm.where(Restaurant.class)
+                        .equalTo("restaurantId", restaurantId)
+                        .findFirst();
+                if (restaurant == null) {
+                    realm.cancelTransaction();
+                    return false;
+                }
+                restaurant.setLocation(latitude, longitude);
+                timer.commit(realm::commitTransaction);
+                return true;
+            } catch (RealmException e) {
+                timer.failed();
+                if (realm.isInTransaction()) realm.cancelTransaction();
+                throw new RuntimeException("Error updating restaurant location: " + e.getMessage(), e);
+            } catch (RuntimeException e) {
+                timer.failed();
+                if (realm.isInTransaction()) realm.cancelTransaction();
+                throw e;
+            } finally {
+                DatabaseManager.getInstance().releaseRealm();
+            }
+        }
+    }
+
+    
+    public List<NearbyRestaurant> getNearestAcceptingRestaurants(double latitude, double longitude, int limit) {
+        return metrics.time("RestaurantManager.getNearestAcceptingRestaurants", () -> {
+            if (limit <= 0) return new ArrayList<>();
+            Realm realm = DatabaseManager.getInstance().acquireRealm();
+            try {
+                List<NearbyRestaurant> found = new ArrayList<>();
+                // Pencarian melebar per cincin sel GeoGrid; setiap cincin hanya equality query ke field geoCell ber-index
+                for (int ring = 0; ring <= MAX_SEARCH_RING; ring++) {
+                    List<String> cells = GeoGrid.ring(latitude, longitude, ring);
+                    RealmResults<Restaurant> inRing = realm.where(Restaurant.class)
+                            .in("geoCell", cells.toArray(new String[0]))
+                            .greaterThan("availableFoodCount", 0)
+                            .findAll();
+                    for (Restaurant restaurant : inRing) {
+                        found.add(new NearbyRestaurant(realm.copyFromRealm(restaurant), GeoGrid.distanceKm(
+                                latitude, longitude, restaurant.getLatitude(), restaurant.getLongitude())));
+                    }
+
+                    // Berhenti jika k hasil terdekat sudah pasti lebih dekat dari semua sel yang belum diperiksa
+                    if (found.size() >= limit) {
+                        sortByDistance(found);
+                        if (found.get(limit - 1).getDistanceKm() <= GeoGrid.coveredRadiusKm(latitude, ring)) {
+                            return new ArrayList<>(found.subList(0, limit));
+                        }
+                    }
+                }
+
+                // Di luar radius cincin maksimum: sisa restoran yang punya lokasi diperiksa langsung
+                if (found.size() < limit) {
+                    found.clear();
+                    RealmResults<Restaurant> all = realm.where(Restaurant.class)
+                            .isNotNull("geoCell")
+                            .greaterThan("availableFoodCount", 0)
+                            .findAll();
+                    for (Restaurant restaurant : all) {
+                        found.add(new NearbyRestaurant(realm.copyFromRealm(restaurant), GeoGrid.distanceKm(
+                                latitude, longitude, restaurant.getLatitude(), restaurant.getLongitude())));
+                    }
+                }
+                sortByDistance(found);
+                return new ArrayList<>(found.subList(0, Math.min(limit, found.size())));
+            } finally {
+                DatabaseManager.getInstance().releaseRealm();
+            }
+        });
+    }
+
+    
+    private static void sortByDistance(List<NearbyRestaurant> restaurants) {
+        Collections.sort(restaurants, (a, b) -> Double.compare(a.getDistanceKm(), b.getDistanceKm()));
+    }
+
+    // Harus dipanggil di dalam transaksi yang sama dengan perubahan Food.stock
+    static void onFoodStockChanged(Realm realm, String restaurantId, int oldStock, int newStock) {
+        if (restaurantId == null || oldStock == newStock) return;
+        Restaurant restaurant = realm.where(Restaurant.class)
+                .equalTo("restaurantId", restaurantId)
+                .findFirst();
+        if (restaurant != null) {
+            restaurant.applyStockChange(oldStock, newStock);
         }
     }
 
     
-    public Restaurant getRestaurantById(String restaurantId) {
-        try(Realm realm = DatabaseManager.getInstance().getRealm()) {
-            Restaurant restaurant = realm.where(Restaurant.class)
-                    .equalTo("restaurantId", restaurantId)
-                    .findFirst();
-            return restaurant != null ? realm.copyFromRealm(restaurant) : null;
+    public static class NearbyRestaurant {
+        private final Restaurant restaurant;
+        private final double distanceKm;
+
+        public NearbyRestaurant(Restaurant restaurant, double distanceKm) {
+            this.restaurant = restaurant;
+            this.distanceKm = distanceKm;
         }
+
+        public Restaurant getRestaurant() { return restaurant; }
+        public double getDistanceKm() { return distanceKm; }
     }
 }
@@ -4,132 +4,211 @@ import android.content.Context;
 import android.util.Log;
 
 import com.example.donasimakanan.DatabaseManager;
+import com.example.donasimakanan.model.LedgerEntry;
 import com.example.donasimakanan.model.Reward;
 import com.example.donasimakanan.model.User;
 import com.example.donasimakanan.model.UserRewardExchange;
+import com.example.donasimakanan.util.MetricsRegistry;
 import com.example.donasimakanan.util.SessionManager;
 
 import java.util.Date;
 import java.util.UUID;
 
 import io.realm.Realm;
+import io.realm.RealmAsyncTask;
 import io.realm.RealmResults;
 import io.realm.Sort;
 import io.realm.exceptions.RealmException;
 
 
 public class RewardManager {
-    private Realm realm;
+    private static final MetricsRegistry metrics = MetricsRegistry.getInstance();
     private SessionManager sessionManager;
 
    
     public RewardManager(Context context) {
-        this.realm = DatabaseManager.getInstance().getRealm();
-        this.sessionManager = new SessionManager(context);
+        this.sessionManager = SessionManager.getInstance(context);
     }
 
     
     public boolean createReward(String userId, String name, String description, int pointsRequired, int stock) {
-        realm.beginTransaction();
-        try {
-            Reward reward = realm.createObject(Reward.class, UUID.randomUUID().toString());
-            reward.setUserId(userId);
-            reward.setName(name);
-            reward.setDescription(description);
-            reward.setPointsRequired(pointsRequired);
-            reward.setStock(stock);
-            reward.setCreatedDate(new Date());
-            realm.commitTransaction();
-            return true;
-        } catch (RealmException e) {
-            if (realm.isInTransaction()) realm.cancelTransaction();
-            return false;
+        try (MetricsRegistry.Timer timer = metrics.time("RewardManager.createReward")) {
+            Realm realm = DatabaseManager.getInstance().acquireRealm();
+            try {
+                realm.beginTransaction();
+                Reward reward = realm.createObject(Reward.class, UUID.randomUUID().toString());
+                reward.setUserId(userId);
+                reward.setName(name);
+                reward.setDescription(description);
+                reward.setPointsRequired(pointsRequired);
+                reward.setStock(stock);
+                reward.setCreatedDate(new Date());
+                timer.commit(realm::commitTransaction);
+                return true;
+            } catch (RealmException e) {
+                timer.failed();
+                if (realm.isInTransaction()) realm.cancelTransaction();
+                return false;
+            } catch (RuntimeException e) {
+                timer.failed();
+                if (realm.isInTransaction()) realm.cancelTransaction();
+                throw e;
+            } finally {
+                DatabaseManager.getInstance().releaseRealm();
+            }
         }
     }
 
     
     public RealmResults<Reward> getAllActiveRewards() {
-        return realm.where(Reward.class)
-                .greaterThan("stock", 0)
-                .sort("pointsRequired", Sort.ASCENDING)
-                .findAll();
+        return metrics.time("RewardManager.getAllActiveRewards", () -> {
+            // Results terikat ke Realm yang di-bind ke lifecycle pemanggil
+            Realm realm = DatabaseManager.getInstance().getRealm();
+            return realm.where(Reward.class)
+                    .greaterThan("stock", 0)
+                    .sort("pointsRequired", Sort.ASCENDING)
+                    .findAll();
+        });
     }
 
     
     public Reward getRewardById(String rewardId) {
-        return realm.where(Reward.class)
-                .equalTo("rewardId", rewardId)
-                .findFirst();
+        return metrics.time("RewardManager.getRewardById", () -> {
+            Realm realm = DatabaseManager.getInstance().getRealm();
+            return realm.where(Reward.class)
+                    .equalTo("rewardId", rewardId)
+                    .findFirst();
+        });
     }
 
     
     public boolean redeemReward(String rewardId) {
-        
-        realm.beginTransaction();
-        try {
-            String userId = sessionManager.getUserId();
-            User user = realm.where(User.class).equalTo("userId", userId).findFirst();
-            Reward reward = realm.where(Reward.class).equalTo("rewardId", rewardId).findFirst();
-
-            // Validasi data sebelum melanjutkan
-            if (user == null || reward == null) {
-                throw new RealmException("Pengguna atau Hadiah tidak ditemukan.");
-            }
-            if (user.getTotalPoints() < reward.getPointsRequired()) {
-                throw new IllegalStateException("Poin tidak cukup.");
-            }
-            if (reward.getStock() <= 0) {
-                throw new IllegalStateException("Stok hadiah habis.");
+        try (MetricsRegistry.Timer timer = metrics.time("RewardManager.redeemReward")) {
+            Realm realm = DatabaseManager.getInstance().acquireRealm();
+            try {
+                realm.beginTransaction();
+                // ID pengguna dari snapshot sesi di memori, tanpa akses disk di UI thread
+                applyRedeem(realm, sessionManager.getUserId(), rewardId);
+                timer.commit(realm::commitTransaction);
+                return true;
+
+            } catch (Exception e) {
+                timer.failed();
+                if (realm.isInTransaction()) {
+                    realm.cancelTransaction();
+                }
+                Log.e("RedeemReward", "Gagal menukar hadiah, transaksi dibatalkan.", e);
+                return false;
+            } finally {
+                DatabaseManager.getInstance().releaseRealm();
             }
+        }
+    }
 
-            // Lakukan semua perubahan data
-            reward.setStock(reward.getStock() - 1);
-            user.usePoints(reward.getPointsRequired()); // Menggunakan method dari User model
+    
+    public RealmAsyncTask redeemRewardAsync(String rewardId, TransactionCallback callback) {
+        // Dipanggil dari thread dengan Looper yang sudah memegang Realm; callback kembali lewat instance itu
+        Realm realm = DatabaseManager.getInstance().getRealm();
+        // ID pengguna dibaca di thread pemanggil, transaksi berjalan di background
+        String userId = sessionManager.getUserId();
+        MetricsRegistry.Operation operation = metrics.operation("RewardManager.redeemRewardAsync");
+        long submitted = metrics.now();
+        return realm.executeTransactionAsync(
+                bgRealm -> {
+                    MetricsRegistry.Timer timer = operation.time();
+                    try {
+                        applyRedeem(bgRealm, userId, rewardId);
+                    } finally {
+                        timer.close();
+                    }
+                },
+                () -> {
+                    operation.recordSince(MetricsRegistry.Phase.ASYNC_TOTAL, submitted);
+                    callback.onSuccess();
+                },
+                error -> {
+                    operation.failed();
+                    operation.recordSince(MetricsRegistry.Phase.ASYNC_TOTAL, submitted);
+                    Log.e("RedeemReward", "Gagal menukar hadiah, transaksi dibatalkan.", error);
+                    callback.onError(error);
+                });
+    }
 
-            UserRewardExchange exchange = realm.createObject(UserRewardExchange.class, UUID.randomUUID().toString());
-            exchange.setUserId(userId);
-            exchange.setRewardId(rewardId);
-            exchange.setPointsUsed(reward.getPointsRequired());
+    
+    private static void applyRedeem(Realm realm, String userId, String rewardId) {
+        User user = realm.where(User.class).equalTo("userId", userId).findFirst();
+        Reward reward = realm.where(Reward.class).equalTo("rewardId", rewardId).findFirst();
 
-            realm.commitTransaction();
-            return true;
+        // Validasi data sebelum melanjutkan
+        if (user == null || reward == null) {
+            throw new RealmException("Pengguna atau Hadiah tidak ditemukan.");
+        }
+        if (user.getTotalPoints() < reward.getPointsRequired()) {
+            throw new IllegalStateException("Poin tidak cukup.");
+        }
 
-        } catch (Exception e) {
-            if (realm.isInTransaction()) {
-                realm.cancelTransaction();
-            }
-            Log.e("RedeemReward", "Gagal menukar hadiah, transaksi dibatalkan.", e);
-            return false;
+        // Stok diperiksa dan dikurangi dalam satu langkah; exception membatalkan seluruh transaksi
+        if (!reward.tryDecreaseStock(1)) {
+            throw new IllegalStateException("Stok hadiah habis.");
         }
+        boolean pointsUsed = user.usePoints(reward.getPointsRequired()); // Menggunakan method dari User model
+
+        UserRewardExchange exchange = realm.createObject(UserRewardExchange.class, UUID.randomUUID().toString());
+        exchange.setUserId(userId);
+        exchange.setRewardId(rewardId);
+        exchange.setRewardName(reward.getName());
+        exchange.setPointsUsed(reward.getPointsRequired());
+        exchange.setRedeemedDate(new Date());
+        OutboxManager.enqueueRedemption(realm, exchange);
+        if (pointsUsed) {
+            LedgerManager.record(realm, userId, LedgerEntry.REDEMPTION, 0, -reward.getPointsRequired(),
+                    exchange.getUserRewardId());
+        }
+
+        // Statistik pengguna ikut diperbarui di transaksi yang sama
+        UserStatsManager.recordRedemption(realm, userId, reward.getPointsRequired());
     }
 
     
     public RealmResults<UserRewardExchange> getUserRewards(String userId) {
-        return realm.where(UserRewardExchange.class)
-                .equalTo("userId", userId)
-                .sort("redeemedDate", Sort.DESCENDING)
-                .findAll();
+        return metrics.time("RewardManager.getUserRewards", () -> {
+            Realm realm = DatabaseManager.getInstance().getRealm();
+            return realm.where(UserRewardExchange.class)
+                    .equalTo("userId", userId)
+                    .sort("redeemedDate", Sort.DESCENDING)
+                    .findAll();
+        });
     }
 
     
     public boolean updateRewardStock(String rewardId, int newStock) {
-        realm.beginTransaction();
-        try {
-            Reward reward = realm.where(Reward.class)
-                    .equalTo("rewardId", rewardId)
-                    .findFirst();
-
-            if (reward != null) {
-                reward.setStock(newStock);
-                realm.commitTransaction();
-                return true;
-            } else {
-                realm.cancelTransaction();
+        try (MetricsRegistry.Timer timer = metrics.time("RewardManager.updateRewardStock")) {
+            Realm realm = DatabaseManager.getInstance().acquireRealm();
+            try {
+                realm.beginTransaction();
+                Reward reward = realm.where(Reward.class)
+                        .equalTo("rewardId", rewardId)
+                        .findFirst();
+
+                if (reward != null) {
+                    reward.setStock(newStock);
+                    timer.commit(realm::commitTransaction);
+                    return true;
+                } else {
+                    realm.cancelTransaction();
+                    return false;
+                }
+            } catch (RealmException e) {
+                timer.failed();
+                if (realm.isInTransaction()) realm.cancelTransaction();
                 return false;
+            } catch (RuntimeException e) {
+                timer.failed();
+                if (realm.isInTransaction()) realm.cancelTransaction();
+                throw e;
+            } finally {
+                DatabaseManager.getInstance().releaseRealm();
             }
-        } catch (RealmException e) {
-            if (realm.isInTransaction()) realm.cancelTransaction();
-            return false;
         }
     }
 }
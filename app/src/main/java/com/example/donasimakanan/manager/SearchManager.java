@@ -0,0 +1,225 @@
+package com.example.donasimakanan.manager;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.donasimakanan.DatabaseManager;
+import com.example.donasimakanan.model.Food;
+import com.example.donasimakanan.model.Restaurant;
+import com.example.donasimakanan.util.MetricsRegistry;
+import com.example.donasimakanan.util.NGramIndex;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.realm.OrderedCollectionChangeSet;
+import io.realm.Realm;
+import io.realm.RealmResults;
+
+
+public class SearchManager {
+
+    private static final MetricsRegistry metrics = MetricsRegistry.getInstance();
+
+    // Jenis hasil pencarian
+    public enum ResultType { RESTAURANT, FOOD }
+
+    private static SearchManager instance;
+
+    private final NGramIndex<Result> index = new NGramIndex<>();
+    // ID baris sesuai urutan RealmResults, dipakai untuk menerjemahkan indeks deletion di change set
+    private final List<String> restaurantIds = new ArrayList<>();
+    private final List<String> foodIds = new ArrayList<>();
+    private final Map<String, String> restaurantNames = new HashMap<>();
+
+    private HandlerThread thread;
+    private Handler handler;
+    private RealmResults<Restaurant> restaurants;
+    private RealmResults<Food> foods;
+    private volatile boolean ready;
+
+    
+    private SearchManager() {
+    }
+
+    
+    public static synchronized SearchManager getInstance() {
+        if (instance == null) {
+            instance = new SearchManager();
+        }
+        return instance;
+    }
+
+    
+    public synchronized void start() {
+        if (thread != null) return;
+        // Thread dengan Looper sendiri: index dibangun di sini dan change listener Realm juga dikirim ke sini
+        thread = new HandlerThread("SearchIndex", Process.THREAD_PRIORITY_BACKGROUND);
+        thread.start();
+        handler = new Handler(thread.getLooper());
+        handler.post(this::buildIndex);
+    }
+
+    
+    public synchronized void stop() {
+        if (thread == null) return;
+        Handler stopping = handler;
+        HandlerThread stoppingThread = thread;
+        stopping.post(() -> {
+            if (restaurants != null) restaurants.removeAllChangeListeners();
+            if (foods != null) foods.removeAllChangeListeners();
+            restaurants = null;
+            foods = null;
+            DatabaseManager.getInstance().releaseRealm();
+            stoppingThread.quitSafely();
+        });
+        thread = null;
+        handler = null;
+        ready = false;
+    }
+
+    
+    public boolean isReady() {
+        return ready;
+    }
+
+    
+    public List<Result> search(String query, int limit) {
+        // Aman dipanggil dari UI thread: hanya membaca index di memori, tanpa query Realm
+        return metrics.time("SearchManager.search", () -> index.search(query, limit));
+    }
+
+    
+    private void buildIndex() {
+        long start = SystemClock.uptimeMillis();
+        Realm realm = DatabaseManager.getInstance().acquireRealm();
+        index.clear();
+        restaurantIds.clear();
+        foodIds.clear();
+        restaurantNames.clear();
+
+        // findAll sinkron di thread ini, lalu listener dipasang di versi Realm yang sama agar tidak ada perubahan yang terlewat
+        restaurants = realm.where(Restaurant.class).findAll();
+        for (Restaurant restaurant : restaurants) {
+            restaurantIds.add(restaurant.getRestaurantId());
+            indexRestaurant(restaurant);
+        }
+        foods = realm.where(Food.class).findAll();
+        for (Food food : foods) {
+            foodIds.add(food.getFoodId());
+            indexFood(food);
+        }
+        restaurants.addChangeListener(this::onRestaurantsChanged);
+        foods.addChangeListener(this::onFoodsChanged);
+
+        ready = true;
+        Log.i("SearchManager", "Index pencarian siap: " + index.size() + " dokumen dalam "
+                + (SystemClock.uptimeMillis() - start) + " ms");
+    }
+
+    
+    private void onRestaurantsChanged(RealmResults<Restaurant> results, OrderedCollectionChangeSet changeSet) {
+        OrderedCollectionChangeSet.Range[] deletions = changeSet.getDeletionRanges();
+        for (int i = deletions.length - 1; i >= 0; i--) {
+            for (int j = deletions[i].length - 1; j >= 0; j--) {
+                String restaurantId = restaurantIds.remove(deletions[i].startIndex + j);
+                restaurantNames.remove(restaurantId);
+                index.remove(restaurantKey(restaurantId));
+            }
+        }
+        for (int position : changeSet.getInsertions()) {
+            Restaurant restaurant = results.get(position);
+            restaurantIds.add(position, restaurant.getRestaurantId());
+            indexRestaurant(restaurant);
+        }
+        for (int position : changeSet.getChanges()) {
+            indexRestaurant(results.get(position));
+        }
+    }
+
+    
+    private void onFoodsChanged(RealmResults<Food> results, OrderedCollectionChangeSet changeSet) {
+        OrderedCollectionChangeSet.Range[] deletions = changeSet.getDeletionRanges();
+        for (int i = deletions.length - 1; i >= 0; i--) {
+            for (int j = deletions[i].length - 1; j >= 0; j--) {
+                index.remove(foodKey(foodIds.remove(deletions[i].startIndex + j)));
+            }
+        }
+        for (int position : changeSet.getInsertions()) {
+            Food food = results.get(position);
+            foodIds.add(position, food.getFoodId());
+            indexFood(food);
+        }
+        // Perubahan stok juga memicu modifikasi; teks yang sama hanya menulis ulang posting yang sama
+        for (int position : changeSet.getChanges()) {
+            indexFood(results.get(position));
+        }
+    }
+
+    
+    private void indexRestaurant(Restaurant restaurant) {
+        restaurantNames.put(restaurant.getRestaurantId(), restaurant.getName());
+        index.put(restaurantKey(restaurant.getRestaurantId()),
+                join(restaurant.getName(), restaurant.getAddress(), restaurant.getDescription()),
+                new Result(ResultType.RESTAURANT, restaurant.getRestaurantId(), restaurant.getName(),
+                        restaurant.getAddress(), restaurant.getRestaurantId()));
+    }
+
+    
+    private void indexFood(Food food) {
+        String restaurantName = restaurantNames.get(food.getRestaurant());
+        index.put(foodKey(food.getFoodId()),
+                join(food.getName(), food.getDescription()),
+                new Result(ResultType.FOOD, food.getFoodId(), food.getName(),
+                        restaurantName != null ? restaurantName : food.getDescription(), food.getRestaurant()));
+    }
+
+    
+    private static String join(String... parts) {
+        StringBuilder builder = new StringBuilder();
+        for (String part : parts) {
+            if (part == null || part.isEmpty()) continue;
+            if (builder.length() > 0) builder.append(' ');
+            builder.append(part);
+        }
+        return builder.toString();
+    }
+
+    
+    private static String restaurantKey(String restaurantId) {
+        return "R:" + restaurantId;
+    }
+
+    
+    private static String foodKey(String foodId) {
+        return "F:" + foodId;
+    }
+
+    
+    public static class Result {
+        private final ResultType type;
+        private final String id;
+        private final String title;
+        private final String subtitle;
+        private final String restaurantId;
+
+        public Result(ResultType type, String id, String title, String subtitle, String restaurantId) {
+            this.type = type;
+            this.id = id;
+            this.title = title;
+            this.subtitle = subtitle;
+            this.restaurantId = restaurantId;
+        }
+
+        public ResultType getType() { return type; }
+        public String getId() { return id; }
+        public String getTitle() { return title; }
+        public String getSubtitle() { return subtitle; }
+        public String getRestaurantId() { return restaurantId; }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.donasimakanan.manager;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.util.LruCache;
+
+import com.example.donasimakanan.DatabaseManager;
+import com.example.donasimakanan.model.Restaurant;
+import com.example.donasimakanan.model.RestaurantSnapshot;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import io.realm.OrderedCollectionChangeSet;
+import io.realm.Realm;
+import io.realm.RealmResults;
+
+
+/**
+ * Cache LRU berisi snapshot Restaurant yang tidak bisa diubah.
+ * Entri dihapus tepat untuk baris yang berubah, berdasarkan change set dari listener Realm
+ * yang berjalan di thread-nya sendiri. Selama listener belum siap, cache dilewati.
+ *
+ * Cache hanya diisi dari thread cache itu sendiri. Realm milik pemanggil bisa tertinggal dari
+ * Realm thread cache, jadi hasil loader di thread pemanggil dikembalikan tanpa disimpan, lalu
+ * loader yang sama dijalankan ulang di thread cache. Di sana pengisian dan listener berjalan
+ * berurutan pada versi Realm yang sama, sehingga entri yang diisi selalu ikut di-invalidasi.
+ */
+public class SnapshotCache {
+
+    private static final int MAX_RESTAURANTS = 64;
+
+    private static SnapshotCache instance;
+
+    private final LruCache<String, RestaurantSnapshot> restaurants = new LruCache<>(MAX_RESTAURANTS);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    // ID baris sesuai urutan RealmResults, dipakai untuk menerjemahkan indeks deletion di change set
+    private final List<String> restaurantIds = new ArrayList<>();
+
+    private HandlerThread thread;
+    private volatile Handler handler;
+    private RealmResults<Restaurant> observedRestaurants;
+    private volatile boolean ready;
+
+    
+    private SnapshotCache() {
+    }
+
+    
+    public static synchronized SnapshotCache getInstance() {
+        if (instance == null) {
+            instance = new SnapshotCache();
+        }
+        return instance;
+    }
+
+    
+    public synchronized void start() {
+        if (thread != null) return;
+        thread = new HandlerThread("SnapshotCache", Process.THREAD_PRIORITY_BACKGROUND);
+        thread.start();
+        handler = new Handler(thread.getLooper());
+        handler.post(this::observe);
+    }
+
+    
+    public RestaurantSnapshot getRestaurant(String restaurantId, Supplier<RestaurantSnapshot> loader) {
+        return get(restaurants, restaurantId, loader);
+    }
+
+    
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    
+    private <V> V get(LruCache<String, V> cache, String key, Supplier<V> loader) {
+        if (!ready) {
+            return loader.get();
+        }
+        V cached = cache.get(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+        handler.post(() -> fill(cache, key, loader));
+        return loader.get();
+    }
+
+    
+    private <V> void fill(LruCache<String, V> cache, String key, Supplier<V> loader) {
+        // Berjalan di thread cache, jadi tidak ada listener yang bisa menyela di antara load dan put
+        if (cache.get(key) != null) return;
+        V loaded = loader.get();
+        if (loaded != null) {
+            cache.put(key, loaded);
+        }
+    }
+
+    
+    private void observe() {
+        Realm realm = DatabaseManager.getInstance().acquireRealm();
+        observedRestaurants = realm.where(Restaurant.class).findAll();
+        for (Restaurant restaurant : observedRestaurants) {
+            restaurantIds.add(restaurant.getRestaurantId());
+        }
+        observedRestaurants.addChangeListener(this::onRestaurantsChanged);
+        ready = true;
+    }
+
+    
+    private void onRestaurantsChanged(RealmResults<Restaurant> results, OrderedCollectionChangeSet changeSet) {
+        Set<String> changed = new HashSet<>();
+        OrderedCollectionChangeSet.Range[] deletions = changeSet.getDeletionRanges();
+        for (int i = deletions.length - 1; i >= 0; i--) {
+            for (int j = deletions[i].length - 1; j >= 0; j--) {
+                changed.add(restaurantIds.remove(deletions[i].startIndex + j));
+            }
+        }
+        for (int position : changeSet.getInsertions()) {
+            restaurantIds.add(position, results.get(position).getRestaurantId());
+        }
+        for (int position : changeSet.getChanges()) {
+            changed.add(restaurantIds.get(position));
+        }
+
+        for (String restaurantId : changed) {
+            restaurants.remove(restaurantId);
+        }
+    }
+}
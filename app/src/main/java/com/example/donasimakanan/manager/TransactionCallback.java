@@ -0,0 +1,15 @@
+package com.example.donasimakanan.manager;
+
+
+/**
+ * Callback untuk operasi tulis yang dijalankan secara asinkron lewat executeTransactionAsync.
+ * Kedua method selalu dipanggil di thread pemanggil (UI thread).
+ */
+public interface TransactionCallback {
+
+    
+    void onSuccess();
+
+    
+    void onError(Throwable error);
+}
@@ -1,155 +1,348 @@
 package com.example.donasimakanan.manager;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
 
 import io.realm.Realm;
+import io.realm.RealmAsyncTask;
 
 import com.example.donasimakanan.DatabaseManager;
+import com.example.donasimakanan.model.LedgerEntry;
 import com.example.donasimakanan.model.User;
+import com.example.donasimakanan.util.MetricsRegistry;
 import com.example.donasimakanan.util.SessionManager;
 
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 
 public class UserManager {
-    private Realm realm;
+    private static final String TAG = "UserManager";
+    private static final MetricsRegistry metrics = MetricsRegistry.getInstance();
+
+    // Hashing password (KDF) sengaja lambat, jadi dijalankan di executor sendiri. Executor database bersama
+    // bisa sedang menjalankan sinkronisasi katalog atau pemeliharaan, dan login tidak boleh menunggu di belakangnya.
+    private static final ExecutorService passwordExecutor = Executors.newSingleThreadExecutor();
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
     private SessionManager sessionManager;
 
    
     public UserManager(Context context) {
-        this.realm = DatabaseManager.getInstance().getRealm();
-        this.sessionManager = new SessionManager(context);
+        this.sessionManager = SessionManager.getInstance(context);
     }
 
     
     public User registerUser(String email, String password, String fullName) {
-        // Cek apakah email sudah ada sebelumnya
-        User existingUser = getUserByEmail(email);
-        if (existingUser != null) {
-            return null; // Email sudah terdaftar
+        try (MetricsRegistry.Timer timer = metrics.time("UserManager.registerUser")) {
+            // Mengembalikan objek managed, jadi thread ini harus sudah memegang Realm dari pool
+            Realm realm = DatabaseManager.getInstance().getRealm();
+            // Cek apakah email sudah ada sebelumnya
+            User existingUser = getUserByEmail(email);
+            if (existingUser != null) {
+                return null; // Email sudah terdaftar
+            }
+
+            // Hash dihitung sebelum transaksi dimulai agar write lock tidak ditahan selama KDF berjalan
+            String passwordHash = User.hashPassword(password);
+            realm.beginTransaction();
+            try {
+                String userId = UUID.randomUUID().toString();
+                User newUser = realm.createObject(User.class, userId);
+                newUser.setEmail(email);
+                newUser.setPasswordHash(passwordHash);
+                newUser.setFullName(fullName);
+
+                timer.commit(realm::commitTransaction);
+                return newUser;
+            } catch (Exception e) {
+                timer.failed();
+                realm.cancelTransaction();
+                return null;
+            }
         }
+    }
+
+    
+    public void registerUserAsync(String email, String password, String fullName, TransactionCallback callback) {
+        MetricsRegistry.Operation operation = metrics.operation("UserManager.registerUserAsync");
+        long submitted = metrics.now();
+        passwordExecutor.execute(() -> {
+            // QUERY mencakup hashing dan transaksi di executor password, ASYNC_TOTAL sampai callback di UI thread
+            MetricsRegistry.Timer timer = operation.time();
+            try {
+                // Hash dihitung di luar transaksi agar write lock tidak ditahan selama KDF berjalan
+                String passwordHash = User.hashPassword(password);
+                Realm realm = DatabaseManager.getInstance().acquireRealm();
+                try {
+                    realm.executeTransaction(r -> {
+                        // Cek ulang email di dalam transaksi agar tidak terjadi pendaftaran ganda
+                        User existingUser = r.where(User.class)
+                                .equalTo("email", email)
+                                .equalTo("isActive", true)
+                                .findFirst();
+                        if (existingUser != null) {
+                            throw new IllegalArgumentException("Email sudah terdaftar");
+                        }
 
-        realm.beginTransaction();
+                        User newUser = r.createObject(User.class, UUID.randomUUID().toString());
+                        newUser.setEmail(email);
+                        newUser.setPasswordHash(passwordHash);
+                        newUser.setFullName(fullName);
+                    });
+                } finally {
+                    DatabaseManager.getInstance().releaseRealm();
+                }
+                mainHandler.post(() -> {
+                    operation.recordSince(MetricsRegistry.Phase.ASYNC_TOTAL, submitted);
+                    callback.onSuccess();
+                });
+            } catch (RuntimeException e) {
+                timer.failed();
+                mainHandler.post(() -> {
+                    operation.recordSince(MetricsRegistry.Phase.ASYNC_TOTAL, submitted);
+                    callback.onError(e);
+                });
+            } finally {
+                timer.close();
+            }
+        });
+    }
+
+    // Verifikasi password di background thread. Hash format lama atau dengan cost lebih rendah
+    // di-hash ulang setelah login berhasil, tanpa menunda callback.
+    public void authenticateUserAsync(String email, String password, LoginCallback callback) {
+        MetricsRegistry.Operation operation = metrics.operation("UserManager.authenticateUserAsync");
+        long submitted = metrics.now();
+        passwordExecutor.execute(() -> {
+            Realm realm = DatabaseManager.getInstance().acquireRealm();
+            MetricsRegistry.Timer timer = operation.time();
+            try {
+                User user = realm.where(User.class)
+                        .equalTo("email", email)
+                        .equalTo("isActive", true)
+                        .findFirst();
+                if (user == null) {
+                    throw new IllegalArgumentException("Email tidak terdaftar");
+                }
+                if (!user.verifyPassword(password)) {
+                    throw new IllegalArgumentException("Password salah");
+                }
+                String userId = user.getUserId();
+                String userEmail = user.getEmail();
+                String fullName = user.getFullName();
+                String verifiedHash = user.getPasswordHash();
+                // Rehash sesudah callback tidak ikut diukur, karena pengguna tidak menunggunya
+                timer.close();
+                mainHandler.post(() -> {
+                    operation.recordSince(MetricsRegistry.Phase.ASYNC_TOTAL, submitted);
+                    callback.onSuccess(userId, userEmail, fullName);
+                });
+
+                if (user.needsPasswordRehash()) {
+                    rehashPassword(realm, userId, verifiedHash, password);
+                }
+            } catch (RuntimeException e) {
+                operation.failed();
+                timer.close();
+                mainHandler.post(() -> {
+                    operation.recordSince(MetricsRegistry.Phase.ASYNC_TOTAL, submitted);
+                    callback.onError(e);
+                });
+            } finally {
+                DatabaseManager.getInstance().releaseRealm();
+            }
+        });
+    }
+
+    
+    private static void rehashPassword(Realm realm, String userId, String verifiedHash, String password) {
         try {
-            String userId = UUID.randomUUID().toString();
-            User newUser = realm.createObject(User.class, userId);
-            newUser.setEmail(email);
-            newUser.setPassword(password); // Password akan di-hash otomatis di dalam kelas User
-            newUser.setFullName(fullName);
-
-            realm.commitTransaction();
-            return newUser;
-        } catch (Exception e) {
-            realm.cancelTransaction();
-            return null;
+            String passwordHash = User.hashPassword(password);
+            realm.executeTransaction(r -> {
+                User user = r.where(User.class).equalTo("userId", userId).findFirst();
+                // Dilewati jika password sudah diganti di antara verifikasi dan transaksi ini. Cukup dibandingkan
+                // dengan hash yang sudah diverifikasi, agar KDF tidak berjalan lagi selama write lock ditahan.
+                if (user != null && verifiedHash.equals(user.getPasswordHash())) {
+                    user.setPasswordHash(passwordHash);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Login tetap berhasil; hash lama dicoba diperbarui lagi pada login berikutnya
+            Log.w(TAG, "Gagal memperbarui hash password", e);
         }
     }
 
     
     public User getUserByEmail(String email) {
-        return realm.where(User.class)
+        // Hasil terikat ke Realm thread pemanggil (acquireRealm() atau bindToLifecycle())
+        return metrics.time("UserManager.getUserByEmail", () -> DatabaseManager.getInstance().getRealm()
+                .where(User.class)
                 .equalTo("email", email)
                 .equalTo("isActive", true)
-                .findFirst();
+                .findFirst());
     }
 
     
     public User authenticateUser(String email, String password) {
-        User user = getUserByEmail(email);
-        if (user != null && user.verifyPassword(password)) {
-            return user;
-        }
-        return null;
+        return metrics.time("UserManager.authenticateUser", () -> {
+            User user = getUserByEmail(email);
+            if (user != null && user.verifyPassword(password)) {
+                return user;
+            }
+            return null;
+        });
     }
 
     
     public User getUserById(String userId) {
-        return realm.where(User.class).equalTo("userId", userId).findFirst();
+        return metrics.time("UserManager.getUserById", () -> DatabaseManager.getInstance().getRealm()
+                .where(User.class)
+                .equalTo("userId", userId)
+                .findFirst());
     }
 
     
     public User getCurrentUser() {
-        String userId = sessionManager.getUserId();
-        if (userId != null) {
-            return getUserById(userId);
-        }
-        return null; // Tidak ada pengguna yang login
+        return metrics.time("UserManager.getCurrentUser", () -> {
+            // ID dibaca dari snapshot sesi di memori, tanpa akses SharedPreferences
+            String userId = sessionManager.getUserId();
+            if (userId != null) {
+                return getUserById(userId);
+            }
+            return null; // Tidak ada pengguna yang login
+        });
     }
 
     
     public void addPoints(int points) {
-        realm.beginTransaction();
-        try {
-            User user = getCurrentUser(); // Menggunakan getCurrentUser untuk lebih ringkas
-            if (user != null) {
-                user.addPoints(points);
-                realm.commitTransaction();
-            } else {
-                realm.cancelTransaction();
+        try (MetricsRegistry.Timer timer = metrics.time("UserManager.addPoints")) {
+            Realm realm = DatabaseManager.getInstance().acquireRealm();
+            try {
+                realm.beginTransaction();
+                User user = getCurrentUser(); // Menggunakan getCurrentUser untuk lebih ringkas
+                if (user != null) {
+                    int before = user.getTotalPoints();
+                    user.addPoints(points);
+                    LedgerManager.record(realm, user.getUserId(), LedgerEntry.ADJUSTMENT, 0, user.getTotalPoints() - before, null);
+                    timer.commit(realm::commitTransaction);
+                } else {
+                    realm.cancelTransaction();
+                }
+            } catch (Exception e) {
+                timer.failed();
+                if (realm.isInTransaction()) realm.cancelTransaction();
+                throw e; // Lemparkan kembali error untuk ditangani di pemanggil
+            } finally {
+                DatabaseManager.getInstance().releaseRealm();
             }
-        } catch (Exception e) {
-            if (realm.isInTransaction()) realm.cancelTransaction();
-            throw e; // Lemparkan kembali error untuk ditangani di pemanggil
         }
     }
 
     
     public void decreasePoints(int points) {
-        realm.beginTransaction();
-        try {
-            User user = getCurrentUser();
-            if (user != null && user.getTotalPoints() >= points) {
-                user.setTotalPoints(user.getTotalPoints() - points);
-                realm.commitTransaction();
-            } else {
-                realm.cancelTransaction();
-                if (user != null) throw new IllegalArgumentException("Poin tidak mencukupi");
+        try (MetricsRegistry.Timer timer = metrics.time("UserManager.decreasePoints")) {
+            Realm realm = DatabaseManager.getInstance().acquireRealm();
+            try {
+                realm.beginTransaction();
+                User user = getCurrentUser();
+                if (user != null && user.getTotalPoints() >= points) {
+                    user.setTotalPoints(user.getTotalPoints() - points);
+                    LedgerManager.record(realm, user.getUserId(), LedgerEntry.ADJUSTMENT, 0, -points, null);
+                    timer.commit(realm::commitTransaction);
+                } else {
+                    realm.cancelTransaction();
+                    if (user != null) throw new IllegalArgumentException("Poin tidak mencukupi");
+                }
+            } catch (Exception e) {
+                timer.failed();
+                if (realm.isInTransaction()) realm.cancelTransaction();
+                throw e;
+            } finally {
+                DatabaseManager.getInstance().releaseRealm();
             }
-        } catch (Exception e) {
-            if (realm.isInTransaction()) realm.cancelTransaction();
-            throw e;
         }
     }
 
     
     public void addBalance(int balance) {
-        realm.beginTransaction();
-        try {
-            User user = getCurrentUser();
-            if (user != null) {
-                user.setBalance(user.getBalance() + balance);
-                realm.commitTransaction();
-            } else {
-                realm.cancelTransaction();
+        try (MetricsRegistry.Timer timer = metrics.time("UserManager.addBalance")) {
+            Realm realm = DatabaseManager.getInstance().acquireRealm();
+            try {
+                realm.beginTransaction();
+                User user = getCurrentUser();
+                if (user != null) {
+                    user.setBalance(user.getBalance() + balance);
+                    LedgerManager.record(realm, user.getUserId(), LedgerEntry.TOPUP, balance, 0, null);
+                    timer.commit(realm::commitTransaction);
+                } else {
+                    realm.cancelTransaction();
+                }
+            } catch (Exception e) {
+                timer.failed();
+                if (realm.isInTransaction()) realm.cancelTransaction();
+                throw e;
+            } finally {
+                DatabaseManager.getInstance().releaseRealm();
             }
-        } catch (Exception e) {
-            if (realm.isInTransaction()) realm.cancelTransaction();
-            throw e;
         }
     }
 
     
-    public void decreaseBalance(int balance) {
-        realm.beginTransaction();
-        try {
-            User user = getCurrentUser();
-            if (user != null && user.getBalance() >= balance) {
-                user.setBalance(user.getBalance() - balance);
-                realm.commitTransaction();
-            } else {
-                realm.cancelTransaction();
-                if (user != null) throw new IllegalArgumentException("Saldo tidak mencukupi");
+    public RealmAsyncTask addBalanceAsync(int balance, TransactionCallback callback) {
+        // Callback dikirim lewat Realm thread ini, jadi Realm harus tetap terbuka sampai transaksi selesai
+        Realm realm = DatabaseManager.getInstance().getRealm();
+        // ID pengguna dibaca di thread pemanggil, transaksi berjalan di background
+        String userId = sessionManager.getUserId();
+        MetricsRegistry.Operation operation = metrics.operation("UserManager.addBalanceAsync");
+        long submitted = metrics.now();
+        return realm.executeTransactionAsync(bgRealm -> {
+            MetricsRegistry.Timer timer = operation.time();
+            try {
+                User user = bgRealm.where(User.class).equalTo("userId", userId).findFirst();
+                if (user == null) {
+                    throw new IllegalStateException("Pengguna tidak ditemukan.");
+                }
+                user.setBalance(user.getBalance() + balance);
+                LedgerManager.record(bgRealm, userId, LedgerEntry.TOPUP, balance, 0, null);
+            } finally {
+                timer.close();
             }
-        } catch (Exception e) {
-            if (realm.isInTransaction()) realm.cancelTransaction();
-            throw e;
-        }
+        }, () -> {
+            operation.recordSince(MetricsRegistry.Phase.ASYNC_TOTAL, submitted);
+            callback.onSuccess();
+        }, error -> {
+            operation.failed();
+            operation.recordSince(MetricsRegistry.Phase.ASYNC_TOTAL, submitted);
+            callback.onError(error);
+        });
     }
 
     
-    public void close() {
-        if (realm != null && !realm.isClosed()) {
-            realm.close();
+    public void decreaseBalance(int balance) {
+        try (MetricsRegistry.Timer timer = metrics.time("UserManager.decreaseBalance")) {
+            Realm realm = DatabaseManager.getInstance().acquireRealm();
+            try {
+                realm.beginTransaction();
+                User user = getCurrentUser();
+                if (user != null && user.getBalance() >= balance) {
+                    user.setBalance(user.getBalance() - balance);
+                    LedgerManager.record(realm, user.getUserId(), LedgerEntry.ADJUSTMENT, -balance, 0, null);
+                    timer.commit(realm::commitTransaction);
+                } else {
+                    realm.cancelTransaction();
+                    if (user != null) throw new IllegalArgumentException("Saldo tidak mencukupi");
+                }
+            } catch (Exception e) {
+                timer.failed();
+                if (realm.isInTransaction()) realm.cancelTransaction();
+                throw e;
+            } finally {
+                DatabaseManager.getInstance().releaseRealm();
+            }
         }
     }
 }
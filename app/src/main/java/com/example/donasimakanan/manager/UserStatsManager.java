@@ -0,0 +1,51 @@
+package com.example.donasimakanan.manager;
+
+import com.example.donasimakanan.DatabaseManager;
+import com.example.donasimakanan.model.UserStats;
+import com.example.donasimakanan.util.MetricsRegistry;
+
+import java.util.Date;
+
+import io.realm.Realm;
+
+
+public class UserStatsManager {
+
+    private static final MetricsRegistry metrics = MetricsRegistry.getInstance();
+
+    
+    public UserStatsManager() {
+    }
+
+    
+    public UserStats getUserStats(String userId) {
+        return metrics.time("UserStatsManager.getUserStats", () -> {
+            // Lookup lewat primary key, tidak bergantung pada jumlah donasi pengguna.
+            // Objek managed, jadi Realm thread pemanggil harus sudah di-acquire atau di-bind ke lifecycle.
+            Realm realm = DatabaseManager.getInstance().getRealm();
+            return realm.where(UserStats.class)
+                    .equalTo("userId", userId)
+                    .findFirst();
+        });
+    }
+
+    // Harus dipanggil di dalam transaksi yang sama dengan pembuatan Donation
+    static void recordDonation(Realm realm, String userId, String restaurantId, String restaurantName,
+                               int portions, long amount, int points, Date date) {
+        getOrCreate(realm, userId).recordDonation(restaurantId, restaurantName, portions, amount, points, date);
+    }
+
+    // Harus dipanggil di dalam transaksi yang sama dengan pembuatan UserRewardExchange
+    static void recordRedemption(Realm realm, String userId, int pointsUsed) {
+        getOrCreate(realm, userId).recordRedemption(pointsUsed);
+    }
+
+    
+    private static UserStats getOrCreate(Realm realm, String userId) {
+        UserStats stats = realm.where(UserStats.class).equalTo("userId", userId).findFirst();
+        if (stats == null) {
+            stats = realm.createObject(UserStats.class, userId);
+        }
+        return stats;
+    }
+}
@@ -3,6 +3,7 @@ package com.example.donasimakanan.model;
 import java.util.Date;
 import java.util.UUID;
 import io.realm.RealmObject;
+import io.realm.annotations.Index;
 import io.realm.annotations.PrimaryKey;
 import io.realm.annotations.Required;
 
@@ -14,6 +15,7 @@ public class Donation extends RealmObject {
     private String donationId;
 
     
+    @Index
     @Required
     private String userId;
 
@@ -29,6 +31,12 @@ public class Donation extends RealmObject {
     @Required
     private String foodName;
 
+    // Snapshot saat donasi dibuat, agar riwayat tidak perlu membaca tabel Food/Restaurant
+    private int unitPrice;
+
+    
+    private String restaurantName;
+
     
     private String description;
 
@@ -70,6 +78,8 @@ public class Donation extends RealmObject {
     public Date getDonationDate() { return donationDate; }
     public int getPointsEarned() { return pointsEarned; }
     public String getFoodId() { return foodId; }
+    public int getUnitPrice() { return unitPrice; }
+    public String getRestaurantName() { return restaurantName; }
 
     
 
@@ -82,4 +92,6 @@ public class Donation extends RealmObject {
     public void setPointsEarned(int pointsEarned) { this.pointsEarned = pointsEarned; }
     public void setFoodId(String foodId) { this.foodId = foodId; }
     public void setDonationDate(Date donationDate) { this.donationDate = donationDate; }
+    public void setUnitPrice(int unitPrice) { this.unitPrice = unitPrice; }
+    public void setRestaurantName(String restaurantName) { this.restaurantName = restaurantName; }
 }
@@ -0,0 +1,102 @@
+package com.example.donasimakanan.model;
+
+import com.example.donasimakanan.util.TimeBuckets;
+
+import java.util.Date;
+import java.util.TimeZone;
+
+import io.realm.RealmObject;
+import io.realm.annotations.Index;
+import io.realm.annotations.PrimaryKey;
+import io.realm.annotations.Required;
+
+
+/**
+ * Total donasi per bucket waktu dan restoran. Bucket berisi epoch-day untuk DAY atau epoch-month
+ * untuk MONTH (lihat TimeBuckets), dihitung dengan zona waktu perangkat saat donasi dicatat.
+ * Diperbarui di dalam transaksi donasi sehingga dashboard tidak perlu mengelompokkan tabel Donation.
+ */
+public class DonationRollup extends RealmObject {
+
+    // Granularitas bucket
+    public static final String DAY = "day";
+    public static final String MONTH = "month";
+
+    
+    @PrimaryKey
+    @Required
+    private String rollupId;
+
+    
+    @Required
+    private String granularity;
+
+    
+    @Index
+    private int bucket;
+
+    
+    @Index
+    @Required
+    private String restaurantId;
+
+    
+    private String restaurantName;
+
+    
+    private int donations;
+
+    
+    private int portions;
+
+    // Nilai donasi dalam rupiah
+    private long amount;
+
+    
+    private int points;
+
+    
+    public DonationRollup() {}
+
+    
+    public static String rollupId(String granularity, int bucket, String restaurantId) {
+        return granularity + "|" + bucket + "|" + restaurantId;
+    }
+
+    
+    public static int dayBucket(Date date) {
+        return TimeBuckets.epochDay(date.getTime(), TimeZone.getDefault());
+    }
+
+    
+    public static int monthBucket(Date date) {
+        return TimeBuckets.epochMonth(date.getTime(), TimeZone.getDefault());
+    }
+
+    
+
+    public String getRollupId() { return rollupId; }
+    public String getGranularity() { return granularity; }
+    public int getBucket() { return bucket; }
+    public String getRestaurantId() { return restaurantId; }
+    public String getRestaurantName() { return restaurantName; }
+    public int getDonations() { return donations; }
+    public int getPortions() { return portions; }
+    public long getAmount() { return amount; }
+    public int getPoints() { return points; }
+
+    
+
+    public void setGranularity(String granularity) { this.granularity = granularity; }
+    public void setBucket(int bucket) { this.bucket = bucket; }
+    public void setRestaurantId(String restaurantId) { this.restaurantId = restaurantId; }
+    public void setRestaurantName(String restaurantName) { this.restaurantName = restaurantName; }
+
+    
+    public void addDonation(int portions, long amount, int points) {
+        this.donations++;
+        this.portions += portions;
+        this.amount += amount;
+        this.points += points;
+    }
+}
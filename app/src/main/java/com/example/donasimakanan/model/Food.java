@@ -1,8 +1,11 @@
 package com.example.donasimakanan.model;
 
 import java.util.UUID;
+import io.realm.MutableRealmInteger;
 import io.realm.RealmObject;
+import io.realm.annotations.Index;
 import io.realm.annotations.PrimaryKey;
+import io.realm.annotations.Required;
 
 
 public class Food extends RealmObject {
@@ -17,13 +20,15 @@ public class Food extends RealmObject {
     
     private String description;
 
-    
-    private int stock;
+    // Counter, bukan int biasa: diubah dengan increment/decrement, bukan read-modify-write
+    @Required
+    private final MutableRealmInteger stock = MutableRealmInteger.valueOf(0);
 
     
     private int price;
 
     
+    @Index
     private String restaurantId;
 
     
@@ -39,22 +44,27 @@ public class Food extends RealmObject {
         this.foodId = UUID.randomUUID().toString();
         this.name = name;
         this.description = description;
-        this.stock = stock;
+        this.stock.set(stock);
         this.restaurantId = restaurantId;
         this.point = point;
     }
 
     
-
+    
     public String getFoodId() { return foodId; }
     public String getName() { return name; }
     public String getDescription() { return description; }
-    public int getStock() { return stock; }
+    public int getStock() { return stock.isNull() ? 0 : stock.get().intValue(); }
     public String getRestaurant() { return restaurantId; }
     public int getPrice() { return price; }
     public int getPoint() { return point; }
 
     
+    
+    // Hanya untuk objek unmanaged, misalnya baris katalog yang akan di-insertOrUpdate
+    public void setFoodId(String foodId) {
+        this.foodId = foodId;
+    }
 
     public void setName(String name) {
         this.name = name;
@@ -65,7 +75,15 @@ public class Food extends RealmObject {
     }
 
     public void setStock(int stock) {
-        this.stock = stock;
+        this.stock.set(stock);
+    }
+
+    // Kurangi stok hanya jika cukup. Harus dipanggil di dalam transaksi tulis, sehingga
+    // pemeriksaan dan pengurangan terjadi pada versi data yang sama dan stok tidak bisa negatif.
+    public boolean tryDecreaseStock(int quantity) {
+        if (quantity <= 0 || getStock() < quantity) return false;
+        stock.decrement(quantity);
+        return true;
     }
 
     public void setRestaurant(String restaurantId) {
@@ -0,0 +1,43 @@
+package com.example.donasimakanan.model;
+
+
+/**
+ * Salinan Food yang tidak terikat ke Realm dan tidak bisa diubah,
+ * sehingga aman dibagikan lewat cache ke thread mana pun.
+ */
+public final class FoodSnapshot {
+
+    private final String foodId;
+    private final String name;
+    private final String description;
+    private final int stock;
+    private final int price;
+    private final String restaurantId;
+    private final int point;
+
+    
+    private FoodSnapshot(Food food) {
+        this.foodId = food.getFoodId();
+        this.name = food.getName();
+        this.description = food.getDescription();
+        this.stock = food.getStock();
+        this.price = food.getPrice();
+        this.restaurantId = food.getRestaurant();
+        this.point = food.getPoint();
+    }
+
+    
+    public static FoodSnapshot from(Food food) {
+        return new FoodSnapshot(food);
+    }
+
+    
+    
+    public String getFoodId() { return foodId; }
+    public String getName() { return name; }
+    public String getDescription() { return description; }
+    public int getStock() { return stock; }
+    public int getPrice() { return price; }
+    public String getRestaurant() { return restaurantId; }
+    public int getPoint() { return point; }
+}
@@ -0,0 +1,64 @@
+package com.example.donasimakanan.model;
+
+import io.realm.RealmObject;
+import io.realm.annotations.Index;
+import io.realm.annotations.PrimaryKey;
+import io.realm.annotations.Required;
+
+
+/**
+ * Skor donatur per cakupan peringkat. Cakupan berisi GLOBAL_SCOPE atau restaurantId,
+ * sehingga satu pengguna memiliki satu baris global dan satu baris per restoran yang pernah ia bantu.
+ */
+public class LeaderboardEntry extends RealmObject {
+
+    // Cakupan untuk peringkat seluruh restoran
+    public static final String GLOBAL_SCOPE = "global";
+
+    
+    @PrimaryKey
+    @Required
+    private String entryId;
+
+    
+    @Index
+    @Required
+    private String scope;
+
+    
+    @Required
+    private String userId;
+
+    
+    private int points;
+
+    
+    private int portions;
+
+    
+    public LeaderboardEntry() {}
+
+    
+    public static String entryId(String scope, String userId) {
+        return scope + "|" + userId;
+    }
+
+    
+
+    public String getEntryId() { return entryId; }
+    public String getScope() { return scope; }
+    public String getUserId() { return userId; }
+    public int getPoints() { return points; }
+    public int getPortions() { return portions; }
+
+    
+
+    public void setScope(String scope) { this.scope = scope; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    
+    public void addDonation(int portions, int points) {
+        this.portions += portions;
+        this.points += points;
+    }
+}
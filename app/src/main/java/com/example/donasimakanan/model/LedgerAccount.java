@@ -0,0 +1,60 @@
+package com.example.donasimakanan.model;
+
+import java.util.Date;
+
+import io.realm.RealmObject;
+import io.realm.annotations.PrimaryKey;
+import io.realm.annotations.Required;
+
+
+/**
+ * Kepala ledger per pengguna: nomor urut entri terakhir dan snapshot saldo terbaru.
+ * Saldo direkonstruksi dari snapshot ditambah entri setelah snapshotSequence, bukan dari seluruh riwayat.
+ */
+public class LedgerAccount extends RealmObject {
+
+    
+    @PrimaryKey
+    @Required
+    private String userId;
+
+    // Nomor urut entri terakhir yang ditulis
+    private long headSequence;
+
+    // Entri terakhir yang sudah termasuk di snapshot; 0 berarti belum ada snapshot
+    private long snapshotSequence;
+
+    
+    private long snapshotBalance;
+
+    
+    private long snapshotPoints;
+
+    
+    private Date snapshotAt;
+
+    
+    public LedgerAccount() {}
+
+    
+    
+    public String getUserId() { return userId; }
+    public long getHeadSequence() { return headSequence; }
+    public long getSnapshotSequence() { return snapshotSequence; }
+    public long getSnapshotBalance() { return snapshotBalance; }
+    public long getSnapshotPoints() { return snapshotPoints; }
+    public Date getSnapshotAt() { return snapshotAt; }
+
+    
+    public long nextSequence() {
+        return ++headSequence;
+    }
+
+    
+    public void setSnapshot(long sequence, long balance, long points, Date at) {
+        this.snapshotSequence = sequence;
+        this.snapshotBalance = balance;
+        this.snapshotPoints = points;
+        this.snapshotAt = at;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.donasimakanan.model;
+
+import java.util.Date;
+
+import io.realm.RealmObject;
+import io.realm.annotations.Index;
+import io.realm.annotations.PrimaryKey;
+import io.realm.annotations.Required;
+
+
+/**
+ * Satu baris ledger saldo dan poin pengguna. Hanya ditambahkan, tidak pernah diubah atau dihapus.
+ * entryId disusun dari userId dan nomor urut per pengguna, sehingga entri ke-n bisa dibaca lewat primary key.
+ */
+public class LedgerEntry extends RealmObject {
+
+    // Jenis entri
+    public static final String OPENING = "opening";
+    public static final String TOPUP = "topup";
+    public static final String DONATION_DEBIT = "donation_debit";
+    public static final String POINTS_CREDIT = "points_credit";
+    public static final String REDEMPTION = "redemption";
+    public static final String ADJUSTMENT = "adjustment";
+
+    
+    @PrimaryKey
+    @Required
+    private String entryId;
+
+    
+    @Index
+    @Required
+    private String userId;
+
+    // Nomor urut per pengguna, dimulai dari 1 tanpa celah
+    private long sequence;
+
+    
+    @Required
+    private String type;
+
+    
+    private long balanceDelta;
+
+    
+    private long pointsDelta;
+
+    // donationId atau userRewardId yang menyebabkan entri ini, null untuk top up dan penyesuaian
+    private String referenceId;
+
+    
+    private Date createdAt;
+
+    
+    public LedgerEntry() {}
+
+    
+    public static String entryId(String userId, long sequence) {
+        return userId + "|" + sequence;
+    }
+
+    
+    
+    public String getEntryId() { return entryId; }
+    public String getUserId() { return userId; }
+    public long getSequence() { return sequence; }
+    public String getType() { return type; }
+    public long getBalanceDelta() { return balanceDelta; }
+    public long getPointsDelta() { return pointsDelta; }
+    public String getReferenceId() { return referenceId; }
+    public Date getCreatedAt() { return createdAt; }
+
+    
+    
+    public void setUserId(String userId) { this.userId = userId; }
+    public void setSequence(long sequence) { this.sequence = sequence; }
+    public void setType(String type) { this.type = type; }
+    public void setBalanceDelta(long balanceDelta) { this.balanceDelta = balanceDelta; }
+    public void setPointsDelta(long pointsDelta) { this.pointsDelta = pointsDelta; }
+    public void setReferenceId(String referenceId) { this.referenceId = referenceId; }
+    public void setCreatedAt(Date createdAt) { this.createdAt = createdAt; }
+}
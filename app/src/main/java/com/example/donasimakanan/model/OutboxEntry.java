@@ -0,0 +1,62 @@
+package com.example.donasimakanan.model;
+
+import io.realm.RealmObject;
+import io.realm.annotations.Index;
+import io.realm.annotations.PrimaryKey;
+import io.realm.annotations.Required;
+
+
+/**
+ * Perubahan yang belum terkirim ke backend. Ditulis di transaksi yang sama dengan datanya,
+ * lalu dihapus oleh OutboxManager setelah server menerima. entryId sekaligus idempotency key.
+ */
+public class OutboxEntry extends RealmObject {
+
+    public static final String TYPE_DONATION = "donation";
+    public static final String TYPE_REWARD_EXCHANGE = "reward_exchange";
+
+    
+    @PrimaryKey
+    @Required
+    private String entryId;
+
+    
+    @Required
+    private String type;
+
+    // Objek JSON siap kirim, dibuat saat transaksi agar tidak perlu membaca tabel lain saat upload
+    @Required
+    private String payload;
+
+    
+    @Index
+    private long createdAt;
+
+
+    // Ditolak permanen oleh server: disimpan untuk diperiksa, tapi tidak dikirim ulang
+    @Index
+    private boolean parked;
+
+    
+    private int attempts;
+
+    
+    public OutboxEntry() {}
+
+
+    
+    public String getEntryId() { return entryId; }
+    public String getType() { return type; }
+    public String getPayload() { return payload; }
+    public long getCreatedAt() { return createdAt; }
+    public boolean isParked() { return parked; }
+    public int getAttempts() { return attempts; }
+
+
+    
+    public void setType(String type) { this.type = type; }
+    public void setPayload(String payload) { this.payload = payload; }
+    public void setCreatedAt(long createdAt) { this.createdAt = createdAt; }
+    public void setParked(boolean parked) { this.parked = parked; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+}
@@ -1,7 +1,10 @@
 package com.example.donasimakanan.model;
 
+import com.example.donasimakanan.util.GeoGrid;
+
 import java.util.UUID;
 import io.realm.RealmObject;
+import io.realm.annotations.Index;
 import io.realm.annotations.PrimaryKey;
 import io.realm.annotations.Required;
 
@@ -27,6 +30,22 @@ public class Restaurant extends RealmObject {
     
     private String description;
 
+    // Agregat stok makanan restoran, diperbarui setiap kali Food.stock berubah
+    private int totalStock;
+
+    // Jumlah menu dengan stok > 0; restoran menerima donasi selama nilainya > 0
+    private int availableFoodCount;
+
+    
+    private double latitude;
+
+    
+    private double longitude;
+
+    // Sel GeoGrid dari koordinat restoran; null jika lokasi belum diisi
+    @Index
+    private String geoCell;
+
     
     public Restaurant() {
     }
@@ -41,18 +60,48 @@ public class Restaurant extends RealmObject {
     }
 
     
-
+    
     public String getRestaurantId() { return restaurantId; }
     public String getName() { return name; }
     public String getAddress() { return address; }
     public String getPhoneNumber() { return phoneNumber; }
     public String getDescription() { return description; }
+    public int getTotalStock() { return totalStock; }
+    public int getAvailableFoodCount() { return availableFoodCount; }
+    public boolean isAcceptingDonations() { return availableFoodCount > 0; }
+    public double getLatitude() { return latitude; }
+    public double getLongitude() { return longitude; }
+    public String getGeoCell() { return geoCell; }
+    public boolean hasLocation() { return geoCell != null; }
 
     
-
+    
     public void setRestaurantId(String restaurantId) { this.restaurantId = restaurantId; }
     public void setName(String name) { this.name = name; }
     public void setAddress(String address) { this.address = address; }
     public void setPhoneNumber(String phoneNumber) { this.phoneNumber = phoneNumber; }
     public void setDescription(String description) { this.description = description; }
+
+    
+    public void setLocation(double latitude, double longitude) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.geoCell = GeoGrid.cellId(latitude, longitude); // Sel ikut diperbarui agar index tetap konsisten
+    }
+
+    // Set agregat hasil hitung ulang penuh dari tabel Food, misalnya setelah sinkronisasi katalog
+    public void setStockAggregate(int totalStock, int availableFoodCount) {
+        this.totalStock = totalStock;
+        this.availableFoodCount = availableFoodCount;
+    }
+
+    
+    public void applyStockChange(int oldStock, int newStock) {
+        totalStock += newStock - oldStock;
+        if (oldStock <= 0 && newStock > 0) {
+            availableFoodCount++;
+        } else if (oldStock > 0 && newStock <= 0) {
+            availableFoodCount--;
+        }
+    }
 }
@@ -0,0 +1,50 @@
+package com.example.donasimakanan.model;
+
+
+/**
+ * Salinan Restaurant yang tidak terikat ke Realm dan tidak bisa diubah,
+ * sehingga aman dibagikan lewat cache ke thread mana pun.
+ */
+public final class RestaurantSnapshot {
+
+    private final String restaurantId;
+    private final String name;
+    private final String address;
+    private final String phoneNumber;
+    private final String description;
+    private final int totalStock;
+    private final int availableFoodCount;
+    private final double latitude;
+    private final double longitude;
+
+    
+    private RestaurantSnapshot(Restaurant restaurant) {
+        this.restaurantId = restaurant.getRestaurantId();
+        this.name = restaurant.getName();
+        this.address = restaurant.getAddress();
+        this.phoneNumber = restaurant.getPhoneNumber();
+        this.description = restaurant.getDescription();
+        this.totalStock = restaurant.getTotalStock();
+        this.availableFoodCount = restaurant.getAvailableFoodCount();
+        this.latitude = restaurant.getLatitude();
+        this.longitude = restaurant.getLongitude();
+    }
+
+    
+    public static RestaurantSnapshot from(Restaurant restaurant) {
+        return new RestaurantSnapshot(restaurant);
+    }
+
+    
+    
+    public String getRestaurantId() { return restaurantId; }
+    public String getName() { return name; }
+    public String getAddress() { return address; }
+    public String getPhoneNumber() { return phoneNumber; }
+    public String getDescription() { return description; }
+    public int getTotalStock() { return totalStock; }
+    public int getAvailableFoodCount() { return availableFoodCount; }
+    public boolean isAcceptingDonations() { return availableFoodCount > 0; }
+    public double getLatitude() { return latitude; }
+    public double getLongitude() { return longitude; }
+}
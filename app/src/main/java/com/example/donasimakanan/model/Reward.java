@@ -1,6 +1,7 @@
 package com.example.donasimakanan.model;
 
 import java.util.Date;
+import io.realm.MutableRealmInteger;
 import io.realm.RealmObject;
 import io.realm.annotations.PrimaryKey;
 import io.realm.annotations.Required;
@@ -25,8 +26,9 @@ public class Reward extends RealmObject {
     
     private int pointsRequired;
 
-    
-    private int stock;
+    // Counter, bukan int biasa: diubah dengan increment/decrement, bukan read-modify-write
+    @Required
+    private final MutableRealmInteger stock = MutableRealmInteger.valueOf(0);
 
     
     private Date createdDate;
@@ -41,37 +43,42 @@ public class Reward extends RealmObject {
         this.name = name;
         this.description = description;
         this.pointsRequired = pointsRequired;
-        this.stock = stock;
+        this.stock.set(stock);
         this.createdDate = new Date(); // Tanggal ditetapkan otomatis saat pembuatan
     }
 
     
-
+    
     public String getRewardId() { return rewardId; }
     public String getUserId() { return userId; }
     public String getName() { return name; }
     public String getDescription() { return description; }
     public int getPointsRequired() { return pointsRequired; }
-    public int getStock() { return stock; }
+    public int getStock() { return stock.isNull() ? 0 : stock.get().intValue(); }
     public Date getCreatedDate() { return createdDate; }
 
     
-
+    
     public void setRewardId(String rewardId) { this.rewardId = rewardId; }
     public void setUserId(String userId) { this.userId = userId; }
     public void setName(String name) { this.name = name; }
     public void setDescription(String description) { this.description = description; }
     public void setPointsRequired(int pointsRequired) { this.pointsRequired = pointsRequired; }
-    public void setStock(int stock) { this.stock = stock; }
+    public void setStock(int stock) { this.stock.set(stock); }
     public void setCreatedDate(Date createdDate) { this.createdDate = createdDate; }
 
     
     public void decreseStock(int quantity) {
-        if (quantity > 0 && quantity <= this.stock) {
-            this.stock -= quantity;
-        } else {
+        if (!tryDecreaseStock(quantity)) {
             // Melempar exception jika stok tidak cukup atau kuantitas tidak valid.
             throw new IllegalArgumentException("Kuantitas tidak valid atau melebihi stok yang tersedia.");
         }
     }
+
+    // Kurangi stok hanya jika cukup; untuk objek managed harus dipanggil di dalam transaksi tulis
+    public boolean tryDecreaseStock(int quantity) {
+        if (quantity <= 0 || getStock() < quantity) return false;
+        stock.decrement(quantity);
+        return true;
+    }
 }
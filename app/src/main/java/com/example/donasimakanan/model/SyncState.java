@@ -0,0 +1,41 @@
+package com.example.donasimakanan.model;
+
+import io.realm.RealmObject;
+import io.realm.annotations.PrimaryKey;
+import io.realm.annotations.Required;
+
+
+/**
+ * Posisi sinkronisasi terakhir per jenis data. Disimpan di Realm, bukan SharedPreferences,
+ * agar token ikut ter-commit di transaksi yang sama dengan baris yang diterapkan.
+ */
+public class SyncState extends RealmObject {
+
+    // Kunci untuk sinkronisasi katalog restoran, makanan, dan hadiah
+    public static final String CATALOG = "catalog";
+
+    
+    @PrimaryKey
+    @Required
+    private String key;
+
+    // Token versi opaque dari server; null berarti belum pernah sinkron
+    private String token;
+
+    
+    private long updatedAt;
+
+    
+    public SyncState() {}
+
+
+    
+    public String getKey() { return key; }
+    public String getToken() { return token; }
+    public long getUpdatedAt() { return updatedAt; }
+
+
+    
+    public void setToken(String token) { this.token = token; }
+    public void setUpdatedAt(long updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -1,20 +1,26 @@
 package com.example.donasimakanan.model;
 
+import com.example.donasimakanan.util.PasswordHasher;
+import com.example.donasimakanan.util.Pbkdf2PasswordHasher;
+
 import io.realm.RealmObject;
+import io.realm.annotations.Index;
 import io.realm.annotations.PrimaryKey;
 import io.realm.annotations.Required;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 
 
 public class User extends RealmObject {
 
+    // Static sehingga tidak menjadi kolom Realm
+    private static volatile PasswordHasher passwordHasher = new Pbkdf2PasswordHasher();
+
     
     @PrimaryKey
     @Required
     private String userId;
 
     
+    @Index
     @Required
     private String email;
 
@@ -58,7 +64,7 @@ public class User extends RealmObject {
     }
 
     
-
+    
     public String getUserId() { return userId; }
     public String getEmail() { return email; }
     public String getFullName() { return fullName; }
@@ -69,7 +75,7 @@ public class User extends RealmObject {
     public int getBalance() {return balance;}
 
     
-
+    
     public void setUserId(String userId) { this.userId = userId; }
     public void setEmail(String email) { this.email = email; }
     public void setFullName(String fullName) { this.fullName = fullName; }
@@ -84,35 +90,34 @@ public class User extends RealmObject {
         this.passwordHash = hashPassword(newPassword);
     }
 
+    // Hash tersimpan (format PasswordHasher), bukan password
+    public String getPasswordHash() {
+        return passwordHash;
+    }
+
+    // Untuk hash yang sudah dihitung di luar transaksi, agar transaksi tulis tidak ikut menunggu KDF
+    public void setPasswordHash(String passwordHash) {
+        this.passwordHash = passwordHash;
+    }
+
     
     public boolean verifyPassword(String inputPassword) {
-        if (inputPassword == null || this.passwordHash == null) {
-            return false;
-        }
-        String inputHash = hashPassword(inputPassword);
-        return this.passwordHash.equals(inputHash);
+        return passwordHasher.verify(inputPassword, this.passwordHash);
     }
 
-    
-    private String hashPassword(String password) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(password.getBytes());
-
-            // Konversi array byte ke dalam format string heksadesimal
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
-            }
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-           
-            return password; 
-        }
+    // true jika hash tersimpan berformat lama atau cost-nya di bawah cost saat ini
+    public boolean needsPasswordRehash() {
+        return passwordHasher.needsRehash(this.passwordHash);
+    }
+
+    // Lambat secara sengaja (KDF); jangan dipanggil di UI thread
+    public static String hashPassword(String password) {
+        return passwordHasher.hash(password);
+    }
+
+    // Mengganti algoritma hashing, misalnya cost lebih rendah di pengujian. Hash lama tetap harus bisa diverifikasi.
+    public static void setPasswordHasher(PasswordHasher hasher) {
+        passwordHasher = hasher;
     }
 
     
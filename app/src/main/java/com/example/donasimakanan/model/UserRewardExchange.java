@@ -2,6 +2,7 @@ package com.example.donasimakanan.model;
 
 import java.util.Date;
 import io.realm.RealmObject;
+import io.realm.annotations.Index;
 import io.realm.annotations.PrimaryKey;
 import io.realm.annotations.Required;
 
@@ -13,6 +14,7 @@ public class UserRewardExchange extends RealmObject {
     private String userRewardId;
 
     
+    @Index
     @Required
     private String userId;
 
@@ -20,6 +22,9 @@ public class UserRewardExchange extends RealmObject {
     @Required
     private String rewardId;
 
+    // Snapshot saat penukaran, agar riwayat tetap terbaca setelah hadiah dihapus atau diganti sinkronisasi katalog
+    private String rewardName;
+
     
     private int pointsUsed;
 
@@ -57,8 +62,20 @@ public class UserRewardExchange extends RealmObject {
     public void setRewardId(String rewardId) { this.rewardId = rewardId; }
 
     
+    public String getRewardName() { return rewardName; }
+
+    
+    public void setRewardName(String rewardName) { this.rewardName = rewardName; }
+
+    
     public int getPointsUsed() { return pointsUsed; }
 
     
     public void setPointsUsed(int pointsUsed) { this.pointsUsed = pointsUsed; }
+
+    
+    public Date getRedeemedDate() { return redeemedDate; }
+
+    
+    public void setRedeemedDate(Date redeemedDate) { this.redeemedDate = redeemedDate; }
 }
@@ -0,0 +1,131 @@
+package com.example.donasimakanan.model;
+
+import java.util.Calendar;
+import java.util.Date;
+import io.realm.RealmDictionary;
+import io.realm.RealmObject;
+import io.realm.annotations.PrimaryKey;
+import io.realm.annotations.Required;
+
+
+/**
+ * Statistik agregat per pengguna yang diperbarui di dalam transaksi donasi dan penukaran hadiah,
+ * sehingga halaman utama cukup membaca satu objek tanpa memindai tabel Donation.
+ */
+public class UserStats extends RealmObject {
+
+    
+    @PrimaryKey
+    @Required
+    private String userId;
+
+    
+    private int totalDonations;
+
+    
+    private int totalPortions;
+
+    
+    private long totalAmount;
+
+    
+    private int totalPointsEarned;
+
+    
+    private int totalRedemptions;
+
+    
+    private int totalPointsRedeemed;
+
+    // Bulan (yyyyMM) yang sedang dihitung oleh field monthly*
+    private int monthKey;
+
+    
+    private int monthlyDonations;
+
+    
+    private int monthlyPortions;
+
+    
+    private long monthlyAmount;
+
+    // Jumlah porsi per restaurantId, dipakai untuk menentukan restoran favorit
+    private RealmDictionary<Integer> portionsByRestaurant;
+
+    
+    private String favoriteRestaurantId;
+
+    
+    private String favoriteRestaurantName;
+
+    
+    private int favoriteRestaurantPortions;
+
+    
+    public UserStats() {}
+
+    
+
+    public String getUserId() { return userId; }
+    public int getTotalDonations() { return totalDonations; }
+    public int getTotalPortions() { return totalPortions; }
+    public long getTotalAmount() { return totalAmount; }
+    public int getTotalPointsEarned() { return totalPointsEarned; }
+    public int getTotalRedemptions() { return totalRedemptions; }
+    public int getTotalPointsRedeemed() { return totalPointsRedeemed; }
+    public int getMonthKey() { return monthKey; }
+    public String getFavoriteRestaurantId() { return favoriteRestaurantId; }
+    public String getFavoriteRestaurantName() { return favoriteRestaurantName; }
+    public int getFavoriteRestaurantPortions() { return favoriteRestaurantPortions; }
+
+    
+
+    public void setUserId(String userId) { this.userId = userId; }
+
+    // Total bulanan hanya berlaku jika masih di bulan yang sama, selain itu dianggap 0
+    public int getMonthlyDonations(Date now) { return monthKey == monthKey(now) ? monthlyDonations : 0; }
+    public int getMonthlyPortions(Date now) { return monthKey == monthKey(now) ? monthlyPortions : 0; }
+    public long getMonthlyAmount(Date now) { return monthKey == monthKey(now) ? monthlyAmount : 0; }
+
+    
+    public void recordDonation(String restaurantId, String restaurantName, int portions, long amount, int points, Date date) {
+        totalDonations++;
+        totalPortions += portions;
+        totalAmount += amount;
+        totalPointsEarned += points;
+
+        // Pergantian bulan: total bulanan dimulai ulang dari nol
+        int key = monthKey(date);
+        if (monthKey != key) {
+            monthKey = key;
+            monthlyDonations = 0;
+            monthlyPortions = 0;
+            monthlyAmount = 0;
+        }
+        monthlyDonations++;
+        monthlyPortions += portions;
+        monthlyAmount += amount;
+
+        Integer current = portionsByRestaurant.get(restaurantId);
+        int restaurantPortions = (current != null ? current : 0) + portions;
+        portionsByRestaurant.put(restaurantId, restaurantPortions);
+        if (restaurantPortions > favoriteRestaurantPortions || restaurantId.equals(favoriteRestaurantId)) {
+            favoriteRestaurantId = restaurantId;
+            favoriteRestaurantName = restaurantName;
+            favoriteRestaurantPortions = restaurantPortions;
+        }
+    }
+
+    
+    public void recordRedemption(int pointsUsed) {
+        totalRedemptions++;
+        totalPointsRedeemed += pointsUsed;
+    }
+
+    
+    public static int monthKey(Date date) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(date);
+        return calendar.get(Calendar.YEAR) * 100 + calendar.get(Calendar.MONTH) + 1;
+    }
+}
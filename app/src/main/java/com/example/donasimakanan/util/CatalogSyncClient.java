@@ -0,0 +1,150 @@
+package com.example.donasimakanan.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * CatalogSyncClient - Mengambil perubahan katalog (restoran, makanan, hadiah) sejak version token tertentu.
+ * Server mengembalikan halaman berisi baris yang berubah, id yang dihapus, token versi baru, dan
+ * penanda hasMore. Token bersifat opaque: klien hanya menyimpan dan mengirimkannya kembali.
+ * Tidak bergantung pada Realm agar bisa diuji di JVM.
+ */
+public class CatalogSyncClient {
+
+    private static final int CONNECT_TIMEOUT_MS = 10_000;
+    private static final int READ_TIMEOUT_MS = 30_000;
+
+    private final URL endpoint;
+
+    public CatalogSyncClient(URL endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Satu halaman delta dari server
+     */
+    public static final class Page {
+        String version;
+        boolean hasMore;
+        List<Map<String, Object>> restaurants = Collections.emptyList();
+        List<Map<String, Object>> foods = Collections.emptyList();
+        List<Map<String, Object>> rewards = Collections.emptyList();
+        List<Deletion> deleted = new ArrayList<>();
+        long bytesTransferred;
+
+        public String getVersion() { return version; }
+        public boolean hasMore() { return hasMore; }
+        public List<Map<String, Object>> getRestaurants() { return restaurants; }
+        public List<Map<String, Object>> getFoods() { return foods; }
+        public List<Map<String, Object>> getRewards() { return rewards; }
+        public List<Deletion> getDeleted() { return deleted; }
+        // Byte yang benar-benar lewat jaringan (setelah kompresi)
+        public long getBytesTransferred() { return bytesTransferred; }
+        public int size() { return restaurants.size() + foods.size() + rewards.size() + deleted.size(); }
+    }
+
+    /**
+     * Baris yang dihapus di server
+     */
+    public static final class Deletion {
+        final String type;
+        final String id;
+
+        public Deletion(String type, String id) {
+            this.type = type;
+            this.id = id;
+        }
+
+        public String getType() { return type; }
+        public String getId() { return id; }
+    }
+
+    /**
+     * Ambil perubahan sejak token (null untuk sinkronisasi pertama), paling banyak limit baris per halaman
+     */
+    public Page fetch(String sinceToken, int limit) throws IOException {
+        StringBuilder query = new StringBuilder(endpoint.toString());
+        query.append(endpoint.getQuery() == null ? '?' : '&').append("limit=").append(limit);
+        if (sinceToken != null) {
+            query.append("&since=").append(URLEncoder.encode(sinceToken, "UTF-8"));
+        }
+
+        HttpURLConnection connection = (HttpURLConnection) new URL(query.toString()).openConnection();
+        try {
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+            connection.setReadTimeout(READ_TIMEOUT_MS);
+            connection.setRequestProperty("Accept", "application/json");
+            // Diminta eksplisit agar jumlah byte terkompresi bisa diukur; dekompresi dilakukan sendiri
+            connection.setRequestProperty("Accept-Encoding", "gzip");
+            int status = connection.getResponseCode();
+            if (status < 200 || status >= 300) {
+                throw new IOException("Sinkronisasi katalog gagal: HTTP " + status);
+            }
+
+            byte[] wire = readAll(connection.getInputStream());
+            byte[] body = "gzip".equalsIgnoreCase(connection.getContentEncoding())
+                    ? readAll(new GZIPInputStream(new ByteArrayInputStream(wire)))
+                    : wire;
+            Page page = parse(new String(body, StandardCharsets.UTF_8));
+            page.bytesTransferred = wire.length;
+            return page;
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static Page parse(String json) throws IOException {
+        try {
+            Map<String, Object> root = (Map<String, Object>) JsonParser.parse(json);
+            Page page = new Page();
+            page.version = (String) root.get("version");
+            if (page.version == null) {
+                throw new IOException("Respons katalog tidak memiliki version");
+            }
+            page.hasMore = Boolean.TRUE.equals(root.get("hasMore"));
+            page.restaurants = objects(root.get("restaurants"));
+            page.foods = objects(root.get("foods"));
+            page.rewards = objects(root.get("rewards"));
+            for (Map<String, Object> deletion : objects(root.get("deleted"))) {
+                page.deleted.add(new Deletion((String) deletion.get("type"), (String) deletion.get("id")));
+            }
+            return page;
+        } catch (ClassCastException | IllegalArgumentException e) {
+            throw new IOException("Respons katalog tidak valid: " + e.getMessage(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> objects(Object value) {
+        if (value == null) return Collections.emptyList();
+        List<Map<String, Object>> objects = new ArrayList<>();
+        for (Object item : (List<Object>) value) {
+            objects.add((Map<String, Object>) item);
+        }
+        return objects;
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        try (InputStream stream = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.donasimakanan.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * ExportWriter - Menulis baris CSV atau JSON langsung ke FileChannel dengan memori konstan.
+ * Setiap baris disusun di satu StringBuilder yang dipakai ulang, lalu di-encode ke buffer byte
+ * berukuran tetap yang di-flush ke channel saat penuh. Tidak ada baris yang ditahan setelah ditulis.
+ *
+ * Pemakaian: beginRow(), value(...) untuk setiap kolom sesuai urutan columns, lalu endRow().
+ */
+public class ExportWriter implements Closeable {
+
+    // Format keluaran
+    public enum Format { CSV, JSON }
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final FileChannel channel;
+    private final Format format;
+    private final String[] columns;
+    private final StringBuilder row = new StringBuilder(256);
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.ROOT);
+    private int column = -1;
+    private long rowCount;
+    private long bytesWritten;
+    private boolean closed;
+
+    public ExportWriter(FileChannel channel, Format format, String... columns) throws IOException {
+        this.channel = channel;
+        this.format = format;
+        this.columns = columns;
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        if (format == Format.CSV) {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) row.append(',');
+                appendCsv(columns[i]);
+            }
+            row.append("\r\n");
+        } else {
+            row.append('[');
+        }
+        flushRow();
+    }
+
+    /**
+     * Mulai baris baru
+     */
+    public void beginRow() {
+        if (column != -1) throw new IllegalStateException("Baris sebelumnya belum diakhiri dengan endRow()");
+        column = 0;
+        if (format == Format.JSON) {
+            row.append(rowCount == 0 ? "\n{" : ",\n{");
+        }
+    }
+
+    public void value(String value) {
+        nextColumn();
+        if (value == null) {
+            if (format == Format.JSON) row.append("null");
+        } else if (format == Format.CSV) {
+            appendCsv(value);
+        } else {
+            appendJsonString(value);
+        }
+    }
+
+    public void value(long value) {
+        nextColumn();
+        row.append(value);
+    }
+
+    public void value(Date value) {
+        if (value == null) {
+            value((String) null);
+        } else {
+            value(dateFormat.format(value));
+        }
+    }
+
+    /**
+     * Akhiri baris dan tulis ke channel jika buffer penuh
+     */
+    public void endRow() throws IOException {
+        if (column != columns.length) {
+            throw new IllegalStateException("Baris berisi " + column + " kolom, seharusnya " + columns.length);
+        }
+        row.append(format == Format.CSV ? "\r\n" : "}");
+        column = -1;
+        rowCount++;
+        flushRow();
+    }
+
+    public long getRowCount() { return rowCount; }
+
+    // Byte yang sudah di-flush ke channel
+    public long getBytesWritten() { return bytesWritten; }
+
+    /**
+     * Tulis penutup dokumen dan sisa buffer. Channel tidak ditutup, karena dimiliki pemanggil.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        if (format == Format.JSON) {
+            row.append(rowCount == 0 ? "]\n" : "\n]\n");
+            flushRow();
+        }
+        drainBuffer();
+        channel.force(false);
+    }
+
+    private void nextColumn() {
+        if (column < 0) throw new IllegalStateException("beginRow() belum dipanggil");
+        if (column >= columns.length) throw new IllegalStateException("Kolom melebihi " + columns.length);
+        if (format == Format.CSV) {
+            if (column > 0) row.append(',');
+        } else {
+            if (column > 0) row.append(',');
+            appendJsonString(columns[column]);
+            row.append(':');
+        }
+        column++;
+    }
+
+    // Field CSV dikutip hanya jika mengandung pemisah, kutip, atau baris baru (RFC 4180)
+    private void appendCsv(String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            row.append(value);
+            return;
+        }
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') row.append('"');
+            row.append(c);
+        }
+        row.append('"');
+    }
+
+    private void appendJsonString(String value) {
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': row.append("\\\""); break;
+                case '\\': row.append("\\\\"); break;
+                case '\n': row.append("\\n"); break;
+                case '\r': row.append("\\r"); break;
+                case '\t': row.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        row.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        row.append(c);
+                    }
+            }
+        }
+        row.append('"');
+    }
+
+    // Encode isi StringBuilder ke buffer byte; buffer di-flush ke channel setiap kali penuh
+    private void flushRow() throws IOException {
+        CharBuffer chars = CharBuffer.wrap(row);
+        encoder.reset();
+        while (true) {
+            CoderResult result = encoder.encode(chars, bytes, true);
+            if (result.isOverflow()) {
+                drainBuffer();
+            } else if (result.isUnderflow()) {
+                break;
+            } else {
+                result.throwException();
+            }
+        }
+        while (encoder.flush(bytes).isOverflow()) {
+            drainBuffer();
+        }
+        row.setLength(0);
+    }
+
+    private void drainBuffer() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            bytesWritten += channel.write(bytes);
+        }
+        bytes.clear();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.donasimakanan.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * GeoGrid - Grid lintang/bujur berukuran tetap untuk index lokasi restoran.
+ * Setiap koordinat dipetakan ke satu id sel (string) yang disimpan di field ber-index,
+ * sehingga pencarian terdekat cukup melakukan equality query ke sel-sel di sekitar titik.
+ */
+public final class GeoGrid {
+
+    // Ukuran sel dalam derajat (~5,5 km arah utara-selatan)
+    public static final double CELL_DEGREES = 0.05;
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEGREE = 111.32;
+
+    private GeoGrid() {
+    }
+
+    /**
+     * Id sel untuk koordinat tertentu
+     */
+    public static String cellId(double latitude, double longitude) {
+        return cellId(row(latitude), column(longitude));
+    }
+
+    /**
+     * Semua id sel pada cincin ke-ring di sekitar titik (ring 0 = sel titik itu sendiri)
+     */
+    public static List<String> ring(double latitude, double longitude, int ring) {
+        int row = row(latitude);
+        int column = column(longitude);
+        List<String> cells = new ArrayList<>();
+        if (ring == 0) {
+            cells.add(cellId(row, column));
+            return cells;
+        }
+        for (int i = -ring; i <= ring; i++) {
+            cells.add(cellId(row - ring, column + i));
+            cells.add(cellId(row + ring, column + i));
+        }
+        for (int i = -ring + 1; i <= ring - 1; i++) {
+            cells.add(cellId(row + i, column - ring));
+            cells.add(cellId(row + i, column + ring));
+        }
+        return cells;
+    }
+
+    /**
+     * Batas bawah jarak (km) ke titik mana pun di luar cincin 0..ring.
+     * Dipakai untuk berhenti melebarkan pencarian setelah k hasil terdekat pasti sudah ditemukan.
+     */
+    public static double coveredRadiusKm(double latitude, int ring) {
+        // Lebar sel arah timur-barat menyempit sesuai cos(lintang), jadi itu yang dipakai sebagai batas aman
+        double latitudeEdge = Math.min(90, Math.abs(latitude) + (ring + 1) * CELL_DEGREES);
+        double cellWidthKm = CELL_DEGREES * KM_PER_DEGREE * Math.cos(Math.toRadians(latitudeEdge));
+        return ring * cellWidthKm;
+    }
+
+    /**
+     * Jarak haversine dalam kilometer
+     */
+    public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    private static int row(double latitude) {
+        return (int) Math.floor(latitude / CELL_DEGREES);
+    }
+
+    private static int column(double longitude) {
+        return (int) Math.floor(longitude / CELL_DEGREES);
+    }
+
+    private static String cellId(int row, int column) {
+        return row + ":" + column;
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.donasimakanan.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JsonParser - Parser JSON kecil tanpa dependensi Android, agar kode jaringan bisa diuji di JVM.
+ * Objek menjadi Map, array menjadi List, angka bulat menjadi Long, angka pecahan menjadi Double.
+ */
+public final class JsonParser {
+
+    private final String text;
+    private int position;
+
+    private JsonParser(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Parse satu nilai JSON; melempar IllegalArgumentException jika teks tidak valid
+     */
+    public static Object parse(String text) {
+        JsonParser parser = new JsonParser(text);
+        Object value = parser.readValue();
+        parser.skipWhitespace();
+        if (parser.position != text.length()) {
+            throw parser.error("karakter berlebih");
+        }
+        return value;
+    }
+
+    private Object readValue() {
+        skipWhitespace();
+        if (position >= text.length()) throw error("nilai tidak ditemukan");
+        char c = text.charAt(position);
+        switch (c) {
+            case '{': return readObject();
+            case '[': return readArray();
+            case '"': return readString();
+            case 't': expect("true"); return Boolean.TRUE;
+            case 'f': expect("false"); return Boolean.FALSE;
+            case 'n': expect("null"); return null;
+            default: return readNumber();
+        }
+    }
+
+    private Map<String, Object> readObject() {
+        Map<String, Object> object = new LinkedHashMap<>();
+        position++;
+        skipWhitespace();
+        if (peek() == '}') {
+            position++;
+            return object;
+        }
+        while (true) {
+            skipWhitespace();
+            if (peek() != '"') throw error("nama field harus string");
+            String key = readString();
+            skipWhitespace();
+            if (peek() != ':') throw error("':' diharapkan");
+            position++;
+            object.put(key, readValue());
+            skipWhitespace();
+            char c = next();
+            if (c == '}') return object;
+            if (c != ',') throw error("',' atau '}' diharapkan");
+        }
+    }
+
+    private List<Object> readArray() {
+        List<Object> array = new ArrayList<>();
+        position++;
+        skipWhitespace();
+        if (peek() == ']') {
+            position++;
+            return array;
+        }
+        while (true) {
+            array.add(readValue());
+            skipWhitespace();
+            char c = next();
+            if (c == ']') return array;
+            if (c != ',') throw error("',' atau ']' diharapkan");
+        }
+    }
+
+    private String readString() {
+        position++;
+        StringBuilder builder = new StringBuilder();
+        while (true) {
+            char c = next();
+            if (c == '"') return builder.toString();
+            if (c != '\\') {
+                builder.append(c);
+                continue;
+            }
+            char escaped = next();
+            switch (escaped) {
+                case '"': case '\\': case '/': builder.append(escaped); break;
+                case 'b': builder.append('\b'); break;
+                case 'f': builder.append('\f'); break;
+                case 'n': builder.append('\n'); break;
+                case 'r': builder.append('\r'); break;
+                case 't': builder.append('\t'); break;
+                case 'u':
+                    if (position + 4 > text.length()) throw error("escape unicode terpotong");
+                    builder.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                    position += 4;
+                    break;
+                default: throw error("escape tidak dikenal");
+            }
+        }
+    }
+
+    private Number readNumber() {
+        int start = position;
+        boolean fraction = false;
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            if (c == '.' || c == 'e' || c == 'E') {
+                fraction = true;
+            } else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+                break;
+            }
+            position++;
+        }
+        if (start == position) throw error("karakter tidak terduga");
+        String number = text.substring(start, position);
+        try {
+            return fraction ? (Number) Double.parseDouble(number) : (Number) Long.parseLong(number);
+        } catch (NumberFormatException e) {
+            throw error("angka tidak valid: " + number);
+        }
+    }
+
+    private void expect(String literal) {
+        if (!text.startsWith(literal, position)) throw error("'" + literal + "' diharapkan");
+        position += literal.length();
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+
+    private char peek() {
+        if (position >= text.length()) throw error("teks berakhir terlalu cepat");
+        return text.charAt(position);
+    }
+
+    private char next() {
+        char c = peek();
+        position++;
+        return c;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("JSON tidak valid di posisi " + position + ": " + message);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.donasimakanan.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LatencyHistogram - Histogram latensi bergaya HDR dengan bucket log-linear dalam mikrodetik.
+ * Setiap pangkat dua dibagi menjadi 16 sub-bucket linear, sehingga galat relatif nilai persentil
+ * paling besar 1/16 (6,25%) di seluruh rentang 1 us sampai sekitar 35 menit.
+ *
+ * record() bebas lock: hanya increment atomik dan CAS untuk nilai maksimum, aman dari thread mana pun.
+ * Pembacaan tidak mengunci penulis, jadi snapshot yang dibaca bisa tertinggal beberapa sampel.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    // Pangkat dua tertinggi yang dibedakan; nilai di atasnya masuk bucket terakhir
+    private static final int MAX_EXPONENT = 31;
+    static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BITS + 2) * SUB_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sumNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(bucketOf(nanos / 1_000));
+        count.incrementAndGet();
+        sumNanos.addAndGet(nanos);
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+    }
+
+    public long getCount() { return count.get(); }
+    public long getSumNanos() { return sumNanos.get(); }
+    public long getMaxNanos() { return maxNanos.get(); }
+
+    /**
+     * Nilai persentil dalam nanodetik, dilaporkan sebagai batas atas bucket (pembulatan ke atas).
+     * @param quantile antara 0 dan 1, misalnya 0.99
+     */
+    public long getValueAtQuantile(double quantile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= target) {
+                // Tidak pernah melebihi nilai maksimum yang benar-benar tercatat
+                return Math.min(highestEquivalentMicros(i) * 1_000 + 999, maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        sumNanos.set(0);
+        maxNanos.set(0);
+    }
+
+    static int bucketOf(long micros) {
+        if (micros < SUB_COUNT) return (int) micros;
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) return BUCKET_COUNT - 1;
+        // Bit teratas setelah bit pemimpin menentukan sub-bucket linear di dalam pangkat dua ini
+        int sub = (int) (micros >>> (exponent - SUB_BITS)) - SUB_COUNT;
+        return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+    }
+
+    static long lowestEquivalentMicros(int bucket) {
+        if (bucket < SUB_COUNT) return bucket;
+        int exponent = bucket / SUB_COUNT - 1 + SUB_BITS;
+        long mantissa = bucket % SUB_COUNT + SUB_COUNT;
+        return mantissa << (exponent - SUB_BITS);
+    }
+
+    static long highestEquivalentMicros(int bucket) {
+        if (bucket == BUCKET_COUNT - 1) return Long.MAX_VALUE / 1_000 - 1;
+        return lowestEquivalentMicros(bucket + 1) - 1;
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.donasimakanan.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * MetricsRegistry - Registry latensi per operasi manager, satu instance per proses.
+ * Setiap operasi punya histogram terpisah per fase: QUERY (kerja di luar commit), COMMIT
+ * (commitTransaction saja) dan ASYNC_TOTAL (dari pengiriman transaksi atau query async sampai callback).
+ * Semua jalur pencatatan bebas lock; histogram fase dibuat saat pertama dipakai.
+ */
+public class MetricsRegistry {
+
+    public static final String METRIC_NAME = "donasi_manager_operation_seconds";
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    public enum Phase {
+        QUERY("query"), COMMIT("commit"), ASYNC_TOTAL("async_total");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() { return label; }
+    }
+
+    private static final MetricsRegistry instance = new MetricsRegistry(System::nanoTime);
+
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, Operation> operations = new ConcurrentHashMap<>();
+
+    MetricsRegistry(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public static MetricsRegistry getInstance() {
+        return instance;
+    }
+
+    public long now() {
+        return clock.getAsLong();
+    }
+
+    public Operation operation(String name) {
+        Operation operation = operations.get(name);
+        // get() dulu agar jalur umum tidak mengalokasikan lambda computeIfAbsent
+        return operation != null ? operation : operations.computeIfAbsent(name, Operation::new);
+    }
+
+    /**
+     * Mulai mengukur satu panggilan; tutup dengan try-with-resources
+     */
+    public Timer time(String name) {
+        return operation(name).time();
+    }
+
+    /**
+     * Ukur body sebagai QUERY; RuntimeException dihitung sebagai error lalu dilempar ulang
+     */
+    public <T> T time(String name, Supplier<T> body) {
+        return operation(name).time(body);
+    }
+
+    /**
+     * Semua operasi yang pernah tercatat, urut nama
+     */
+    public List<Operation> getOperations() {
+        List<Operation> list = new ArrayList<>(operations.values());
+        Collections.sort(list, (a, b) -> a.name.compareTo(b.name));
+        return list;
+    }
+
+    public void reset() {
+        for (Operation operation : operations.values()) {
+            operation.reset();
+        }
+    }
+
+    /**
+     * Tulis semua metrik dalam format teks eksposisi Prometheus (summary dengan quantile, _sum dan _count,
+     * ditambah gauge maksimum dan counter error)
+     */
+    public void writePrometheus(Appendable out) throws IOException {
+        List<Operation> list = getOperations();
+        out.append("# HELP ").append(METRIC_NAME).append(" Latensi operasi manager per fase.\n");
+        out.append("# TYPE ").append(METRIC_NAME).append(" summary\n");
+        for (Operation operation : list) {
+            for (Phase phase : Phase.values()) {
+                LatencyHistogram histogram = operation.getHistogram(phase);
+                if (histogram == null) continue;
+                String labels = "op=\"" + escape(operation.name) + "\",phase=\"" + phase.label + "\"";
+                for (double quantile : QUANTILES) {
+                    out.append(METRIC_NAME).append('{').append(labels).append(",quantile=\"")
+                            .append(String.valueOf(quantile)).append("\"} ")
+                            .append(seconds(histogram.getValueAtQuantile(quantile))).append('\n');
+                }
+                out.append(METRIC_NAME).append("_sum{").append(labels).append("} ")
+                        .append(seconds(histogram.getSumNanos())).append('\n');
+                out.append(METRIC_NAME).append("_count{").append(labels).append("} ")
+                        .append(String.valueOf(histogram.getCount())).append('\n');
+            }
+        }
+        out.append("# HELP ").append(METRIC_NAME).append("_max Latensi terbesar sejak proses dimulai.\n");
+        out.append("# TYPE ").append(METRIC_NAME).append("_max gauge\n");
+        for (Operation operation : list) {
+            for (Phase phase : Phase.values()) {
+                LatencyHistogram histogram = operation.getHistogram(phase);
+                if (histogram == null) continue;
+                out.append(METRIC_NAME).append("_max{op=\"").append(escape(operation.name))
+                        .append("\",phase=\"").append(phase.label).append("\"} ")
+                        .append(seconds(histogram.getMaxNanos())).append('\n');
+            }
+        }
+        out.append("# HELP donasi_manager_operation_errors_total Panggilan yang berakhir dengan error atau dibatalkan.\n");
+        out.append("# TYPE donasi_manager_operation_errors_total counter\n");
+        for (Operation operation : list) {
+            out.append("donasi_manager_operation_errors_total{op=\"").append(escape(operation.name)).append("\"} ")
+                    .append(String.valueOf(operation.getErrorCount())).append('\n');
+        }
+    }
+
+    public String toPrometheusText() {
+        StringBuilder text = new StringBuilder();
+        try {
+            writePrometheus(text);
+        } catch (IOException e) {
+            // StringBuilder tidak pernah melempar IOException
+            throw new IllegalStateException(e);
+        }
+        return text.toString();
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.US, "%.6f", nanos / 1e9);
+    }
+
+    private static String escape(String label) {
+        return label.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * Satu operasi, misalnya "DonationManager.addDonation"
+     */
+    public final class Operation {
+        private final String name;
+        private final AtomicReferenceArray<LatencyHistogram> histograms =
+                new AtomicReferenceArray<>(Phase.values().length);
+        private final LongAdder errors = new LongAdder();
+
+        Operation(String name) {
+            this.name = name;
+        }
+
+        public String getName() { return name; }
+        public long getErrorCount() { return errors.sum(); }
+
+        // null jika fase ini belum pernah tercatat
+        public LatencyHistogram getHistogram(Phase phase) {
+            return histograms.get(phase.ordinal());
+        }
+
+        public Timer time() {
+            return new Timer(this, clock.getAsLong());
+        }
+
+        public <T> T time(Supplier<T> body) {
+            Timer timer = time();
+            try {
+                return body.get();
+            } catch (RuntimeException e) {
+                timer.failed();
+                throw e;
+            } finally {
+                timer.close();
+            }
+        }
+
+        long now() {
+            return clock.getAsLong();
+        }
+
+        public void record(Phase phase, long nanos) {
+            LatencyHistogram histogram = histograms.get(phase.ordinal());
+            if (histogram == null) {
+                histograms.compareAndSet(phase.ordinal(), null, new LatencyHistogram());
+                histogram = histograms.get(phase.ordinal());
+            }
+            histogram.record(nanos);
+        }
+
+        /**
+         * Catat waktu sejak startNanos (hasil now()) ke fase tersebut
+         */
+        public void recordSince(Phase phase, long startNanos) {
+            record(phase, clock.getAsLong() - startNanos);
+        }
+
+        public void failed() {
+            errors.increment();
+        }
+
+        void reset() {
+            for (int i = 0; i < histograms.length(); i++) {
+                LatencyHistogram histogram = histograms.get(i);
+                if (histogram != null) histogram.reset();
+            }
+            errors.reset();
+        }
+    }
+
+    /**
+     * Pengukur satu panggilan. Waktu di antara beginCommit() dan endCommit() dicatat sebagai COMMIT,
+     * sisanya sebagai QUERY saat timer ditutup. Tidak thread-safe, dipakai di thread pemanggil saja.
+     */
+    public static final class Timer implements AutoCloseable {
+        private final Operation operation;
+        private final long startNanos;
+        private long commitStart = -1;
+        private long commitNanos = -1;
+        private boolean closed;
+
+        Timer(Operation operation, long startNanos) {
+            this.operation = operation;
+            this.startNanos = startNanos;
+        }
+
+        public void beginCommit() {
+            commitStart = operation.now();
+        }
+
+        public void endCommit() {
+            if (commitStart < 0) return;
+            commitNanos = operation.now() - commitStart;
+            commitStart = -1;
+        }
+
+        /**
+         * Jalankan commit di antara beginCommit() dan endCommit(), misalnya timer.commit(realm::commitTransaction)
+         */
+        public void commit(Runnable commit) {
+            beginCommit();
+            commit.run();
+            endCommit();
+        }
+
+        public void failed() {
+            operation.failed();
+        }
+
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            long elapsed = operation.now() - startNanos;
+            if (commitNanos >= 0) {
+                operation.record(Phase.COMMIT, commitNanos);
+                elapsed -= commitNanos;
+            }
+            operation.record(Phase.QUERY, elapsed);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.donasimakanan.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * NGramIndex - Inverted index trigram di memori untuk pencarian substring (search-as-you-type).
+ * Query >= 3 karakter hanya memeriksa dokumen yang memiliki semua trigram query.
+ * Query 1-2 karakter dicocokkan ke awal kata lewat posting list awalan kata.
+ * Aman dipakai dari banyak thread: update memakai write lock, pencarian memakai read lock.
+ */
+public class NGramIndex<T> {
+
+    private static final int N = 3;
+    // Penanda awalan kata, agar tidak bentrok dengan trigram biasa
+    private static final char WORD_START = '\u0001';
+
+    private static final class Document<T> {
+        final String key;
+        final String text;
+        final T value;
+
+        Document(String key, String text, T value) {
+            this.key = key;
+            this.text = text;
+            this.value = value;
+        }
+    }
+
+    // Posting list berupa array id dokumen yang terurut, sehingga bisa diiris dengan binary search
+    private static final class Postings {
+        int[] ids = new int[4];
+        int size;
+
+        void add(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) return;
+            position = -position - 1;
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        void remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) return;
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+        }
+
+        boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+
+    private final Map<String, Integer> idsByKey = new HashMap<>();
+    private final List<Document<T>> documents = new ArrayList<>();
+    private final List<Integer> freeIds = new ArrayList<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Tambah atau ganti dokumen dengan key tertentu
+     */
+    public void put(String key, String text, T value) {
+        String normalized = normalize(text);
+        lock.writeLock().lock();
+        try {
+            Integer id = idsByKey.get(key);
+            if (id != null) {
+                removePostings(id, documents.get(id).text);
+            } else {
+                id = freeIds.isEmpty() ? documents.size() : freeIds.remove(freeIds.size() - 1);
+                if (id == documents.size()) documents.add(null);
+                idsByKey.put(key, id);
+            }
+            documents.set(id, new Document<>(key, normalized, value));
+            for (String gram : grams(normalized)) {
+                Postings ids = postings.get(gram);
+                if (ids == null) {
+                    ids = new Postings();
+                    postings.put(gram, ids);
+                }
+                ids.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Hapus dokumen dari index
+     */
+    public void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            Integer id = idsByKey.remove(key);
+            if (id != null) {
+                removePostings(id, documents.get(id).text);
+                documents.set(id, null);
+                freeIds.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Cari dokumen yang teksnya mengandung query. Dokumen yang diawali query ditampilkan lebih dulu.
+     */
+    public List<T> search(String query, int limit) {
+        String normalized = normalize(query);
+        List<T> prefixMatches = new ArrayList<>();
+        List<T> otherMatches = new ArrayList<>();
+        if (normalized.isEmpty() || limit <= 0) return prefixMatches;
+
+        lock.readLock().lock();
+        try {
+            for (int id : candidates(normalized)) {
+                Document<T> document = documents.get(id);
+                // Trigram yang cocok belum menjamin substring cocok, jadi tetap diverifikasi
+                int position = document.text.indexOf(normalized);
+                if (position == 0) {
+                    prefixMatches.add(document.value);
+                    if (prefixMatches.size() >= limit) break;
+                } else if (position > 0 && otherMatches.size() < limit) {
+                    otherMatches.add(document.value);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        for (int i = 0; prefixMatches.size() < limit && i < otherMatches.size(); i++) {
+            prefixMatches.add(otherMatches.get(i));
+        }
+        return prefixMatches;
+    }
+
+    /**
+     * Jumlah dokumen di index
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return idsByKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Kosongkan index
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            idsByKey.clear();
+            documents.clear();
+            freeIds.clear();
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Dipanggil dengan read lock: id dokumen yang mungkin cocok dengan query
+    private int[] candidates(String query) {
+        List<Postings> lists = new ArrayList<>();
+        if (query.length() < N) {
+            // Query pendek tanpa trigram: pakai awalan kata
+            lists.add(postings.get(WORD_START + query));
+        } else {
+            for (String gram : grams(query)) {
+                if (gram.charAt(0) != WORD_START) lists.add(postings.get(gram));
+            }
+        }
+
+        // Irisan posting list dimulai dari yang paling kecil
+        Postings smallest = null;
+        for (Postings ids : lists) {
+            if (ids == null) return new int[0];
+            if (smallest == null || ids.size < smallest.size) smallest = ids;
+        }
+        int[] result = new int[smallest.size];
+        int count = 0;
+        for (int i = 0; i < smallest.size; i++) {
+            int id = smallest.ids[i];
+            boolean inAll = true;
+            for (Postings ids : lists) {
+                if (ids != smallest && !ids.contains(id)) {
+                    inAll = false;
+                    break;
+                }
+            }
+            if (inAll) result[count++] = id;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private void removePostings(int id, String text) {
+        for (String gram : grams(text)) {
+            Postings ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.size == 0) postings.remove(gram);
+            }
+        }
+    }
+
+    // Trigram dari seluruh teks, ditambah awalan 1 dan 2 huruf dari setiap kata
+    private static Set<String> grams(String text) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + N <= text.length(); i++) {
+            result.add(text.substring(i, i + N));
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == ' ' || (i > 0 && text.charAt(i - 1) != ' ')) continue;
+            result.add(WORD_START + text.substring(i, i + 1));
+            if (i + 2 <= text.length() && text.charAt(i + 1) != ' ') {
+                result.add(WORD_START + text.substring(i, i + 2));
+            }
+        }
+        return result;
+    }
+
+    // Huruf kecil dan spasi berlebih dirapikan agar query dan teks dibandingkan dengan cara yang sama
+    private static String normalize(String text) {
+        if (text == null) return "";
+        return text.toLowerCase(Locale.ROOT).trim().replaceAll("\\s+", " ");
+    }
+}
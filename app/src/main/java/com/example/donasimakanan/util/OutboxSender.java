@@ -0,0 +1,226 @@
+package com.example.donasimakanan.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * OutboxSender - Mengirim satu batch entri outbox ke backend sebagai JSON terkompresi gzip.
+ * Setiap entri membawa id-nya sendiri sebagai idempotency key, dan seluruh batch diberi
+ * header Idempotency-Key yang diturunkan dari id entri, sehingga pengiriman ulang setelah
+ * timeout tidak menggandakan data di server. Tidak bergantung pada Realm agar bisa diuji di JVM.
+ */
+public class OutboxSender {
+
+    // Hasil pengiriman satu batch
+    public enum Result {
+        // Diterima server, entri boleh dihapus dari outbox
+        DELIVERED,
+        // Gagal sementara (jaringan, 5xx, 408, 429), coba lagi setelah backoff
+        RETRY,
+        // Ditolak permanen (4xx lain), mengirim ulang tidak akan berhasil
+        REJECTED
+    }
+
+    private static final int CONNECT_TIMEOUT_MS = 10_000;
+    private static final int READ_TIMEOUT_MS = 30_000;
+
+    private final URL endpoint;
+
+    public OutboxSender(URL endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Satu entri outbox. Payload sudah berupa objek JSON dan disisipkan apa adanya.
+     */
+    public static final class Item {
+        final String id;
+        final String type;
+        final String payload;
+
+        public Item(String id, String type, String payload) {
+            this.id = id;
+            this.type = type;
+            this.payload = payload;
+        }
+
+        public String getId() { return id; }
+        public String getType() { return type; }
+        public String getPayload() { return payload; }
+    }
+
+    /**
+     * Kirim satu batch; tidak pernah melempar exception jaringan, hasilnya dilaporkan lewat Result
+     */
+    public Result send(List<Item> items) {
+        if (items.isEmpty()) return Result.DELIVERED;
+        HttpURLConnection connection = null;
+        try {
+            byte[] body = gzip(encode(items));
+            connection = (HttpURLConnection) endpoint.openConnection();
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+            connection.setReadTimeout(READ_TIMEOUT_MS);
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(body.length);
+            connection.setRequestProperty("Content-Type", "application/json; charset=utf-8");
+            connection.setRequestProperty("Content-Encoding", "gzip");
+            connection.setRequestProperty("Idempotency-Key", batchKey(items));
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body);
+            }
+
+            int status = connection.getResponseCode();
+            drain(status < 400 ? connection.getInputStream() : connection.getErrorStream());
+            if (status >= 200 && status < 300) return Result.DELIVERED;
+            if (status == 408 || status == 429 || status >= 500) return Result.RETRY;
+            return Result.REJECTED;
+        } catch (IOException e) {
+            // Koneksi yang gagal tidak dipakai ulang; koneksi yang berhasil dibiarkan untuk keep-alive
+            if (connection != null) connection.disconnect();
+            return Result.RETRY;
+        }
+    }
+
+    /**
+     * Hasil deliver(): entri yang diterima, entri yang ditolak, dan entri yang belum diputuskan
+     * karena server meminta coba lagi di tengah jalan
+     */
+    public static final class Delivery {
+        final List<Item> delivered = new ArrayList<>();
+        final List<Item> rejected = new ArrayList<>();
+        final List<Item> pending = new ArrayList<>();
+
+        public List<Item> getDelivered() { return delivered; }
+        public List<Item> getRejected() { return rejected; }
+        public List<Item> getPending() { return pending; }
+        public boolean needsRetry() { return !pending.isEmpty(); }
+    }
+
+    /**
+     * Kirim batch dan, jika ditolak, bagi dua lalu kirim ulang tiap separuh sampai entri yang ditolak
+     * tersisa satu per satu. Satu entri rusak hanya menambah sekitar 2*log2(n) request, dan entri lain
+     * di batch yang sama tetap terkirim. Berhenti pada RETRY pertama; sisanya dilaporkan sebagai pending.
+     */
+    public Delivery deliver(List<Item> items) {
+        Delivery delivery = new Delivery();
+        deliver(items, delivery);
+        return delivery;
+    }
+
+    private void deliver(List<Item> items, Delivery delivery) {
+        if (items.isEmpty()) return;
+        if (delivery.needsRetry()) {
+            delivery.pending.addAll(items);
+            return;
+        }
+        switch (send(items)) {
+            case DELIVERED:
+                delivery.delivered.addAll(items);
+                break;
+            case RETRY:
+                delivery.pending.addAll(items);
+                break;
+            case REJECTED:
+                if (items.size() == 1) {
+                    delivery.rejected.addAll(items);
+                } else {
+                    int half = items.size() / 2;
+                    deliver(items.subList(0, half), delivery);
+                    deliver(items.subList(half, items.size()), delivery);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Jeda sebelum percobaan ke-attempt (dimulai dari 1): eksponensial, separuh tetap dan separuh acak (jitter), dibatasi maxMillis
+     */
+    public static long backoffMillis(int attempt, long baseMillis, long maxMillis, Random random) {
+        int shift = Math.min(Math.max(attempt - 1, 0), 30);
+        long ceiling = Math.min(maxMillis, baseMillis << shift);
+        return ceiling / 2 + (long) (random.nextDouble() * (ceiling - ceiling / 2));
+    }
+
+    /**
+     * Idempotency key batch: SHA-256 dari id entri secara berurutan
+     */
+    public static String batchKey(List<Item> items) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Item item : items) {
+                digest.update(item.id.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 tidak tersedia", e);
+        }
+    }
+
+    // {"entries":[{"id":"...","type":"...","payload":{...}}, ...]}
+    static byte[] encode(List<Item> items) {
+        StringBuilder json = new StringBuilder(items.size() * 256);
+        json.append("{\"entries\":[");
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            if (i > 0) json.append(',');
+            json.append("{\"id\":");
+            quote(json, item.id);
+            json.append(",\"type\":");
+            quote(json, item.type);
+            json.append(",\"payload\":").append(item.payload != null ? item.payload : "null").append('}');
+        }
+        json.append("]}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void quote(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+
+    private static byte[] gzip(byte[] raw) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(raw.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(raw);
+        }
+        return buffer.toByteArray();
+    }
+
+    // Body respons dibaca habis agar koneksi keep-alive bisa dipakai ulang
+    private static void drain(InputStream in) throws IOException {
+        if (in == null) return;
+        try (InputStream stream = in) {
+            byte[] skip = new byte[1024];
+            while (stream.read(skip) != -1) {
+                // dibuang
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.donasimakanan.util;
+
+/**
+ * PasswordHasher - Kontrak hashing password yang dipakai User.
+ * Hash yang disimpan harus memuat semua parameter (algoritma, cost, salt) agar bisa diverifikasi
+ * walaupun implementasi atau cost default berubah kemudian.
+ */
+public interface PasswordHasher {
+
+    /**
+     * Hash password dengan salt acak dan cost saat ini
+     */
+    String hash(String password);
+
+    /**
+     * Bandingkan password dengan hash tersimpan, termasuk hash format lama
+     */
+    boolean verify(String password, String storedHash);
+
+    /**
+     * true jika hash tersimpan memakai format lama atau cost lebih rendah dari cost saat ini
+     */
+    boolean needsRehash(String storedHash);
+}
@@ -0,0 +1,173 @@
+package com.example.donasimakanan.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Pbkdf2PasswordHasher - PBKDF2-HMAC-SHA256 dengan salt acak per password.
+ * Format tersimpan: "pbkdf2_sha256$iterasi$saltHex$hashHex".
+ *
+ * PBKDF2 dihitung langsung di atas Mac("HmacSHA256") karena SecretKeyFactory "PBKDF2WithHmacSHA256"
+ * baru tersedia di Android API 26, sedangkan minSdk aplikasi 24. Hash SHA-256 tanpa salt dari versi lama
+ * (64 karakter hex) masih bisa diverifikasi dan ditandai perlu di-hash ulang.
+ */
+public class Pbkdf2PasswordHasher implements PasswordHasher {
+
+    // Cost default, dipilih dengan PasswordHashBudgetTest.defaultCostStaysWithinLoginBudget (androidTest)
+    // agar verifikasi tetap di bawah TARGET_LOGIN_MILLIS di perangkat kelas menengah
+    public static final int DEFAULT_ITERATIONS = 60_000;
+    // Batas bawah cost berapa pun hasil kalibrasinya
+    public static final int MIN_ITERATIONS = 10_000;
+    // Target waktu hashing saat login, di luar waktu query dan UI
+    public static final long TARGET_LOGIN_MILLIS = 250;
+
+    private static final String PREFIX = "pbkdf2_sha256";
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BYTES = 32;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final SecureRandom random = new SecureRandom();
+
+    private final int iterations;
+
+    public Pbkdf2PasswordHasher() {
+        this(DEFAULT_ITERATIONS);
+    }
+
+    public Pbkdf2PasswordHasher(int iterations) {
+        if (iterations < 1) throw new IllegalArgumentException("Iterasi harus lebih dari 0");
+        this.iterations = iterations;
+    }
+
+    public int getIterations() { return iterations; }
+
+    @Override
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] hash = derive(password, salt, iterations);
+        return PREFIX + "$" + iterations + "$" + toHex(salt) + "$" + toHex(hash);
+    }
+
+    @Override
+    public boolean verify(String password, String storedHash) {
+        if (password == null || storedHash == null) return false;
+        if (isLegacy(storedHash)) {
+            byte[] expected = fromHex(storedHash);
+            return MessageDigest.isEqual(expected, sha256(password));
+        }
+        String[] parts = storedHash.split("\\$");
+        if (parts.length != 4 || !PREFIX.equals(parts[0])) return false;
+        int storedIterations;
+        try {
+            storedIterations = Integer.parseInt(parts[1]);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        byte[] salt = fromHex(parts[2]);
+        byte[] expected = fromHex(parts[3]);
+        if (storedIterations < 1 || salt == null || expected == null) return false;
+        // Perbandingan waktu-konstan agar lama verifikasi tidak membocorkan posisi byte yang berbeda
+        return MessageDigest.isEqual(expected, derive(password, salt, storedIterations));
+    }
+
+    @Override
+    public boolean needsRehash(String storedHash) {
+        if (storedHash == null || !storedHash.startsWith(PREFIX + "$")) return true;
+        String[] parts = storedHash.split("\\$");
+        try {
+            return parts.length != 4 || Integer.parseInt(parts[1]) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Jumlah iterasi yang muat di targetMillis pada perangkat ini, diukur dengan beberapa putaran percobaan
+     */
+    public static int calibrate(long targetMillis) {
+        int probe = MIN_ITERATIONS * 5;
+        byte[] salt = new byte[SALT_BYTES];
+        long best = Long.MAX_VALUE;
+        // Putaran pertama ikut memanaskan JIT; yang diambil adalah putaran tercepat
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            derive("kalibrasi", salt, probe);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double nanosPerIteration = (double) best / probe;
+        long iterations = (long) (targetMillis * 1_000_000L / nanosPerIteration);
+        // Dibulatkan ke bawah ke kelipatan 1000 agar mudah dibaca di hash tersimpan
+        return (int) Math.max(MIN_ITERATIONS, Math.min(Integer.MAX_VALUE, iterations / 1_000 * 1_000));
+    }
+
+    // PBKDF2 (RFC 8018) dengan satu blok keluaran, karena panjang hash sama dengan panjang keluaran HMAC-SHA256
+    static byte[] derive(String password, byte[] salt, int iterations) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            byte[] key = password.getBytes(StandardCharsets.UTF_8);
+            // HMAC mengisi key dengan nol sampai panjang blok, jadi key kosong sama dengan satu byte nol;
+            // SecretKeySpec sendiri menolak key kosong
+            mac.init(new SecretKeySpec(key.length > 0 ? key : new byte[1], ALGORITHM));
+
+            byte[] u = new byte[HASH_BYTES];
+            byte[] result = new byte[HASH_BYTES];
+            mac.update(salt);
+            mac.update(new byte[]{0, 0, 0, 1});
+            mac.doFinal(u, 0);
+            System.arraycopy(u, 0, result, 0, HASH_BYTES);
+            for (int i = 1; i < iterations; i++) {
+                // Buffer yang sama dipakai ulang di setiap iterasi, tanpa alokasi di dalam loop
+                mac.update(u);
+                mac.doFinal(u, 0);
+                for (int j = 0; j < HASH_BYTES; j++) {
+                    result[j] ^= u[j];
+                }
+            }
+            return result;
+        } catch (GeneralSecurityException e) {
+            // HmacSHA256 wajib tersedia di semua versi Android dan JVM
+            throw new IllegalStateException("HmacSHA256 tidak tersedia", e);
+        }
+    }
+
+    // Format lama: SHA-256 tanpa salt, 64 karakter hex
+    private static boolean isLegacy(String storedHash) {
+        return storedHash.length() == HASH_BYTES * 2 && storedHash.indexOf('$') < 0 && fromHex(storedHash) != null;
+    }
+
+    private static byte[] sha256(String password) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 tidak tersedia", e);
+        }
+    }
+
+    static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+
+    // null jika bukan hex yang valid
+    static byte[] fromHex(String hex) {
+        if (hex.length() % 2 != 0) return null;
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int high = Character.digit(hex.charAt(i * 2), 16);
+            int low = Character.digit(hex.charAt(i * 2 + 1), 16);
+            if (high < 0 || low < 0) return null;
+            bytes[i] = (byte) ((high << 4) | low);
+        }
+        return bytes;
+    }
+}
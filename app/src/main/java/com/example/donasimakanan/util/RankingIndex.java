@@ -0,0 +1,191 @@
+package com.example.donasimakanan.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * RankingIndex - Indeks peringkat di memori berbasis treap dengan ukuran subtree.
+ * Urutan: skor tertinggi dulu, jika sama diurutkan berdasarkan id.
+ * update/remove/rankOf berjalan dalam O(log n), top(k) dalam O(k + log n).
+ */
+public class RankingIndex {
+
+    /**
+     * Satu baris peringkat (id dan skor) yang dikembalikan ke pemanggil
+     */
+    public static final class Entry {
+        private final String id;
+        private final long score;
+
+        public Entry(String id, long score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        public String getId() { return id; }
+        public long getScore() { return score; }
+    }
+
+    private static final class Node {
+        final String id;
+        final long score;
+        final int priority;
+        int size = 1;
+        Node left, right;
+
+        Node(String id, long score, int priority) {
+            this.id = id;
+            this.score = score;
+            this.priority = priority;
+        }
+    }
+
+    // Skor terakhir per id, dipakai untuk menemukan node lama saat skor berubah
+    private final Map<String, Long> scores = new HashMap<>();
+    private final Random random = new Random();
+    private Node root;
+
+    /**
+     * Set skor absolut untuk id tertentu (insert jika belum ada)
+     */
+    public synchronized void update(String id, long score) {
+        Long previous = scores.put(id, score);
+        if (previous != null) {
+            if (previous == score) return;
+            root = removeNode(root, previous, id);
+        }
+        Node[] parts = split(root, score, id, false);
+        root = merge(merge(parts[0], new Node(id, score, random.nextInt())), parts[1]);
+    }
+
+    /**
+     * Hapus id dari peringkat
+     */
+    public synchronized void remove(String id) {
+        Long previous = scores.remove(id);
+        if (previous != null) {
+            root = removeNode(root, previous, id);
+        }
+    }
+
+    /**
+     * Peringkat 1-based untuk id, atau -1 jika id belum ada di indeks
+     */
+    public synchronized int rankOf(String id) {
+        Long score = scores.get(id);
+        if (score == null) return -1;
+
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(score, id, node);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                rank += size(node.left) + 1;
+                node = node.right;
+            } else {
+                return rank + size(node.left) + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Skor terakhir untuk id, atau null jika belum ada
+     */
+    public synchronized Long scoreOf(String id) {
+        return scores.get(id);
+    }
+
+    /**
+     * k peringkat teratas, berurutan dari skor tertinggi
+     */
+    public synchronized List<Entry> top(int k) {
+        List<Entry> result = new ArrayList<>(Math.max(0, Math.min(k, size(root))));
+        Deque<Node> stack = new ArrayDeque<>();
+        Node node = root;
+        // Traversal in-order yang berhenti setelah k elemen
+        while ((node != null || !stack.isEmpty()) && result.size() < k) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            result.add(new Entry(node.id, node.score));
+            node = node.right;
+        }
+        return result;
+    }
+
+    /**
+     * Jumlah id di indeks
+     */
+    public synchronized int size() {
+        return size(root);
+    }
+
+    /**
+     * Kosongkan indeks
+     */
+    public synchronized void clear() {
+        scores.clear();
+        root = null;
+    }
+
+    private static Node removeNode(Node root, long score, String id) {
+        Node[] lower = split(root, score, id, false);
+        Node[] upper = split(lower[1], score, id, true);
+        return merge(lower[0], upper[1]);
+    }
+
+    // Memecah tree menjadi [kunci sebelum (score, id), sisanya]; inclusive ikut memasukkan kunci itu ke kiri
+    private static Node[] split(Node node, long score, String id, boolean inclusive) {
+        if (node == null) return new Node[]{null, null};
+        int cmp = compare(score, id, node);
+        if (cmp > 0 || (inclusive && cmp == 0)) {
+            Node[] parts = split(node.right, score, id, inclusive);
+            node.right = parts[0];
+            recalc(node);
+            return new Node[]{node, parts[1]};
+        } else {
+            Node[] parts = split(node.left, score, id, inclusive);
+            node.left = parts[1];
+            recalc(node);
+            return new Node[]{parts[0], node};
+        }
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            recalc(left);
+            return left;
+        } else {
+            right.left = merge(left, right.left);
+            recalc(right);
+            return right;
+        }
+    }
+
+    // Negatif jika (score, id) berada sebelum node di urutan peringkat
+    private static int compare(long score, String id, Node node) {
+        if (score != node.score) return score > node.score ? -1 : 1;
+        return id.compareTo(node.id);
+    }
+
+    private static void recalc(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+}
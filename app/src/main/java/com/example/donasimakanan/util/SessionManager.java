@@ -3,10 +3,16 @@ package com.example.donasimakanan.util;
 import android.content.Context;
 import android.content.SharedPreferences;
 
+import java.util.concurrent.CopyOnWriteArrayList;
+
 /**
  * SessionManager - Handles user session management using SharedPreferences
  * Manages login state, user data storage, and logout functionality
  * Simple yet secure implementation for the donation app
+ *
+ * One instance per process. The session is read from SharedPreferences once and kept as an
+ * immutable in-memory snapshot, so getters never touch disk. Changes replace the snapshot
+ * immediately and are persisted asynchronously with apply().
  */
 public class SessionManager {
 
@@ -17,18 +23,49 @@ public class SessionManager {
     private static final String KEY_USER_EMAIL = "userEmail";
     private static final String KEY_USER_NAME = "userName";
 
+    private static volatile SessionManager instance;
+
     // SharedPreferences instance
-    private SharedPreferences pref;
-    private SharedPreferences.Editor editor;
-    private Context context;
+    private final SharedPreferences pref;
+    // Current session; replaced as a whole, never mutated
+    private volatile Session session;
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
 
     /**
-     * Constructor - Initialize SharedPreferences
+     * Listener for login, logout and profile changes
      */
-    public SessionManager(Context context) {
-        this.context = context;
+    public interface Listener {
+        // Called on the thread that changed the session
+        void onSessionChanged(Session session);
+    }
+
+    /**
+     * Constructor - Initialize SharedPreferences and load the stored session once
+     */
+    private SessionManager(Context context) {
         pref = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        editor = pref.edit();
+        session = pref.getBoolean(KEY_IS_LOGGED_IN, false)
+                ? new Session(pref.getString(KEY_USER_ID, null), pref.getString(KEY_USER_EMAIL, null),
+                        pref.getString(KEY_USER_NAME, null))
+                : Session.LOGGED_OUT;
+    }
+
+    /**
+     * Get the process-wide session store
+     * @param context Any context; only the application context is retained
+     */
+    public static SessionManager getInstance(Context context) {
+        SessionManager result = instance;
+        if (result == null) {
+            synchronized (SessionManager.class) {
+                result = instance;
+                if (result == null) {
+                    result = new SessionManager(context.getApplicationContext());
+                    instance = result;
+                }
+            }
+        }
+        return result;
     }
 
     /**
@@ -38,11 +75,24 @@ public class SessionManager {
      * @param name User's full name
      */
     public void createLoginSession(String userId, String email, String name) {
-        editor.putBoolean(KEY_IS_LOGGED_IN, true);
-        editor.putString(KEY_USER_ID, userId);
-        editor.putString(KEY_USER_EMAIL, email);
-        editor.putString(KEY_USER_NAME, name);
-        editor.commit(); // Save immediately
+        Session updated = new Session(userId, email, name);
+        synchronized (this) {
+            session = updated;
+            pref.edit()
+                    .putBoolean(KEY_IS_LOGGED_IN, true)
+                    .putString(KEY_USER_ID, userId)
+                    .putString(KEY_USER_EMAIL, email)
+                    .putString(KEY_USER_NAME, name)
+                    .apply(); // Written to disk in the background
+        }
+        notifyListeners(updated);
+    }
+
+    /**
+     * Current session snapshot, safe to keep and pass between threads
+     */
+    public Session getSession() {
+        return session;
     }
 
     /**
@@ -50,7 +100,7 @@ public class SessionManager {
      * @return true if user is logged in, false otherwise
      */
     public boolean isLoggedIn() {
-        return pref.getBoolean(KEY_IS_LOGGED_IN, false);
+        return session.isLoggedIn();
     }
 
     /**
@@ -58,7 +108,7 @@ public class SessionManager {
      * @return User ID or null if not logged in
      */
     public String getUserId() {
-        return pref.getString(KEY_USER_ID, null);
+        return session.getUserId();
     }
 
     /**
@@ -66,7 +116,7 @@ public class SessionManager {
      * @return User email or null if not logged in
      */
     public String getUserEmail() {
-        return pref.getString(KEY_USER_EMAIL, null);
+        return session.getEmail();
     }
 
     /**
@@ -74,15 +124,18 @@ public class SessionManager {
      * @return User name or null if not logged in
      */
     public String getUserName() {
-        return pref.getString(KEY_USER_NAME, null);
+        return session.getName();
     }
 
     /**
      * Logout user - clear all session data
      */
     public void logout() {
-        editor.clear();
-        editor.commit();
+        synchronized (this) {
+            session = Session.LOGGED_OUT;
+            pref.edit().clear().apply();
+        }
+        notifyListeners(Session.LOGGED_OUT);
     }
 
     /**
@@ -90,7 +143,49 @@ public class SessionManager {
      * @param newName New user name
      */
     public void updateUserName(String newName) {
-        editor.putString(KEY_USER_NAME, newName);
-        editor.commit();
+        Session updated;
+        synchronized (this) {
+            if (!session.isLoggedIn()) return;
+            updated = new Session(session.getUserId(), session.getEmail(), newName);
+            session = updated;
+            pref.edit().putString(KEY_USER_NAME, newName).apply();
+        }
+        notifyListeners(updated);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.addIfAbsent(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private void notifyListeners(Session current) {
+        for (Listener listener : listeners) {
+            listener.onSessionChanged(current);
+        }
+    }
+
+    /**
+     * Immutable session snapshot
+     */
+    public static final class Session {
+        static final Session LOGGED_OUT = new Session(null, null, null);
+
+        private final String userId;
+        private final String email;
+        private final String name;
+
+        Session(String userId, String email, String name) {
+            this.userId = userId;
+            this.email = email;
+            this.name = name;
+        }
+
+        public boolean isLoggedIn() { return userId != null; }
+        public String getUserId() { return userId; }
+        public String getEmail() { return email; }
+        public String getName() { return name; }
     }
-}
\ No newline at end of file
+}
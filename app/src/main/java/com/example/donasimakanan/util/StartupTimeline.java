@@ -0,0 +1,199 @@
+package com.example.donasimakanan.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * StartupTimeline - Perekam section dan penanda waktu selama satu peluncuran aplikasi.
+ * Waktu disimpan relatif terhadap awal proses, dari thread mana pun, sampai finish() dipanggil.
+ * Hasilnya diekspor sebagai JSON Trace Event Format sehingga bisa dibuka langsung di Perfetto
+ * atau chrome://tracing, ditambah ringkasan di field "launch".
+ */
+public class StartupTimeline {
+
+    // Batas jumlah event agar perekam tidak tumbuh jika finish() tidak pernah terpanggil
+    public static final int MAX_EVENTS = 512;
+
+    private final LongSupplier clock;
+    private final long originNanos;
+    private final List<Event> events = new ArrayList<>();
+    private boolean finished;
+    private int dropped;
+
+    /**
+     * @param clock sumber waktu dalam nanodetik (System::nanoTime di aplikasi)
+     * @param originNanos nilai clock saat proses dimulai; semua waktu dilaporkan relatif terhadapnya
+     */
+    public StartupTimeline(LongSupplier clock, long originNanos) {
+        this.clock = clock;
+        this.originNanos = originNanos;
+    }
+
+    /**
+     * Mulai section; tutup dengan Section.close() di blok finally
+     */
+    public Section begin(String name) {
+        return new Section(this, name, Thread.currentThread().getName(), clock.getAsLong());
+    }
+
+    /**
+     * Catat penanda sesaat, misalnya frame pertama
+     */
+    public void mark(String name) {
+        long now = clock.getAsLong();
+        add(new Event(name, Thread.currentThread().getName(), now - originNanos, -1));
+    }
+
+    /**
+     * Berhenti merekam. Mengembalikan false jika timeline sudah selesai sebelumnya.
+     */
+    public synchronized boolean finish() {
+        if (finished) return false;
+        finished = true;
+        return true;
+    }
+
+    public synchronized boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Waktu penanda pertama dengan nama tersebut sejak awal proses, atau -1 jika belum ada
+     */
+    public synchronized long markMillis(String name) {
+        for (Event event : events) {
+            if (event.durationNanos < 0 && event.name.equals(name)) return event.startNanos / 1_000_000;
+        }
+        return -1;
+    }
+
+    /**
+     * Waktu mulai section pertama dengan nama tersebut sejak awal proses, atau -1 jika belum ada
+     */
+    public synchronized long sectionStartMillis(String name) {
+        for (Event event : events) {
+            if (event.durationNanos >= 0 && event.name.equals(name)) return event.startNanos / 1_000_000;
+        }
+        return -1;
+    }
+
+    /**
+     * Durasi section pertama dengan nama tersebut, atau -1 jika belum ada
+     */
+    public synchronized long sectionDurationMillis(String name) {
+        for (Event event : events) {
+            if (event.durationNanos >= 0 && event.name.equals(name)) return event.durationNanos / 1_000_000;
+        }
+        return -1;
+    }
+
+    /**
+     * JSON Trace Event Format. Section menjadi event "X" (complete), penanda menjadi event "i" (instant).
+     * summary ditulis sebagai field "launch" berisi pasangan kunci-nilai string atau angka.
+     */
+    public synchronized String toJson(int pid, Map<String, Object> summary) {
+        StringBuilder json = new StringBuilder(128 + events.size() * 96);
+        json.append("{\"displayTimeUnit\":\"ms\",\"launch\":{");
+        boolean first = true;
+        for (Map.Entry<String, Object> entry : summary.entrySet()) {
+            if (!first) json.append(',');
+            first = false;
+            appendString(json, entry.getKey());
+            json.append(':');
+            Object value = entry.getValue();
+            if (value instanceof Number || value instanceof Boolean) {
+                json.append(value);
+            } else {
+                appendString(json, String.valueOf(value));
+            }
+        }
+        json.append(",\"droppedEvents\":").append(dropped).append("},\"traceEvents\":[");
+        for (int i = 0; i < events.size(); i++) {
+            Event event = events.get(i);
+            if (i > 0) json.append(',');
+            json.append("\n{\"name\":");
+            appendString(json, event.name);
+            json.append(",\"ph\":\"").append(event.durationNanos >= 0 ? 'X' : 'i').append('"');
+            json.append(",\"ts\":").append(event.startNanos / 1_000);
+            if (event.durationNanos >= 0) {
+                json.append(",\"dur\":").append(event.durationNanos / 1_000);
+            } else {
+                json.append(",\"s\":\"g\"");
+            }
+            json.append(",\"pid\":").append(pid).append(",\"tid\":");
+            appendString(json, event.thread);
+            json.append('}');
+        }
+        json.append("\n]}\n");
+        return json.toString();
+    }
+
+    private synchronized void add(Event event) {
+        if (finished) return;
+        if (events.size() >= MAX_EVENTS) {
+            dropped++;
+            return;
+        }
+        events.add(event);
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+
+    /**
+     * Section yang sedang berjalan; dicatat ke timeline saat ditutup
+     */
+    public static final class Section implements AutoCloseable {
+        private final StartupTimeline timeline;
+        private final String name;
+        private final String thread;
+        private final long startNanos;
+        private boolean closed;
+
+        Section(StartupTimeline timeline, String name, String thread, long startNanos) {
+            this.timeline = timeline;
+            this.name = name;
+            this.thread = thread;
+            this.startNanos = startNanos;
+        }
+
+        public String getName() { return name; }
+
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            long end = timeline.clock.getAsLong();
+            timeline.add(new Event(name, thread, startNanos - timeline.originNanos, end - startNanos));
+        }
+    }
+
+    private static final class Event {
+        final String name;
+        final String thread;
+        final long startNanos;
+        // -1 untuk penanda sesaat
+        final long durationNanos;
+
+        Event(String name, String thread, long startNanos, long durationNanos) {
+            this.name = name;
+            this.thread = thread;
+            this.startNanos = startNanos;
+            this.durationNanos = durationNanos;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.donasimakanan.util;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * TimeBuckets - Nomor bucket harian dan bulanan untuk tabel rollup.
+ * Hari dihitung sebagai epoch-day (jumlah hari sejak 1970-01-01) dan bulan sebagai epoch-month
+ * (jumlah bulan sejak Januari 1970), keduanya menurut tanggal lokal pada zona waktu yang diberikan.
+ *
+ * split() memecah rentang hari menjadi potongan hari di tepi dan bulan penuh di tengah,
+ * sehingga total rentang berapa pun cukup membaca paling banyak ~62 bucket harian ditambah bucket bulanan.
+ */
+public final class TimeBuckets {
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private TimeBuckets() {
+    }
+
+    /**
+     * Epoch-day dari tanggal lokal waktu tersebut
+     */
+    public static int epochDay(long millis, TimeZone zone) {
+        return (int) Math.floorDiv(millis + zone.getOffset(millis), MILLIS_PER_DAY);
+    }
+
+    /**
+     * Epoch-month dari tanggal lokal waktu tersebut
+     */
+    public static int epochMonth(long millis, TimeZone zone) {
+        return monthOfDay(epochDay(millis, zone));
+    }
+
+    /**
+     * Epoch-month yang memuat epoch-day tersebut
+     */
+    public static int monthOfDay(int epochDay) {
+        Calendar calendar = Calendar.getInstance(UTC);
+        calendar.setTimeInMillis(epochDay * MILLIS_PER_DAY);
+        return (calendar.get(Calendar.YEAR) - 1970) * 12 + calendar.get(Calendar.MONTH);
+    }
+
+    /**
+     * Epoch-day tanggal 1 pada epoch-month tersebut
+     */
+    public static int firstDayOfMonth(int epochMonth) {
+        Calendar calendar = Calendar.getInstance(UTC);
+        calendar.clear();
+        calendar.set(1970 + Math.floorDiv(epochMonth, 12), Math.floorMod(epochMonth, 12), 1);
+        return (int) Math.floorDiv(calendar.getTimeInMillis(), MILLIS_PER_DAY);
+    }
+
+    /**
+     * Awal hari (pukul 00:00 lokal) untuk epoch-day tersebut, untuk label di dashboard
+     */
+    public static long startOfDay(int epochDay, TimeZone zone) {
+        Calendar utc = Calendar.getInstance(UTC);
+        utc.setTimeInMillis(epochDay * MILLIS_PER_DAY);
+        Calendar local = Calendar.getInstance(zone);
+        local.clear();
+        local.set(utc.get(Calendar.YEAR), utc.get(Calendar.MONTH), utc.get(Calendar.DAY_OF_MONTH));
+        return local.getTimeInMillis();
+    }
+
+    /**
+     * Pecah rentang hari [fromDay, toDay] (inklusif) menjadi potongan yang tidak saling tumpang tindih:
+     * hari di awal rentang, bulan penuh di tengah, lalu hari di akhir rentang
+     */
+    public static List<Span> split(int fromDay, int toDay) {
+        if (fromDay > toDay) return Collections.emptyList();
+        int fromMonth = monthOfDay(fromDay);
+        int toMonth = monthOfDay(toDay);
+        // Bulan pertama dan terakhir yang seluruh harinya masuk rentang
+        int firstFull = firstDayOfMonth(fromMonth) == fromDay ? fromMonth : fromMonth + 1;
+        int lastFull = firstDayOfMonth(toMonth + 1) - 1 == toDay ? toMonth : toMonth - 1;
+
+        List<Span> spans = new ArrayList<>(3);
+        if (firstFull > lastFull) {
+            spans.add(new Span(false, fromDay, toDay));
+            return spans;
+        }
+        int fullStartDay = firstDayOfMonth(firstFull);
+        if (fromDay < fullStartDay) spans.add(new Span(false, fromDay, fullStartDay - 1));
+        spans.add(new Span(true, firstFull, lastFull));
+        int fullEndDay = firstDayOfMonth(lastFull + 1) - 1;
+        if (fullEndDay < toDay) spans.add(new Span(false, fullEndDay + 1, toDay));
+        return spans;
+    }
+
+    /**
+     * Rentang bucket inklusif, harian atau bulanan
+     */
+    public static final class Span {
+        private final boolean monthly;
+        private final int from;
+        private final int to;
+
+        Span(boolean monthly, int from, int to) {
+            this.monthly = monthly;
+            this.from = from;
+            this.to = to;
+        }
+
+        public boolean isMonthly() { return monthly; }
+        public int getFrom() { return from; }
+        public int getTo() { return to; }
+
+        @Override
+        public String toString() {
+            return (monthly ? "bulan " : "hari ") + from + ".." + to;
+        }
+    }
+}
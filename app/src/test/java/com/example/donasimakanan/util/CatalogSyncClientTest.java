@@ -0,0 +1,228 @@
+package com.example.donasimakanan.util;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Uji CatalogSyncClient terhadap server katalog lokal yang menyimpan versi per baris:
+ * sinkronisasi pertama mengambil semua halaman, delta berikutnya hanya baris yang berubah.
+ */
+public class CatalogSyncClientTest {
+
+    private static final int FOODS = 1_200;
+
+    private HttpServer server;
+    private URL endpoint;
+    // versi -> baris, setiap perubahan mendapat versi baru sehingga delta cukup membaca tailMap
+    private final TreeMap<Long, String[]> changes = new TreeMap<>();
+    private final Map<String, Long> versionById = new HashMap<>();
+    private long version;
+    private int requests;
+
+    @Before
+    public void setUp() throws IOException {
+        for (int r = 0; r < 10; r++) {
+            put("restaurant", "resto-" + r, "{\"restaurantId\":\"resto-" + r + "\",\"name\":\"Resto " + r
+                    + "\",\"address\":\"Jl. " + r + "\",\"latitude\":-7.7" + r + ",\"longitude\":110.3" + r + "}");
+        }
+        for (int f = 0; f < FOODS; f++) {
+            putFood(f, 50);
+        }
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/catalog", this::handle);
+        server.start();
+        endpoint = new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/catalog");
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void parsesNestedJson() {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> root = (Map<String, Object>) JsonParser.parse(
+                " {\"a\": [1, -2.5e1, true, null], \"b\": {\"c\": \"x\\\"y\\u0041\\n\"}, \"d\": []} ");
+        assertEquals(4, ((List<?>) root.get("a")).size());
+        assertEquals(1L, ((List<?>) root.get("a")).get(0));
+        assertEquals(-25.0, ((List<?>) root.get("a")).get(1));
+        assertEquals("x\"yA\n", ((Map<?, ?>) root.get("b")).get("c"));
+        assertTrue(((List<?>) root.get("d")).isEmpty());
+
+        for (String invalid : new String[]{"{", "[1,]", "{\"a\" 1}", "tru", "1 2"}) {
+            try {
+                JsonParser.parse(invalid);
+                throw new AssertionError("seharusnya gagal: " + invalid);
+            } catch (IllegalArgumentException expected) {
+                // ok
+            }
+        }
+    }
+
+    @Test
+    public void initialSyncPagesThroughWholeCatalog() throws IOException {
+        CatalogSyncClient client = new CatalogSyncClient(endpoint);
+        Set<String> foods = new HashSet<>();
+        int restaurants = 0;
+        String token = null;
+        CatalogSyncClient.Page page;
+        do {
+            page = client.fetch(token, 500);
+            restaurants += page.getRestaurants().size();
+            for (Map<String, Object> food : page.getFoods()) {
+                foods.add((String) food.get("foodId"));
+            }
+            token = page.getVersion();
+        } while (page.hasMore());
+
+        assertEquals(10, restaurants);
+        assertEquals(FOODS, foods.size());
+        assertEquals(3, requests);
+        assertEquals(String.valueOf(version), token);
+    }
+
+    @Test
+    public void deltaReturnsOnlyChangedRowsAndDeletions() throws IOException {
+        CatalogSyncClient client = new CatalogSyncClient(endpoint);
+        long fullBytes = 0;
+        String token = null;
+        CatalogSyncClient.Page page;
+        do {
+            page = client.fetch(token, 500);
+            fullBytes += page.getBytesTransferred();
+            token = page.getVersion();
+        } while (page.hasMore());
+
+        // Sepuluh stok berubah (satu makanan diubah dua kali), dua makanan dihapus
+        for (int f = 0; f < 10; f++) {
+            putFood(f * 7, 10 + f);
+        }
+        putFood(0, 1);
+        delete("food", "food-1000");
+        delete("food", "food-1001");
+
+        CatalogSyncClient.Page delta = client.fetch(token, 500);
+        assertEquals(10, delta.getFoods().size());
+        assertEquals(2, delta.getDeleted().size());
+        assertEquals("food", delta.getDeleted().get(0).getType());
+        assertTrue(!delta.hasMore());
+        // Perubahan terakhir yang menang: food-0 hanya muncul sekali dengan stok terbaru
+        for (Map<String, Object> food : delta.getFoods()) {
+            if ("food-0".equals(food.get("foodId"))) assertEquals(1L, food.get("stock"));
+        }
+        assertTrue(delta.getBytesTransferred() * 20 < fullBytes);
+
+        // Tanpa perubahan baru, delta kosong dan token tetap
+        CatalogSyncClient.Page empty = client.fetch(delta.getVersion(), 500);
+        assertEquals(0, empty.size());
+        assertEquals(delta.getVersion(), empty.getVersion());
+    }
+
+    @Test
+    public void httpErrorIsReportedAsIOException() throws IOException {
+        server.removeContext("/catalog");
+        server.createContext("/catalog", exchange -> {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        try {
+            new CatalogSyncClient(endpoint).fetch(null, 500);
+            throw new AssertionError("seharusnya gagal");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().contains("503"));
+        }
+    }
+
+    private void putFood(int index, int stock) {
+        put("food", "food-" + index, "{\"foodId\":\"food-" + index + "\",\"name\":\"Makanan " + index
+                + "\",\"description\":\"Menu harian nomor " + index + "\",\"stock\":" + stock
+                + ",\"price\":10000,\"point\":10,\"restaurantId\":\"resto-" + (index % 10) + "\"}");
+    }
+
+    private void put(String type, String id, String json) {
+        Long previous = versionById.put(id, ++version);
+        if (previous != null) changes.remove(previous);
+        changes.put(version, new String[]{type, id, json});
+    }
+
+    private void delete(String type, String id) {
+        put(type + "-deleted", id, null);
+    }
+
+    private synchronized void handle(HttpExchange exchange) throws IOException {
+        requests++;
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        for (String pair : query.split("&")) {
+            String[] parts = pair.split("=", 2);
+            params.put(parts[0], URLDecoder.decode(parts[1], "UTF-8"));
+        }
+        long since = params.containsKey("since") ? Long.parseLong(params.get("since")) : 0;
+        int limit = Integer.parseInt(params.get("limit"));
+
+        List<String> restaurants = new ArrayList<>();
+        List<String> foods = new ArrayList<>();
+        List<String> deleted = new ArrayList<>();
+        long lastVersion = since;
+        int count = 0;
+        for (Map.Entry<Long, String[]> change : changes.tailMap(since, false).entrySet()) {
+            if (count == limit) break;
+            String[] row = change.getValue();
+            if (row[0].endsWith("-deleted")) {
+                deleted.add("{\"type\":\"" + row[0].replace("-deleted", "") + "\",\"id\":\"" + row[1] + "\"}");
+            } else if (row[0].equals("restaurant")) {
+                restaurants.add(row[2]);
+            } else {
+                foods.add(row[2]);
+            }
+            lastVersion = change.getKey();
+            count++;
+        }
+        boolean hasMore = !changes.tailMap(lastVersion, false).isEmpty();
+        String body = "{\"version\":\"" + lastVersion + "\",\"hasMore\":" + hasMore
+                + ",\"restaurants\":[" + String.join(",", restaurants) + "]"
+                + ",\"foods\":[" + String.join(",", foods) + "]"
+                + ",\"rewards\":[],\"deleted\":[" + String.join(",", deleted) + "]}";
+
+        byte[] response = body.getBytes(StandardCharsets.UTF_8);
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+                gzip.write(response);
+            }
+            response = buffer.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.donasimakanan.util;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Uji ExportWriter: escaping CSV/JSON dan validasi jumlah kolom.
+ */
+public class ExportWriterTest {
+
+    private static final String[] COLUMNS = {"donationId", "donationDate", "foodName", "quantity", "description"};
+
+    @Test
+    public void csvQuotesOnlyWhenNeeded() throws IOException {
+        File file = File.createTempFile("export", ".csv");
+        try {
+            try (FileOutputStream out = new FileOutputStream(file); FileChannel channel = out.getChannel()) {
+                ExportWriter writer = new ExportWriter(channel, ExportWriter.Format.CSV, COLUMNS);
+                writeRow(writer, 1, "Nasi, Ayam", "kata \"enak\"\nbaris dua");
+                writeRow(writer, 2, "Soto", null);
+                writer.close();
+            }
+            String csv = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            assertEquals("donationId,donationDate,foodName,quantity,description\r\n"
+                    + "donation-1,1970-01-01T00:00:00.001Z,\"Nasi, Ayam\",2,\"kata \"\"enak\"\"\nbaris dua\"\r\n"
+                    + "donation-2,1970-01-01T00:00:00.002Z,Soto,3,\r\n", csv);
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void jsonIsValidAndRoundTrips() throws IOException {
+        File file = File.createTempFile("export", ".json");
+        try {
+            try (FileOutputStream out = new FileOutputStream(file); FileChannel channel = out.getChannel()) {
+                ExportWriter writer = new ExportWriter(channel, ExportWriter.Format.JSON, COLUMNS);
+                writeRow(writer, 1, "Es \"Teh\" \\ Manis", "tab\tdan\u0001kontrol");
+                writeRow(writer, 2, "Ketupat \u00e9\u4e2d", null);
+                writer.close();
+            }
+            String json = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            List<Object> rows = (List<Object>) JsonParser.parse(json);
+            assertEquals(2, rows.size());
+            Map<String, Object> first = (Map<String, Object>) rows.get(0);
+            assertEquals("Es \"Teh\" \\ Manis", first.get("foodName"));
+            assertEquals("tab\tdan\u0001kontrol", first.get("description"));
+            assertEquals(2L, first.get("quantity"));
+            Map<String, Object> second = (Map<String, Object>) rows.get(1);
+            assertEquals("Ketupat \u00e9\u4e2d", second.get("foodName"));
+            assertTrue(second.containsKey("description") && second.get("description") == null);
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+
+    @Test
+    public void emptyJsonExportIsEmptyArray() throws IOException {
+        File file = File.createTempFile("export", ".json");
+        try {
+            try (FileOutputStream out = new FileOutputStream(file); FileChannel channel = out.getChannel()) {
+                new ExportWriter(channel, ExportWriter.Format.JSON, COLUMNS).close();
+            }
+            assertTrue(((List<?>) JsonParser.parse(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8))).isEmpty());
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+
+    @Test
+    public void rejectsWrongColumnCount() throws IOException {
+        File file = File.createTempFile("export", ".csv");
+        try (FileOutputStream out = new FileOutputStream(file); FileChannel channel = out.getChannel()) {
+            ExportWriter writer = new ExportWriter(channel, ExportWriter.Format.CSV, COLUMNS);
+            writer.beginRow();
+            writer.value("hanya satu");
+            try {
+                writer.endRow();
+                throw new AssertionError("seharusnya gagal");
+            } catch (IllegalStateException expected) {
+                // ok
+            }
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+
+    private static void writeRow(ExportWriter writer, int i, String foodName, String description) throws IOException {
+        writer.beginRow();
+        writer.value("donation-" + i);
+        writer.value(new Date(i));
+        writer.value(foodName);
+        writer.value(1 + i % 5);
+        writer.value(description);
+        writer.endRow();
+    }
+}
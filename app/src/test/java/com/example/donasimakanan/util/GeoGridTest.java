@@ -0,0 +1,59 @@
+package com.example.donasimakanan.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Uji GeoGrid: cincin sel tidak tumpang tindih dan batas radius tidak pernah melewatkan titik terdekat.
+ */
+public class GeoGridTest {
+
+    @Test
+    public void ringsCoverBlockWithoutOverlap() {
+        Set<String> seen = new HashSet<>();
+        for (int ring = 0; ring <= 5; ring++) {
+            for (String cell : GeoGrid.ring(-7.78, 110.37, ring)) {
+                assertTrue("sel ganda: " + cell, seen.add(cell));
+            }
+            assertEquals((2 * ring + 1) * (2 * ring + 1), seen.size());
+        }
+    }
+
+    @Test
+    public void pointsOutsideRingAreFartherThanCoveredRadius() {
+        Random random = new Random(5);
+        double latitude = -7.78;
+        double longitude = 110.37;
+        for (int ring = 1; ring <= 4; ring++) {
+            Set<String> covered = new HashSet<>();
+            for (int r = 0; r <= ring; r++) {
+                covered.addAll(GeoGrid.ring(latitude, longitude, r));
+            }
+            double radius = GeoGrid.coveredRadiusKm(latitude, ring);
+            for (int i = 0; i < 5_000; i++) {
+                double lat = latitude + (random.nextDouble() - 0.5) * 2;
+                double lng = longitude + (random.nextDouble() - 0.5) * 2;
+                if (!covered.contains(GeoGrid.cellId(lat, lng))) {
+                    assertTrue(GeoGrid.distanceKm(latitude, longitude, lat, lng) >= radius);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void distanceMatchesKnownValue() {
+        // Malioboro ke Condongcatur, sekitar 5 km
+        double distance = GeoGrid.distanceKm(-7.7925, 110.3658, -7.7595, 110.3970);
+        assertTrue(distance > 4.5 && distance < 5.5);
+        List<String> self = new ArrayList<>(GeoGrid.ring(-7.7925, 110.3658, 0));
+        assertEquals(GeoGrid.cellId(-7.7925, 110.3658), self.get(0));
+    }
+}
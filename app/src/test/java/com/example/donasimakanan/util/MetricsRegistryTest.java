@@ -0,0 +1,173 @@
+package com.example.donasimakanan.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Uji LatencyHistogram dan MetricsRegistry: batas bucket, galat persentil, pencatatan paralel
+ * tanpa lock, pemisahan fase query dan commit, penghitungan error, serta format teks Prometheus.
+ */
+public class MetricsRegistryTest {
+
+    @Test
+    public void bucketsAreContiguousAndMonotonic() {
+        assertEquals(0, LatencyHistogram.bucketOf(0));
+        assertEquals(15, LatencyHistogram.bucketOf(15));
+        assertEquals(16, LatencyHistogram.bucketOf(16));
+        assertEquals(31, LatencyHistogram.bucketOf(31));
+        for (int bucket = 0; bucket < LatencyHistogram.BUCKET_COUNT - 1; bucket++) {
+            long low = LatencyHistogram.lowestEquivalentMicros(bucket);
+            long high = LatencyHistogram.highestEquivalentMicros(bucket);
+            assertEquals(bucket, LatencyHistogram.bucketOf(low));
+            assertEquals(bucket, LatencyHistogram.bucketOf(high));
+            assertEquals(high + 1, LatencyHistogram.lowestEquivalentMicros(bucket + 1));
+            // Lebar bucket paling besar 1/16 dari batas bawahnya
+            assertTrue(bucket + ": " + low + ".." + high, high - low + 1 <= Math.max(1, low / 16));
+        }
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE / 1_000));
+    }
+
+    @Test
+    public void quantilesStayWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Random random = new Random(7);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            // Sebaran log-normal kira-kira 50 us sampai beberapa puluh ms, mirip latensi query Realm
+            values[i] = (long) (Math.exp(12 + random.nextGaussian() * 1.5));
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        for (double quantile : new double[]{0.5, 0.9, 0.99, 0.999}) {
+            long exact = values[(int) Math.ceil(quantile * values.length) - 1];
+            long reported = histogram.getValueAtQuantile(quantile);
+            assertTrue(quantile + ": " + reported + " < " + exact, reported >= exact / 1_000 * 1_000);
+            assertTrue(quantile + ": " + reported + " vs " + exact, reported <= exact * 17 / 16 + 1_000);
+        }
+        assertEquals(values[values.length - 1], histogram.getMaxNanos());
+        assertEquals(values[values.length - 1], histogram.getValueAtQuantile(1.0));
+        assertEquals(values.length, histogram.getCount());
+    }
+
+    @Test
+    public void concurrentRecordingLosesNothing() throws InterruptedException {
+        MetricsRegistry registry = new MetricsRegistry(System::nanoTime);
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            final int offset = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    registry.operation("Op" + (i % 4)).record(MetricsRegistry.Phase.QUERY, (i + offset) * 1_000L);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) thread.join();
+        long total = 0;
+        for (MetricsRegistry.Operation operation : registry.getOperations()) {
+            total += operation.getHistogram(MetricsRegistry.Phase.QUERY).getCount();
+        }
+        assertEquals(8 * 50_000, total);
+        assertEquals(4, registry.getOperations().size());
+        assertEquals((49_999 + 7) * 1_000L,
+                registry.operation("Op3").getHistogram(MetricsRegistry.Phase.QUERY).getMaxNanos());
+    }
+
+    @Test
+    public void timerSeparatesQueryFromCommit() {
+        AtomicLong clock = new AtomicLong();
+        MetricsRegistry registry = new MetricsRegistry(clock::get);
+        try (MetricsRegistry.Timer timer = registry.time("DonationManager.addDonation")) {
+            clock.addAndGet(3_000_000);
+            timer.beginCommit();
+            clock.addAndGet(8_000_000);
+            timer.endCommit();
+            clock.addAndGet(1_000_000);
+        }
+        try (MetricsRegistry.Timer timer = registry.time("UserManager.getUserByEmail")) {
+            clock.addAndGet(200_000);
+            timer.failed();
+        }
+
+        MetricsRegistry.Operation donation = registry.operation("DonationManager.addDonation");
+        assertEquals(4_000_000, donation.getHistogram(MetricsRegistry.Phase.QUERY).getSumNanos());
+        assertEquals(8_000_000, donation.getHistogram(MetricsRegistry.Phase.COMMIT).getSumNanos());
+        assertNull(donation.getHistogram(MetricsRegistry.Phase.ASYNC_TOTAL));
+
+        MetricsRegistry.Operation lookup = registry.operation("UserManager.getUserByEmail");
+        assertEquals(1, lookup.getErrorCount());
+        assertEquals(1, lookup.getHistogram(MetricsRegistry.Phase.QUERY).getCount());
+        assertNull(lookup.getHistogram(MetricsRegistry.Phase.COMMIT));
+
+        long submitted = registry.now();
+        clock.addAndGet(25_000_000);
+        registry.operation("RewardManager.redeemRewardAsync").recordSince(MetricsRegistry.Phase.ASYNC_TOTAL, submitted);
+        assertEquals(25_000_000, registry.operation("RewardManager.redeemRewardAsync")
+                .getHistogram(MetricsRegistry.Phase.ASYNC_TOTAL).getMaxNanos());
+    }
+
+    @Test
+    public void timedSupplierCountsFailuresAndRethrows() {
+        AtomicLong clock = new AtomicLong();
+        MetricsRegistry registry = new MetricsRegistry(clock::get);
+        assertEquals("ok", registry.time("SearchManager.search", () -> {
+            clock.addAndGet(1_000_000);
+            return "ok";
+        }));
+        IllegalStateException thrown = new IllegalStateException("Stok hadiah habis.");
+        try {
+            registry.time("SearchManager.search", () -> {
+                clock.addAndGet(2_000_000);
+                throw thrown;
+            });
+            fail();
+        } catch (IllegalStateException e) {
+            assertSame(thrown, e);
+        }
+
+        MetricsRegistry.Operation search = registry.operation("SearchManager.search");
+        assertEquals(1, search.getErrorCount());
+        assertEquals(2, search.getHistogram(MetricsRegistry.Phase.QUERY).getCount());
+        assertEquals(3_000_000, search.getHistogram(MetricsRegistry.Phase.QUERY).getSumNanos());
+    }
+
+    @Test
+    public void prometheusTextHasSummaryPerPhase() {
+        AtomicLong clock = new AtomicLong();
+        MetricsRegistry registry = new MetricsRegistry(clock::get);
+        try (MetricsRegistry.Timer timer = registry.time("FoodManager.decreaseStock")) {
+            clock.addAndGet(2_000_000);
+            timer.commit(() -> clock.addAndGet(5_000_000));
+        }
+        String text = registry.toPrometheusText();
+        assertTrue(text, text.startsWith("# HELP donasi_manager_operation_seconds "));
+        assertTrue(text, text.contains("# TYPE donasi_manager_operation_seconds summary\n"));
+        assertTrue(text, text.contains(
+                "donasi_manager_operation_seconds{op=\"FoodManager.decreaseStock\",phase=\"query\",quantile=\"0.5\"} 0.002000\n"));
+        assertTrue(text, text.contains(
+                "donasi_manager_operation_seconds{op=\"FoodManager.decreaseStock\",phase=\"commit\",quantile=\"0.99\"} 0.005000\n"));
+        assertTrue(text, text.contains(
+                "donasi_manager_operation_seconds_count{op=\"FoodManager.decreaseStock\",phase=\"commit\"} 1\n"));
+        assertTrue(text, text.contains(
+                "donasi_manager_operation_seconds_sum{op=\"FoodManager.decreaseStock\",phase=\"query\"} 0.002000\n"));
+        assertTrue(text, text.contains("donasi_manager_operation_errors_total{op=\"FoodManager.decreaseStock\"} 0\n"));
+        // Setiap baris sampel berformat nama{label} nilai
+        for (String line : text.split("\n")) {
+            if (line.startsWith("#")) continue;
+            assertTrue(line, line.matches("[a-z_]+\\{[^}]*\\} [0-9.]+"));
+        }
+
+        registry.reset();
+        assertTrue(registry.toPrometheusText().contains(
+                "donasi_manager_operation_seconds_count{op=\"FoodManager.decreaseStock\",phase=\"query\"} 0\n"));
+    }
+}
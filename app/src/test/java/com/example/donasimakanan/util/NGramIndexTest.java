@@ -0,0 +1,83 @@
+package com.example.donasimakanan.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Uji kebenaran NGramIndex terhadap pencocokan string biasa.
+ */
+public class NGramIndexTest {
+
+    private static final String[] WORDS = {
+            "nasi", "ayam", "bakar", "goreng", "telur", "tempe", "sayur", "soto", "bakso", "mie",
+            "roti", "donat", "cokelat", "keju", "salad", "buah", "sambal", "madu", "kuning", "komplit",
+            "warung", "dapur", "restoran", "bakery", "berkah", "sehat", "ibu", "jl.", "malioboro", "gejayan"
+    };
+
+    @Test
+    public void matchesSubstringScan() {
+        Random random = new Random(3);
+        NGramIndex<String> index = new NGramIndex<>();
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            String text = randomText(random);
+            texts.add(text);
+            index.put("doc-" + i, text, "doc-" + i);
+        }
+        // Sebagian dokumen diganti dan dihapus untuk menguji pembaruan posting list
+        for (int i = 0; i < 2_000; i += 7) {
+            String text = randomText(random);
+            texts.set(i, text);
+            index.put("doc-" + i, text, "doc-" + i);
+        }
+        for (int i = 3; i < 2_000; i += 11) {
+            texts.set(i, null);
+            index.remove("doc-" + i);
+        }
+
+        for (String query : new String[]{"n", "na", "ng", "ayam bakar", "goreng", "ROTI", "  sayur  ", "xyz", "ing"}) {
+            HashSet<String> expected = new HashSet<>();
+            String needle = query.trim().toLowerCase(Locale.ROOT);
+            for (int i = 0; i < texts.size(); i++) {
+                if (texts.get(i) != null && matches(texts.get(i), needle)) expected.add("doc-" + i);
+            }
+            assertEquals(query, expected, new HashSet<>(index.search(query, Integer.MAX_VALUE)));
+        }
+    }
+
+    @Test
+    public void prefixMatchesComeFirst() {
+        NGramIndex<String> index = new NGramIndex<>();
+        index.put("a", "Warung Nasi Ibu", "a");
+        index.put("b", "Nasi Kuning Komplit", "b");
+        assertEquals(Arrays.asList("b", "a"), index.search("nasi", 10));
+    }
+
+    // Query pendek hanya dicocokkan ke awal kata, query lainnya ke substring mana pun
+    private static boolean matches(String text, String query) {
+        if (query.length() >= 3) return text.contains(query);
+        for (String word : text.split(" ")) {
+            if (word.startsWith(query)) return true;
+        }
+        return false;
+    }
+
+    
+    private static String randomText(Random random) {
+        StringBuilder builder = new StringBuilder();
+        int words = 4 + random.nextInt(8);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) builder.append(' ');
+            builder.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.donasimakanan.util;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Uji OutboxSender terhadap server HTTP lokal: format batch, klasifikasi status, pembagian batch yang ditolak, backoff,
+ * dan pengosongan backlog 10.000 entri dengan kegagalan sementara di tengah jalan.
+ */
+public class OutboxSenderTest {
+
+    private static final Pattern ENTRY_ID = Pattern.compile("\\{\"id\":\"([^\"]+)\"");
+
+    private HttpServer server;
+    private URL endpoint;
+    // Status yang dikembalikan server untuk request berikutnya; 0 berarti terima dan catat entri
+    private final AtomicInteger nextStatus = new AtomicInteger();
+    private final Set<String> received = ConcurrentHashMap.newKeySet();
+    // Entri yang selalu ditolak server dengan 422
+    private final Set<String> malformed = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicLong compressedBytes = new AtomicLong();
+    private final AtomicLong rawBytes = new AtomicLong();
+    private final AtomicReference<String> lastIdempotencyKey = new AtomicReference<>();
+    private final AtomicReference<String> lastContentEncoding = new AtomicReference<>();
+    private final AtomicReference<String> lastBody = new AtomicReference<>();
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/outbox", exchange -> {
+            requests.incrementAndGet();
+            byte[] compressed = readAll(exchange.getRequestBody());
+            compressedBytes.addAndGet(compressed.length);
+            lastIdempotencyKey.set(exchange.getRequestHeaders().getFirst("Idempotency-Key"));
+            // Assertion di thread handler hanya memutus exchange, jadi header diperiksa di thread test
+            lastContentEncoding.set(exchange.getRequestHeaders().getFirst("Content-Encoding"));
+
+            int status = nextStatus.getAndSet(0);
+            if (status == 0) {
+                byte[] raw = readAll(new GZIPInputStream(new ByteArrayInputStream(compressed)));
+                rawBytes.addAndGet(raw.length);
+                String body = new String(raw, StandardCharsets.UTF_8);
+                lastBody.set(body);
+                List<String> ids = new ArrayList<>();
+                Matcher matcher = ENTRY_ID.matcher(body);
+                while (matcher.find()) {
+                    ids.add(matcher.group(1));
+                }
+                // Batch yang memuat entri rusak ditolak utuh, seperti validasi server yang sebenarnya
+                if (Collections.disjoint(ids, malformed)) {
+                    received.addAll(ids);
+                    status = 200;
+                } else {
+                    status = 422;
+                }
+            }
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+        endpoint = new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/outbox");
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void deliversGzipBatchWithIdempotencyKey() {
+        List<OutboxSender.Item> items = items(0, 3);
+        assertEquals(OutboxSender.Result.DELIVERED, new OutboxSender(endpoint).send(items));
+        assertEquals(3, received.size());
+        assertEquals(OutboxSender.batchKey(items), lastIdempotencyKey.get());
+        assertEquals("gzip", lastContentEncoding.get());
+        assertTrue(lastBody.get().startsWith("{\"entries\":[{\"id\":\"entry-0\",\"type\":\"donation\",\"payload\":{"));
+    }
+
+    @Test
+    public void batchKeyIsStableForSameEntries() {
+        assertEquals(OutboxSender.batchKey(items(0, 5)), OutboxSender.batchKey(items(0, 5)));
+        assertTrue(!OutboxSender.batchKey(items(0, 5)).equals(OutboxSender.batchKey(items(1, 5))));
+    }
+
+    @Test
+    public void classifiesResponses() throws IOException {
+        OutboxSender sender = new OutboxSender(endpoint);
+        int[][] cases = {{503, 1}, {500, 1}, {429, 1}, {408, 1}, {400, 2}, {422, 2}};
+        for (int[] c : cases) {
+            nextStatus.set(c[0]);
+            OutboxSender.Result expected = c[1] == 1 ? OutboxSender.Result.RETRY : OutboxSender.Result.REJECTED;
+            assertEquals("status " + c[0], expected, sender.send(items(0, 1)));
+        }
+        assertTrue(received.isEmpty());
+
+        // Port yang tidak didengarkan: gagal koneksi dianggap sementara
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        OutboxSender unreachable = new OutboxSender(new URL("http://127.0.0.1:" + closedPort + "/outbox"));
+        assertEquals(OutboxSender.Result.RETRY, unreachable.send(items(0, 1)));
+    }
+
+    @Test
+    public void rejectedBatchIsBisectedDownToTheMalformedEntry() {
+        List<OutboxSender.Item> batch = items(0, 200);
+        malformed.add("entry-137");
+
+        OutboxSender.Delivery delivery = new OutboxSender(endpoint).deliver(batch);
+
+        assertEquals(1, delivery.getRejected().size());
+        assertEquals("entry-137", delivery.getRejected().get(0).getId());
+        assertEquals(199, delivery.getDelivered().size());
+        assertFalse(delivery.needsRetry());
+        assertEquals(199, received.size());
+        assertFalse(received.contains("entry-137"));
+        // Satu entri rusak: dua request per tingkat pembagian, bukan satu request per entri
+        assertTrue("request " + requests.get(), requests.get() <= 1 + 2 * 8);
+    }
+
+    @Test
+    public void retryLeavesBatchPending() {
+        List<OutboxSender.Item> batch = items(0, 8);
+        malformed.add("entry-1");
+        nextStatus.set(503);
+
+        OutboxSender.Delivery delivery = new OutboxSender(endpoint).deliver(batch);
+
+        // Gagal sementara tidak boleh memarkir apa pun, termasuk entri yang nanti ditolak
+        assertTrue(delivery.needsRetry());
+        assertEquals(8, delivery.getPending().size());
+        assertTrue(delivery.getDelivered().isEmpty());
+        assertTrue(delivery.getRejected().isEmpty());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void backoffGrowsExponentiallyAndIsCapped() {
+        Random random = new Random(1);
+        for (int attempt = 1; attempt <= 20; attempt++) {
+            long ceiling = Math.min(60_000, 1_000L << (attempt - 1));
+            long delay = OutboxSender.backoffMillis(attempt, 1_000, 60_000, random);
+            assertTrue("percobaan " + attempt + ": " + delay, delay >= ceiling / 2 && delay <= ceiling);
+        }
+    }
+
+    @Test
+    public void drainsTenThousandEntryBacklog() {
+        int backlog = 10_000;
+        int batchSize = 200;
+        OutboxSender sender = new OutboxSender(endpoint);
+        int retries = 0;
+
+        for (int offset = 0; offset < backlog; offset += batchSize) {
+            List<OutboxSender.Item> batch = items(offset, batchSize);
+            // Setiap batch ke-7 gagal sementara sekali, lalu dikirim ulang dengan key yang sama
+            if ((offset / batchSize) % 7 == 3) nextStatus.set(503);
+            OutboxSender.Result result;
+            while ((result = sender.send(batch)) == OutboxSender.Result.RETRY) {
+                retries++;
+            }
+            assertEquals(OutboxSender.Result.DELIVERED, result);
+        }
+
+        assertEquals(backlog, received.size());
+        assertEquals(backlog / batchSize + retries, requests.get());
+        assertTrue(rawBytes.get() + " -> " + compressedBytes.get(), compressedBytes.get() < rawBytes.get());
+    }
+
+    private static List<OutboxSender.Item> items(int from, int count) {
+        List<OutboxSender.Item> items = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) {
+            String payload = "{\"donationId\":\"donation-" + i + "\",\"userId\":\"user-" + (i % 50)
+                    + "\",\"restaurantId\":\"resto-" + (i % 10) + "\",\"foodName\":\"Nasi \\\"Spesial\\\"\","
+                    + "\"quantity\":" + (1 + i % 5) + ",\"donationDate\":" + (1_700_000_000_000L + i) + "}";
+            items.add(new OutboxSender.Item("entry-" + i, "donation", payload));
+        }
+        return items;
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
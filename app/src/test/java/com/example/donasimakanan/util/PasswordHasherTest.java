@@ -0,0 +1,83 @@
+package com.example.donasimakanan.util;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Uji Pbkdf2PasswordHasher: kecocokan dengan PBKDF2 bawaan JDK, verifikasi hash lama,
+ * dan penolakan hash yang rusak.
+ */
+public class PasswordHasherTest {
+
+    @Test
+    public void deriveMatchesJdkPbkdf2() throws Exception {
+        SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
+        byte[] salt = "garam-acak-16byt".getBytes(StandardCharsets.UTF_8);
+        for (String password : new String[]{"password", "p\u00e4ssw\u00f6rd \u4e2d", "x"}) {
+            for (int iterations : new int[]{1, 2, 1_000}) {
+                byte[] expected = factory.generateSecret(
+                        new PBEKeySpec(password.toCharArray(), salt, iterations, 256)).getEncoded();
+                assertArrayEquals(password + "/" + iterations, expected,
+                        Pbkdf2PasswordHasher.derive(password, salt, iterations));
+            }
+        }
+    }
+
+    @Test
+    public void hashRoundTripsWithRandomSalt() {
+        Pbkdf2PasswordHasher hasher = new Pbkdf2PasswordHasher(1_000);
+        String first = hasher.hash("rahasia123");
+        String second = hasher.hash("rahasia123");
+        assertTrue(first.startsWith("pbkdf2_sha256$1000$"));
+        assertNotEquals(first, second);
+        assertTrue(hasher.verify("rahasia123", first));
+        assertTrue(hasher.verify("rahasia123", second));
+        assertFalse(hasher.verify("rahasia124", first));
+        assertFalse(hasher.needsRehash(first));
+        // Cost yang lebih tinggi membuat hash lama perlu di-hash ulang, tetapi tetap bisa diverifikasi
+        Pbkdf2PasswordHasher stronger = new Pbkdf2PasswordHasher(2_000);
+        assertTrue(stronger.needsRehash(first));
+        assertTrue(stronger.verify("rahasia123", first));
+    }
+
+    @Test
+    public void legacySha256HashVerifiesAndNeedsRehash() throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest("password".getBytes(StandardCharsets.UTF_8));
+        String legacy = Pbkdf2PasswordHasher.toHex(digest);
+        assertEquals("5e884898da28047151d0e56f8dc6292773603d0d6aabbdd62a11ef721d1542d8", legacy);
+
+        Pbkdf2PasswordHasher hasher = new Pbkdf2PasswordHasher(1_000);
+        assertTrue(hasher.verify("password", legacy));
+        assertFalse(hasher.verify("Password", legacy));
+        assertTrue(hasher.needsRehash(legacy));
+    }
+
+    @Test
+    public void rejectsMalformedHashes() {
+        Pbkdf2PasswordHasher hasher = new Pbkdf2PasswordHasher(1_000);
+        for (String stored : Arrays.asList("", "plaintext", "pbkdf2_sha256$abc$00$00", "pbkdf2_sha256$1000$zz$00",
+                "pbkdf2_sha256$0$00$00", "md5$1000$00$00", null)) {
+            assertFalse(String.valueOf(stored), hasher.verify("password", stored));
+        }
+        assertFalse(hasher.verify(null, hasher.hash("password")));
+        // Password kosong tetap bisa di-hash walaupun SecretKeySpec menolak key kosong
+        assertTrue(hasher.verify("", hasher.hash("")));
+    }
+
+    @Test
+    public void defaultCostIsNotBelowMinimum() {
+        assertTrue(Pbkdf2PasswordHasher.DEFAULT_ITERATIONS >= Pbkdf2PasswordHasher.MIN_ITERATIONS);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.donasimakanan.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Uji kebenaran RankingIndex terhadap pengurutan penuh.
+ */
+public class RankingIndexTest {
+
+    @Test
+    public void matchesFullSort() {
+        Random random = new Random(42);
+        RankingIndex index = new RankingIndex();
+        Map<String, Long> scores = new HashMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            String id = "user-" + random.nextInt(1_000);
+            long score = random.nextInt(500);
+            index.update(id, score);
+            scores.put(id, score);
+            if (i % 50 == 0) {
+                String removed = "user-" + random.nextInt(1_000);
+                index.remove(removed);
+                scores.remove(removed);
+            }
+        }
+
+        List<String> expected = sortedIds(scores);
+        assertEquals(expected.size(), index.size());
+        List<RankingIndex.Entry> top = index.top(expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), top.get(i).getId());
+            assertEquals(i + 1, index.rankOf(expected.get(i)));
+        }
+        assertEquals(-1, index.rankOf("tidak-ada"));
+    }
+
+    
+    private static List<String> sortedIds(Map<String, Long> scores) {
+        List<String> ids = new ArrayList<>(scores.keySet());
+        ids.sort((a, b) -> {
+            int cmp = Long.compare(scores.get(b), scores.get(a));
+            return cmp != 0 ? cmp : a.compareTo(b);
+        });
+        return ids;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.donasimakanan.util;
+
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Uji StartupTimeline: waktu relatif terhadap awal proses, penanda, batas jumlah event,
+ * dan keluaran JSON Trace Event Format.
+ */
+public class StartupTimelineTest {
+
+    private final AtomicLong clock = new AtomicLong(5_000_000_000L);
+    // Proses dimulai 200 ms sebelum nilai clock awal
+    private final StartupTimeline timeline = new StartupTimeline(clock::get, 5_000_000_000L - 200_000_000L);
+
+    @Test
+    public void sectionsAndMarksAreRelativeToProcessStart() {
+        StartupTimeline.Section outer = timeline.begin("Application.onCreate");
+        clock.addAndGet(3_000_000L);
+        StartupTimeline.Section inner = timeline.begin("initializeRealm");
+        clock.addAndGet(12_500_000L);
+        inner.close();
+        outer.close();
+        clock.addAndGet(400_000_000L);
+        timeline.mark("HomeFragment.firstFrame");
+
+        assertEquals(200, timeline.sectionStartMillis("Application.onCreate"));
+        assertEquals(203, timeline.sectionStartMillis("initializeRealm"));
+        assertEquals(615, timeline.markMillis("HomeFragment.firstFrame"));
+        assertEquals(-1, timeline.markMillis("initializeRealm"));
+        assertEquals(-1, timeline.sectionStartMillis("tidakAda"));
+        assertEquals(12, timeline.sectionDurationMillis("initializeRealm"));
+        assertEquals(15, timeline.sectionDurationMillis("Application.onCreate"));
+        assertEquals(-1, timeline.sectionDurationMillis("HomeFragment.firstFrame"));
+
+        String json = timeline.toJson(42, new LinkedHashMap<>());
+        // Section dalam ditutup lebih dulu sehingga tercatat lebih dulu
+        assertTrue(json, json.contains("{\"name\":\"initializeRealm\",\"ph\":\"X\",\"ts\":203000,\"dur\":12500,\"pid\":42"));
+        assertTrue(json, json.contains("{\"name\":\"Application.onCreate\",\"ph\":\"X\",\"ts\":200000,\"dur\":15500,"));
+        assertTrue(json, json.contains("{\"name\":\"HomeFragment.firstFrame\",\"ph\":\"i\",\"ts\":615500,\"s\":\"g\""));
+        assertTrue(json.indexOf("initializeRealm") < json.indexOf("Application.onCreate"));
+    }
+
+    @Test
+    public void finishStopsRecordingOnce() {
+        timeline.mark("pertama");
+        StartupTimeline.Section open = timeline.begin("terlambat");
+        assertTrue(timeline.finish());
+        assertFalse(timeline.finish());
+        assertTrue(timeline.isFinished());
+        open.close();
+        timeline.mark("kedua");
+        assertEquals(200, timeline.markMillis("pertama"));
+        assertEquals(-1, timeline.markMillis("kedua"));
+        assertEquals(-1, timeline.sectionStartMillis("terlambat"));
+    }
+
+    @Test
+    public void eventsBeyondLimitAreCountedAsDropped() {
+        for (int i = 0; i < StartupTimeline.MAX_EVENTS + 7; i++) {
+            timeline.mark("m" + i);
+        }
+        String json = timeline.toJson(1, new LinkedHashMap<>());
+        assertTrue(json.contains("\"droppedEvents\":7"));
+        assertEquals(StartupTimeline.MAX_EVENTS, count(json, "\"ph\":\"i\""));
+    }
+
+    @Test
+    public void jsonEscapesNamesAndWritesSummary() {
+        timeline.mark("kutip \" garing \\ baris\nbaru");
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("device", "Pixel \"7\"");
+        summary.put("sdk", 34);
+        summary.put("homeFirstFrameMillis", 615L);
+        String json = timeline.toJson(7, summary);
+        assertTrue(json, json.startsWith("{\"displayTimeUnit\":\"ms\",\"launch\":{\"device\":\"Pixel \\\"7\\\"\","
+                + "\"sdk\":34,\"homeFirstFrameMillis\":615,\"droppedEvents\":0},\"traceEvents\":["));
+        assertTrue(json, json.contains("\"name\":\"kutip \\\" garing \\\\ baris\\u000abaru\""));
+        assertTrue(json.trim().endsWith("]}"));
+    }
+
+    @Test
+    public void sectionsFromSeveralThreadsAreAllRecorded() throws InterruptedException {
+        StartupTimeline real = new StartupTimeline(System::nanoTime, System.nanoTime());
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 50; i++) {
+                    StartupTimeline.Section section = real.begin("kerja");
+                    Thread.yield();
+                    section.close();
+                }
+            }, "pekerja-" + t);
+            threads[t].start();
+        }
+        for (Thread thread : threads) thread.join();
+        String json = real.toJson(1, new LinkedHashMap<>());
+        assertEquals(400, count(json, "\"name\":\"kerja\""));
+        assertTrue(json.contains("\"tid\":\"pekerja-7\""));
+    }
+
+    private static int count(String text, String needle) {
+        int count = 0;
+        for (int i = text.indexOf(needle); i >= 0; i = text.indexOf(needle, i + 1)) count++;
+        return count;
+    }
+}
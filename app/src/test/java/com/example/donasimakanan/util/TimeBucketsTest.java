@@ -0,0 +1,121 @@
+package com.example.donasimakanan.util;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Uji TimeBuckets: nomor bucket per tanggal lokal, dan pemecahan rentang menjadi bucket harian
+ * dan bulanan yang menghasilkan total sama dengan menjumlahkan setiap hari.
+ */
+public class TimeBucketsTest {
+
+    private static final TimeZone JAKARTA = TimeZone.getTimeZone("Asia/Jakarta");
+
+    @Test
+    public void epochDayFollowsLocalDate() {
+        // 2024-03-01 00:30 WIB masih 2024-02-29 di UTC
+        long millis = localMillis(2024, Calendar.MARCH, 1, 0, 30);
+        assertEquals(epochDayOf(2024, Calendar.MARCH, 1), TimeBuckets.epochDay(millis, JAKARTA));
+        assertEquals(epochDayOf(2024, Calendar.FEBRUARY, 29), TimeBuckets.epochDay(millis, TimeZone.getTimeZone("UTC")));
+        assertEquals((2024 - 1970) * 12 + 2, TimeBuckets.epochMonth(millis, JAKARTA));
+        assertEquals(-1, TimeBuckets.epochDay(-1, TimeZone.getTimeZone("UTC")));
+    }
+
+    @Test
+    public void monthAndDayConversionsAgree() {
+        for (int month = -24; month < 12 * 100; month++) {
+            int first = TimeBuckets.firstDayOfMonth(month);
+            assertEquals(month, TimeBuckets.monthOfDay(first));
+            assertEquals(month - 1, TimeBuckets.monthOfDay(first - 1));
+        }
+        int day = epochDayOf(2025, Calendar.AUGUST, 17);
+        assertEquals(localMillis(2025, Calendar.AUGUST, 17, 0, 0), TimeBuckets.startOfDay(day, JAKARTA));
+    }
+
+    @Test
+    public void splitUsesFullMonthsInTheMiddle() {
+        // 15 Jan - 10 Apr 2024: 17 hari Januari, Februari-Maret penuh, 10 hari April
+        List<TimeBuckets.Span> spans = TimeBuckets.split(
+                epochDayOf(2024, Calendar.JANUARY, 15), epochDayOf(2024, Calendar.APRIL, 10));
+        assertEquals(3, spans.size());
+        assertSpan(spans.get(0), false, epochDayOf(2024, Calendar.JANUARY, 15), epochDayOf(2024, Calendar.JANUARY, 31));
+        assertSpan(spans.get(1), true, (2024 - 1970) * 12 + 1, (2024 - 1970) * 12 + 2);
+        assertSpan(spans.get(2), false, epochDayOf(2024, Calendar.APRIL, 1), epochDayOf(2024, Calendar.APRIL, 10));
+
+        // Satu bulan penuh persis
+        spans = TimeBuckets.split(epochDayOf(2024, Calendar.FEBRUARY, 1), epochDayOf(2024, Calendar.FEBRUARY, 29));
+        assertEquals(1, spans.size());
+        assertTrue(spans.get(0).isMonthly());
+
+        // Di dalam satu bulan hanya bucket harian
+        spans = TimeBuckets.split(epochDayOf(2024, Calendar.MAY, 2), epochDayOf(2024, Calendar.MAY, 30));
+        assertEquals(1, spans.size());
+        assertSpan(spans.get(0), false, epochDayOf(2024, Calendar.MAY, 2), epochDayOf(2024, Calendar.MAY, 30));
+
+        assertTrue(TimeBuckets.split(10, 9).isEmpty());
+    }
+
+    @Test
+    public void splitTotalsMatchDailySum() {
+        // Data acak per hari selama ~6 tahun, rollup bulanan dibangun dari data yang sama
+        Random random = new Random(42);
+        int firstDay = epochDayOf(2020, Calendar.JANUARY, 1);
+        int days = 6 * 366;
+        long[] daily = new long[days];
+        Map<Integer, Long> monthly = new HashMap<>();
+        for (int i = 0; i < days; i++) {
+            daily[i] = random.nextInt(1_000);
+            monthly.merge(TimeBuckets.monthOfDay(firstDay + i), daily[i], Long::sum);
+        }
+
+        int maxBuckets = 0;
+        for (int trial = 0; trial < 2_000; trial++) {
+            int from = firstDay + random.nextInt(days);
+            int to = from + random.nextInt(firstDay + days - from);
+            long expected = 0;
+            for (int day = from; day <= to; day++) expected += daily[day - firstDay];
+
+            long actual = 0;
+            int buckets = 0;
+            for (TimeBuckets.Span span : TimeBuckets.split(from, to)) {
+                for (int bucket = span.getFrom(); bucket <= span.getTo(); bucket++) {
+                    actual += span.isMonthly() ? monthly.getOrDefault(bucket, 0L) : daily[bucket - firstDay];
+                    buckets++;
+                }
+            }
+            assertEquals("rentang " + from + ".." + to, expected, actual);
+            maxBuckets = Math.max(maxBuckets, buckets);
+        }
+        // Rentang ~6 tahun cukup dibaca dari paling banyak 2 x 30 hari + 72 bulan
+        assertTrue("bucket terbanyak " + maxBuckets, maxBuckets <= 62 + 72);
+    }
+
+    private static void assertSpan(TimeBuckets.Span span, boolean monthly, int from, int to) {
+        assertEquals(monthly, span.isMonthly());
+        assertEquals(from, span.getFrom());
+        assertEquals(to, span.getTo());
+    }
+
+    private static int epochDayOf(int year, int month, int day) {
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        calendar.clear();
+        calendar.set(year, month, day);
+        return (int) (calendar.getTimeInMillis() / (24L * 60 * 60 * 1000));
+    }
+
+    private static long localMillis(int year, int month, int day, int hour, int minute) {
+        Calendar calendar = Calendar.getInstance(JAKARTA);
+        calendar.clear();
+        calendar.set(year, month, day, hour, minute);
+        return calendar.getTimeInMillis();
+    }
+}